@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.benchmark;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import co.aurasphere.algo.FitnessFunction;
+
+/**
+ * Sphere function with a configurable extra cost, used to benchmark the
+ * optimizers with both cheap and expensive fitness functions. The fitness is
+ * the negated squared distance from the point where all the coordinates are
+ * 0.5, which is in the middle of the default search space.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class BenchmarkFitnessFunction implements FitnessFunction {
+
+	/**
+	 * Amount of extra work done on each evaluation, in
+	 * {@link Blackhole#consumeCPU(long)} tokens.
+	 */
+	private final long cost;
+
+	/**
+	 * Instantiates a new BenchmarkFitnessFunction.
+	 *
+	 * @param cost
+	 *            the {@link #cost}
+	 */
+	public BenchmarkFitnessFunction(long cost) {
+		this.cost = cost;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.FitnessFunction#getFitness(double[])
+	 */
+	@Override
+	public double getFitness(double[] variables) {
+		if (cost > 0) {
+			Blackhole.consumeCPU(cost);
+		}
+		double sum = 0;
+		for (double variable : variables) {
+			double delta = variable - 0.5;
+			sum += delta * delta;
+		}
+		return -sum;
+	}
+
+}
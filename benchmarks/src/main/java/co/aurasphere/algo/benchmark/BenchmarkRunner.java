@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Runs all the benchmarks with the GC
+ * profiler, to measure the allocation rate, and saves the results as JSON in
+ * <code>benchmark-results.json</code> so that they can be compared between
+ * releases. On Java 17 or later, the forked JVMs get the
+ * <code>jdk.incubator.vector</code> module so that the vectorized particle
+ * update kernel can be measured. The forks, warmup and measurement iterations
+ * are set on each benchmark. Any standard JMH command line option passed as argument
+ * overrides these settings, for example a regular expression to select the
+ * benchmarks to run.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args
+	 *            JMH command line options
+	 * @throws RunnerException
+	 *             if an error occurs while running the benchmarks
+	 * @throws CommandLineOptionException
+	 *             if the command line options are not valid
+	 */
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+		if (commandLine.getIncludes().isEmpty()) {
+			options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+		}
+		if (commandLine.getProfilers().isEmpty()) {
+			options.addProfiler(GCProfiler.class);
+		}
+		if (!commandLine.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLine.getResult().hasValue()) {
+			options.result("benchmark-results.json");
+		}
+		if (!commandLine.getJvmArgsAppend().hasValue() && isVectorApiSupported()) {
+			options.jvmArgsAppend("--add-modules=jdk.incubator.vector");
+		}
+		new Runner(options.build()).run();
+	}
+
+	/**
+	 * Checks if the current runtime supports the Vector API kernel of the
+	 * library, which requires Java 17 or later.
+	 *
+	 * @return true if the Vector API is supported, false otherwise
+	 */
+	private static boolean isVectorApiSupported() {
+		String version = System.getProperty("java.specification.version");
+		return !version.startsWith("1.") && Integer.parseInt(version) >= 17;
+	}
+
+}
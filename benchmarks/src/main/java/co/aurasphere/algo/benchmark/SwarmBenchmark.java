@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.aurasphere.algo.swarm.Swarm;
+import co.aurasphere.algo.swarm.SwarmConfiguration;
+
+/**
+ * Measures the throughput of {@link Swarm#mainLoop()}. The swarm is rebuilt
+ * with the same seed before each measurement iteration, so every iteration
+ * measures the same sequence of states.
+ *
+ * @author Donato Rimenti
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SwarmBenchmark {
+
+	/**
+	 * Seed used for the random generator.
+	 */
+	private static final long SEED = 42;
+
+	/**
+	 * Number of particles of the swarm.
+	 */
+	@Param({ "100", "1000" })
+	private int numParticle;
+
+	/**
+	 * Number of dimensions of the search space.
+	 */
+	@Param({ "2", "10", "50" })
+	private int dimensions;
+
+	/**
+	 * Extra cost of each fitness evaluation.
+	 */
+	@Param({ "0", "100" })
+	private long fitnessCost;
+
+	/**
+	 * Whether the particles are updated with the Vector API kernel, if
+	 * available.
+	 */
+	@Param({ "true", "false" })
+	private boolean vectorizedUpdate;
+
+	/**
+	 * The swarm under test.
+	 */
+	private Swarm swarm;
+
+	/**
+	 * Builds the swarm under test.
+	 */
+	@Setup(Level.Iteration)
+	public void setup() {
+		SwarmConfiguration configuration = new SwarmConfiguration(new BenchmarkFitnessFunction(fitnessCost));
+		configuration.setNumParticle(numParticle);
+		configuration.setDimensions(dimensions);
+		configuration.setVectorizedUpdate(vectorizedUpdate);
+		configuration.setRandomGenerator(new Random(SEED));
+		swarm = new Swarm(configuration);
+	}
+
+	/**
+	 * Runs an iteration of the swarm.
+	 *
+	 * @return the best fitness found, to prevent dead code elimination
+	 */
+	@Benchmark
+	public double mainLoop() {
+		swarm.mainLoop();
+		return swarm.getBestFitness();
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.aurasphere.algo.IterativeAlgorithmRunner;
+import co.aurasphere.algo.OptimizationAlgorithm;
+import co.aurasphere.algo.RunSummary;
+import co.aurasphere.algo.StopCriteria;
+import co.aurasphere.algo.swarm.Multiswarm;
+import co.aurasphere.algo.swarm.MultiswarmConfiguration;
+import co.aurasphere.algo.swarm.Swarm;
+import co.aurasphere.algo.swarm.SwarmConfiguration;
+
+/**
+ * Measures the time needed by {@link Swarm} and {@link Multiswarm} to reach a
+ * target fitness. Each invocation is a full run from a freshly seeded
+ * algorithm. The seeds are the same sequence in every fork, so the runs are
+ * the same across executions of the benchmark.
+ *
+ * @author Donato Rimenti
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 10)
+@Measurement(iterations = 30)
+public class TimeToTargetBenchmark {
+
+	/**
+	 * The fitness to reach. Since the fitness is the negated squared distance
+	 * from the optimum, this means getting within 0.001 from it.
+	 */
+	private static final double TARGET_FITNESS = -1e-6;
+
+	/**
+	 * Maximum number of iterations of a run, in case the target is never
+	 * reached.
+	 */
+	private static final long MAX_ITERATIONS = 10000;
+
+	/**
+	 * Type of algorithm to run, either "swarm" or "multiswarm".
+	 */
+	@Param({ "swarm", "multiswarm" })
+	private String algorithm;
+
+	/**
+	 * Number of dimensions of the search space.
+	 */
+	@Param({ "2", "10" })
+	private int dimensions;
+
+	/**
+	 * Extra cost of each fitness evaluation.
+	 */
+	@Param({ "0", "100" })
+	private long fitnessCost;
+
+	/**
+	 * Seed of the next run.
+	 */
+	private long seed;
+
+	/**
+	 * The algorithm under test.
+	 */
+	private OptimizationAlgorithm optimizationAlgorithm;
+
+	/**
+	 * The runner which drives the algorithm.
+	 */
+	private IterativeAlgorithmRunner runner;
+
+	/**
+	 * Builds the runner.
+	 */
+	@Setup(Level.Trial)
+	public void setupTrial() {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setTargetFitness(TARGET_FITNESS);
+		criteria.setMaxIterations(MAX_ITERATIONS);
+		runner = new IterativeAlgorithmRunner(criteria);
+	}
+
+	/**
+	 * Builds the algorithm under test with the next seed.
+	 */
+	@Setup(Level.Invocation)
+	public void setupInvocation() {
+		BenchmarkFitnessFunction fitnessFunction = new BenchmarkFitnessFunction(fitnessCost);
+		Random randomGenerator = new Random(seed++);
+		if ("multiswarm".equals(algorithm)) {
+			MultiswarmConfiguration configuration = new MultiswarmConfiguration(fitnessFunction);
+			configuration.setNumSwarms(10);
+			configuration.setNumParticle(50);
+			configuration.setDimensions(dimensions);
+			configuration.setRandomGenerator(randomGenerator);
+			optimizationAlgorithm = new Multiswarm(configuration);
+		} else {
+			SwarmConfiguration configuration = new SwarmConfiguration(fitnessFunction);
+			configuration.setNumParticle(500);
+			configuration.setDimensions(dimensions);
+			configuration.setRandomGenerator(randomGenerator);
+			optimizationAlgorithm = new Swarm(configuration);
+		}
+	}
+
+	/**
+	 * Runs the algorithm until it reaches the target fitness.
+	 *
+	 * @return the summary of the run, to prevent dead code elimination
+	 */
+	@Benchmark
+	public RunSummary run() {
+		return runner.run(optimizationAlgorithm);
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link FitnessFunction} which computes the fitness asynchronously. This is
+ * useful when computing the fitness mostly means waiting, for example for a
+ * remote service or an external process, so that many evaluations can be in
+ * flight at the same time without keeping a thread busy for each of them.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public interface AsyncFitnessFunction extends FitnessFunction {
+
+	/**
+	 * Starts computing the fitness of a candidate. The array passed as
+	 * argument is owned by the function and won't be changed by the caller.
+	 * 
+	 * @param variables
+	 *            the variables whose fitness needs to be computed
+	 * @return a future completed with the fitness of the variables
+	 */
+	public CompletableFuture<Double> getFitnessAsync(double[] variables);
+
+	/**
+	 * Computes the fitness of a candidate, waiting for the asynchronous
+	 * computation to complete.
+	 * 
+	 * @param variables
+	 *            the variables whose fitness needs to be computed
+	 * @return the fitness of the variables
+	 */
+	@Override
+	public default double getFitness(double[] variables) {
+		return getFitnessAsync(variables).join();
+	}
+
+}
@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adapts a blocking {@link FitnessFunction} to an {@link AsyncFitnessFunction}
+ * by running each evaluation as a task of an executor. The default executor
+ * starts a virtual thread for each evaluation when the runtime supports them
+ * (Java 21 or later) and uses a shared pool of daemon threads otherwise, so
+ * that waiting evaluations are cheap.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class AsyncFitnessFunctionAdapter implements AsyncFitnessFunction {
+
+	/**
+	 * The function adapted.
+	 */
+	private final FitnessFunction fitnessFunction;
+
+	/**
+	 * The executor which runs the evaluations.
+	 */
+	private final Executor executor;
+
+	/**
+	 * Instantiates a new AsyncFitnessFunctionAdapter.
+	 *
+	 * @param fitnessFunction
+	 *            the {@link #fitnessFunction}
+	 * @param executor
+	 *            the {@link #executor}
+	 */
+	public AsyncFitnessFunctionAdapter(FitnessFunction fitnessFunction, Executor executor) {
+		this.fitnessFunction = fitnessFunction;
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns the function passed as argument if it's already asynchronous or
+	 * an adapter for it otherwise.
+	 * 
+	 * @param fitnessFunction
+	 *            the function to adapt
+	 * @param executor
+	 *            the executor which runs the evaluations, or null to use the
+	 *            {@link #getDefaultExecutor()}
+	 * @return an asynchronous version of the function passed as argument
+	 */
+	public static AsyncFitnessFunction adapt(FitnessFunction fitnessFunction, Executor executor) {
+		if (fitnessFunction instanceof AsyncFitnessFunction) {
+			return (AsyncFitnessFunction) fitnessFunction;
+		}
+		return new AsyncFitnessFunctionAdapter(fitnessFunction, executor != null ? executor : getDefaultExecutor());
+	}
+
+	/**
+	 * Returns the executor used when none is specified, creating it on first
+	 * use.
+	 * 
+	 * @return an executor which runs each task on a virtual thread if the
+	 *         runtime supports them or on a shared pool of daemon threads
+	 *         otherwise
+	 */
+	public static Executor getDefaultExecutor() {
+		return DefaultExecutorHolder.EXECUTOR;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * co.aurasphere.algo.AsyncFitnessFunction#getFitnessAsync(double[])
+	 */
+	@Override
+	public CompletableFuture<Double> getFitnessAsync(final double[] variables) {
+		final CompletableFuture<Double> future = new CompletableFuture<Double>();
+		executor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					future.complete(fitnessFunction.getFitness(variables));
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				}
+			}
+		});
+		return future;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.AsyncFitnessFunction#getFitness(double[])
+	 */
+	@Override
+	public double getFitness(double[] variables) {
+		return fitnessFunction.getFitness(variables);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "AsyncFitnessFunctionAdapter [fitnessFunction=" + fitnessFunction + ", executor=" + executor + "]";
+	}
+
+	/**
+	 * Lazily creates the default executor.
+	 * 
+	 * @author Donato Rimenti
+	 *
+	 */
+	private static class DefaultExecutorHolder {
+
+		/**
+		 * The default executor.
+		 */
+		private static final Executor EXECUTOR = createDefaultExecutor();
+
+		/**
+		 * Creates an executor which starts a virtual thread for each task, if
+		 * the runtime supports them, or a pool of daemon threads otherwise.
+		 * Virtual threads are looked up by reflection since this library
+		 * targets older runtimes.
+		 * 
+		 * @return the default executor
+		 */
+		private static Executor createDefaultExecutor() {
+			try {
+				Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return (ExecutorService) factory.invoke(null);
+			} catch (ReflectiveOperationException e) {
+				// Virtual threads not available or not enabled.
+			} catch (UnsupportedOperationException e) {
+				// Virtual threads not available or not enabled.
+			}
+			final AtomicInteger threadCount = new AtomicInteger();
+			return Executors.newCachedThreadPool(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "async-fitness-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * {@link FitnessFunction} which can compute the fitness of a whole block of
+ * candidates at once. This is useful when a function needs some setup or
+ * precomputed data that can be shared among the candidates, and it avoids a
+ * call and an array for each of them.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public interface BatchFitnessFunction extends FitnessFunction {
+
+	/**
+	 * Computes the fitness of a block of candidates packed into a buffer. The
+	 * variables of the candidate <code>i</code> start at the absolute index
+	 * <code>i * stride</code> of the buffer and its fitness has to be stored
+	 * at the index <code>i</code> of the results array. Implementations must
+	 * not change the buffer position or limit, since the same buffer may be
+	 * shared by concurrent calls on different ranges.
+	 * 
+	 * @param variables
+	 *            the buffer which holds the candidates variables
+	 * @param dimensions
+	 *            the number of variables of each candidate
+	 * @param stride
+	 *            the distance between the first variables of two consecutive
+	 *            candidates
+	 * @param fitness
+	 *            the array where the fitness of each candidate is stored
+	 * @param from
+	 *            the index of the first candidate to evaluate, inclusive
+	 * @param to
+	 *            the index of the last candidate to evaluate, exclusive
+	 */
+	public void getFitness(DoubleBuffer variables, int dimensions, int stride, double[] fitness, int from, int to);
+
+	/**
+	 * Returns the fitness of a single candidate by evaluating a block made of
+	 * it alone.
+	 * 
+	 * @param variables
+	 *            the variables whose fitness needs to be computed
+	 * @return the fitness of the variables
+	 */
+	@Override
+	public default double getFitness(double[] variables) {
+		double[] fitness = new double[1];
+		getFitness(DoubleBuffer.wrap(variables), variables.length, variables.length, fitness, 0, 1);
+		return fitness[0];
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Adapts a plain {@link FitnessFunction} to a {@link BatchFitnessFunction} by
+ * evaluating the candidates of a block one at a time. By default, each
+ * candidate is copied into a new array. If the adapted function never keeps a
+ * reference to the array it receives, the adapter can be created with
+ * {@link #BatchFitnessFunctionAdapter(FitnessFunction, boolean)} so that each
+ * candidate is copied into a buffer owned by the calling thread instead, and
+ * no array is allocated for each evaluation. An adapter passed as the fitness
+ * function of an algorithm is used as it is.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class BatchFitnessFunctionAdapter implements BatchFitnessFunction {
+
+	/**
+	 * The function adapted.
+	 */
+	private final FitnessFunction fitnessFunction;
+
+	/**
+	 * Buffer used by each thread to pass the variables to the
+	 * {@link #fitnessFunction} or null if a new array is passed for each
+	 * candidate.
+	 */
+	private final ThreadLocal<double[]> buffers;
+
+	/**
+	 * Instantiates a new BatchFitnessFunctionAdapter which passes a new array
+	 * to the adapted function for each candidate.
+	 *
+	 * @param fitnessFunction
+	 *            the {@link #fitnessFunction}
+	 */
+	public BatchFitnessFunctionAdapter(FitnessFunction fitnessFunction) {
+		this(fitnessFunction, false);
+	}
+
+	/**
+	 * Instantiates a new BatchFitnessFunctionAdapter.
+	 *
+	 * @param fitnessFunction
+	 *            the {@link #fitnessFunction}
+	 * @param reuseVariables
+	 *            whether the same array is passed to the adapted function for
+	 *            all the candidates evaluated by a thread, which then must
+	 *            not keep a reference to it
+	 */
+	public BatchFitnessFunctionAdapter(FitnessFunction fitnessFunction, boolean reuseVariables) {
+		this.fitnessFunction = fitnessFunction;
+		this.buffers = reuseVariables ? new ThreadLocal<double[]>() : null;
+	}
+
+	/**
+	 * Returns the function passed as argument if it already supports batch
+	 * evaluation or an adapter for it otherwise.
+	 * 
+	 * @param fitnessFunction
+	 *            the function to adapt
+	 * @return a batch version of the function passed as argument
+	 */
+	public static BatchFitnessFunction adapt(FitnessFunction fitnessFunction) {
+		if (fitnessFunction instanceof BatchFitnessFunction) {
+			return (BatchFitnessFunction) fitnessFunction;
+		}
+		return new BatchFitnessFunctionAdapter(fitnessFunction);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.BatchFitnessFunction#getFitness(java.nio.
+	 * DoubleBuffer, int, int, double[], int, int)
+	 */
+	@Override
+	public void getFitness(DoubleBuffer variables, int dimensions, int stride, double[] fitness, int from, int to) {
+		double[] buffer = buffers == null ? null : buffers.get();
+		if (buffers != null && (buffer == null || buffer.length != dimensions)) {
+			buffer = new double[dimensions];
+			buffers.set(buffer);
+		}
+
+		for (int i = from; i < to; i++) {
+			if (buffers == null) {
+				buffer = new double[dimensions];
+			}
+			int offset = i * stride;
+			if (variables.hasArray()) {
+				System.arraycopy(variables.array(), variables.arrayOffset() + offset, buffer, 0, dimensions);
+			} else {
+				for (int d = 0; d < dimensions; d++) {
+					buffer[d] = variables.get(offset + d);
+				}
+			}
+			fitness[i] = fitnessFunction.getFitness(buffer);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.BatchFitnessFunction#getFitness(double[])
+	 */
+	@Override
+	public double getFitness(double[] variables) {
+		return fitnessFunction.getFitness(variables);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "BatchFitnessFunctionAdapter [fitnessFunction=" + fitnessFunction + "]";
+	}
+
+}
@@ -0,0 +1,450 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link FitnessFunction} decorator which remembers the fitness of the
+ * positions already evaluated. Positions are quantized to a grid and all the
+ * positions which fall into the same grid cell share the fitness of the first
+ * one evaluated, so the results are exact only for functions which are
+ * constant within each cell (for example functions which truncate their
+ * variables to integers, with a grid step of 1).<br>
+ * <br>
+ * The cache has a fixed capacity and stores the quantized coordinates as
+ * primitive values in flat arrays. It's organized in buckets of a few entries
+ * each: a position can only be stored in the bucket picked by its hash and,
+ * when the bucket is full, an entry is evicted with the CLOCK (second chance)
+ * policy, which approximates evicting the least recently used one. Each
+ * bucket is guarded by one of a fixed set of locks, so the cache can be used
+ * by many threads at once as long as the decorated function is thread safe.
+ * The decorated function is never called while holding a lock.<br>
+ * <br>
+ * When a block of candidates is evaluated, the ones not found in the cache
+ * are packed into a new block and passed at once to the decorated function,
+ * so a {@link BatchFitnessFunction} keeps evaluating whole blocks.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class CachingFitnessFunction implements BatchFitnessFunction {
+
+	/**
+	 * Number of entries in each bucket.
+	 */
+	private static final int WAYS = 4;
+
+	/**
+	 * Number of locks used to guard the buckets.
+	 */
+	private static final int STRIPES = 64;
+
+	/**
+	 * The function whose results are cached.
+	 */
+	private final FitnessFunction fitnessFunction;
+
+	/**
+	 * The {@link #fitnessFunction} adapted to evaluate blocks of candidates.
+	 */
+	private final BatchFitnessFunction batchFitnessFunction;
+
+	/**
+	 * The size of a grid cell for each variable.
+	 */
+	private final double[] grid;
+
+	/**
+	 * Number of variables of each position.
+	 */
+	private final int dimensions;
+
+	/**
+	 * Mask used to pick a bucket from a hash. The number of buckets is always
+	 * a power of 2.
+	 */
+	private final int bucketMask;
+
+	/**
+	 * The quantized coordinates of the cached positions, stored at the index
+	 * <code>entry * dimensions</code>.
+	 */
+	private final long[] keys;
+
+	/**
+	 * The cached fitness values.
+	 */
+	private final double[] values;
+
+	/**
+	 * Whether an entry holds a value.
+	 */
+	private final boolean[] occupied;
+
+	/**
+	 * Whether an entry has been read since the last time the eviction policy
+	 * looked at it.
+	 */
+	private final boolean[] referenced;
+
+	/**
+	 * The entry of each bucket the eviction policy looks at first.
+	 */
+	private final byte[] hands;
+
+	/**
+	 * The locks which guard the buckets.
+	 */
+	private final Object[] locks;
+
+	/**
+	 * Number of evaluations served by the cache.
+	 */
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * Number of evaluations delegated to the {@link #fitnessFunction}.
+	 */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Number of entries evicted to make room for new ones.
+	 */
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Instantiates a new CachingFitnessFunction.
+	 *
+	 * @param fitnessFunction
+	 *            the {@link #fitnessFunction}
+	 * @param grid
+	 *            the {@link #grid}, with an element for each variable
+	 * @param capacity
+	 *            the minimum number of entries the cache can hold
+	 */
+	public CachingFitnessFunction(FitnessFunction fitnessFunction, double[] grid, int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Cache capacity must be positive but was " + capacity);
+		}
+		for (double step : grid) {
+			if (!(step > 0)) {
+				throw new IllegalArgumentException("Grid steps must be positive but got " + step);
+			}
+		}
+		this.fitnessFunction = fitnessFunction;
+		this.batchFitnessFunction = BatchFitnessFunctionAdapter.adapt(fitnessFunction);
+		this.grid = grid.clone();
+		this.dimensions = grid.length;
+
+		int buckets = Integer.highestOneBit(Math.max(1, (capacity + WAYS - 1) / WAYS));
+		if (buckets * WAYS < capacity) {
+			buckets <<= 1;
+		}
+		this.bucketMask = buckets - 1;
+		this.keys = new long[buckets * WAYS * dimensions];
+		this.values = new double[buckets * WAYS];
+		this.occupied = new boolean[buckets * WAYS];
+		this.referenced = new boolean[buckets * WAYS];
+		this.hands = new byte[buckets];
+		this.locks = new Object[Math.min(STRIPES, buckets)];
+		for (int i = 0; i < locks.length; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see co.aurasphere.algo.FitnessFunction#getFitness(double[])
+	 */
+	@Override
+	public double getFitness(double[] variables) {
+		int bucket = (int) hash(variables) & bucketMask;
+		double[] cached = new double[1];
+		if (lookup(bucket, variables, cached)) {
+			return cached[0];
+		}
+
+		// Computes the fitness without holding the lock and stores it.
+		double fitness = fitnessFunction.getFitness(variables);
+		synchronized (locks[bucket % locks.length]) {
+			return store(bucket, variables, fitness);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.BatchFitnessFunction#getFitness(java.nio.
+	 * DoubleBuffer, int, int, double[], int, int)
+	 */
+	@Override
+	public void getFitness(DoubleBuffer variables, int dimensions, int stride, double[] fitness, int from, int to) {
+		double[] position = new double[dimensions];
+		double[] cached = new double[1];
+		int[] missIndexes = new int[to - from];
+		double[] missVariables = new double[(to - from) * dimensions];
+		int missCount = 0;
+
+		// Serves the hits and packs the misses into a new block.
+		for (int i = from; i < to; i++) {
+			copyCandidate(variables, i * stride, position);
+			if (lookup((int) hash(position) & bucketMask, position, cached)) {
+				fitness[i] = cached[0];
+			} else {
+				System.arraycopy(position, 0, missVariables, missCount * dimensions, dimensions);
+				missIndexes[missCount++] = i;
+			}
+		}
+		if (missCount == 0) {
+			return;
+		}
+
+		// Evaluates the misses at once without holding any lock and stores
+		// them.
+		double[] missFitness = new double[missCount];
+		batchFitnessFunction.getFitness(DoubleBuffer.wrap(missVariables), dimensions, dimensions, missFitness, 0,
+				missCount);
+		for (int m = 0; m < missCount; m++) {
+			System.arraycopy(missVariables, m * dimensions, position, 0, dimensions);
+			int bucket = (int) hash(position) & bucketMask;
+			synchronized (locks[bucket % locks.length]) {
+				fitness[missIndexes[m]] = store(bucket, position, missFitness[m]);
+			}
+		}
+	}
+
+	/**
+	 * Copies the variables of a candidate from a block into an array.
+	 *
+	 * @param variables
+	 *            the block of candidates
+	 * @param offset
+	 *            the index of the first variable of the candidate
+	 * @param position
+	 *            the array where the variables are copied
+	 */
+	private static void copyCandidate(DoubleBuffer variables, int offset, double[] position) {
+		if (variables.hasArray()) {
+			System.arraycopy(variables.array(), variables.arrayOffset() + offset, position, 0, position.length);
+			return;
+		}
+		for (int d = 0; d < position.length; d++) {
+			position[d] = variables.get(offset + d);
+		}
+	}
+
+	/**
+	 * Looks up the fitness of a position, counting a hit or a miss.
+	 *
+	 * @param bucket
+	 *            the bucket of the position
+	 * @param variables
+	 *            the position to look up
+	 * @param cached
+	 *            an array where the cached fitness is stored if found
+	 * @return true if the position has been found, false otherwise
+	 */
+	private boolean lookup(int bucket, double[] variables, double[] cached) {
+		int firstEntry = bucket * WAYS;
+		synchronized (locks[bucket % locks.length]) {
+			for (int entry = firstEntry; entry < firstEntry + WAYS; entry++) {
+				if (occupied[entry] && matches(entry, variables)) {
+					referenced[entry] = true;
+					hits.increment();
+					cached[0] = values[entry];
+					return true;
+				}
+			}
+		}
+		misses.increment();
+		return false;
+	}
+
+	/**
+	 * Stores a fitness value into a bucket, evicting an entry if the bucket is
+	 * full. Must be called while holding the bucket lock.
+	 *
+	 * @param bucket
+	 *            the bucket where the value is stored
+	 * @param variables
+	 *            the position whose fitness is stored
+	 * @param fitness
+	 *            the fitness to store
+	 * @return the fitness held by the cache for the position, which is the
+	 *         one already stored if the same cell has been stored meanwhile
+	 */
+	private double store(int bucket, double[] variables, double fitness) {
+		int firstEntry = bucket * WAYS;
+		int target = -1;
+		for (int entry = firstEntry; entry < firstEntry + WAYS; entry++) {
+			if (!occupied[entry]) {
+				target = entry;
+				break;
+			}
+			// Another thread, or another candidate of the same block, may
+			// have stored the same position meanwhile.
+			if (matches(entry, variables)) {
+				return values[entry];
+			}
+		}
+
+		// Bucket full: the first entry not referenced since the last sweep
+		// gets evicted, while the referenced ones get a second chance.
+		if (target == -1) {
+			int hand = hands[bucket];
+			while (referenced[firstEntry + hand]) {
+				referenced[firstEntry + hand] = false;
+				hand = (hand + 1) % WAYS;
+			}
+			target = firstEntry + hand;
+			hands[bucket] = (byte) ((hand + 1) % WAYS);
+			evictions.increment();
+		}
+
+		int offset = target * dimensions;
+		for (int d = 0; d < dimensions; d++) {
+			keys[offset + d] = quantize(variables, d);
+		}
+		values[target] = fitness;
+		occupied[target] = true;
+		referenced[target] = false;
+		return fitness;
+	}
+
+	/**
+	 * Checks if an entry holds the grid cell of a position.
+	 *
+	 * @param entry
+	 *            the entry to check
+	 * @param variables
+	 *            the position to look for
+	 * @return true if the entry holds the cell of the position, false
+	 *         otherwise
+	 */
+	private boolean matches(int entry, double[] variables) {
+		int offset = entry * dimensions;
+		for (int d = 0; d < dimensions; d++) {
+			if (keys[offset + d] != quantize(variables, d)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the index of the grid cell which contains a position on an
+	 * axis.
+	 *
+	 * @param variables
+	 *            the position to quantize
+	 * @param axis
+	 *            the axis to quantize
+	 * @return the index of the grid cell on the axis
+	 */
+	private long quantize(double[] variables, int axis) {
+		return (long) Math.floor(variables[axis] / grid[axis]);
+	}
+
+	/**
+	 * Computes the hash of the grid cell which contains a position.
+	 *
+	 * @param variables
+	 *            the position whose cell hash needs to be computed
+	 * @return the hash of the cell
+	 */
+	private long hash(double[] variables) {
+		long hash = 0;
+		for (int d = 0; d < dimensions; d++) {
+			hash = (hash + quantize(variables, d)) * 0x9E3779B97F4A7C15L;
+		}
+		// Final mixing step from MurmurHash3.
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	/**
+	 * Returns the number of evaluations served by the cache.
+	 *
+	 * @return the number of evaluations served by the cache
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of evaluations delegated to the decorated function.
+	 *
+	 * @return the number of evaluations delegated to the decorated function
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of entries evicted to make room for new ones.
+	 *
+	 * @return the number of entries evicted
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Returns the fraction of evaluations served by the cache.
+	 *
+	 * @return the fraction of evaluations served by the cache, between 0 and 1
+	 */
+	public double getHitRate() {
+		long hitCount = getHitCount();
+		long total = hitCount + getMissCount();
+		return total == 0 ? 0 : (double) hitCount / total;
+	}
+
+	/**
+	 * Returns the maximum number of entries this cache can hold.
+	 *
+	 * @return the maximum number of entries this cache can hold
+	 */
+	public int getCapacity() {
+		return values.length;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "CachingFitnessFunction [fitnessFunction=" + fitnessFunction + ", capacity=" + getCapacity()
+				+ ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount()
+				+ "]";
+	}
+
+}
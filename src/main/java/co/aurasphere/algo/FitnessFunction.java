@@ -34,6 +34,9 @@ public interface FitnessFunction {
 
 	/**
 	 * Returns the fitness of some variables according to a problem solution.
+	 * The algorithms pass a new array for each call, so implementations may
+	 * keep it, unless the function is wrapped by a
+	 * {@link BatchFitnessFunctionAdapter} created to reuse the same array.
 	 * 
 	 * @param variables
 	 *            the variables whose fitness needs to be computed
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+/**
+ * Runs an {@link IterativeAlgorithm} by calling its main loop until some
+ * {@link StopCriteria} are met. A run can be cancelled from another thread
+ * with {@link #cancel()}, in which case it stops after the current iteration.
+ * Cancellation is permanent: a cancelled runner stops any following run
+ * immediately.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class IterativeAlgorithmRunner {
+
+	/**
+	 * The conditions which stop a run.
+	 */
+	private final StopCriteria criteria;
+
+	/**
+	 * Whether this runner has been cancelled.
+	 */
+	private volatile boolean cancelled;
+
+	/**
+	 * Instantiates a new IterativeAlgorithmRunner.
+	 *
+	 * @param criteria
+	 *            the {@link #criteria}
+	 */
+	public IterativeAlgorithmRunner(StopCriteria criteria) {
+		this.criteria = new StopCriteria(criteria);
+	}
+
+	/**
+	 * Runs an algorithm until one of the {@link #criteria} is met or this
+	 * runner is cancelled.
+	 * 
+	 * @param algorithm
+	 *            the algorithm to run
+	 * @return a summary of the run
+	 */
+	public RunSummary run(IterativeAlgorithm algorithm) {
+		RunTracker tracker = new RunTracker(algorithm, criteria);
+		StopReason stopReason;
+		while ((stopReason = tracker.check(cancelled)) == null) {
+			algorithm.mainLoop();
+			tracker.iterationCompleted();
+		}
+		return tracker.summarize(stopReason);
+	}
+
+	/**
+	 * Cancels the current run and any following one.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+	}
+
+	/**
+	 * Gets the {@link #cancelled}.
+	 *
+	 * @return the {@link #cancelled}
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+}
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+/**
+ * Interface for a function which returns many degrees of fitness for some
+ * variables, one for each objective of a problem with conflicting goals. As
+ * for {@link FitnessFunction}, a higher value is a better fitness on each
+ * objective, so objectives to minimize, like a cost, should be negated.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public interface MultiObjectiveFitnessFunction {
+
+	/**
+	 * Returns the number of objectives of the problem, which is the length of
+	 * the arrays returned by {@link #getFitness(double[])}.
+	 * 
+	 * @return the number of objectives of the problem
+	 */
+	public int getObjectives();
+
+	/**
+	 * Returns the fitness of some variables on each objective of the problem.
+	 * 
+	 * @param variables
+	 *            the variables whose fitness needs to be computed
+	 * @return the fitness of the variables on each objective
+	 */
+	public double[] getFitness(double[] variables);
+
+}
@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+/**
+ * {@link IterativeAlgorithm} which keeps track of the best candidate solution
+ * found so far, so that its progress can be measured between iterations.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public interface OptimizationAlgorithm extends IterativeAlgorithm {
+
+	/**
+	 * Returns the fitness of the best solution found so far.
+	 * 
+	 * @return the fitness of the best solution found so far
+	 */
+	public double getBestFitness();
+
+	/**
+	 * Returns the variables of the best solution found so far.
+	 * 
+	 * @return the variables of the best solution found so far or null if no
+	 *         solution has been evaluated yet
+	 */
+	public double[] getBestPosition();
+
+}
@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+import java.util.Arrays;
+
+/**
+ * Summary of a run of an {@link IterativeAlgorithmRunner}, which tells why and
+ * when the run stopped.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class RunSummary {
+
+	/**
+	 * The reason why the run stopped.
+	 */
+	private final StopReason stopReason;
+
+	/**
+	 * Number of iterations executed.
+	 */
+	private final long iterations;
+
+	/**
+	 * Wall-clock duration of the run, in nanoseconds.
+	 */
+	private final long elapsedNanos;
+
+	/**
+	 * The best fitness at the end of the run or {@link Double#NaN} if the
+	 * algorithm is not an {@link OptimizationAlgorithm}.
+	 */
+	private final double bestFitness;
+
+	/**
+	 * The best position at the end of the run or null if the algorithm is
+	 * not an {@link OptimizationAlgorithm} or it has not found any.
+	 */
+	private final double[] bestPosition;
+
+	/**
+	 * Number of iterations executed when the best fitness last improved.
+	 */
+	private final long lastImprovementIteration;
+
+	/**
+	 * Instantiates a new RunSummary.
+	 *
+	 * @param stopReason
+	 *            the {@link #stopReason}
+	 * @param iterations
+	 *            the {@link #iterations}
+	 * @param elapsedNanos
+	 *            the {@link #elapsedNanos}
+	 * @param bestFitness
+	 *            the {@link #bestFitness}
+	 * @param bestPosition
+	 *            the {@link #bestPosition}
+	 * @param lastImprovementIteration
+	 *            the {@link #lastImprovementIteration}
+	 */
+	public RunSummary(StopReason stopReason, long iterations, long elapsedNanos, double bestFitness,
+			double[] bestPosition, long lastImprovementIteration) {
+		this.stopReason = stopReason;
+		this.iterations = iterations;
+		this.elapsedNanos = elapsedNanos;
+		this.bestFitness = bestFitness;
+		this.bestPosition = bestPosition;
+		this.lastImprovementIteration = lastImprovementIteration;
+	}
+
+	/**
+	 * Gets the {@link #stopReason}.
+	 *
+	 * @return the {@link #stopReason}
+	 */
+	public StopReason getStopReason() {
+		return stopReason;
+	}
+
+	/**
+	 * Gets the {@link #iterations}.
+	 *
+	 * @return the {@link #iterations}
+	 */
+	public long getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Gets the {@link #elapsedNanos}.
+	 *
+	 * @return the {@link #elapsedNanos}
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Gets the {@link #bestFitness}.
+	 *
+	 * @return the {@link #bestFitness}
+	 */
+	public double getBestFitness() {
+		return bestFitness;
+	}
+
+	/**
+	 * Gets the {@link #bestPosition}.
+	 *
+	 * @return the {@link #bestPosition}
+	 */
+	public double[] getBestPosition() {
+		return bestPosition;
+	}
+
+	/**
+	 * Gets the {@link #lastImprovementIteration}.
+	 *
+	 * @return the {@link #lastImprovementIteration}
+	 */
+	public long getLastImprovementIteration() {
+		return lastImprovementIteration;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "RunSummary [stopReason=" + stopReason + ", iterations=" + iterations + ", elapsedNanos="
+				+ elapsedNanos + ", bestFitness=" + bestFitness + ", bestPosition=" + Arrays.toString(bestPosition)
+				+ ", lastImprovementIteration=" + lastImprovementIteration + "]";
+	}
+
+}
@@ -0,0 +1,179 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+/**
+ * Keeps track of the progress of a run of an {@link IterativeAlgorithm} and
+ * checks it against some {@link StopCriteria}. This is used by
+ * {@link IterativeAlgorithmRunner} but can also be used to drive an algorithm
+ * a few iterations at a time, as long as
+ * {@link #iterationCompleted()} is called after each iteration.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class RunTracker {
+
+	/**
+	 * The algorithm being run.
+	 */
+	private final IterativeAlgorithm algorithm;
+
+	/**
+	 * The algorithm being run if it tracks its best fitness, null otherwise.
+	 */
+	private final OptimizationAlgorithm optimizationAlgorithm;
+
+	/**
+	 * The conditions which stop the run.
+	 */
+	private final StopCriteria criteria;
+
+	/**
+	 * Value of {@link System#nanoTime()} when the run started.
+	 */
+	private final long startNanos;
+
+	/**
+	 * Number of iterations executed so far.
+	 */
+	private long iterations;
+
+	/**
+	 * The best fitness when it last improved by more than
+	 * {@link StopCriteria#getStagnationEpsilon()}.
+	 */
+	private double lastImprovementFitness = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Number of iterations executed when the best fitness last improved.
+	 */
+	private long lastImprovementIteration;
+
+	/**
+	 * Instantiates a new RunTracker and starts its clock.
+	 *
+	 * @param algorithm
+	 *            the {@link #algorithm}
+	 * @param criteria
+	 *            the {@link #criteria}
+	 */
+	public RunTracker(IterativeAlgorithm algorithm, StopCriteria criteria) {
+		this.algorithm = algorithm;
+		this.optimizationAlgorithm = algorithm instanceof OptimizationAlgorithm
+				? (OptimizationAlgorithm) algorithm : null;
+		this.criteria = new StopCriteria(criteria);
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Records that an iteration has been executed, checking if the best
+	 * fitness improved.
+	 */
+	public void iterationCompleted() {
+		iterations++;
+		if (optimizationAlgorithm != null) {
+			double bestFitness = optimizationAlgorithm.getBestFitness();
+			if (bestFitness > lastImprovementFitness + criteria.getStagnationEpsilon()) {
+				lastImprovementFitness = bestFitness;
+				lastImprovementIteration = iterations;
+			}
+		}
+	}
+
+	/**
+	 * Checks if the run should stop.
+	 * 
+	 * @param cancelled
+	 *            whether the run has been cancelled
+	 * @return the reason why the run should stop or null if it should go on
+	 */
+	public StopReason check(boolean cancelled) {
+		if (cancelled) {
+			return StopReason.CANCELLED;
+		}
+		if (optimizationAlgorithm != null) {
+			if (optimizationAlgorithm.getBestFitness() >= criteria.getTargetFitness()) {
+				return StopReason.TARGET_FITNESS;
+			}
+			if (iterations - lastImprovementIteration >= criteria.getStagnationIterations()) {
+				return StopReason.STAGNATION;
+			}
+		}
+		if (iterations >= criteria.getMaxIterations()) {
+			return StopReason.MAX_ITERATIONS;
+		}
+		if (getElapsedNanos() / 1000000 >= criteria.getTimeBudgetMillis()) {
+			return StopReason.TIME_BUDGET;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a summary of the run so far.
+	 * 
+	 * @param stopReason
+	 *            the reason why the run stopped
+	 * @return a summary of the run so far
+	 */
+	public RunSummary summarize(StopReason stopReason) {
+		double bestFitness = Double.NaN;
+		double[] bestPosition = null;
+		if (optimizationAlgorithm != null) {
+			bestFitness = optimizationAlgorithm.getBestFitness();
+			bestPosition = optimizationAlgorithm.getBestPosition();
+			bestPosition = bestPosition == null ? null : bestPosition.clone();
+		}
+		return new RunSummary(stopReason, iterations, getElapsedNanos(), bestFitness, bestPosition,
+				lastImprovementIteration);
+	}
+
+	/**
+	 * Returns the time elapsed since the run started.
+	 * 
+	 * @return the time elapsed since the run started, in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * Gets the {@link #algorithm}.
+	 *
+	 * @return the {@link #algorithm}
+	 */
+	public IterativeAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * Gets the {@link #iterations}.
+	 *
+	 * @return the {@link #iterations}
+	 */
+	public long getIterations() {
+		return iterations;
+	}
+
+}
@@ -0,0 +1,246 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+/**
+ * Conditions used by an {@link IterativeAlgorithmRunner} to decide when to
+ * stop iterating. The run stops as soon as any of the conditions is met. The
+ * conditions on the fitness are only checked when running an
+ * {@link OptimizationAlgorithm}.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class StopCriteria {
+
+	/**
+	 * Maximum number of iterations to execute. Defaults to
+	 * {@link Long#MAX_VALUE} if not specified.
+	 */
+	private long maxIterations = Long.MAX_VALUE;
+
+	/**
+	 * Maximum wall-clock time of a run, in milliseconds. Defaults to
+	 * {@link Long#MAX_VALUE} if not specified.
+	 */
+	private long timeBudgetMillis = Long.MAX_VALUE;
+
+	/**
+	 * Fitness which, once reached, stops the run. Only checked for an
+	 * {@link OptimizationAlgorithm}. Defaults to
+	 * {@link Double#POSITIVE_INFINITY} if not specified, which is never
+	 * reached.
+	 */
+	private double targetFitness = Double.POSITIVE_INFINITY;
+
+	/**
+	 * Maximum number of consecutive iterations without an improvement of the
+	 * best fitness, after which the run stops. Only checked for an
+	 * {@link OptimizationAlgorithm}. Defaults to {@link Long#MAX_VALUE} if not
+	 * specified.
+	 */
+	private long stagnationIterations = Long.MAX_VALUE;
+
+	/**
+	 * Minimum increase of the best fitness which counts as an improvement when
+	 * checking for stagnation. Defaults to 0 if not specified, so that any
+	 * increase is an improvement.
+	 */
+	private double stagnationEpsilon = 0;
+
+	/**
+	 * Instantiates a new StopCriteria with all the conditions disabled.
+	 */
+	public StopCriteria() {
+	}
+
+	/**
+	 * Instantiates a new StopCriteria.
+	 *
+	 * @param criteria
+	 *            the criteria to clone
+	 */
+	public StopCriteria(StopCriteria criteria) {
+		this.maxIterations = criteria.maxIterations;
+		this.timeBudgetMillis = criteria.timeBudgetMillis;
+		this.targetFitness = criteria.targetFitness;
+		this.stagnationIterations = criteria.stagnationIterations;
+		this.stagnationEpsilon = criteria.stagnationEpsilon;
+	}
+
+	/**
+	 * Gets the {@link #maxIterations}.
+	 *
+	 * @return the {@link #maxIterations}
+	 */
+	public long getMaxIterations() {
+		return maxIterations;
+	}
+
+	/**
+	 * Sets the {@link #maxIterations}.
+	 *
+	 * @param maxIterations
+	 *            the new {@link #maxIterations}
+	 */
+	public void setMaxIterations(long maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Gets the {@link #timeBudgetMillis}.
+	 *
+	 * @return the {@link #timeBudgetMillis}
+	 */
+	public long getTimeBudgetMillis() {
+		return timeBudgetMillis;
+	}
+
+	/**
+	 * Sets the {@link #timeBudgetMillis}.
+	 *
+	 * @param timeBudgetMillis
+	 *            the new {@link #timeBudgetMillis}
+	 */
+	public void setTimeBudgetMillis(long timeBudgetMillis) {
+		this.timeBudgetMillis = timeBudgetMillis;
+	}
+
+	/**
+	 * Gets the {@link #targetFitness}.
+	 *
+	 * @return the {@link #targetFitness}
+	 */
+	public double getTargetFitness() {
+		return targetFitness;
+	}
+
+	/**
+	 * Sets the {@link #targetFitness}.
+	 *
+	 * @param targetFitness
+	 *            the new {@link #targetFitness}
+	 */
+	public void setTargetFitness(double targetFitness) {
+		this.targetFitness = targetFitness;
+	}
+
+	/**
+	 * Gets the {@link #stagnationIterations}.
+	 *
+	 * @return the {@link #stagnationIterations}
+	 */
+	public long getStagnationIterations() {
+		return stagnationIterations;
+	}
+
+	/**
+	 * Sets the {@link #stagnationIterations}.
+	 *
+	 * @param stagnationIterations
+	 *            the new {@link #stagnationIterations}
+	 */
+	public void setStagnationIterations(long stagnationIterations) {
+		this.stagnationIterations = stagnationIterations;
+	}
+
+	/**
+	 * Gets the {@link #stagnationEpsilon}.
+	 *
+	 * @return the {@link #stagnationEpsilon}
+	 */
+	public double getStagnationEpsilon() {
+		return stagnationEpsilon;
+	}
+
+	/**
+	 * Sets the {@link #stagnationEpsilon}.
+	 *
+	 * @param stagnationEpsilon
+	 *            the new {@link #stagnationEpsilon}
+	 */
+	public void setStagnationEpsilon(double stagnationEpsilon) {
+		this.stagnationEpsilon = stagnationEpsilon;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		long temp;
+		result = prime * result + (int) (maxIterations ^ (maxIterations >>> 32));
+		result = prime * result + (int) (timeBudgetMillis ^ (timeBudgetMillis >>> 32));
+		temp = Double.doubleToLongBits(targetFitness);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + (int) (stagnationIterations ^ (stagnationIterations >>> 32));
+		temp = Double.doubleToLongBits(stagnationEpsilon);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		StopCriteria other = (StopCriteria) obj;
+		if (maxIterations != other.maxIterations)
+			return false;
+		if (timeBudgetMillis != other.timeBudgetMillis)
+			return false;
+		if (Double.doubleToLongBits(targetFitness) != Double.doubleToLongBits(other.targetFitness))
+			return false;
+		if (stagnationIterations != other.stagnationIterations)
+			return false;
+		if (Double.doubleToLongBits(stagnationEpsilon) != Double.doubleToLongBits(other.stagnationEpsilon))
+			return false;
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "StopCriteria [maxIterations=" + maxIterations + ", timeBudgetMillis=" + timeBudgetMillis
+				+ ", targetFitness=" + targetFitness + ", stagnationIterations=" + stagnationIterations
+				+ ", stagnationEpsilon=" + stagnationEpsilon + "]";
+	}
+
+}
@@ -25,13 +25,14 @@ package co.aurasphere.algo.pathfind;
 
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.Map;
 
 /**
- * A* pathfinding algorithm implementation.
+ * A* pathfinding algorithm implementation. The nodes to explore are kept in an
+ * indexed binary heap so that a better path to a node already found updates
+ * its place in O(log n), while the nodes found are looked up by hash.
  * 
  * @author Donato Rimenti
  *
@@ -130,23 +131,28 @@ public class AStar implements Comparator<Node>, PathFinder {
 		this.start = start;
 		this.target = goal;
 
-		// Unexplored nodes.
-		Queue<Node> openList = new PriorityQueue<Node>(this);
-		// Explored nodes.
-		List<Node> closedList = new ArrayList<Node>();
+		// Nodes found so far, each one with a dense id used by the heap. A
+		// node found whose id is no longer in the open list has already been
+		// explored.
+		Map<Node, Integer> ids = new HashMap<Node, Integer>();
+		List<Node> nodes = new ArrayList<Node>();
+		// Unexplored nodes, ordered by their f() value.
+		IndexedHeap openList = new IndexedHeap();
 		// Adds the first node to the "to explore" list.
-		openList.add(start);
+		ids.put(start, 0);
+		nodes.add(start);
+		openList.add(0, f(start));
 
 		// Main loop.
 		int currentStep = 0;
 		while (!openList.isEmpty() && currentStep < maxNumberOfSteps) {
-			Node q = openList.poll();
+			Node q = nodes.get(openList.poll());
 
-			mainLoop: for (Node successor : q.getAdjacentNodes()) {
+			for (Node successor : q.getAdjacentNodes()) {
+				Integer id = ids.get(successor);
 
-				// If we already explored that node or we already added to the
-				// "to explore" list, we just skip it.
-				if (closedList.contains(successor)) {
+				// If we already explored that node we just skip it.
+				if (id != null && !openList.contains(id)) {
 					continue;
 				}
 
@@ -158,30 +164,27 @@ public class AStar implements Comparator<Node>, PathFinder {
 
 				// If we have already found this node we will keep the best
 				// between the two.
-				if (openList.contains(successor)) {
-					Iterator<Node> iterator = openList.iterator();
-					while (iterator.hasNext()) {
-						Node oldNode = iterator.next();
-						if (oldNode.equals(successor)) {
-							// Skip this node if we have a better one.
-							if (g(successor) >= g(oldNode)) {
-								continue mainLoop;
-							}
-
-							// Otherwise, this is a better node let's remove the
-							// other one.
-							iterator.remove();
-						}
+				if (id != null) {
+					// Skip this node if we have a better one.
+					if (g(successor) >= g(nodes.get(id))) {
+						continue;
 					}
 
+					// Otherwise, this is a better node which takes the place
+					// of the other one.
+					nodes.set(id, successor);
+					openList.update(id, f(successor));
+					continue;
 				}
 
 				// Adds it to the nodes to explore.
-				openList.offer(successor);
+				id = nodes.size();
+				ids.put(successor, id);
+				nodes.add(successor);
+				openList.add(id, f(successor));
 			}
 
 			// This node has been fully explored.
-			closedList.add(q);
 			currentStep++;
 		}
 
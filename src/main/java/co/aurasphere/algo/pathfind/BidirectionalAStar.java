@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Bidirectional A* pathfinding algorithm implementation. Both searches are
+ * guided by a heuristic, averaged between the estimated cost to reach the
+ * goal and the one to reach the start so that the two searches order the
+ * nodes consistently. The heuristic must never be higher than the real cost
+ * between two nodes, as it happens with {@link Metrics2D} on a graph whose
+ * moves cost at least the distance they cover.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class BidirectionalAStar extends BidirectionalSearch {
+
+	/**
+	 * Metric used as heuristic to determine how close a node is to the start
+	 * and to the goal.
+	 */
+	private final Metric hFunction;
+
+	/**
+	 * Instantiates a new BidirectionalAStar which runs the two searches on
+	 * the calling thread.
+	 *
+	 * @param hFunction
+	 *            heuristic function used to compute the distance between a
+	 *            node and the start or the goal
+	 */
+	public BidirectionalAStar(Metric hFunction) {
+		this(hFunction, null);
+	}
+
+	/**
+	 * Instantiates a new BidirectionalAStar which runs the search from the
+	 * goal on an executor.
+	 *
+	 * @param hFunction
+	 *            heuristic function used to compute the distance between a
+	 *            node and the start or the goal
+	 * @param executor
+	 *            the executor which runs the search from the goal, or null to
+	 *            run it on the calling thread
+	 */
+	public BidirectionalAStar(Metric hFunction, ExecutorService executor) {
+		super(executor);
+		this.hFunction = hFunction;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * co.aurasphere.algo.pathfind.BidirectionalSearch#potential(co.aurasphere.
+	 * algo.pathfind.Node, co.aurasphere.algo.pathfind.Node,
+	 * co.aurasphere.algo.pathfind.Node)
+	 */
+	@Override
+	protected double potential(Node node, Node start, Node goal) {
+		return (hFunction.measureDistance(node, goal) - hFunction.measureDistance(start, node)) / 2;
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Bidirectional Dijkistra pathfinding algorithm implementation. Both searches
+ * explore the nodes in order of cost from the node they start from, with no
+ * heuristic.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class BidirectionalDijkistra extends BidirectionalSearch {
+
+	/**
+	 * Instantiates a new BidirectionalDijkistra which runs the two searches
+	 * on the calling thread.
+	 */
+	public BidirectionalDijkistra() {
+		this(null);
+	}
+
+	/**
+	 * Instantiates a new BidirectionalDijkistra which runs the search from the
+	 * goal on an executor.
+	 *
+	 * @param executor
+	 *            the executor which runs the search from the goal, or null to
+	 *            run it on the calling thread
+	 */
+	public BidirectionalDijkistra(ExecutorService executor) {
+		super(executor);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * co.aurasphere.algo.pathfind.BidirectionalSearch#potential(co.aurasphere.
+	 * algo.pathfind.Node, co.aurasphere.algo.pathfind.Node,
+	 * co.aurasphere.algo.pathfind.Node)
+	 */
+	@Override
+	protected double potential(Node node, Node start, Node goal) {
+		return 0;
+	}
+
+}
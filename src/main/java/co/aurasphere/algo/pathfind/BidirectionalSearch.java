@@ -0,0 +1,494 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Base class for the pathfinding algorithms which search from both the start
+ * and the goal at once until the two searches meet, so that each one only
+ * explores about half the distance. The searches can run one step at a time
+ * on the calling thread or each one on its own thread. <br>
+ * <br>
+ * The graph must be undirected: each node must be adjacent to the nodes
+ * adjacent to it and the cost of a move, given by {@link Node#cost(Node)},
+ * must not be negative. The search from the goal follows the moves backwards,
+ * using the cost of the move from the adjacent node. <br>
+ * <br>
+ * Each search keeps the cost of the best path found to each node. Whenever
+ * one of them finds a better path to a node already reached by the other, the
+ * best path through that node is updated. Since each search explores its
+ * nodes in order of cost, the best path is the shortest one once the lowest
+ * costs of the two searches' open lists add up to at least its cost. The
+ * nodes of the path are linked through {@link Node#setParent(Node)}.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public abstract class BidirectionalSearch implements PathFinder {
+
+	/**
+	 * Value of a missing id or parent.
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * Executor which runs the search from the goal, while the one from the
+	 * start runs on the calling thread. If null, the searches take turns on
+	 * the calling thread.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Instantiates a new BidirectionalSearch.
+	 *
+	 * @param executor
+	 *            the {@link #executor}
+	 */
+	protected BidirectionalSearch(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Returns the potential of a node, which is added to the cost of the
+	 * paths from the start and subtracted from the cost of the paths from the
+	 * goal to order the nodes to explore. To find the shortest path, the
+	 * potential difference between two adjacent nodes can't be greater than
+	 * the cost of moving between them.
+	 * 
+	 * @param node
+	 *            the node whose potential needs to be computed
+	 * @param start
+	 *            the starting node
+	 * @param goal
+	 *            the ending node
+	 * @return the potential of the node
+	 */
+	protected abstract double potential(Node node, Node start, Node goal);
+
+	/**
+	 * Finds the shortest path from start to end.
+	 * 
+	 * @param start
+	 *            the starting node
+	 * @param goal
+	 *            the ending node
+	 * @return the end node if a path has been found, null otherwise or if the
+	 *         thread is interrupted while waiting for the search from the goal
+	 * @throws IllegalStateException
+	 *             if the search from the goal fails with a checked exception
+	 * @see co.aurasphere.algo.pathfind.PathFinder#findPath(co.aurasphere.algo.pathfind.Node,
+	 *      co.aurasphere.algo.pathfind.Node)
+	 */
+	public Node findPath(Node start, Node goal) {
+		if (start.equals(goal)) {
+			return goal;
+		}
+		Meeting meeting = new Meeting();
+		Map<Node, NodeState> states = new ConcurrentHashMap<Node, NodeState>();
+		Frontier forward = new Frontier(start, goal, true, meeting, states);
+		Frontier backward = new Frontier(start, goal, false, meeting, states);
+		forward.opposite = backward;
+		backward.opposite = forward;
+
+		if (executor == null) {
+			// Explores the frontier whose next node is the cheapest.
+			while (!meeting.isShortest(forward.lowestKey + backward.lowestKey)) {
+				(forward.lowestKey <= backward.lowestKey ? forward : backward).expand();
+			}
+		} else {
+			Future<Void> future = executor.submit(backward);
+			try {
+				forward.call();
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw new IllegalStateException("Error while searching from the goal", e.getCause());
+			} finally {
+				meeting.stopped = true;
+			}
+		}
+
+		if (meeting.node == null) {
+			// No path has been found.
+			return null;
+		}
+		return linkPath(goal, forward, backward, states.get(meeting.node));
+	}
+
+	/**
+	 * Links the nodes along the path found through the parent of each one.
+	 * 
+	 * @param goal
+	 *            the ending node
+	 * @param forward
+	 *            the search from the start
+	 * @param backward
+	 *            the search from the goal
+	 * @param middle
+	 *            the state of the node where the best paths from the two
+	 *            searches meet
+	 * @return the end node
+	 */
+	private static Node linkPath(Node goal, Frontier forward, Frontier backward, NodeState middle) {
+		List<Node> path = new ArrayList<Node>();
+		for (int id = middle.forwardId; id != NONE; id = forward.parents[id]) {
+			path.add(forward.nodes.get(id));
+		}
+		Collections.reverse(path);
+		int id = backward.parents[middle.backwardId];
+		if (id == NONE) {
+			// The search from the start reached the goal.
+			path.set(path.size() - 1, goal);
+		}
+		for (; id != NONE; id = backward.parents[id]) {
+			path.add(backward.nodes.get(id));
+		}
+		path.get(0).setParent(null);
+		for (int i = 1; i < path.size(); i++) {
+			path.get(i).setParent(path.get(i - 1));
+		}
+		return goal;
+	}
+
+	/**
+	 * State of a node reached by any of the two searches. The ids are only
+	 * used by the search they belong to, while the costs are also read by the
+	 * opposite one.
+	 * 
+	 * @author Donato Rimenti
+	 *
+	 */
+	private static class NodeState {
+
+		/**
+		 * The id of the node in the search from the start or {@link #NONE}.
+		 */
+		private int forwardId = NONE;
+
+		/**
+		 * The id of the node in the search from the goal or {@link #NONE}.
+		 */
+		private int backwardId = NONE;
+
+		/**
+		 * The cost of the best path found from the start to the node.
+		 */
+		private volatile double forwardCost = Double.POSITIVE_INFINITY;
+
+		/**
+		 * The cost of the best path found from the node to the goal.
+		 */
+		private volatile double backwardCost = Double.POSITIVE_INFINITY;
+
+	}
+
+	/**
+	 * Best path found between the start and the goal, shared by the two
+	 * searches.
+	 * 
+	 * @author Donato Rimenti
+	 *
+	 */
+	private static class Meeting {
+
+		/**
+		 * The node where the two searches met along the best path found or
+		 * null if they didn't meet yet.
+		 */
+		private Node node;
+
+		/**
+		 * The cost of the best path found.
+		 */
+		private volatile double cost = Double.POSITIVE_INFINITY;
+
+		/**
+		 * Whether a search found out that the best path is the shortest one.
+		 */
+		private volatile boolean stopped;
+
+		/**
+		 * Updates the best path if the one through a node is cheaper.
+		 * 
+		 * @param node
+		 *            the node reached by both searches
+		 * @param cost
+		 *            the cost of the path through the node
+		 */
+		private synchronized void offer(Node node, double cost) {
+			if (cost < this.cost) {
+				this.node = node;
+				this.cost = cost;
+			}
+		}
+
+		/**
+		 * Checks whether the best path is the shortest one, given the sum of
+		 * the lowest keys of the two searches' open lists.
+		 * 
+		 * @param lowestKeys
+		 *            the sum of the lowest keys
+		 * @return true if no shorter path can be found
+		 */
+		private boolean isShortest(double lowestKeys) {
+			return stopped || lowestKeys >= cost;
+		}
+
+	}
+
+	/**
+	 * Search from one end of the path.
+	 * 
+	 * @author Donato Rimenti
+	 *
+	 */
+	private class Frontier implements Callable<Void> {
+
+		/**
+		 * The starting node of the path.
+		 */
+		private final Node start;
+
+		/**
+		 * The ending node of the path.
+		 */
+		private final Node goal;
+
+		/**
+		 * True if this search starts from the start, false if it starts from
+		 * the goal.
+		 */
+		private final boolean forward;
+
+		/**
+		 * The best path found, shared with the opposite search.
+		 */
+		private final Meeting meeting;
+
+		/**
+		 * The state of each node reached, shared with the opposite search.
+		 */
+		private final Map<Node, NodeState> states;
+
+		/**
+		 * The search from the other end.
+		 */
+		private Frontier opposite;
+
+		/**
+		 * The nodes found so far, indexed by the dense id used by the heap. A
+		 * node found whose id is no longer in the open list has already been
+		 * explored.
+		 */
+		private final List<Node> nodes = new ArrayList<Node>();
+
+		/**
+		 * The id of the previous node along the best path found to each node,
+		 * indexed by id.
+		 */
+		private int[] parents = new int[16];
+
+		/**
+		 * Cost of the best path found so far to each node, indexed by id.
+		 */
+		private double[] costs = new double[16];
+
+		/**
+		 * Unexplored nodes, ordered by their cost plus or minus their
+		 * potential.
+		 */
+		private final IndexedHeap openList = new IndexedHeap();
+
+		/**
+		 * The lowest key in the open list, published once the node explored
+		 * before has been fully explored.
+		 */
+		private volatile double lowestKey;
+
+		/**
+		 * Instantiates a new Frontier and adds to its open list the node it
+		 * starts from.
+		 *
+		 * @param start
+		 *            the {@link #start}
+		 * @param goal
+		 *            the {@link #goal}
+		 * @param forward
+		 *            the {@link #forward}
+		 * @param meeting
+		 *            the {@link #meeting}
+		 * @param states
+		 *            the {@link #states}
+		 */
+		private Frontier(Node start, Node goal, boolean forward, Meeting meeting, Map<Node, NodeState> states) {
+			this.start = start;
+			this.goal = goal;
+			this.forward = forward;
+			this.meeting = meeting;
+			this.states = states;
+			Node origin = forward ? start : goal;
+			reach(getState(origin), origin, NONE, 0);
+			this.lowestKey = openList.peekKey();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		@Override
+		public Void call() {
+			try {
+				while (!meeting.isShortest(lowestKey + opposite.lowestKey)) {
+					expand();
+				}
+			} finally {
+				meeting.stopped = true;
+			}
+			return null;
+		}
+
+		/**
+		 * Explores the node with the lowest key in the open list.
+		 */
+		private void expand() {
+			int id = openList.poll();
+			Node node = nodes.get(id);
+
+			for (Node successor : node.getAdjacentNodes()) {
+				NodeState state = getState(successor);
+				int successorId = forward ? state.forwardId : state.backwardId;
+
+				// If we already explored that node we just skip it.
+				if (successorId != NONE && !openList.contains(successorId)) {
+					continue;
+				}
+				double cost = costs[id] + (forward ? node.cost(successor) : successor.cost(node));
+				if (successorId != NONE && cost >= costs[successorId]) {
+					continue;
+				}
+				reach(state, successor, id, cost);
+
+				// The opposite search reads the cost published above before
+				// this one reads its cost, or the other way round, so at least
+				// one of them finds the path through the node.
+				double oppositeCost = forward ? state.backwardCost : state.forwardCost;
+				if (oppositeCost != Double.POSITIVE_INFINITY) {
+					meeting.offer(successor, cost + oppositeCost);
+				}
+			}
+			lowestKey = openList.isEmpty() ? Double.POSITIVE_INFINITY : openList.peekKey();
+		}
+
+		/**
+		 * Updates the best path found to a node and publishes its cost.
+		 * 
+		 * @param state
+		 *            the state of the node
+		 * @param node
+		 *            the node reached
+		 * @param parent
+		 *            the id of the previous node along the path
+		 * @param cost
+		 *            the cost of the path
+		 */
+		private void reach(NodeState state, Node node, int parent, double cost) {
+			int id = forward ? state.forwardId : state.backwardId;
+			if (id == NONE) {
+				id = nodes.size();
+				nodes.add(node);
+				if (id == parents.length) {
+					parents = Arrays.copyOf(parents, id * 2);
+					costs = Arrays.copyOf(costs, id * 2);
+				}
+				parents[id] = parent;
+				costs[id] = cost;
+				openList.add(id, key(node, cost));
+			} else {
+				nodes.set(id, node);
+				parents[id] = parent;
+				costs[id] = cost;
+				openList.update(id, key(node, cost));
+			}
+			if (forward) {
+				state.forwardId = id;
+				state.forwardCost = cost;
+			} else {
+				state.backwardId = id;
+				state.backwardCost = cost;
+			}
+		}
+
+		/**
+		 * Returns the state of a node, creating it if the node hasn't been
+		 * reached yet by any search.
+		 * 
+		 * @param node
+		 *            the node
+		 * @return the state of the node
+		 */
+		private NodeState getState(Node node) {
+			NodeState state = states.get(node);
+			if (state == null) {
+				state = new NodeState();
+				NodeState existing = states.putIfAbsent(node, state);
+				if (existing != null) {
+					state = existing;
+				}
+			}
+			return state;
+		}
+
+		/**
+		 * Returns the key of a node in the open list.
+		 * 
+		 * @param node
+		 *            the node
+		 * @param cost
+		 *            the cost of the best path found to the node
+		 * @return the key of the node
+		 */
+		private double key(Node node, double cost) {
+			double potential = potential(node, start, goal);
+			return forward ? cost + potential : cost - potential;
+		}
+
+	}
+
+}
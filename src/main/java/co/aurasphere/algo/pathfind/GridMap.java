@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+/**
+ * Tile map whose cells are either free or blocked by an obstacle, packed in a
+ * bitset. Each cell is identified by the index <code>y * width + x</code>.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class GridMap {
+
+	/**
+	 * Number of columns of the map.
+	 */
+	private final int width;
+
+	/**
+	 * Number of rows of the map.
+	 */
+	private final int height;
+
+	/**
+	 * The obstacles of the map, where the bit of each blocked cell is set.
+	 */
+	private final long[] obstacles;
+
+	/**
+	 * Instantiates a new GridMap with no obstacles.
+	 *
+	 * @param width
+	 *            the {@link #width}
+	 * @param height
+	 *            the {@link #height}
+	 */
+	public GridMap(int width, int height) {
+		if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid map size: " + width + "x" + height);
+		}
+		this.width = width;
+		this.height = height;
+		this.obstacles = new long[(int) (((long) width * height + 63) >>> 6)];
+	}
+
+	/**
+	 * Instantiates a new GridMap from a matrix of obstacles, indexed as
+	 * <code>obstacles[x][y]</code>, where any value other than 0 is an
+	 * obstacle.
+	 *
+	 * @param obstacles
+	 *            the matrix of obstacles
+	 */
+	public GridMap(int[][] obstacles) {
+		this(obstacles.length, obstacles[0].length);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				setBlocked(x, y, obstacles[x][y] != 0);
+			}
+		}
+	}
+
+	/**
+	 * Checks if a cell is blocked by an obstacle.
+	 * 
+	 * @param cell
+	 *            the index of the cell
+	 * @return true if the cell is blocked, false otherwise
+	 */
+	public boolean isBlocked(int cell) {
+		return (obstacles[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+	/**
+	 * Checks if a cell is blocked by an obstacle.
+	 * 
+	 * @param x
+	 *            the column of the cell
+	 * @param y
+	 *            the row of the cell
+	 * @return true if the cell is blocked, false otherwise
+	 */
+	public boolean isBlocked(int x, int y) {
+		return isBlocked(getCell(x, y));
+	}
+
+	/**
+	 * Checks if a cell is within the map and free.
+	 * 
+	 * @param x
+	 *            the column of the cell
+	 * @param y
+	 *            the row of the cell
+	 * @return true if the cell can be walked on, false otherwise
+	 */
+	public boolean isWalkable(int x, int y) {
+		return x >= 0 && y >= 0 && x < width && y < height && !isBlocked(y * width + x);
+	}
+
+	/**
+	 * Places or removes an obstacle on a cell.
+	 * 
+	 * @param x
+	 *            the column of the cell
+	 * @param y
+	 *            the row of the cell
+	 * @param blocked
+	 *            true to place an obstacle, false to remove it
+	 */
+	public void setBlocked(int x, int y, boolean blocked) {
+		int cell = getCell(x, y);
+		if (blocked) {
+			obstacles[cell >>> 6] |= 1L << cell;
+		} else {
+			obstacles[cell >>> 6] &= ~(1L << cell);
+		}
+	}
+
+	/**
+	 * Returns the index of a cell.
+	 * 
+	 * @param x
+	 *            the column of the cell
+	 * @param y
+	 *            the row of the cell
+	 * @return the index of the cell
+	 * @throws IndexOutOfBoundsException
+	 *             if the cell is not within the map
+	 */
+	public int getCell(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			throw new IndexOutOfBoundsException("Cell " + x + ", " + y + " is outside the map");
+		}
+		return y * width + x;
+	}
+
+	/**
+	 * Returns the column of a cell.
+	 * 
+	 * @param cell
+	 *            the index of the cell
+	 * @return the column of the cell
+	 */
+	public int getX(int cell) {
+		return cell % width;
+	}
+
+	/**
+	 * Returns the row of a cell.
+	 * 
+	 * @param cell
+	 *            the index of the cell
+	 * @return the row of the cell
+	 */
+	public int getY(int cell) {
+		return cell / width;
+	}
+
+	/**
+	 * Gets the {@link #width}.
+	 *
+	 * @return the {@link #width}
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the {@link #height}.
+	 *
+	 * @return the {@link #height}
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the number of cells of the map.
+	 * 
+	 * @return the number of cells of the map
+	 */
+	public int size() {
+		return width * height;
+	}
+
+}
@@ -0,0 +1,579 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A* pathfinding algorithm specialized for a {@link GridMap}. The cells are
+ * handled as integer indices and the search state is kept in primitive
+ * arrays, reused across queries, so that a search allocates nothing but the
+ * path found. Moves to the 4 adjacent cells cost 1 and, if diagonal movement
+ * is allowed, diagonal moves cost <code>sqrt(2)</code> and can't cut the
+ * corner of an obstacle. The paths found are the shortest ones. <br>
+ * <br>
+ * Since the search state is shared, an instance must not be used by more
+ * than one thread at once.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class GridPathFinder implements PathFinder {
+
+	/**
+	 * Cost of a diagonal move.
+	 */
+	static final double DIAGONAL_COST = Math.sqrt(2);
+
+	/**
+	 * Horizontal offset of each move: the first 4 ones are straight and the
+	 * last 4 ones are diagonal.
+	 */
+	static final int[] DX = { 1, -1, 0, 0, 1, 1, -1, -1 };
+
+	/**
+	 * Vertical offset of each move, in the same order of {@link #DX}.
+	 */
+	static final int[] DY = { 0, 0, 1, -1, 1, -1, 1, -1 };
+
+	/**
+	 * Value of the parent of the starting cell.
+	 */
+	static final int NONE = -1;
+
+	/**
+	 * The map where the paths are searched.
+	 */
+	final GridMap map;
+
+	/**
+	 * Whether diagonal moves are allowed.
+	 */
+	private final boolean diagonalMovement;
+
+	/**
+	 * Cost of the best path found so far to each cell.
+	 */
+	final double[] costs;
+
+	/**
+	 * Previous cell along the best path found so far to each cell.
+	 */
+	final int[] parents;
+
+	/**
+	 * The {@link #query} during which each cell has been reached last. The
+	 * state of a cell is valid only if it has been reached during the
+	 * current query, which saves clearing the arrays at each query.
+	 */
+	private final int[] reached;
+
+	/**
+	 * Cells to explore, ordered by the estimated cost of a path through them.
+	 * A cell reached during the current query which is not here has already
+	 * been explored.
+	 */
+	private final IndexedHeap openList;
+
+	/**
+	 * Counter of the queries performed.
+	 */
+	private int query;
+
+	/**
+	 * Number of cells explored by the last query.
+	 */
+	private int exploredCells;
+
+	/**
+	 * Cost of the path found by the last query or {@link Double#NaN} if no
+	 * path has been found.
+	 */
+	private double pathCost = Double.NaN;
+
+	/**
+	 * Instantiates a new GridPathFinder which allows diagonal moves.
+	 *
+	 * @param map
+	 *            the {@link #map}
+	 */
+	public GridPathFinder(GridMap map) {
+		this(map, true);
+	}
+
+	/**
+	 * Instantiates a new GridPathFinder.
+	 *
+	 * @param map
+	 *            the {@link #map}
+	 * @param diagonalMovement
+	 *            the {@link #diagonalMovement}
+	 */
+	public GridPathFinder(GridMap map, boolean diagonalMovement) {
+		this.map = map;
+		this.diagonalMovement = diagonalMovement;
+		this.costs = new double[map.size()];
+		this.parents = new int[map.size()];
+		this.reached = new int[map.size()];
+		this.openList = new IndexedHeap(map.size());
+	}
+
+	/**
+	 * Finds the shortest path between two cells.
+	 * 
+	 * @param startX
+	 *            the column of the starting cell
+	 * @param startY
+	 *            the row of the starting cell
+	 * @param goalX
+	 *            the column of the goal cell
+	 * @param goalY
+	 *            the row of the goal cell
+	 * @return the indices of the cells along the path, from the start to the
+	 *         goal included, or null if no path exists
+	 */
+	public int[] findPath(int startX, int startY, int goalX, int goalY) {
+		if (!map.isWalkable(startX, startY) || !map.isWalkable(goalX, goalY)) {
+			exploredCells = 0;
+			pathCost = Double.NaN;
+			return null;
+		}
+		int start = map.getCell(startX, startY);
+		int goal = map.getCell(goalX, goalY);
+		nextQuery();
+
+		reach(start, NONE, 0, goalX, goalY);
+		while (!openList.isEmpty()) {
+			int cell = openList.poll();
+			exploredCells++;
+			if (cell == goal) {
+				return buildPath(goal);
+			}
+
+			expand(cell, goalX, goalY);
+		}
+
+		// No path has been found.
+		return null;
+	}
+
+	/**
+	 * Reaches the cells adjacent to a cell being explored.
+	 * 
+	 * @param cell
+	 *            the cell being explored
+	 * @param goalX
+	 *            the column of the goal cell
+	 * @param goalY
+	 *            the row of the goal cell
+	 */
+	void expand(int cell, int goalX, int goalY) {
+		int width = map.getWidth();
+		int x = cell % width;
+		int y = cell / width;
+		int moves = diagonalMovement ? DX.length : 4;
+		for (int move = 0; move < moves; move++) {
+			int nextX = x + DX[move];
+			int nextY = y + DY[move];
+			if (!map.isWalkable(nextX, nextY)) {
+				continue;
+			}
+			double cost = costs[cell] + 1;
+			if (move >= 4) {
+				// Diagonal moves can't squeeze between two obstacles or cut
+				// the corner of one.
+				if (!map.isWalkable(nextX, y) || !map.isWalkable(x, nextY)) {
+					continue;
+				}
+				cost = costs[cell] + DIAGONAL_COST;
+			}
+			reach(nextY * width + nextX, cell, cost, goalX, goalY);
+		}
+	}
+
+	/**
+	 * Updates the state of a cell which has been reached through a path,
+	 * unless a path at least as good has already been found.
+	 * 
+	 * @param cell
+	 *            the cell reached
+	 * @param parent
+	 *            the previous cell along the path
+	 * @param cost
+	 *            the cost of the path
+	 * @param goalX
+	 *            the column of the goal cell
+	 * @param goalY
+	 *            the row of the goal cell
+	 */
+	void reach(int cell, int parent, double cost, int goalX, int goalY) {
+		boolean found = reached[cell] == query;
+		if (found && (!openList.contains(cell) || cost >= costs[cell])) {
+			return;
+		}
+		costs[cell] = cost;
+		parents[cell] = parent;
+		double estimate = cost + estimateCost(cell, goalX, goalY);
+		if (found) {
+			openList.update(cell, estimate);
+		} else {
+			reached[cell] = query;
+			openList.add(cell, estimate);
+		}
+	}
+
+	/**
+	 * Returns an estimate of the cost to reach the goal from a cell which is
+	 * never higher than the real one: the octile distance if diagonal moves
+	 * are allowed or the Manhattan distance otherwise.
+	 * 
+	 * @param cell
+	 *            the cell
+	 * @param goalX
+	 *            the column of the goal cell
+	 * @param goalY
+	 *            the row of the goal cell
+	 * @return the estimated cost to reach the goal
+	 */
+	private double estimateCost(int cell, int goalX, int goalY) {
+		int dx = Math.abs(map.getX(cell) - goalX);
+		int dy = Math.abs(map.getY(cell) - goalY);
+		if (diagonalMovement) {
+			return dx + dy + (DIAGONAL_COST - 2) * Math.min(dx, dy);
+		}
+		return dx + dy;
+	}
+
+	/**
+	 * Starts a new query, invalidating the state of all the cells.
+	 */
+	private void nextQuery() {
+		openList.clear();
+		exploredCells = 0;
+		pathCost = Double.NaN;
+		if (++query == 0) {
+			// The counter wrapped around, so old states may look valid.
+			Arrays.fill(reached, 0);
+			query = 1;
+		}
+	}
+
+	/**
+	 * Follows the parents from a cell back to the start. A cell and its parent
+	 * may be several cells apart along a straight or diagonal line, in which
+	 * case the cells in between are added to the path.
+	 * 
+	 * @param goal
+	 *            the last cell of the path
+	 * @return the cells along the path, from the start to the goal included
+	 */
+	private int[] buildPath(int goal) {
+		pathCost = costs[goal];
+		int length = 1;
+		for (int cell = goal; parents[cell] != NONE; cell = parents[cell]) {
+			length += distance(cell, parents[cell]);
+		}
+		int[] path = new int[length];
+		int cell = goal;
+		for (; parents[cell] != NONE; cell = parents[cell]) {
+			int steps = distance(cell, parents[cell]);
+			int step = Integer.signum(map.getY(cell) - map.getY(parents[cell])) * map.getWidth()
+					+ Integer.signum(map.getX(cell) - map.getX(parents[cell]));
+			for (int i = 0; i < steps; i++) {
+				path[--length] = cell - i * step;
+			}
+		}
+		path[0] = cell;
+		return path;
+	}
+
+	/**
+	 * Returns the number of moves between two cells on the same row, column
+	 * or diagonal.
+	 * 
+	 * @param first
+	 *            the first cell
+	 * @param second
+	 *            the second cell
+	 * @return the number of moves between the cells
+	 */
+	private int distance(int first, int second) {
+		return Math.max(Math.abs(map.getX(first) - map.getX(second)), Math.abs(map.getY(first) - map.getY(second)));
+	}
+
+	/**
+	 * Finds the shortest path between two nodes, which must extend
+	 * {@link Node2D} and whose coordinates are the ones of a cell of the map.
+	 * The nodes between the start and the goal are created as the path is
+	 * found and can be explored further, since their adjacent nodes are the
+	 * cells reachable from them with a single move.
+	 * 
+	 * @param start
+	 *            the starting node
+	 * @param goal
+	 *            the ending node
+	 * @return the end node if a path has been found, null otherwise
+	 * @see co.aurasphere.algo.pathfind.PathFinder#findPath(co.aurasphere.algo.pathfind.Node,
+	 *      co.aurasphere.algo.pathfind.Node)
+	 */
+	public Node findPath(Node start, Node goal) {
+		if (!(start instanceof Node2D) || !(goal instanceof Node2D)) {
+			throw new IllegalArgumentException("Nodes used by this algorithm must extend " + Node2D.class.getName());
+		}
+		Node2D start2D = (Node2D) start;
+		Node2D goal2D = (Node2D) goal;
+		int[] path = findPath(start2D.x, start2D.y, goal2D.x, goal2D.y);
+		return path != null ? linkPath(map, diagonalMovement, path, start, goal) : null;
+	}
+
+	/**
+	 * Creates the nodes between the start and the goal of a path, each one
+	 * linked to the previous one, and links the goal to the last of them.
+	 * 
+	 * @param map
+	 *            the map of the path
+	 * @param diagonalMovement
+	 *            whether diagonal moves are allowed on the map
+	 * @param path
+	 *            the cells along the path, from the start to the goal included
+	 * @param start
+	 *            the node of the first cell of the path
+	 * @param goal
+	 *            the node of the last cell of the path
+	 * @return the goal node
+	 */
+	static Node linkPath(GridMap map, boolean diagonalMovement, int[] path, Node start, Node goal) {
+		if (path.length > 1) {
+			Node previous = start;
+			double cost = 0;
+			for (int i = 1; i < path.length - 1; i++) {
+				int x = map.getX(path[i]);
+				int y = map.getY(path[i]);
+				boolean diagonal = x != map.getX(path[i - 1]) && y != map.getY(path[i - 1]);
+				cost += diagonal ? DIAGONAL_COST : 1;
+				previous = new PathNode(map, diagonalMovement, x, y, previous, cost);
+			}
+			goal.setParent(previous);
+		}
+		return goal;
+	}
+
+	/**
+	 * Gets the {@link #pathCost}.
+	 *
+	 * @return the {@link #pathCost}
+	 */
+	public double getPathCost() {
+		return pathCost;
+	}
+
+	/**
+	 * Gets the {@link #exploredCells}.
+	 *
+	 * @return the {@link #exploredCells}
+	 */
+	public int getExploredCells() {
+		return exploredCells;
+	}
+
+	/**
+	 * Gets the {@link #map}.
+	 *
+	 * @return the {@link #map}
+	 */
+	public GridMap getMap() {
+		return map;
+	}
+
+	/**
+	 * Node along a path found by a {@link GridPathFinder}. Its adjacent nodes
+	 * are the cells reachable from it with a single move, following the same
+	 * rules of the finder, so that a path can be explored further by any
+	 * {@link PathFinder}.
+	 * 
+	 * @author Donato Rimenti
+	 *
+	 */
+	private static class PathNode extends Node2D {
+
+		/**
+		 * The Constant serialVersionUID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The map of the cell.
+		 */
+		private final GridMap map;
+
+		/**
+		 * Whether diagonal moves are allowed.
+		 */
+		private final boolean diagonalMovement;
+
+		/**
+		 * The previous node along the path.
+		 */
+		private Node parent;
+
+		/**
+		 * The cost of the path from the start to this node.
+		 */
+		private final double cost;
+
+		/**
+		 * Instantiates a new PathNode.
+		 *
+		 * @param map
+		 *            the {@link #map}
+		 * @param diagonalMovement
+		 *            the {@link #diagonalMovement}
+		 * @param x
+		 *            the column of the cell
+		 * @param y
+		 *            the row of the cell
+		 * @param parent
+		 *            the {@link #parent}
+		 * @param cost
+		 *            the {@link #cost}
+		 */
+		PathNode(GridMap map, boolean diagonalMovement, int x, int y, Node parent, double cost) {
+			this.map = map;
+			this.diagonalMovement = diagonalMovement;
+			this.x = x;
+			this.y = y;
+			this.parent = parent;
+			this.cost = cost;
+		}
+
+		/**
+		 * Gets the cells reachable from this one with a single move, each one
+		 * linked back to this node.
+		 * 
+		 * @return the nodes reachable from this one
+		 */
+		@Override
+		public List<Node> getAdjacentNodes() {
+			int moves = diagonalMovement ? DX.length : 4;
+			List<Node> adjacentNodes = new ArrayList<Node>(moves);
+			for (int move = 0; move < moves; move++) {
+				int nextX = x + DX[move];
+				int nextY = y + DY[move];
+				if (!map.isWalkable(nextX, nextY)) {
+					continue;
+				}
+				double moveCost = 1;
+				if (move >= 4) {
+					// Same as the finder, diagonal moves can't cut corners.
+					if (!map.isWalkable(nextX, y) || !map.isWalkable(x, nextY)) {
+						continue;
+					}
+					moveCost = DIAGONAL_COST;
+				}
+				adjacentNodes.add(new PathNode(map, diagonalMovement, nextX, nextY, this, cost + moveCost));
+			}
+			return adjacentNodes;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see co.aurasphere.algo.pathfind.Node#getParent()
+		 */
+		@Override
+		public Node getParent() {
+			return parent;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * co.aurasphere.algo.pathfind.Node#setParent(co.aurasphere.algo.pathfind.
+		 * Node)
+		 */
+		@Override
+		public void setParent(Node parent) {
+			this.parent = parent;
+		}
+
+		/**
+		 * Returns the cost to move from this node to another one. If either
+		 * node is along the path which leads to the other one, the cost of
+		 * that part of the path is returned. Otherwise, the cost of the
+		 * shortest path between their cells is searched on the map.
+		 * 
+		 * @param goal
+		 *            the node to which the cost needs to be computed, which
+		 *            must extend {@link Node2D}
+		 * @return the cost of moving from this node to the goal node or
+		 *         {@link java.lang.Double#POSITIVE_INFINITY} if the goal can't be
+		 *         reached
+		 */
+		@Override
+		public double cost(Node goal) {
+			double pathCost = costFrom(goal);
+			if (!java.lang.Double.isNaN(pathCost)) {
+				return pathCost;
+			}
+			if (goal instanceof PathNode) {
+				pathCost = ((PathNode) goal).costFrom(this);
+				if (!java.lang.Double.isNaN(pathCost)) {
+					return pathCost;
+				}
+			}
+			if (!(goal instanceof Node2D)) {
+				throw new IllegalArgumentException("Nodes used by this algorithm must extend " + Node2D.class.getName());
+			}
+			Node2D goal2D = (Node2D) goal;
+			GridPathFinder finder = new GridPathFinder(map, diagonalMovement);
+			return finder.findPath(x, y, goal2D.x, goal2D.y) != null ? finder.getPathCost()
+					: java.lang.Double.POSITIVE_INFINITY;
+		}
+
+		/**
+		 * Returns the cost of the path from a node to this one, if the node is
+		 * along it. The path is followed back through the nodes created by
+		 * the finder, up to the starting node.
+		 * 
+		 * @param node
+		 *            the node where the path starts
+		 * @return the cost of the path from the node to this one or
+		 *         {@link java.lang.Double#NaN} if the node is not along it
+		 */
+		private double costFrom(Node node) {
+			Node current = this;
+			for (; current instanceof PathNode; current = current.getParent()) {
+				if (current.equals(node)) {
+					return cost - ((PathNode) current).cost;
+				}
+			}
+			return current != null && current.equals(node) ? cost : java.lang.Double.NaN;
+		}
+
+	}
+
+}
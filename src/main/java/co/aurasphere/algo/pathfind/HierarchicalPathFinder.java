@@ -0,0 +1,761 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical pathfinding algorithm (HPA*) for 8-connected {@link GridMap}s,
+ * which makes long-distance queries on large maps cheap by searching an
+ * abstraction of the map first. The map is split into square clusters and,
+ * along each border between two clusters, each run of cells free on both
+ * sides gets one or two entrances. The costs of the shortest paths between
+ * the entrances of a cluster are computed once and cached, so a query only
+ * searches the graph of the entrances and then refines each of its edges
+ * with a {@link GridPathFinder}. <br>
+ * <br>
+ * The paths found are valid and a path is always found if one exists, but
+ * they are not always the shortest ones since they go through the
+ * entrances. When the obstacles change through
+ * {@link #setBlocked(int, int, boolean)}, only the cluster of the cell and
+ * the neighbouring ones whose entrances changed are rebuilt. <br>
+ * <br>
+ * Since the search state is shared, an instance must not be used by more
+ * than one thread at once.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class HierarchicalPathFinder implements PathFinder {
+
+	/**
+	 * Runs of free cells along a border shorter than this get a single
+	 * entrance in the middle, longer ones get one at each end.
+	 */
+	private static final int SINGLE_ENTRANCE_LENGTH = 6;
+
+	/**
+	 * Value of the parent of the starting cell.
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * The map where the paths are searched.
+	 */
+	private final GridMap map;
+
+	/**
+	 * Length of the side of each cluster, in cells.
+	 */
+	private final int clusterSize;
+
+	/**
+	 * Number of clusters on each row.
+	 */
+	private final int clustersX;
+
+	/**
+	 * The clusters of the map, stored at the index
+	 * <code>clusterY * clustersX + clusterX</code>.
+	 */
+	private final Cluster[] clusters;
+
+	/**
+	 * The crossings from each cluster to the one on its right, as pairs of
+	 * adjacent cells, the first one in the cluster.
+	 */
+	private final int[][] eastCrossings;
+
+	/**
+	 * The crossings from each cluster to the one below it, as pairs of
+	 * adjacent cells, the first one in the cluster.
+	 */
+	private final int[][] southCrossings;
+
+	/**
+	 * Finder used to refine the edges of the paths found between the
+	 * entrances.
+	 */
+	private final GridPathFinder refiner;
+
+	/**
+	 * Cost of the best path found to each cell by the last flood of a
+	 * cluster, indexed by the cell position in the cluster.
+	 */
+	private final double[] floodCosts;
+
+	/**
+	 * The {@link #floodQuery} during which each cell of a cluster has been
+	 * reached last.
+	 */
+	private final int[] floodReached;
+
+	/**
+	 * Cells to explore during a flood of a cluster.
+	 */
+	private final IndexedHeap floodOpenList;
+
+	/**
+	 * Counter of the floods performed.
+	 */
+	private int floodQuery;
+
+	/**
+	 * Cost of the best path found so far to each entrance during a query.
+	 */
+	private final double[] costs;
+
+	/**
+	 * Previous entrance along the best path found so far to each entrance
+	 * during a query.
+	 */
+	private final int[] parents;
+
+	/**
+	 * The {@link #query} during which each entrance has been reached last.
+	 */
+	private final int[] reached;
+
+	/**
+	 * Entrances to explore, ordered by the estimated cost of a path through
+	 * them.
+	 */
+	private final IndexedHeap openList;
+
+	/**
+	 * Counter of the queries performed.
+	 */
+	private int query;
+
+	/**
+	 * Number of entrances explored by the last query.
+	 */
+	private int exploredEntrances;
+
+	/**
+	 * Cost of the path found by the last query or {@link Double#NaN} if no
+	 * path has been found.
+	 */
+	private double pathCost = Double.NaN;
+
+	/**
+	 * Number of times the costs between the entrances of a cluster have been
+	 * computed.
+	 */
+	private int clusterBuilds;
+
+	/**
+	 * Instantiates a new HierarchicalPathFinder and builds the abstraction of
+	 * the map.
+	 *
+	 * @param map
+	 *            the {@link #map}
+	 * @param clusterSize
+	 *            the {@link #clusterSize}
+	 */
+	public HierarchicalPathFinder(GridMap map, int clusterSize) {
+		if (clusterSize < 2) {
+			throw new IllegalArgumentException("Clusters must be at least 2 cells wide");
+		}
+		this.map = map;
+		this.clusterSize = clusterSize;
+		this.clustersX = (map.getWidth() + clusterSize - 1) / clusterSize;
+		int clustersY = (map.getHeight() + clusterSize - 1) / clusterSize;
+		this.clusters = new Cluster[clustersX * clustersY];
+		this.eastCrossings = new int[clusters.length][];
+		this.southCrossings = new int[clusters.length][];
+		this.refiner = new GridPathFinder(map);
+		this.floodCosts = new double[clusterSize * clusterSize];
+		this.floodReached = new int[clusterSize * clusterSize];
+		this.floodOpenList = new IndexedHeap(clusterSize * clusterSize);
+		this.costs = new double[map.size()];
+		this.parents = new int[map.size()];
+		this.reached = new int[map.size()];
+		this.openList = new IndexedHeap();
+
+		for (int cluster = 0; cluster < clusters.length; cluster++) {
+			eastCrossings[cluster] = findCrossings(cluster, true);
+			southCrossings[cluster] = findCrossings(cluster, false);
+		}
+		for (int cluster = 0; cluster < clusters.length; cluster++) {
+			buildCluster(cluster, true);
+		}
+	}
+
+	/**
+	 * Places or removes an obstacle on a cell and rebuilds the abstraction
+	 * around it.
+	 * 
+	 * @param x
+	 *            the column of the cell
+	 * @param y
+	 *            the row of the cell
+	 * @param blocked
+	 *            true to place an obstacle, false to remove it
+	 */
+	public void setBlocked(int x, int y, boolean blocked) {
+		if (map.isBlocked(x, y) == blocked) {
+			return;
+		}
+		map.setBlocked(x, y, blocked);
+		int clusterX = x / clusterSize;
+		int clusterY = y / clusterSize;
+		int cluster = clusterY * clustersX + clusterX;
+		int west = clusterX > 0 ? cluster - 1 : NONE;
+		int north = clusterY > 0 ? cluster - clustersX : NONE;
+		int east = clusterX + 1 < clustersX ? cluster + 1 : NONE;
+		int south = cluster + clustersX < clusters.length ? cluster + clustersX : NONE;
+
+		eastCrossings[cluster] = findCrossings(cluster, true);
+		southCrossings[cluster] = findCrossings(cluster, false);
+		if (west != NONE) {
+			eastCrossings[west] = findCrossings(west, true);
+		}
+		if (north != NONE) {
+			southCrossings[north] = findCrossings(north, false);
+		}
+		buildCluster(cluster, true);
+		for (int neighbour : new int[] { west, north, east, south }) {
+			if (neighbour != NONE) {
+				buildCluster(neighbour, false);
+			}
+		}
+	}
+
+	/**
+	 * Finds the crossings along the right or bottom border of a cluster.
+	 * 
+	 * @param cluster
+	 *            the index of the cluster
+	 * @param east
+	 *            true for the right border, false for the bottom one
+	 * @return the crossings, as pairs of adjacent cells, the first one in the
+	 *         cluster
+	 */
+	private int[] findCrossings(int cluster, boolean east) {
+		int x = (cluster % clustersX) * clusterSize;
+		int y = (cluster / clustersX) * clusterSize;
+		int length;
+		if (east) {
+			x += clusterSize - 1;
+			length = Math.min(clusterSize, map.getHeight() - y);
+			if (x + 1 >= map.getWidth()) {
+				return new int[0];
+			}
+		} else {
+			y += clusterSize - 1;
+			length = Math.min(clusterSize, map.getWidth() - x);
+			if (y + 1 >= map.getHeight()) {
+				return new int[0];
+			}
+		}
+		int stepX = east ? 0 : 1;
+		int stepY = east ? 1 : 0;
+		int[] crossings = new int[length * 2];
+		int count = 0;
+		int runStart = NONE;
+		for (int i = 0; i <= length; i++) {
+			boolean free = i < length && map.isWalkable(x + i * stepX, y + i * stepY)
+					&& map.isWalkable(x + i * stepX + stepY, y + i * stepY + stepX);
+			if (free && runStart == NONE) {
+				runStart = i;
+			} else if (!free && runStart != NONE) {
+				int runEnd = i - 1;
+				int[] positions = runEnd - runStart + 1 < SINGLE_ENTRANCE_LENGTH
+						? new int[] { (runStart + runEnd) / 2 }
+						: new int[] { runStart, runEnd };
+				for (int position : positions) {
+					int cell = map.getCell(x + position * stepX, y + position * stepY);
+					crossings[count++] = cell;
+					crossings[count++] = map.getCell(x + position * stepX + stepY, y + position * stepY + stepX);
+				}
+				runStart = NONE;
+			}
+		}
+		return Arrays.copyOf(crossings, count);
+	}
+
+	/**
+	 * Collects the entrances of a cluster from the crossings along its
+	 * borders and computes the costs of the paths between them.
+	 * 
+	 * @param cluster
+	 *            the index of the cluster
+	 * @param changed
+	 *            true if the obstacles of the cluster changed, false to
+	 *            compute the costs only if the entrances changed
+	 */
+	private void buildCluster(int cluster, boolean changed) {
+		// Sorts the crossings by the entrance they start from.
+		int clusterX = cluster % clustersX;
+		int clusterY = cluster / clustersX;
+		long[] crossings = new long[0];
+		crossings = addCrossings(crossings, eastCrossings[cluster], false);
+		crossings = addCrossings(crossings, southCrossings[cluster], false);
+		if (clusterX > 0) {
+			crossings = addCrossings(crossings, eastCrossings[cluster - 1], true);
+		}
+		if (clusterY > 0) {
+			crossings = addCrossings(crossings, southCrossings[cluster - clustersX], true);
+		}
+		Arrays.sort(crossings);
+
+		int entranceCount = 0;
+		for (int i = 0; i < crossings.length; i++) {
+			if (i == 0 || (int) (crossings[i] >>> 32) != (int) (crossings[i - 1] >>> 32)) {
+				entranceCount++;
+			}
+		}
+		int[] entrances = new int[entranceCount];
+		int[][] targets = new int[entranceCount][];
+		int entrance = NONE;
+		for (int i = 0; i < crossings.length; i++) {
+			int from = (int) (crossings[i] >>> 32);
+			int to = (int) crossings[i];
+			if (entrance == NONE || entrances[entrance] != from) {
+				entrances[++entrance] = from;
+				targets[entrance] = new int[0];
+			}
+			targets[entrance] = Arrays.copyOf(targets[entrance], targets[entrance].length + 1);
+			targets[entrance][targets[entrance].length - 1] = to;
+		}
+
+		Cluster old = clusters[cluster];
+		if (!changed && Arrays.equals(old.entrances, entrances)) {
+			old.crossings = targets;
+			return;
+		}
+		double[] entranceCosts = new double[entranceCount * entranceCount];
+		for (int i = 0; i < entranceCount; i++) {
+			flood(cluster, entrances[i]);
+			for (int j = 0; j < entranceCount; j++) {
+				entranceCosts[i * entranceCount + j] = getFloodCost(cluster, entrances[j]);
+			}
+		}
+		clusters[cluster] = new Cluster(entrances, targets, entranceCosts);
+		clusterBuilds++;
+	}
+
+	/**
+	 * Appends crossings to an array, each one encoded as a long with the cell
+	 * it starts from in the upper 32 bits.
+	 * 
+	 * @param crossings
+	 *            the array of encoded crossings
+	 * @param pairs
+	 *            the crossings to add, as pairs of adjacent cells
+	 * @param reversed
+	 *            true if the crossings start from the second cell of each
+	 *            pair, false if they start from the first one
+	 * @return the array with the crossings added
+	 */
+	private static long[] addCrossings(long[] crossings, int[] pairs, boolean reversed) {
+		int count = crossings.length;
+		crossings = Arrays.copyOf(crossings, count + pairs.length / 2);
+		for (int i = 0; i < pairs.length; i += 2) {
+			int from = reversed ? pairs[i + 1] : pairs[i];
+			int to = reversed ? pairs[i] : pairs[i + 1];
+			crossings[count++] = ((long) from << 32) | (to & 0xFFFFFFFFL);
+		}
+		return crossings;
+	}
+
+	/**
+	 * Computes the cost of the shortest paths from a cell to all the others of
+	 * its cluster, without leaving it.
+	 * 
+	 * @param cluster
+	 *            the index of the cluster
+	 * @param start
+	 *            the starting cell
+	 */
+	private void flood(int cluster, int start) {
+		int originX = (cluster % clustersX) * clusterSize;
+		int originY = (cluster / clustersX) * clusterSize;
+		int width = Math.min(clusterSize, map.getWidth() - originX);
+		int height = Math.min(clusterSize, map.getHeight() - originY);
+		floodOpenList.clear();
+		if (++floodQuery == 0) {
+			// The counter wrapped around, so old states may look valid.
+			Arrays.fill(floodReached, 0);
+			floodQuery = 1;
+		}
+
+		int first = (map.getY(start) - originY) * clusterSize + map.getX(start) - originX;
+		floodCosts[first] = 0;
+		floodReached[first] = floodQuery;
+		floodOpenList.add(first, 0);
+		while (!floodOpenList.isEmpty()) {
+			int local = floodOpenList.poll();
+			int x = local % clusterSize;
+			int y = local / clusterSize;
+			for (int move = 0; move < GridPathFinder.DX.length; move++) {
+				int nextX = x + GridPathFinder.DX[move];
+				int nextY = y + GridPathFinder.DY[move];
+				if (nextX < 0 || nextY < 0 || nextX >= width || nextY >= height
+						|| map.isBlocked(originX + nextX, originY + nextY)) {
+					continue;
+				}
+				double cost = floodCosts[local] + 1;
+				if (move >= 4) {
+					if (map.isBlocked(originX + nextX, originY + y) || map.isBlocked(originX + x, originY + nextY)) {
+						continue;
+					}
+					cost = floodCosts[local] + GridPathFinder.DIAGONAL_COST;
+				}
+				int next = nextY * clusterSize + nextX;
+				if (floodReached[next] != floodQuery) {
+					floodReached[next] = floodQuery;
+					floodCosts[next] = cost;
+					floodOpenList.add(next, cost);
+				} else if (floodOpenList.contains(next) && cost < floodCosts[next]) {
+					floodCosts[next] = cost;
+					floodOpenList.update(next, cost);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the cost of the shortest path to a cell found by the last
+	 * flood.
+	 * 
+	 * @param cluster
+	 *            the index of the cluster flooded
+	 * @param cell
+	 *            the cell, which must belong to the cluster
+	 * @return the cost of the shortest path or
+	 *         {@link Double#POSITIVE_INFINITY} if the cell can't be reached
+	 */
+	private double getFloodCost(int cluster, int cell) {
+		int local = (map.getY(cell) - (cluster / clustersX) * clusterSize) * clusterSize + map.getX(cell)
+				- (cluster % clustersX) * clusterSize;
+		return floodReached[local] == floodQuery ? floodCosts[local] : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Finds a path between two cells.
+	 * 
+	 * @param startX
+	 *            the column of the starting cell
+	 * @param startY
+	 *            the row of the starting cell
+	 * @param goalX
+	 *            the column of the goal cell
+	 * @param goalY
+	 *            the row of the goal cell
+	 * @return the indices of the cells along the path, from the start to the
+	 *         goal included, or null if no path exists
+	 */
+	public int[] findPath(int startX, int startY, int goalX, int goalY) {
+		exploredEntrances = 0;
+		pathCost = Double.NaN;
+		if (!map.isWalkable(startX, startY) || !map.isWalkable(goalX, goalY)) {
+			return null;
+		}
+		int start = map.getCell(startX, startY);
+		int goal = map.getCell(goalX, goalY);
+		if (start == goal) {
+			pathCost = 0;
+			return new int[] { start };
+		}
+
+		// Links the start and the goal to the entrances of their clusters.
+		int startCluster = getCluster(start);
+		int goalCluster = getCluster(goal);
+		double[] startCosts = floodToEntrances(startCluster, start);
+		double directCost = startCluster == goalCluster ? getFloodCost(startCluster, goal)
+				: Double.POSITIVE_INFINITY;
+		double[] goalCosts = floodToEntrances(goalCluster, goal);
+
+		// Searches the graph of the entrances.
+		openList.clear();
+		if (++query == 0) {
+			// The counter wrapped around, so old states may look valid.
+			Arrays.fill(reached, 0);
+			query = 1;
+		}
+		reach(start, NONE, 0, goal);
+		boolean found = false;
+		while (!openList.isEmpty()) {
+			int cell = openList.poll();
+			exploredEntrances++;
+			if (cell == goal) {
+				found = true;
+				break;
+			}
+			int cluster = getCluster(cell);
+			Cluster clusterData = clusters[cluster];
+			int entrance = Arrays.binarySearch(clusterData.entrances, cell);
+			if (cell == start) {
+				for (int i = 0; i < startCosts.length; i++) {
+					reach(clusterData.entrances[i], cell, startCosts[i], goal);
+				}
+				reach(goal, cell, directCost, goal);
+			} else {
+				int entranceCount = clusterData.entrances.length;
+				for (int i = 0; i < entranceCount; i++) {
+					reach(clusterData.entrances[i], cell,
+							costs[cell] + clusterData.entranceCosts[entrance * entranceCount + i], goal);
+				}
+				if (cluster == goalCluster) {
+					reach(goal, cell, costs[cell] + goalCosts[entrance], goal);
+				}
+			}
+			if (entrance >= 0) {
+				for (int target : clusterData.crossings[entrance]) {
+					reach(target, cell, costs[cell] + 1, goal);
+				}
+			}
+		}
+		if (!found) {
+			return null;
+		}
+		return refine(goal);
+	}
+
+	/**
+	 * Computes the cost of the shortest paths from a cell to the entrances of
+	 * its cluster, without leaving it.
+	 * 
+	 * @param cluster
+	 *            the index of the cluster of the cell
+	 * @param cell
+	 *            the starting cell
+	 * @return the costs of the paths to each entrance, in the order of
+	 *         {@link Cluster#entrances}
+	 */
+	private double[] floodToEntrances(int cluster, int cell) {
+		flood(cluster, cell);
+		int[] entrances = clusters[cluster].entrances;
+		double[] entranceCosts = new double[entrances.length];
+		for (int i = 0; i < entrances.length; i++) {
+			entranceCosts[i] = getFloodCost(cluster, entrances[i]);
+		}
+		return entranceCosts;
+	}
+
+	/**
+	 * Updates the state of an entrance which has been reached through a path,
+	 * unless a path at least as good has already been found.
+	 * 
+	 * @param cell
+	 *            the entrance reached
+	 * @param parent
+	 *            the previous entrance along the path
+	 * @param cost
+	 *            the cost of the path
+	 * @param goal
+	 *            the goal cell
+	 */
+	private void reach(int cell, int parent, double cost, int goal) {
+		if (cost == Double.POSITIVE_INFINITY) {
+			return;
+		}
+		boolean found = reached[cell] == query;
+		if (found && (!openList.contains(cell) || cost >= costs[cell])) {
+			return;
+		}
+		costs[cell] = cost;
+		parents[cell] = parent;
+		int dx = Math.abs(map.getX(cell) - map.getX(goal));
+		int dy = Math.abs(map.getY(cell) - map.getY(goal));
+		double estimate = cost + Math.max(dx, dy) + (GridPathFinder.DIAGONAL_COST - 1) * Math.min(dx, dy);
+		if (found) {
+			openList.update(cell, estimate);
+		} else {
+			reached[cell] = query;
+			openList.add(cell, estimate);
+		}
+	}
+
+	/**
+	 * Turns the path found between the entrances into a path between
+	 * adjacent cells, finding the path along each of its edges.
+	 * 
+	 * @param goal
+	 *            the goal cell
+	 * @return the cells along the path, from the start to the goal included
+	 */
+	private int[] refine(int goal) {
+		int waypointCount = 0;
+		for (int cell = goal; cell != NONE; cell = parents[cell]) {
+			waypointCount++;
+		}
+		int[] waypoints = new int[waypointCount];
+		for (int cell = goal; cell != NONE; cell = parents[cell]) {
+			waypoints[--waypointCount] = cell;
+		}
+
+		int[] path = new int[16];
+		int length = 1;
+		path[0] = waypoints[0];
+		double cost = 0;
+		for (int i = 1; i < waypoints.length; i++) {
+			int from = waypoints[i - 1];
+			int to = waypoints[i];
+			int[] segment;
+			if (Math.abs(map.getX(from) - map.getX(to)) + Math.abs(map.getY(from) - map.getY(to)) == 1) {
+				// Crossings between clusters are single straight moves.
+				segment = new int[] { from, to };
+				cost += 1;
+			} else {
+				segment = refiner.findPath(map.getX(from), map.getY(from), map.getX(to), map.getY(to));
+				cost += refiner.getPathCost();
+			}
+			if (length + segment.length > path.length) {
+				path = Arrays.copyOf(path, Math.max(path.length * 2, length + segment.length));
+			}
+			System.arraycopy(segment, 1, path, length, segment.length - 1);
+			length += segment.length - 1;
+		}
+		pathCost = cost;
+		return Arrays.copyOf(path, length);
+	}
+
+	/**
+	 * Returns the cluster of a cell.
+	 * 
+	 * @param cell
+	 *            the cell
+	 * @return the index of the cluster of the cell
+	 */
+	private int getCluster(int cell) {
+		return (map.getY(cell) / clusterSize) * clustersX + map.getX(cell) / clusterSize;
+	}
+
+	/**
+	 * Finds a path between two nodes, which must extend {@link Node2D} and
+	 * whose coordinates are the ones of a cell of the map. The nodes between
+	 * the start and the goal are created as the path is found, like the ones
+	 * of a {@link GridPathFinder}.
+	 * 
+	 * @param start
+	 *            the starting node
+	 * @param goal
+	 *            the ending node
+	 * @return the end node if a path has been found, null otherwise
+	 * @see co.aurasphere.algo.pathfind.PathFinder#findPath(co.aurasphere.algo.pathfind.Node,
+	 *      co.aurasphere.algo.pathfind.Node)
+	 */
+	public Node findPath(Node start, Node goal) {
+		if (!(start instanceof Node2D) || !(goal instanceof Node2D)) {
+			throw new IllegalArgumentException("Nodes used by this algorithm must extend " + Node2D.class.getName());
+		}
+		Node2D start2D = (Node2D) start;
+		Node2D goal2D = (Node2D) goal;
+		int[] path = findPath(start2D.x, start2D.y, goal2D.x, goal2D.y);
+		return path != null ? GridPathFinder.linkPath(map, true, path, start, goal) : null;
+	}
+
+	/**
+	 * Gets the {@link #pathCost}.
+	 *
+	 * @return the {@link #pathCost}
+	 */
+	public double getPathCost() {
+		return pathCost;
+	}
+
+	/**
+	 * Gets the {@link #exploredEntrances}.
+	 *
+	 * @return the {@link #exploredEntrances}
+	 */
+	public int getExploredEntrances() {
+		return exploredEntrances;
+	}
+
+	/**
+	 * Gets the {@link #clusterSize}.
+	 *
+	 * @return the {@link #clusterSize}
+	 */
+	public int getClusterSize() {
+		return clusterSize;
+	}
+
+	/**
+	 * Gets the {@link #map}.
+	 *
+	 * @return the {@link #map}
+	 */
+	public GridMap getMap() {
+		return map;
+	}
+
+	/**
+	 * Gets the {@link #clusterBuilds}.
+	 *
+	 * @return the {@link #clusterBuilds}
+	 */
+	int getClusterBuilds() {
+		return clusterBuilds;
+	}
+
+	/**
+	 * Entrances of a cluster and the cached costs of the paths between them.
+	 * 
+	 * @author Donato Rimenti
+	 *
+	 */
+	private static class Cluster {
+
+		/**
+		 * The cells of the entrances, sorted.
+		 */
+		private final int[] entrances;
+
+		/**
+		 * The cells of the neighbouring clusters reached from each entrance
+		 * with a single move.
+		 */
+		private int[][] crossings;
+
+		/**
+		 * Cost of the shortest path inside the cluster between each pair of
+		 * entrances, stored at the index <code>from * entrances + to</code>,
+		 * or {@link Double#POSITIVE_INFINITY} if there's none.
+		 */
+		private final double[] entranceCosts;
+
+		/**
+		 * Instantiates a new Cluster.
+		 *
+		 * @param entrances
+		 *            the {@link #entrances}
+		 * @param crossings
+		 *            the {@link #crossings}
+		 * @param entranceCosts
+		 *            the {@link #entranceCosts}
+		 */
+		Cluster(int[] entrances, int[][] crossings, double[] entranceCosts) {
+			this.entrances = entrances;
+			this.crossings = crossings;
+			this.entranceCosts = entranceCosts;
+		}
+
+	}
+
+}
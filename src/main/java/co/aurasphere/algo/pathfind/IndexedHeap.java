@@ -0,0 +1,277 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min-heap of integer ids ordered by a double key, which keeps track of
+ * the position of each id so that its key can be changed in O(log n). The ids
+ * are expected to be dense, since the positions are stored in an array
+ * indexed by id. Ties are broken the same way as a
+ * {@link java.util.PriorityQueue}.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+class IndexedHeap {
+
+	/**
+	 * Position of an id which is not in the heap.
+	 */
+	private static final int ABSENT = -1;
+
+	/**
+	 * The ids in the heap.
+	 */
+	private int[] heap;
+
+	/**
+	 * The keys of the ids in the heap, stored at the same position of their
+	 * id.
+	 */
+	private double[] keys;
+
+	/**
+	 * The position in the heap of each id or {@link #ABSENT}.
+	 */
+	private int[] positions;
+
+	/**
+	 * Number of ids in the heap.
+	 */
+	private int size;
+
+	/**
+	 * Instantiates a new IndexedHeap.
+	 */
+	IndexedHeap() {
+		this(0);
+	}
+
+	/**
+	 * Instantiates a new IndexedHeap with room for a given number of ids,
+	 * which can be added without growing the heap.
+	 *
+	 * @param capacity
+	 *            the ids from 0 to capacity, exclusive, which can be added
+	 *            without growing the heap
+	 */
+	IndexedHeap(int capacity) {
+		this.heap = new int[Math.max(capacity, 16)];
+		this.keys = new double[heap.length];
+		this.positions = new int[capacity];
+		Arrays.fill(positions, ABSENT);
+	}
+
+	/**
+	 * Adds an id to the heap.
+	 * 
+	 * @param id
+	 *            the id to add, which must not be in the heap
+	 * @param key
+	 *            the key of the id
+	 */
+	void add(int id, double key) {
+		if (id >= positions.length) {
+			int oldLength = positions.length;
+			positions = Arrays.copyOf(positions, Math.max(id + 1, oldLength * 2));
+			Arrays.fill(positions, oldLength, positions.length, ABSENT);
+		}
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+			keys = Arrays.copyOf(keys, size * 2);
+		}
+		siftUp(size++, id, key);
+	}
+
+	/**
+	 * Removes the id with the lowest key from the heap.
+	 * 
+	 * @return the id with the lowest key
+	 * @throws NoSuchElementException
+	 *             if the heap is empty
+	 */
+	int poll() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		int result = heap[0];
+		positions[result] = ABSENT;
+		int last = --size;
+		if (last > 0) {
+			siftDown(0, heap[last], keys[last]);
+		}
+		return result;
+	}
+
+	/**
+	 * Changes the key of an id in the heap.
+	 * 
+	 * @param id
+	 *            the id to update, which must be in the heap
+	 * @param key
+	 *            the new key of the id
+	 */
+	void update(int id, double key) {
+		int position = positions[id];
+		if (key < keys[position]) {
+			siftUp(position, id, key);
+		} else {
+			siftDown(position, id, key);
+		}
+	}
+
+	/**
+	 * Checks if an id is in the heap.
+	 * 
+	 * @param id
+	 *            the id to check
+	 * @return true if the id is in the heap, false otherwise
+	 */
+	boolean contains(int id) {
+		return id < positions.length && positions[id] != ABSENT;
+	}
+
+	/**
+	 * Returns the key of an id in the heap.
+	 * 
+	 * @param id
+	 *            the id, which must be in the heap
+	 * @return the key of the id
+	 */
+	double getKey(int id) {
+		return keys[positions[id]];
+	}
+
+	/**
+	 * Returns the lowest key in the heap.
+	 * 
+	 * @return the lowest key in the heap
+	 * @throws NoSuchElementException
+	 *             if the heap is empty
+	 */
+	double peekKey() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return keys[0];
+	}
+
+	/**
+	 * Removes all the ids from the heap.
+	 */
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[heap[i]] = ABSENT;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Checks if the heap is empty.
+	 * 
+	 * @return true if the heap is empty, false otherwise
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the {@link #size}.
+	 *
+	 * @return the {@link #size}
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Moves an id up from a position until its parent has a lower or equal
+	 * key.
+	 * 
+	 * @param position
+	 *            the starting position
+	 * @param id
+	 *            the id to place
+	 * @param key
+	 *            the key of the id
+	 */
+	private void siftUp(int position, int id, double key) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (key >= keys[parent]) {
+				break;
+			}
+			place(position, heap[parent], keys[parent]);
+			position = parent;
+		}
+		place(position, id, key);
+	}
+
+	/**
+	 * Moves an id down from a position until its children have a greater or
+	 * equal key.
+	 * 
+	 * @param position
+	 *            the starting position
+	 * @param id
+	 *            the id to place
+	 * @param key
+	 *            the key of the id
+	 */
+	private void siftDown(int position, int id, double key) {
+		int half = size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			if (child + 1 < size && keys[child] > keys[child + 1]) {
+				child++;
+			}
+			if (key <= keys[child]) {
+				break;
+			}
+			place(position, heap[child], keys[child]);
+			position = child;
+		}
+		place(position, id, key);
+	}
+
+	/**
+	 * Stores an id at a position of the heap.
+	 * 
+	 * @param position
+	 *            the position in the heap
+	 * @param id
+	 *            the id to store
+	 * @param key
+	 *            the key of the id
+	 */
+	private void place(int position, int id, double key) {
+		heap[position] = id;
+		keys[position] = key;
+		positions[id] = position;
+	}
+
+}
@@ -0,0 +1,367 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+/**
+ * Jump Point Search, a {@link GridPathFinder} for 8-connected grids which
+ * finds the same shortest paths while exploring far fewer cells. Since all
+ * the moves in the same direction cost the same, many paths between two cells
+ * are equivalent: instead of adding each adjacent cell to the open list, the
+ * search keeps moving in the same direction until it finds a cell where the
+ * path may need to turn (a jump point) and only adds that one. <br>
+ * <br>
+ * The distances to the next jump point in each direction only depend on the
+ * map, so they can be precomputed (JPS+), which makes each jump take constant
+ * time at the cost of 8 integers per cell. The map must not change once the
+ * distances have been precomputed.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class JumpPointSearch extends GridPathFinder {
+
+	/**
+	 * The direction of the moves, as indices of {@link GridPathFinder#DX} and
+	 * {@link GridPathFinder#DY}, stored at the index
+	 * <code>(dy + 1) * 3 + dx + 1</code>.
+	 */
+	private static final int[] DIRECTIONS = { 7, 3, 5, 1, NONE, 0, 6, 2, 4 };
+
+	/**
+	 * The precomputed distances from each cell, stored at the index
+	 * <code>cell * 8 + direction</code>. A positive value is the number of
+	 * moves to the next jump point in that direction, otherwise it's the
+	 * opposite of the number of moves before an obstacle. It's null if the
+	 * distances are computed at each jump.
+	 */
+	private final int[] jumpDistances;
+
+	/**
+	 * Instantiates a new JumpPointSearch which computes the jumps as they are
+	 * made.
+	 *
+	 * @param map
+	 *            the map where the paths are searched
+	 */
+	public JumpPointSearch(GridMap map) {
+		this(map, false);
+	}
+
+	/**
+	 * Instantiates a new JumpPointSearch.
+	 *
+	 * @param map
+	 *            the map where the paths are searched
+	 * @param precomputeJumps
+	 *            true to precompute the jump distances (JPS+), false to
+	 *            compute the jumps as they are made
+	 */
+	public JumpPointSearch(GridMap map, boolean precomputeJumps) {
+		super(map, true);
+		this.jumpDistances = precomputeJumps ? precomputeJumpDistances(map) : null;
+	}
+
+	/**
+	 * Adds to the open list the jump points found from a cell being explored,
+	 * only in the directions which may lead to a shorter path than going
+	 * through its parent.
+	 * 
+	 * @param cell
+	 *            the cell being explored
+	 * @param goalX
+	 *            the column of the goal cell
+	 * @param goalY
+	 *            the row of the goal cell
+	 */
+	@Override
+	void expand(int cell, int goalX, int goalY) {
+		int x = map.getX(cell);
+		int y = map.getY(cell);
+		int parent = parents[cell];
+		if (parent == NONE) {
+			for (int direction = 0; direction < DX.length; direction++) {
+				jump(cell, x, y, DX[direction], DY[direction], goalX, goalY);
+			}
+			return;
+		}
+		int dx = Integer.signum(x - map.getX(parent));
+		int dy = Integer.signum(y - map.getY(parent));
+
+		if (dx != 0 && dy != 0) {
+			// Diagonal moves keep going in the same direction or along its
+			// two components.
+			jump(cell, x, y, dx, 0, goalX, goalY);
+			jump(cell, x, y, 0, dy, goalX, goalY);
+			jump(cell, x, y, dx, dy, goalX, goalY);
+		} else if (dx != 0) {
+			// Straight moves keep going in the same direction and turn only
+			// around an obstacle which was beside the cell they came from.
+			jump(cell, x, y, dx, 0, goalX, goalY);
+			for (int side = -1; side <= 1; side += 2) {
+				if (!map.isWalkable(x - dx, y + side)) {
+					jump(cell, x, y, 0, side, goalX, goalY);
+					jump(cell, x, y, dx, side, goalX, goalY);
+				}
+			}
+		} else {
+			jump(cell, x, y, 0, dy, goalX, goalY);
+			for (int side = -1; side <= 1; side += 2) {
+				if (!map.isWalkable(x + side, y - dy)) {
+					jump(cell, x, y, side, 0, goalX, goalY);
+					jump(cell, x, y, side, dy, goalX, goalY);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Moves from a cell in a direction until a jump point is found and, if
+	 * any, adds it to the open list.
+	 * 
+	 * @param cell
+	 *            the starting cell
+	 * @param x
+	 *            the column of the starting cell
+	 * @param y
+	 *            the row of the starting cell
+	 * @param dx
+	 *            the horizontal direction of the moves
+	 * @param dy
+	 *            the vertical direction of the moves
+	 * @param goalX
+	 *            the column of the goal cell
+	 * @param goalY
+	 *            the row of the goal cell
+	 */
+	private void jump(int cell, int x, int y, int dx, int dy, int goalX, int goalY) {
+		int moves;
+		if (jumpDistances != null) {
+			moves = lookUpJump(cell, x, y, dx, dy, goalX, goalY);
+		} else if (dx != 0 && dy != 0) {
+			moves = jumpDiagonally(x, y, dx, dy, goalX, goalY);
+		} else {
+			moves = jumpStraight(x, y, dx, dy, goalX, goalY);
+		}
+		if (moves > 0) {
+			double cost = costs[cell] + (dx != 0 && dy != 0 ? moves * DIAGONAL_COST : moves);
+			reach(map.getCell(x + moves * dx, y + moves * dy), cell, cost, goalX, goalY);
+		}
+	}
+
+	/**
+	 * Moves horizontally or vertically from a cell until a jump point is
+	 * found: the goal or a cell with an obstacle beside the previous cell and
+	 * none beside itself, where a shortest path may turn.
+	 * 
+	 * @param x
+	 *            the column of the starting cell
+	 * @param y
+	 *            the row of the starting cell
+	 * @param dx
+	 *            the horizontal direction of the moves
+	 * @param dy
+	 *            the vertical direction of the moves
+	 * @param goalX
+	 *            the column of the goal cell
+	 * @param goalY
+	 *            the row of the goal cell
+	 * @return the number of moves to the jump point or 0 if an obstacle is
+	 *         found first
+	 */
+	private int jumpStraight(int x, int y, int dx, int dy, int goalX, int goalY) {
+		for (int moves = 1;; moves++) {
+			x += dx;
+			y += dy;
+			if (!map.isWalkable(x, y)) {
+				return 0;
+			}
+			if ((x == goalX && y == goalY) || isForced(map, x, y, dx, dy)) {
+				return moves;
+			}
+		}
+	}
+
+	/**
+	 * Moves diagonally from a cell until a jump point is found: the goal or a
+	 * cell from which a jump point can be found by moving horizontally or
+	 * vertically.
+	 * 
+	 * @param x
+	 *            the column of the starting cell
+	 * @param y
+	 *            the row of the starting cell
+	 * @param dx
+	 *            the horizontal direction of the moves
+	 * @param dy
+	 *            the vertical direction of the moves
+	 * @param goalX
+	 *            the column of the goal cell
+	 * @param goalY
+	 *            the row of the goal cell
+	 * @return the number of moves to the jump point or 0 if an obstacle is
+	 *         found first
+	 */
+	private int jumpDiagonally(int x, int y, int dx, int dy, int goalX, int goalY) {
+		for (int moves = 1;; moves++) {
+			if (!canMoveDiagonally(map, x, y, dx, dy)) {
+				return 0;
+			}
+			x += dx;
+			y += dy;
+			if ((x == goalX && y == goalY) || jumpStraight(x, y, dx, 0, goalX, goalY) > 0
+					|| jumpStraight(x, y, 0, dy, goalX, goalY) > 0) {
+				return moves;
+			}
+		}
+	}
+
+	/**
+	 * Finds a jump point from a cell using the precomputed distances. Since
+	 * those don't account for the goal, a jump stops at the goal if it's on
+	 * the way or, for a diagonal jump, at the cell in line with it.
+	 * 
+	 * @param cell
+	 *            the starting cell
+	 * @param x
+	 *            the column of the starting cell
+	 * @param y
+	 *            the row of the starting cell
+	 * @param dx
+	 *            the horizontal direction of the moves
+	 * @param dy
+	 *            the vertical direction of the moves
+	 * @param goalX
+	 *            the column of the goal cell
+	 * @param goalY
+	 *            the row of the goal cell
+	 * @return the number of moves to the jump point or 0 if an obstacle is
+	 *         found first
+	 */
+	private int lookUpJump(int cell, int x, int y, int dx, int dy, int goalX, int goalY) {
+		int distance = jumpDistances[cell * 8 + DIRECTIONS[(dy + 1) * 3 + dx + 1]];
+		int goalDx = goalX - x;
+		int goalDy = goalY - y;
+		int goalMoves = NONE;
+		if (dx != 0 && dy != 0) {
+			if (Integer.signum(goalDx) == dx && Integer.signum(goalDy) == dy) {
+				goalMoves = Math.min(Math.abs(goalDx), Math.abs(goalDy));
+			}
+		} else if (Integer.signum(goalDx) == dx && Integer.signum(goalDy) == dy) {
+			goalMoves = Math.abs(goalDx + goalDy);
+		}
+		if (goalMoves != NONE && goalMoves <= Math.abs(distance)) {
+			return goalMoves;
+		}
+		return Math.max(distance, 0);
+	}
+
+	/**
+	 * Checks if a cell reached by moving horizontally or vertically is a jump
+	 * point, that is if on any side there's an obstacle beside the previous
+	 * cell and none beside itself.
+	 * 
+	 * @param map
+	 *            the map of the cell
+	 * @param x
+	 *            the column of the cell
+	 * @param y
+	 *            the row of the cell
+	 * @param dx
+	 *            the horizontal direction of the move
+	 * @param dy
+	 *            the vertical direction of the move
+	 * @return true if the cell is a jump point, false otherwise
+	 */
+	private static boolean isForced(GridMap map, int x, int y, int dx, int dy) {
+		if (dx != 0) {
+			return (map.isWalkable(x, y + 1) && !map.isWalkable(x - dx, y + 1))
+					|| (map.isWalkable(x, y - 1) && !map.isWalkable(x - dx, y - 1));
+		}
+		return (map.isWalkable(x + 1, y) && !map.isWalkable(x + 1, y - dy))
+				|| (map.isWalkable(x - 1, y) && !map.isWalkable(x - 1, y - dy));
+	}
+
+	/**
+	 * Checks if a diagonal move from a cell is allowed, which requires the
+	 * destination and both the cells beside the move to be free.
+	 * 
+	 * @param map
+	 *            the map of the cell
+	 * @param x
+	 *            the column of the cell
+	 * @param y
+	 *            the row of the cell
+	 * @param dx
+	 *            the horizontal direction of the move
+	 * @param dy
+	 *            the vertical direction of the move
+	 * @return true if the move is allowed, false otherwise
+	 */
+	private static boolean canMoveDiagonally(GridMap map, int x, int y, int dx, int dy) {
+		return map.isWalkable(x + dx, y + dy) && map.isWalkable(x + dx, y) && map.isWalkable(x, y + dy);
+	}
+
+	/**
+	 * Computes the distances from each cell to the next jump point in each
+	 * direction. Each distance only depends on the one from the next cell in
+	 * the same direction, so the map is swept from the opposite side, and
+	 * the diagonal distances depend on the straight ones, so those are
+	 * computed first.
+	 * 
+	 * @param map
+	 *            the map whose distances are computed
+	 * @return the distances, as described by {@link #jumpDistances}
+	 */
+	private static int[] precomputeJumpDistances(GridMap map) {
+		int width = map.getWidth();
+		int height = map.getHeight();
+		int[] distances = new int[map.size() * 8];
+		for (int direction = 0; direction < DX.length; direction++) {
+			int dx = DX[direction];
+			int dy = DY[direction];
+			boolean diagonal = dx != 0 && dy != 0;
+			for (int row = 0; row < height; row++) {
+				int y = dy > 0 ? height - 1 - row : row;
+				for (int column = 0; column < width; column++) {
+					int x = dx > 0 ? width - 1 - column : column;
+					int distance;
+					if (diagonal ? !canMoveDiagonally(map, x, y, dx, dy) : !map.isWalkable(x + dx, y + dy)) {
+						distance = 0;
+					} else {
+						int next = ((y + dy) * width + x + dx) * 8;
+						boolean jumpPoint = diagonal
+								? distances[next + DIRECTIONS[4 + dx]] > 0
+										|| distances[next + DIRECTIONS[(dy + 1) * 3 + 1]] > 0
+								: isForced(map, x + dx, y + dy, dx, dy);
+						int nextDistance = distances[next + direction];
+						distance = jumpPoint ? 1 : nextDistance > 0 ? nextDistance + 1 : nextDistance - 1;
+					}
+					distances[(y * width + x) * 8 + direction] = distance;
+				}
+			}
+		}
+		return distances;
+	}
+
+}
@@ -74,6 +74,29 @@ public class Metrics2D {
 		}
 	};
 
+	/**
+	 * Octile distance, useful when moving in 8 directions with diagonal moves
+	 * costing <code>sqrt(2)</code>. Returns the length of the path made of
+	 * as many diagonal moves as possible followed by straight moves.
+	 */
+	public static final Metric OCTILE_DISTANCE = new Metric() {
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * co.aurasphere.algo.pathfind.Metric#measureDistance(co.aurasphere.algo
+		 * .pathfind.Node, co.aurasphere.algo.pathfind.Node)
+		 */
+		@Override
+		public double measureDistance(Node start, Node goal) {
+			Node2D[] nodes = check2DNode(start, goal);
+			int dx = Math.abs(nodes[0].x - nodes[1].x);
+			int dy = Math.abs(nodes[0].y - nodes[1].y);
+			return Math.max(dx, dy) + (Math.sqrt(2) - 1) * Math.min(dx, dy);
+		}
+	};
+
 	/**
 	 * Euclidean distance (or Pythagorean metric), useful when moving in any
 	 * directions. Returns the value of the distance between the distance
@@ -0,0 +1,299 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiConsumer;
+
+import co.aurasphere.algo.AsyncFitnessFunction;
+
+/**
+ * Evaluates the particles of a {@link Swarm} with an
+ * {@link AsyncFitnessFunction}, keeping up to a fixed number of evaluations in
+ * flight. Each particle is moved as soon as its evaluation completes and is
+ * then queued to be evaluated again, so fast evaluations don't wait for the
+ * slow ones. Evaluations still in flight at the end of an iteration carry on
+ * into the next one. Since the particles are moved in the order their
+ * evaluations complete, the results are not reproducible even with a seeded
+ * random source.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+class AsyncFitnessEvaluator {
+
+	/**
+	 * The swarm whose particles are evaluated.
+	 */
+	private final Swarm swarm;
+
+	/**
+	 * The function which evaluates the particles.
+	 */
+	private final AsyncFitnessFunction fitnessFunction;
+
+	/**
+	 * Maximum number of evaluations in flight at the same time.
+	 */
+	private final int maxInFlight;
+
+	/**
+	 * The evaluations completed and not applied yet.
+	 */
+	private final BlockingQueue<Completion> completions = new LinkedBlockingQueue<Completion>();
+
+	/**
+	 * The particles waiting to be evaluated, in the order they have been
+	 * moved. Used as a circular buffer.
+	 */
+	private final int[] idle;
+
+	/**
+	 * The index of the first element of {@link #idle}.
+	 */
+	private int idleHead;
+
+	/**
+	 * Number of elements of {@link #idle}.
+	 */
+	private int idleCount;
+
+	/**
+	 * Number of evaluations in flight.
+	 */
+	private int inFlight;
+
+	/**
+	 * Instantiates a new AsyncFitnessEvaluator.
+	 *
+	 * @param swarm
+	 *            the {@link #swarm}
+	 * @param fitnessFunction
+	 *            the {@link #fitnessFunction}
+	 * @param maxInFlight
+	 *            the {@link #maxInFlight}
+	 */
+	AsyncFitnessEvaluator(Swarm swarm, AsyncFitnessFunction fitnessFunction, int maxInFlight) {
+		this.swarm = swarm;
+		this.fitnessFunction = fitnessFunction;
+		int size = swarm.getParticleStore().size;
+		this.maxInFlight = Math.min(maxInFlight, size);
+		this.idle = new int[size];
+		for (int i = 0; i < size; i++) {
+			idle[i] = i;
+		}
+		this.idleCount = size;
+	}
+
+	/**
+	 * Applies as many evaluations as the particles of the swarm, waiting for
+	 * them to complete, and keeps the evaluations in flight up to
+	 * {@link #maxInFlight}. If the thread is interrupted while waiting, the
+	 * iteration ends early with the interrupt flag set.
+	 * 
+	 * @param globalBest
+	 *            the best position found by all the swarms or null if the
+	 *            swarm is not part of a multiswarm
+	 * @param globalWeight
+	 *            the weight of the global best position
+	 * @param measure
+	 *            whether the time spent waiting for the evaluations should be
+	 *            measured
+	 * @return the nanoseconds spent waiting for the evaluations or 0 if not
+	 *         measured
+	 * @throws CompletionException
+	 *             if an evaluation failed with a checked exception
+	 */
+	long iterate(GlobalBest globalBest, double globalWeight, boolean measure) {
+		double[] fitness = swarm.getParticleStore().fitness;
+		long waitNanos = 0;
+		fill();
+		for (int applied = 0; applied < idle.length; applied++) {
+			Completion completion = completions.poll();
+			if (completion == null) {
+				long start = measure ? System.nanoTime() : 0;
+				try {
+					completion = completions.take();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return waitNanos;
+				}
+				if (measure) {
+					waitNanos += System.nanoTime() - start;
+				}
+			}
+			inFlight--;
+			if (completion.error != null) {
+				// The particle stays where it is and is evaluated again by the
+				// next iteration.
+				release(completion.index);
+				throw unwrap(completion.error);
+			}
+
+			fitness[completion.index] = completion.fitness;
+			if (!completion.predicted) {
+				swarm.recordEvaluation(completion.index);
+			}
+			swarm.applyEvaluation(completion.index, globalBest, globalWeight);
+			release(completion.index);
+			fill();
+		}
+		return waitNanos;
+	}
+
+	/**
+	 * Starts evaluating the idle particles until {@link #maxInFlight}
+	 * evaluations are in flight.
+	 */
+	private void fill() {
+		ParticleStore store = swarm.getParticleStore();
+		while (inFlight < maxInFlight && idleCount > 0) {
+			final int index = idle[idleHead];
+			idleHead = (idleHead + 1) % idle.length;
+			idleCount--;
+			inFlight++;
+
+			// Particles screened out by the surrogate complete right away.
+			if (swarm.screen(index)) {
+				completions.add(new Completion(index, store.fitness[index], null, true));
+				continue;
+			}
+
+			// The particle doesn't move until its evaluation is applied, but
+			// the function gets its own copy of the position anyway.
+			double[] position = new double[store.dimensions];
+			System.arraycopy(store.positions, store.offset(index), position, 0, store.dimensions);
+			try {
+				fitnessFunction.getFitnessAsync(position).whenComplete(new BiConsumer<Double, Throwable>() {
+
+					@Override
+					public void accept(Double result, Throwable error) {
+						completions.add(new Completion(index, result == null ? 0 : result, error, false));
+					}
+				});
+			} catch (RuntimeException | Error e) {
+				// The evaluation never started: the particle goes back to the
+				// head of the idle ones, to be submitted again first.
+				inFlight--;
+				idleHead = (idleHead + idle.length - 1) % idle.length;
+				idle[idleHead] = index;
+				idleCount++;
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Marks a particle as idle, queueing it after the other idle particles.
+	 * 
+	 * @param index
+	 *            the index of the particle
+	 */
+	private void release(int index) {
+		idle[(idleHead + idleCount) % idle.length] = index;
+		idleCount++;
+	}
+
+	/**
+	 * Returns the exception to throw for a failed evaluation.
+	 * 
+	 * @param error
+	 *            the error which made the evaluation fail
+	 * @return the unchecked exception which caused the failure
+	 */
+	private static RuntimeException unwrap(Throwable error) {
+		Throwable cause = error;
+		if (cause instanceof CompletionException && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		if (cause instanceof RuntimeException) {
+			return (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return new CompletionException(cause);
+	}
+
+	/**
+	 * Gets the number of evaluations in flight.
+	 *
+	 * @return the number of evaluations in flight
+	 */
+	int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * The result of an evaluation.
+	 * 
+	 * @author Donato Rimenti
+	 *
+	 */
+	private static class Completion {
+
+		/**
+		 * The index of the particle evaluated.
+		 */
+		private final int index;
+
+		/**
+		 * The fitness of the particle.
+		 */
+		private final double fitness;
+
+		/**
+		 * The error which made the evaluation fail or null if it succeeded.
+		 */
+		private final Throwable error;
+
+		/**
+		 * Whether the fitness has been predicted by the swarm surrogate
+		 * instead of evaluated.
+		 */
+		private final boolean predicted;
+
+		/**
+		 * Instantiates a new Completion.
+		 *
+		 * @param index
+		 *            the {@link #index}
+		 * @param fitness
+		 *            the {@link #fitness}
+		 * @param error
+		 *            the {@link #error}
+		 * @param predicted
+		 *            the {@link #predicted}
+		 */
+		Completion(int index, double fitness, Throwable error, boolean predicted) {
+			this.index = index;
+			this.fitness = fitness;
+			this.error = error;
+			this.predicted = predicted;
+		}
+	}
+
+}
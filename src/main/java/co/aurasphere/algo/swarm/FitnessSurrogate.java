@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cheap approximation of an expensive fitness function, built from the
+ * evaluations already done. The evaluated positions are indexed by a k-d tree
+ * and the fitness of a new position is predicted by interpolating the fitness
+ * of its nearest neighbours, weighted by the inverse of their squared
+ * distance. A swarm uses the prediction to skip the evaluation of the
+ * particles which are not expected to improve their own best, and counts the
+ * evaluations saved this way.<br>
+ * <br>
+ * This class is not thread safe: each swarm has its own surrogate.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class FitnessSurrogate {
+
+	/**
+	 * The positions evaluated so far and their fitness.
+	 */
+	private final KdTree archive;
+
+	/**
+	 * Buffer for the nearest neighbours of a position.
+	 */
+	private final int[] neighbours;
+
+	/**
+	 * Buffer for the squared distances of the nearest neighbours of a
+	 * position.
+	 */
+	private final double[] squaredDistances;
+
+	/**
+	 * Number of evaluations done with the real fitness function.
+	 */
+	private final LongAdder realEvaluations = new LongAdder();
+
+	/**
+	 * Number of evaluations replaced by a prediction.
+	 */
+	private final LongAdder savedEvaluations = new LongAdder();
+
+	/**
+	 * Instantiates a new FitnessSurrogate.
+	 *
+	 * @param dimensions
+	 *            the number of variables of each position
+	 * @param neighbours
+	 *            the number of nearest neighbours used to predict the
+	 *            fitness of a position
+	 */
+	public FitnessSurrogate(int dimensions, int neighbours) {
+		if (neighbours <= 0) {
+			throw new IllegalArgumentException("Number of neighbours must be positive but was " + neighbours);
+		}
+		this.archive = new KdTree(dimensions);
+		this.neighbours = new int[neighbours];
+		this.squaredDistances = new double[neighbours];
+	}
+
+	/**
+	 * Adds the result of a real evaluation to the archive.
+	 * 
+	 * @param positions
+	 *            the array which holds the position evaluated
+	 * @param offset
+	 *            the index of the first variable of the position
+	 * @param fitness
+	 *            the fitness of the position
+	 */
+	public void add(double[] positions, int offset, double fitness) {
+		archive.insert(positions, offset, fitness);
+		realEvaluations.increment();
+	}
+
+	/**
+	 * Predicts the fitness of a position. If the position has already been
+	 * evaluated, its fitness is returned.
+	 * 
+	 * @param positions
+	 *            the array which holds the position
+	 * @param offset
+	 *            the index of the first variable of the position
+	 * @return the predicted fitness or {@link Double#NaN} if the archive holds
+	 *         fewer positions than the neighbours required
+	 */
+	public double predict(double[] positions, int offset) {
+		if (archive.size() < neighbours.length) {
+			return Double.NaN;
+		}
+		int found = archive.nearest(positions, offset, neighbours, squaredDistances);
+		double weightedSum = 0;
+		double totalWeight = 0;
+		for (int i = 0; i < found; i++) {
+			if (squaredDistances[i] == 0) {
+				return archive.getValue(neighbours[i]);
+			}
+			double weight = 1 / squaredDistances[i];
+			weightedSum += weight * archive.getValue(neighbours[i]);
+			totalWeight += weight;
+		}
+		return weightedSum / totalWeight;
+	}
+
+	/**
+	 * Records that an evaluation has been replaced by a prediction.
+	 */
+	void recordSavedEvaluation() {
+		savedEvaluations.increment();
+	}
+
+	/**
+	 * Returns the number of evaluations done with the real fitness function.
+	 *
+	 * @return the number of real evaluations
+	 */
+	public long getRealEvaluations() {
+		return realEvaluations.sum();
+	}
+
+	/**
+	 * Returns the number of evaluations replaced by a prediction.
+	 *
+	 * @return the number of evaluations saved
+	 */
+	public long getSavedEvaluations() {
+		return savedEvaluations.sum();
+	}
+
+	/**
+	 * Returns the number of positions in the archive.
+	 *
+	 * @return the number of positions in the archive
+	 */
+	public int getArchiveSize() {
+		return archive.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "FitnessSurrogate [neighbours=" + neighbours.length + ", realEvaluations=" + getRealEvaluations()
+				+ ", savedEvaluations=" + getSavedEvaluations() + "]";
+	}
+
+}
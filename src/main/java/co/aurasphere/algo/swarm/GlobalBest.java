@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+/**
+ * Best position found by a group of {@link Swarm}, used to drive their
+ * particles toward it. Within a {@link Multiswarm} evaluated sequentially this
+ * is shared by all the swarms, while in island mode each swarm keeps its own
+ * copy and synchronizes it through a {@link GlobalBestRecord}.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+final class GlobalBest {
+
+	/**
+	 * The best position found.
+	 */
+	final double[] position;
+
+	/**
+	 * The best fitness found.
+	 */
+	double fitness = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * The version of the {@link GlobalBestRecord} this has been last
+	 * synchronized with.
+	 */
+	long version = -1;
+
+	/**
+	 * Instantiates a new GlobalBest.
+	 *
+	 * @param dimensions
+	 *            the number of coordinates of the {@link #position}
+	 */
+	GlobalBest(int dimensions) {
+		this.position = new double[dimensions];
+	}
+
+	/**
+	 * Replaces this best with the position passed as argument if its fitness
+	 * is better.
+	 * 
+	 * @param candidatePosition
+	 *            the candidate position
+	 * @param candidateFitness
+	 *            the fitness of the candidate position
+	 * @return true if this best has been replaced, false otherwise
+	 */
+	boolean offer(double[] candidatePosition, double candidateFitness) {
+		if (candidateFitness > fitness) {
+			fitness = candidateFitness;
+			System.arraycopy(candidatePosition, 0, position, 0, position.length);
+			return true;
+		}
+		return false;
+	}
+
+}
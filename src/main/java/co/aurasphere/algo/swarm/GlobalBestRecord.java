@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable snapshot of the best position found by the islands of a
+ * {@link Multiswarm}. The current record is kept in an
+ * {@link AtomicReference} and replaced with a compare-and-set each time an
+ * island finds a better position, so publishing and reading the best position
+ * never blocks. Records are only created on improvements, which become rare
+ * as the search goes on.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+final class GlobalBestRecord {
+
+	/**
+	 * The best position found.
+	 */
+	final double[] position;
+
+	/**
+	 * The best fitness found.
+	 */
+	final double fitness;
+
+	/**
+	 * Number of improvements published before this record.
+	 */
+	final long version;
+
+	/**
+	 * Instantiates a new GlobalBestRecord.
+	 *
+	 * @param position
+	 *            the {@link #position}
+	 * @param fitness
+	 *            the {@link #fitness}
+	 * @param version
+	 *            the {@link #version}
+	 */
+	GlobalBestRecord(double[] position, double fitness, long version) {
+		this.position = position;
+		this.fitness = fitness;
+		this.version = version;
+	}
+
+	/**
+	 * Publishes a position if it's better than the current record.
+	 * 
+	 * @param record
+	 *            the reference to the current record
+	 * @param position
+	 *            the position to publish, which is copied
+	 * @param fitness
+	 *            the fitness of the position to publish
+	 */
+	static void publish(AtomicReference<GlobalBestRecord> record, double[] position, double fitness) {
+		GlobalBestRecord current = record.get();
+		if (fitness <= current.fitness) {
+			return;
+		}
+		GlobalBestRecord candidate = new GlobalBestRecord(position.clone(), fitness, current.version + 1);
+		while (!record.compareAndSet(current, candidate)) {
+			current = record.get();
+			if (fitness <= current.fitness) {
+				return;
+			}
+			candidate = new GlobalBestRecord(candidate.position, fitness, current.version + 1);
+		}
+	}
+
+	/**
+	 * Copies this record into a swarm local copy of the global best, if it
+	 * has changed since the last time and it's better.
+	 * 
+	 * @param globalBest
+	 *            the local copy to update
+	 */
+	void copyTo(GlobalBest globalBest) {
+		if (globalBest.version == version) {
+			return;
+		}
+		globalBest.version = version;
+		globalBest.offer(position, fitness);
+	}
+
+}
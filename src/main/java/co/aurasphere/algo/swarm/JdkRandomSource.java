@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.Random;
+
+/**
+ * {@link RandomSource} backed by a {@link java.util.Random}. This is the
+ * source used when only a random generator is configured: it produces the same
+ * numbers as the generator it wraps and it's thread safe, but every number
+ * requires an atomic update of the generator state, which becomes a point of
+ * contention when the generator is shared by many threads.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class JdkRandomSource implements RandomSource {
+
+	/**
+	 * The Constant serialVersionUID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The wrapped random generator.
+	 */
+	private final Random randomGenerator;
+
+	/**
+	 * Instantiates a new JdkRandomSource.
+	 *
+	 * @param randomGenerator
+	 *            the {@link #randomGenerator}
+	 */
+	public JdkRandomSource(Random randomGenerator) {
+		this.randomGenerator = randomGenerator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.swarm.RandomSource#nextDouble()
+	 */
+	@Override
+	public double nextDouble() {
+		return randomGenerator.nextDouble();
+	}
+
+	/**
+	 * Returns a new source backed by a new {@link Random} seeded by this
+	 * source.
+	 * 
+	 * @see co.aurasphere.algo.swarm.RandomSource#split()
+	 */
+	@Override
+	public RandomSource split() {
+		return new JdkRandomSource(new Random(randomGenerator.nextLong()));
+	}
+
+	/**
+	 * Gets the {@link #randomGenerator}.
+	 *
+	 * @return the {@link #randomGenerator}
+	 */
+	public Random getRandomGenerator() {
+		return randomGenerator;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "JdkRandomSource [randomGenerator=" + randomGenerator + "]";
+	}
+
+}
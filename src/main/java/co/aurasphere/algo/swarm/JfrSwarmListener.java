@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * {@link SwarmListener} which emits a Java Flight Recorder event for each
+ * call to the main loop, so that the optimizer stalls can be correlated with
+ * the GC and CPU activity in the same recording. Each event spans the whole
+ * call, from {@link #iterationStarted()} to
+ * {@link #iterationCompleted(SwarmIterationStats)}, and a listener can be
+ * shared by algorithms running on different threads. The events are named
+ * <code>co.aurasphere.algo.SwarmIteration</code> and are only committed when a
+ * recording with them enabled is running. Requires a JVM with Flight
+ * Recorder support (8u272 or later).
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class JfrSwarmListener implements SwarmListener {
+
+	/**
+	 * The event begun by each thread at the start of the main loop.
+	 */
+	private final ThreadLocal<SwarmIterationEvent> currentEvent = new ThreadLocal<SwarmIterationEvent>();
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.swarm.SwarmListener#iterationStarted()
+	 */
+	@Override
+	public void iterationStarted() {
+		SwarmIterationEvent event = new SwarmIterationEvent();
+		if (event.isEnabled()) {
+			event.begin();
+			currentEvent.set(event);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * co.aurasphere.algo.swarm.SwarmListener#iterationCompleted(co.aurasphere.
+	 * algo.swarm.SwarmIterationStats)
+	 */
+	@Override
+	public void iterationCompleted(SwarmIterationStats stats) {
+		SwarmIterationEvent event = currentEvent.get();
+		if (event == null) {
+			return;
+		}
+		currentEvent.remove();
+		event.end();
+		if (!event.shouldCommit()) {
+			return;
+		}
+		event.iteration = stats.getIteration();
+		event.iterations = stats.getIterations();
+		event.evaluations = stats.getEvaluations();
+		event.fitnessTime = stats.getFitnessNanos();
+		event.updateTime = stats.getUpdateNanos();
+		event.evaluationsPerSecond = stats.getEvaluationsPerSecond();
+		event.bestFitness = stats.getBestFitness();
+		event.lastImprovementIteration = stats.getLastImprovementIteration();
+		event.diversity = stats.getDiversity();
+		event.commit();
+	}
+
+	/**
+	 * Flight Recorder event which holds a {@link SwarmIterationStats}.
+	 *
+	 * @author Donato Rimenti
+	 *
+	 */
+	@Name("co.aurasphere.algo.SwarmIteration")
+	@Label("Swarm Iteration")
+	@Category("Algo")
+	@Description("Measurements of one or more iterations of a swarm optimizer")
+	static class SwarmIterationEvent extends Event {
+
+		/**
+		 * {@link SwarmIterationStats#getIteration()}.
+		 */
+		@Label("Iteration")
+		long iteration;
+
+		/**
+		 * {@link SwarmIterationStats#getIterations()}.
+		 */
+		@Label("Iterations")
+		int iterations;
+
+		/**
+		 * {@link SwarmIterationStats#getEvaluations()}.
+		 */
+		@Label("Evaluations")
+		long evaluations;
+
+		/**
+		 * {@link SwarmIterationStats#getFitnessNanos()}.
+		 */
+		@Label("Fitness Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long fitnessTime;
+
+		/**
+		 * {@link SwarmIterationStats#getUpdateNanos()}.
+		 */
+		@Label("Update Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long updateTime;
+
+		/**
+		 * {@link SwarmIterationStats#getEvaluationsPerSecond()}.
+		 */
+		@Label("Evaluations per Second")
+		double evaluationsPerSecond;
+
+		/**
+		 * {@link SwarmIterationStats#getBestFitness()}.
+		 */
+		@Label("Best Fitness")
+		double bestFitness;
+
+		/**
+		 * {@link SwarmIterationStats#getLastImprovementIteration()}.
+		 */
+		@Label("Last Improvement Iteration")
+		long lastImprovementIteration;
+
+		/**
+		 * {@link SwarmIterationStats#getDiversity()}.
+		 */
+		@Label("Diversity")
+		double diversity;
+	}
+
+}
@@ -0,0 +1,390 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.Arrays;
+
+/**
+ * k-d tree which indexes points by their coordinates to find the nearest ones
+ * to a query point. The points are stored in flat primitive arrays and the
+ * tree is made of indices into them. Points are inserted one at a time by
+ * descending the tree and splitting on the axis <code>depth % dimensions</code>
+ * at each level; since the points inserted by a swarm are far from random, the
+ * tree is rebuilt balanced, by splitting each subtree at its median, whenever
+ * an insertion goes too deep. Points can't be removed.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+class KdTree {
+
+	/**
+	 * Value of a missing child.
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * Number of coordinates of each point.
+	 */
+	private final int dimensions;
+
+	/**
+	 * The coordinates of the points, stored at the index
+	 * <code>point * dimensions</code>.
+	 */
+	private double[] points;
+
+	/**
+	 * The value associated with each point.
+	 */
+	private double[] values;
+
+	/**
+	 * The left child of each point, holding the points with a lower or equal
+	 * coordinate on the point split axis, or {@link #NONE}.
+	 */
+	private int[] left;
+
+	/**
+	 * The right child of each point, holding the points with a greater or
+	 * equal coordinate on the point split axis, or {@link #NONE}.
+	 */
+	private int[] right;
+
+	/**
+	 * The root of the tree or {@link #NONE} if the tree is empty.
+	 */
+	private int root = NONE;
+
+	/**
+	 * Number of points in the tree.
+	 */
+	private int size;
+
+	/**
+	 * Instantiates a new KdTree.
+	 *
+	 * @param dimensions
+	 *            the {@link #dimensions}
+	 */
+	KdTree(int dimensions) {
+		this.dimensions = dimensions;
+		this.points = new double[16 * dimensions];
+		this.values = new double[16];
+		this.left = new int[16];
+		this.right = new int[16];
+	}
+
+	/**
+	 * Inserts a point in the tree.
+	 * 
+	 * @param source
+	 *            the array which holds the point coordinates
+	 * @param offset
+	 *            the index of the first coordinate of the point
+	 * @param value
+	 *            the value associated with the point
+	 */
+	void insert(double[] source, int offset, double value) {
+		if (size == values.length) {
+			int capacity = size * 2;
+			points = Arrays.copyOf(points, capacity * dimensions);
+			values = Arrays.copyOf(values, capacity);
+			left = Arrays.copyOf(left, capacity);
+			right = Arrays.copyOf(right, capacity);
+		}
+		int point = size++;
+		System.arraycopy(source, offset, points, point * dimensions, dimensions);
+		values[point] = value;
+		left[point] = NONE;
+		right[point] = NONE;
+
+		if (root == NONE) {
+			root = point;
+			return;
+		}
+		int node = root;
+		int depth = 0;
+		while (true) {
+			int axis = depth % dimensions;
+			int[] children = source[offset + axis] < points[node * dimensions + axis] ? left : right;
+			depth++;
+			if (children[node] == NONE) {
+				children[node] = point;
+				break;
+			}
+			node = children[node];
+		}
+
+		// A balanced tree is about log2(size) deep.
+		if (depth > 2 * (32 - Integer.numberOfLeadingZeros(size)) + 4) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Rebuilds the tree so that each subtree is split at its median.
+	 */
+	private void rebuild() {
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		root = build(order, 0, size, 0);
+	}
+
+	/**
+	 * Builds a balanced subtree.
+	 * 
+	 * @param order
+	 *            the points of the subtree, reordered as the subtree is built
+	 * @param from
+	 *            the index of the first point of the subtree in the order,
+	 *            inclusive
+	 * @param to
+	 *            the index of the last point of the subtree in the order,
+	 *            exclusive
+	 * @param depth
+	 *            the depth of the subtree root
+	 * @return the root of the subtree or {@link #NONE} if empty
+	 */
+	private int build(int[] order, int from, int to, int depth) {
+		if (from >= to) {
+			return NONE;
+		}
+		int axis = depth % dimensions;
+		int middle = (from + to) >>> 1;
+		select(order, from, to - 1, middle, axis);
+		int node = order[middle];
+		left[node] = build(order, from, middle, depth + 1);
+		right[node] = build(order, middle + 1, to, depth + 1);
+		return node;
+	}
+
+	/**
+	 * Partially sorts a range of points on an axis so that the point at a
+	 * given index is the one a full sort would put there, with no greater
+	 * point before it and no lower one after it. Uses the quickselect
+	 * algorithm.
+	 * 
+	 * @param order
+	 *            the points to reorder
+	 * @param low
+	 *            the index of the first point of the range, inclusive
+	 * @param high
+	 *            the index of the last point of the range, inclusive
+	 * @param k
+	 *            the index to select
+	 * @param axis
+	 *            the axis the points are compared on
+	 */
+	private void select(int[] order, int low, int high, int k, int axis) {
+		while (high > low) {
+			double pivot = points[order[(low + high) >>> 1] * dimensions + axis];
+			int i = low;
+			int j = high;
+			while (i <= j) {
+				while (points[order[i] * dimensions + axis] < pivot) {
+					i++;
+				}
+				while (points[order[j] * dimensions + axis] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int swap = order[i];
+					order[i] = order[j];
+					order[j] = swap;
+					i++;
+					j--;
+				}
+			}
+			if (k <= j) {
+				high = j;
+			} else if (k >= i) {
+				low = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Finds the points nearest to a query point. The neighbours found are
+	 * stored in the arrays passed as argument, which are used as a max-heap
+	 * on the distance and are not sorted.
+	 * 
+	 * @param query
+	 *            the array which holds the query point coordinates
+	 * @param offset
+	 *            the index of the first coordinate of the query point
+	 * @param neighbours
+	 *            the array where the indices of the nearest points are
+	 *            stored. Its length is the number of points to find
+	 * @param squaredDistances
+	 *            the array where the squared distances of the nearest points
+	 *            are stored, as long as the neighbours one
+	 * @return the number of neighbours found, lower than the number
+	 *         requested only if the tree doesn't have enough points
+	 */
+	int nearest(double[] query, int offset, int[] neighbours, double[] squaredDistances) {
+		return search(root, 0, query, offset, neighbours, squaredDistances, 0);
+	}
+
+	/**
+	 * Searches the nearest points in a subtree.
+	 * 
+	 * @param node
+	 *            the root of the subtree
+	 * @param depth
+	 *            the depth of the subtree root
+	 * @param query
+	 *            the array which holds the query point coordinates
+	 * @param offset
+	 *            the index of the first coordinate of the query point
+	 * @param neighbours
+	 *            the max-heap of the nearest points found so far
+	 * @param squaredDistances
+	 *            the squared distances of the nearest points found so far
+	 * @param found
+	 *            the number of nearest points found so far
+	 * @return the number of nearest points found after searching the subtree
+	 */
+	private int search(int node, int depth, double[] query, int offset, int[] neighbours, double[] squaredDistances,
+			int found) {
+		if (node == NONE) {
+			return found;
+		}
+		int base = node * dimensions;
+		double squaredDistance = 0;
+		for (int d = 0; d < dimensions; d++) {
+			double delta = query[offset + d] - points[base + d];
+			squaredDistance += delta * delta;
+		}
+		if (found < neighbours.length) {
+			found++;
+			siftUp(neighbours, squaredDistances, found - 1, node, squaredDistance);
+		} else if (squaredDistance < squaredDistances[0]) {
+			siftDown(neighbours, squaredDistances, found, node, squaredDistance);
+		}
+
+		// Searches the side of the query first, then the other side only if
+		// it may hold a nearer point.
+		int axis = depth % dimensions;
+		double delta = query[offset + axis] - points[base + axis];
+		int near = delta < 0 ? left[node] : right[node];
+		int far = delta < 0 ? right[node] : left[node];
+		found = search(near, depth + 1, query, offset, neighbours, squaredDistances, found);
+		if (found < neighbours.length || delta * delta < squaredDistances[0]) {
+			found = search(far, depth + 1, query, offset, neighbours, squaredDistances, found);
+		}
+		return found;
+	}
+
+	/**
+	 * Adds a point at the end of the heap and moves it up to its place.
+	 * 
+	 * @param neighbours
+	 *            the heap points
+	 * @param squaredDistances
+	 *            the heap keys
+	 * @param index
+	 *            the index where the point is added
+	 * @param point
+	 *            the point to add
+	 * @param squaredDistance
+	 *            the key of the point to add
+	 */
+	private static void siftUp(int[] neighbours, double[] squaredDistances, int index, int point,
+			double squaredDistance) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (squaredDistances[parent] >= squaredDistance) {
+				break;
+			}
+			neighbours[index] = neighbours[parent];
+			squaredDistances[index] = squaredDistances[parent];
+			index = parent;
+		}
+		neighbours[index] = point;
+		squaredDistances[index] = squaredDistance;
+	}
+
+	/**
+	 * Replaces the top of the heap with a point and moves it down to its
+	 * place.
+	 * 
+	 * @param neighbours
+	 *            the heap points
+	 * @param squaredDistances
+	 *            the heap keys
+	 * @param count
+	 *            the number of points in the heap
+	 * @param point
+	 *            the point to add
+	 * @param squaredDistance
+	 *            the key of the point to add
+	 */
+	private static void siftDown(int[] neighbours, double[] squaredDistances, int count, int point,
+			double squaredDistance) {
+		int index = 0;
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= count) {
+				break;
+			}
+			if (child + 1 < count && squaredDistances[child + 1] > squaredDistances[child]) {
+				child++;
+			}
+			if (squaredDistances[child] <= squaredDistance) {
+				break;
+			}
+			neighbours[index] = neighbours[child];
+			squaredDistances[index] = squaredDistances[child];
+			index = child;
+		}
+		neighbours[index] = point;
+		squaredDistances[index] = squaredDistance;
+	}
+
+	/**
+	 * Returns the value associated with a point.
+	 * 
+	 * @param point
+	 *            the index of the point
+	 * @return the value of the point
+	 */
+	double getValue(int point) {
+		return values[point];
+	}
+
+	/**
+	 * Gets the {@link #size}.
+	 *
+	 * @return the {@link #size}
+	 */
+	int size() {
+		return size;
+	}
+
+}
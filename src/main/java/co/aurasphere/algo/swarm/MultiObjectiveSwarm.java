@@ -0,0 +1,311 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import co.aurasphere.algo.IterativeAlgorithm;
+import co.aurasphere.algo.MultiObjectiveFitnessFunction;
+
+/**
+ * Particle swarm which optimizes many conflicting objectives at once. Since
+ * there's no single best position, the swarm keeps the non-dominated
+ * positions found so far in a {@link ParetoArchive} and, at each iteration,
+ * each particle follows a leader drawn from it instead of the swarm best
+ * position, favoring the less crowded regions of the front. The best
+ * position of a particle is replaced when the new one dominates it or, if
+ * neither dominates the other, with a probability of one half.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class MultiObjectiveSwarm implements IterativeAlgorithm {
+
+	/**
+	 * The positions, speeds and best positions of the particles.
+	 */
+	private final ParticleStore particleStore;
+
+	/**
+	 * Number of objectives of the problem.
+	 */
+	private final int objectives;
+
+	/**
+	 * The fitness of each particle on each objective, stored at the index
+	 * <code>particle * objectives + objective</code>.
+	 */
+	private final double[] fitness;
+
+	/**
+	 * The fitness of the best position of each particle, stored as the
+	 * {@link #fitness}.
+	 */
+	private final double[] bestFitness;
+
+	/**
+	 * The non-dominated solutions found so far.
+	 */
+	private final ParetoArchive archive;
+
+	/**
+	 * The configuration of this swarm.
+	 */
+	private final MultiObjectiveSwarmConfiguration configuration;
+
+	/**
+	 * Source of the random numbers used by this swarm.
+	 */
+	private final RandomSource randomSource;
+
+	/**
+	 * Buffer for the random coefficients of an iteration.
+	 */
+	private final double[] randomCoefficients;
+
+	/**
+	 * The kernel which moves the particles.
+	 */
+	private final ParticleUpdateKernel updateKernel;
+
+	/**
+	 * Instantiates a new MultiObjectiveSwarm.
+	 *
+	 * @param configuration
+	 *            the configuration for this swarm
+	 */
+	public MultiObjectiveSwarm(MultiObjectiveSwarmConfiguration configuration) {
+		// Clones the configuration passed as argument so that later changes
+		// don't affect this swarm. The random source is not copied, so it
+		// must not be shared with swarms running concurrently.
+		this.configuration = new MultiObjectiveSwarmConfiguration(configuration);
+		int size = configuration.getNumParticle();
+		int dimensions = configuration.getDimensions();
+		this.objectives = configuration.getMultiObjectiveFitnessFunction().getObjectives();
+		this.particleStore = new ParticleStore(size, dimensions);
+		this.fitness = new double[size * objectives];
+		this.bestFitness = new double[size * objectives];
+		Arrays.fill(bestFitness, Double.NEGATIVE_INFINITY);
+		this.archive = new ParetoArchive(objectives, configuration.getArchiveCapacity());
+		this.randomSource = Swarm.getRandomSource(configuration);
+		this.randomCoefficients = new double[size * dimensions * 2];
+		this.updateKernel = ParticleUpdateKernel.getKernel(configuration.isVectorizedUpdate());
+
+		// Initializes the particles within the bounds.
+		double[] lowerBounds = Swarm.getBounds(configuration.getLowerBounds(), dimensions, 0);
+		double[] upperBounds = Swarm.getBounds(configuration.getUpperBounds(), dimensions, 1);
+		Swarm.checkBounds(lowerBounds, upperBounds);
+		for (int i = 0; i < size; i++) {
+			int offset = particleStore.offset(i);
+			for (int d = 0; d < dimensions; d++) {
+				particleStore.positions[offset + d] = lowerBounds[d]
+						+ randomSource.nextDouble() * (upperBounds[d] - lowerBounds[d]);
+			}
+			for (int d = 0; d < dimensions; d++) {
+				particleStore.speeds[offset + d] = randomSource.nextDouble() * (upperBounds[d] - lowerBounds[d]);
+			}
+		}
+	}
+
+	/**
+	 * Main loop of the algorithm. Computes the fitness of all the particles,
+	 * adds their positions to the {@link #archive} and updates their best
+	 * positions, then moves each particle toward its best position and a
+	 * leader drawn from the archive.
+	 */
+	@Override
+	public void mainLoop() {
+		ParticleStore store = particleStore;
+		int dimensions = store.dimensions;
+		evaluateFitness();
+
+		for (int i = 0; i < store.size; i++) {
+			int offset = store.offset(i);
+			double[] particleFitness = Arrays.copyOfRange(fitness, i * objectives, (i + 1) * objectives);
+			archive.add(Arrays.copyOfRange(store.positions, offset, offset + dimensions), particleFitness);
+			if (isBetter(particleFitness, i)) {
+				System.arraycopy(store.positions, offset, store.bestPositions, offset, dimensions);
+				System.arraycopy(particleFitness, 0, bestFitness, i * objectives, objectives);
+			}
+		}
+
+		randomSource.nextDoubles(randomCoefficients, 0, randomCoefficients.length);
+		for (int i = 0; i < store.size; i++) {
+			ParetoSolution leader = archive.selectLeader(randomSource);
+			updateKernel.update(store.positions, store.speeds, store.bestPositions, leader.getPosition(), null,
+					randomCoefficients, store.offset(i), i * dimensions * 2, dimensions,
+					configuration.getInertiaFactor(), configuration.getCognitiveWeight(),
+					configuration.getSocialWeight(), 0);
+		}
+	}
+
+	/**
+	 * Checks if the current position of a particle should replace its best
+	 * one.
+	 * 
+	 * @param particleFitness
+	 *            the fitness of the current position of the particle
+	 * @param index
+	 *            the index of the particle
+	 * @return true if the current position dominates the best one or if
+	 *         neither dominates the other and a coin flip says so, false
+	 *         otherwise
+	 */
+	private boolean isBetter(double[] particleFitness, int index) {
+		double[] best = Arrays.copyOfRange(bestFitness, index * objectives, (index + 1) * objectives);
+		if (ParetoArchive.weaklyDominates(particleFitness, best)) {
+			return true;
+		}
+		return !ParetoArchive.weaklyDominates(best, particleFitness) && randomSource.nextDouble() < 0.5;
+	}
+
+	/**
+	 * Computes the fitness of all the particles, splitting them across the
+	 * configured {@link ForkJoinPool} if any.
+	 */
+	private void evaluateFitness() {
+		ForkJoinPool forkJoinPool = configuration.getForkJoinPool();
+		if (forkJoinPool == null) {
+			evaluateFitness(0, particleStore.size);
+			return;
+		}
+		int threshold = Math.max(1, particleStore.size / (forkJoinPool.getParallelism() * 4));
+		forkJoinPool.invoke(new FitnessEvaluationTask(this, 0, particleStore.size, threshold));
+	}
+
+	/**
+	 * Computes the fitness of a range of particles.
+	 * 
+	 * @param from
+	 *            the index of the first particle to evaluate, inclusive
+	 * @param to
+	 *            the index of the last particle to evaluate, exclusive
+	 */
+	private void evaluateFitness(int from, int to) {
+		MultiObjectiveFitnessFunction fitnessFunction = configuration.getMultiObjectiveFitnessFunction();
+		int dimensions = particleStore.dimensions;
+		for (int i = from; i < to; i++) {
+			int offset = particleStore.offset(i);
+			double[] particleFitness = fitnessFunction
+					.getFitness(Arrays.copyOfRange(particleStore.positions, offset, offset + dimensions));
+			if (particleFitness.length != objectives) {
+				throw new IllegalStateException(
+						"Expected fitness for " + objectives + " objectives but got " + particleFitness.length);
+			}
+			System.arraycopy(particleFitness, 0, fitness, i * objectives, objectives);
+		}
+	}
+
+	/**
+	 * Task which evaluates a range of particles by recursively splitting it
+	 * until it's small enough.
+	 * 
+	 * @author Donato Rimenti
+	 *
+	 */
+	private static class FitnessEvaluationTask extends RecursiveAction {
+
+		/**
+		 * The Constant serialVersionUID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The swarm whose particles are evaluated.
+		 */
+		private final MultiObjectiveSwarm swarm;
+
+		/**
+		 * The index of the first particle to evaluate, inclusive.
+		 */
+		private final int from;
+
+		/**
+		 * The index of the last particle to evaluate, exclusive.
+		 */
+		private final int to;
+
+		/**
+		 * Max number of particles evaluated by a task without splitting it.
+		 */
+		private final int threshold;
+
+		/**
+		 * Instantiates a new FitnessEvaluationTask.
+		 *
+		 * @param swarm
+		 *            the {@link #swarm}
+		 * @param from
+		 *            the {@link #from}
+		 * @param to
+		 *            the {@link #to}
+		 * @param threshold
+		 *            the {@link #threshold}
+		 */
+		FitnessEvaluationTask(MultiObjectiveSwarm swarm, int from, int to, int threshold) {
+			this.swarm = swarm;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			if (to - from <= threshold) {
+				swarm.evaluateFitness(from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new FitnessEvaluationTask(swarm, from, middle, threshold),
+					new FitnessEvaluationTask(swarm, middle, to, threshold));
+		}
+	}
+
+	/**
+	 * Gets the {@link #archive}.
+	 *
+	 * @return the {@link #archive}
+	 */
+	public ParetoArchive getArchive() {
+		return archive;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "MultiObjectiveSwarm [archiveSize=" + archive.size() + ", configuration=" + configuration + "]";
+	}
+
+}
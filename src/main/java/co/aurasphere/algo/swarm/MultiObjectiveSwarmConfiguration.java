@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import co.aurasphere.algo.FitnessFunction;
+import co.aurasphere.algo.MultiObjectiveFitnessFunction;
+
+/**
+ * Configuration used by {@link MultiObjectiveSwarm}. Of the inherited
+ * settings, only the particle weights, the number of particles, the
+ * dimensions and bounds of the search space, the random generator or source,
+ * the {@link java.util.concurrent.ForkJoinPool} and the vectorized update are
+ * used, while the single-objective fitness function is ignored.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class MultiObjectiveSwarmConfiguration extends SwarmConfiguration {
+
+	/**
+	 * The function used to compute the fitness of the particles on each
+	 * objective.
+	 */
+	private MultiObjectiveFitnessFunction multiObjectiveFitnessFunction;
+
+	/**
+	 * Max number of non-dominated solutions kept in the {@link ParetoArchive}.
+	 * Defaults to 500 if not specified.
+	 */
+	private int archiveCapacity = 500;
+
+	/**
+	 * Instantiates a new MultiObjectiveSwarmConfiguration with default values.
+	 * 
+	 * @param multiObjectiveFitnessFunction
+	 *            the {@link #multiObjectiveFitnessFunction}
+	 */
+	public MultiObjectiveSwarmConfiguration(MultiObjectiveFitnessFunction multiObjectiveFitnessFunction) {
+		super((FitnessFunction) null);
+		this.multiObjectiveFitnessFunction = multiObjectiveFitnessFunction;
+	}
+
+	/**
+	 * Instantiates a new MultiObjectiveSwarmConfiguration.
+	 *
+	 * @param configuration
+	 *            the configuration to clone
+	 */
+	public MultiObjectiveSwarmConfiguration(MultiObjectiveSwarmConfiguration configuration) {
+		super(configuration);
+		this.multiObjectiveFitnessFunction = configuration.multiObjectiveFitnessFunction;
+		this.archiveCapacity = configuration.archiveCapacity;
+	}
+
+	/**
+	 * Gets the {@link #multiObjectiveFitnessFunction}.
+	 *
+	 * @return the {@link #multiObjectiveFitnessFunction}
+	 */
+	public MultiObjectiveFitnessFunction getMultiObjectiveFitnessFunction() {
+		return multiObjectiveFitnessFunction;
+	}
+
+	/**
+	 * Sets the {@link #multiObjectiveFitnessFunction}.
+	 *
+	 * @param multiObjectiveFitnessFunction
+	 *            the new {@link #multiObjectiveFitnessFunction}
+	 */
+	public void setMultiObjectiveFitnessFunction(MultiObjectiveFitnessFunction multiObjectiveFitnessFunction) {
+		this.multiObjectiveFitnessFunction = multiObjectiveFitnessFunction;
+	}
+
+	/**
+	 * Gets the {@link #archiveCapacity}.
+	 *
+	 * @return the {@link #archiveCapacity}
+	 */
+	public int getArchiveCapacity() {
+		return archiveCapacity;
+	}
+
+	/**
+	 * Sets the {@link #archiveCapacity}.
+	 *
+	 * @param archiveCapacity
+	 *            the new {@link #archiveCapacity}
+	 */
+	public void setArchiveCapacity(int archiveCapacity) {
+		this.archiveCapacity = archiveCapacity;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result
+				+ ((multiObjectiveFitnessFunction == null) ? 0 : multiObjectiveFitnessFunction.hashCode());
+		result = prime * result + archiveCapacity;
+		return result;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		MultiObjectiveSwarmConfiguration other = (MultiObjectiveSwarmConfiguration) obj;
+		if (multiObjectiveFitnessFunction == null) {
+			if (other.multiObjectiveFitnessFunction != null)
+				return false;
+		} else if (!multiObjectiveFitnessFunction.equals(other.multiObjectiveFitnessFunction))
+			return false;
+		if (archiveCapacity != other.archiveCapacity)
+			return false;
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.swarm.SwarmConfiguration#toString()
+	 */
+	@Override
+	public String toString() {
+		return "MultiObjectiveSwarmConfiguration [multiObjectiveFitnessFunction=" + multiObjectiveFitnessFunction
+				+ ", archiveCapacity=" + archiveCapacity + ", swarmConfiguration=" + super.toString() + "]";
+	}
+
+}
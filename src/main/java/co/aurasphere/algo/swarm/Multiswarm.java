@@ -23,19 +23,28 @@
  */
 package co.aurasphere.algo.swarm;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
-import co.aurasphere.algo.IterativeAlgorithm;
+import co.aurasphere.algo.CachingFitnessFunction;
+import co.aurasphere.algo.OptimizationAlgorithm;
 
 /**
  * Represents a collection of {@link Swarm}. To use this object, instantiate it
  * and call {@link #mainLoop()} repeatedly for a fixed set of time or for a
- * period of time.
- * 
+ * period of time. If an island executor is configured, each swarm runs on its
+ * own task and the swarms only exchange their best positions through a
+ * lock-free record every few iterations.
+ *
  * @author Donato Rimenti
  *
  */
-public class Multiswarm implements IterativeAlgorithm {
+public class Multiswarm implements OptimizationAlgorithm {
 
 	/**
 	 * The swarms managed by this multiswarm.
@@ -43,34 +52,134 @@ public class Multiswarm implements IterativeAlgorithm {
 	private Swarm[] swarms;
 
 	/**
-	 * The best position found within all the {@link #swarms}.
+	 * The best position and fitness found within all the {@link #swarms}.
 	 */
-	private double[] bestPosition;
+	private GlobalBest globalBest;
 
 	/**
-	 * The best fitness score found within all the {@link #swarms}.
+	 * The configuration for this multiswarm.
 	 */
-	private double bestFitness = Double.NEGATIVE_INFINITY;
+	private MultiswarmConfiguration configuration;
 
 	/**
-	 * The configuration for this multiswarm.
+	 * The best position found by the islands, used in island mode.
 	 */
-	private MultiswarmConfiguration configuration;
+	private AtomicReference<GlobalBestRecord> globalBestRecord;
+
+	/**
+	 * The tasks which run the {@link #swarms} in island mode.
+	 */
+	private List<Island> islands;
+
+	/**
+	 * The cache shared by all the {@link #swarms}, if a
+	 * {@link SwarmConfiguration#getFitnessCacheGrid()} has been specified.
+	 */
+	private CachingFitnessFunction fitnessCache;
+
+	/**
+	 * Whether each swarm has been retired, if the
+	 * {@link SwarmConfiguration#isAdaptivePopulation()} is enabled and the
+	 * swarms are iterated sequentially, null otherwise.
+	 */
+	private boolean[] retired;
+
+	/**
+	 * Number of swarms not retired.
+	 */
+	private int activeSwarms;
+
+	/**
+	 * Number of iterations since the best fitness last improved, only tracked
+	 * if the {@link #retired} swarms are.
+	 */
+	private int globalStagnation;
+
+	/**
+	 * Number of iterations completed while a {@link SwarmListener} is
+	 * configured.
+	 */
+	private long iteration;
+
+	/**
+	 * The last iteration at which the best fitness improved while a
+	 * {@link SwarmListener} is configured.
+	 */
+	private long lastImprovementIteration;
 
 	/**
 	 * Instantiates a new Multiswarm.
-	 * 
+	 *
 	 * @param configuration
 	 *            the configuration for this multiswarm
 	 */
 	public Multiswarm(MultiswarmConfiguration configuration) {
+		this(configuration, null, null);
+	}
+
+	/**
+	 * Instantiates a new Multiswarm whose swarms may have already been
+	 * initialized, as it happens when a multiswarm is restored from a
+	 * snapshot.
+	 *
+	 * @param configuration
+	 *            the configuration for this multiswarm
+	 * @param particleStores
+	 *            the state of the particles of each swarm or null to
+	 *            initialize them randomly
+	 * @param randomSources
+	 *            the random source of each swarm, only used if the particles
+	 *            are already initialized
+	 */
+	Multiswarm(MultiswarmConfiguration configuration, ParticleStore[] particleStores, RandomSource[] randomSources) {
 		this.configuration = new MultiswarmConfiguration(configuration);
 		int numSwarms = configuration.getNumSwarms();
+		int dimensions = configuration.getDimensions();
+		this.globalBest = new GlobalBest(dimensions);
+
+		// The listener is notified by this multiswarm rather than by each
+		// swarm.
+		SwarmConfiguration swarmConfiguration = new SwarmConfiguration(configuration);
+		swarmConfiguration.setListener(null);
 
-		// Initiates the swarms.
+		// Initiates the cache, shared by all the swarms since they explore
+		// the same search space.
+		if (configuration.getFitnessCacheGrid() != null) {
+			this.fitnessCache = Swarm.newFitnessCache(configuration);
+			swarmConfiguration.setFitnessFunction(fitnessCache);
+			swarmConfiguration.setFitnessCacheGrid(null);
+		}
+
+		// Initiates the swarms. If a random source is configured or the swarms
+		// run concurrently as islands, each swarm gets its own stream split
+		// from it, otherwise they share the random generator.
 		this.swarms = new Swarm[numSwarms];
+		RandomSource randomSource = Swarm.getRandomSource(configuration);
 		for (int i = 0; i < numSwarms; i++) {
-			swarms[i] = new Swarm(configuration);
+			if (particleStores != null) {
+				swarms[i] = new Swarm(swarmConfiguration, particleStores[i], randomSources[i]);
+				continue;
+			}
+			if (configuration.getRandomSource() != null || configuration.getIslandExecutor() != null) {
+				swarmConfiguration.setRandomSource(randomSource.split());
+			} else {
+				swarmConfiguration.setRandomSource(randomSource);
+			}
+			swarms[i] = new Swarm(swarmConfiguration);
+		}
+		this.activeSwarms = numSwarms;
+		if (configuration.isAdaptivePopulation() && configuration.getIslandExecutor() == null) {
+			this.retired = new boolean[numSwarms];
+		}
+
+		// Initiates the islands if needed.
+		if (configuration.getIslandExecutor() != null) {
+			this.globalBestRecord = new AtomicReference<GlobalBestRecord>(
+					new GlobalBestRecord(new double[dimensions], Double.NEGATIVE_INFINITY, 0));
+			this.islands = new ArrayList<Island>(numSwarms);
+			for (Swarm swarm : swarms) {
+				islands.add(new Island(swarm, globalBestRecord, configuration));
+			}
 		}
 	}
 
@@ -78,108 +187,423 @@ public class Multiswarm implements IterativeAlgorithm {
 	 * Main loop of the algorithm. Iterates all particles of all
 	 * {@link #swarms}. For each particle, computes the new fitness and checks
 	 * if a new best position has been found among itself, the swarm and all the
-	 * swarms and finally updates the particle position and speed.
+	 * swarms and finally updates the particle position and speed. In island
+	 * mode, each swarm is iterated once on its own task. If the
+	 * {@link SwarmConfiguration#isAdaptivePopulation()} is enabled, the
+	 * collapsed swarms are retired and re-seeded as described in
+	 * {@link #adaptSwarms(double)}.
 	 */
 	@Override
 	public void mainLoop() {
-		for (Swarm swarm : swarms) {
-			for (Particle particle : swarm.getParticles()) {
+		mainLoop(1);
+	}
 
-				double[] particleOldPosition = particle.getPosition().clone();
+	/**
+	 * Executes the main loop of the algorithm for a number of times. In island
+	 * mode, each swarm runs all the iterations on its own task without waiting
+	 * for the others, so this is the preferred way to run many iterations.
+	 *
+	 * @param iterations
+	 *            the number of iterations to execute
+	 */
+	public void mainLoop(int iterations) {
+		SwarmListener listener = configuration.getListener();
+		if (listener != null) {
+			instrumentedMainLoop(iterations, listener);
+			return;
+		}
 
-				// Calculate the particle fitness.
-				particle.setFitness(configuration.getFitnessFunction().getFitness(particleOldPosition));
+		if (islands != null) {
+			runIslands(iterations);
+			return;
+		}
 
-				// Check if a new best position has been found for the particle
-				// itself, within the swarm and the multiswarm.
-				if (particle.getFitness() > particle.getBestFitness()) {
-					particle.setBestFitness(particle.getFitness());
-					particle.setBestPosition(particleOldPosition);
+		for (int i = 0; i < iterations; i++) {
+			double previousBestFitness = globalBest.fitness;
+			for (int s = 0; s < swarms.length; s++) {
+				if (retired != null && retired[s]) {
+					continue;
+				}
+				// Moves the particles toward the best position found by all
+				// the swarms.
+				swarms[s].iterate(globalBest, configuration.getGlobalWeight(), false);
+			}
+			if (retired != null) {
+				adaptSwarms(previousBestFitness);
+			}
+		}
+	}
 
-					if (particle.getFitness() > swarm.getBestFitness()) {
-						swarm.setBestFitness(particle.getFitness());
-						swarm.setBestPosition(particleOldPosition);
+	/**
+	 * Retires the swarms which have collapsed, as long as
+	 * {@link MultiswarmConfiguration#getMinSwarms()} swarms stay active. Once
+	 * the best fitness stops improving for
+	 * {@link SwarmConfiguration#getStagnationIterations()} iterations and the
+	 * active particles have gathered around the best position, with a
+	 * diversity lower than {@link SwarmConfiguration#getReseedDiversity()},
+	 * the retired swarms are restarted from random positions and the retired
+	 * particles of the active ones are re-seeded.
+	 *
+	 * @param previousBestFitness
+	 *            the best fitness before the last iteration
+	 */
+	private void adaptSwarms(double previousBestFitness) {
+		if (globalBest.fitness > previousBestFitness) {
+			globalStagnation = 0;
+		} else {
+			globalStagnation++;
+		}
+
+		int minSwarms = Math.max(1, configuration.getMinSwarms());
+		for (int s = 0; s < swarms.length && activeSwarms > minSwarms; s++) {
+			if (!retired[s] && swarms[s].isCollapsed()) {
+				retired[s] = true;
+				activeSwarms--;
+			}
+		}
+
+		if (globalStagnation < configuration.getStagnationIterations()
+				|| getDiversity() >= configuration.getReseedDiversity()) {
+			return;
+		}
+		for (int s = 0; s < swarms.length; s++) {
+			if (retired[s]) {
+				swarms[s].restart();
+				retired[s] = false;
+			} else {
+				swarms[s].reseed();
+			}
+		}
+		activeSwarms = swarms.length;
+		globalStagnation = 0;
+	}
+
+	/**
+	 * Returns the mean distance of the active particles of the active swarms
+	 * from the best position, as a fraction of the diagonal of the search
+	 * space bounds.
+	 *
+	 * @return the diversity of the active particles around the best position
+	 */
+	private double getDiversity() {
+		long numParticles = 0;
+		double distances = 0;
+		for (int s = 0; s < swarms.length; s++) {
+			if (!retired[s]) {
+				numParticles += swarms[s].getActiveParticles();
+				distances += swarms[s].sumDistances(globalBest.position);
+			}
+		}
+		return distances / numParticles / swarms[0].getBoundsDiagonal();
+	}
 
-						if (swarm.getBestFitness() > bestFitness) {
-							bestFitness = swarm.getBestFitness();
-							bestPosition = swarm.getBestPosition().clone();
-						}
+	/**
+	 * Executes the main loop of the algorithm like {@link #mainLoop(int)},
+	 * measuring each step and notifying a listener at the end. In island
+	 * mode, the improvements are only tracked at the end of the run.
+	 *
+	 * @param iterations
+	 *            the number of iterations to execute
+	 * @param listener
+	 *            the listener to notify
+	 */
+	private void instrumentedMainLoop(int iterations, SwarmListener listener) {
+		listener.iterationStarted();
+		long fitnessNanos = 0;
+		long updateNanos = 0;
+		long evaluations = 0;
+		long start = System.nanoTime();
 
+		if (islands != null) {
+			double previousBestFitness = globalBest.fitness;
+			runIslands(iterations);
+			iteration += iterations;
+			if (globalBest.fitness > previousBestFitness) {
+				lastImprovementIteration = iteration;
+			}
+			for (Island island : islands) {
+				fitnessNanos += island.fitnessNanos;
+				updateNanos += island.updateNanos;
+				island.fitnessNanos = 0;
+				island.updateNanos = 0;
+				evaluations += island.evaluations;
+				island.evaluations = 0;
+			}
+		} else {
+			for (int i = 0; i < iterations; i++) {
+				double previousBestFitness = globalBest.fitness;
+				for (int s = 0; s < swarms.length; s++) {
+					if (retired != null && retired[s]) {
+						continue;
 					}
+					long previousEvaluations = swarms[s].getEvaluations();
+					long iterationStart = System.nanoTime();
+					long swarmFitnessNanos = swarms[s].iterate(globalBest, configuration.getGlobalWeight(), true);
+					evaluations += swarms[s].getEvaluations() - previousEvaluations;
+					fitnessNanos += swarmFitnessNanos;
+					updateNanos += System.nanoTime() - iterationStart - swarmFitnessNanos;
+				}
+				if (retired != null) {
+					long adaptStart = System.nanoTime();
+					adaptSwarms(previousBestFitness);
+					updateNanos += System.nanoTime() - adaptStart;
+				}
+				iteration++;
+				if (globalBest.fitness > previousBestFitness) {
+					lastImprovementIteration = iteration;
 				}
+			}
+		}
+		long end = System.nanoTime();
 
-				// Updates the particle position by adding the speed to the
-				// actual position.
-				double[] position = particle.getPosition();
-				double[] speed = particle.getSpeed();
+		// Measures how much the particles are spread around the best.
+		long numParticles = 0;
+		double distances = 0;
+		for (int s = 0; s < swarms.length; s++) {
+			if (retired != null && retired[s]) {
+				continue;
+			}
+			numParticles += swarms[s].getActiveParticles();
+			if (globalBest.fitness != Double.NEGATIVE_INFINITY) {
+				distances += swarms[s].sumDistances(globalBest.position);
+			}
+		}
+		double diversity = numParticles == 0 ? 0 : distances / numParticles;
+		listener.iterationCompleted(new SwarmIterationStats(iteration, iterations, evaluations,
+				fitnessNanos, updateNanos, end - start, globalBest.fitness, lastImprovementIteration, diversity));
+	}
 
-				position[0] += speed[0];
-				position[1] += speed[1];
+	/**
+	 * Runs the swarms as islands on the configured executor and waits for all
+	 * of them to complete. The best position found is then copied into the
+	 * {@link #globalBest}.
+	 *
+	 * @param iterations
+	 *            the number of iterations executed by each island
+	 */
+	private void runIslands(int iterations) {
+		for (Island island : islands) {
+			island.iterations = iterations;
+		}
 
-				// Updates the particle speed.
-				speed[0] = getNewParticleSpeedForIndex(particle, swarm, 0);
-				speed[1] = getNewParticleSpeedForIndex(particle, swarm, 1);
+		try {
+			for (Future<Void> future : configuration.getIslandExecutor().invokeAll(islands)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
 			}
+			throw new IllegalStateException("Error while running an island", e.getCause());
+		} finally {
+			globalBestRecord.get().copyTo(globalBest);
 		}
 	}
 
 	/**
-	 * Computes a new speed for a given particle of a given swarm on a given
-	 * axis. The new speed is computed using the formula:
-	 * 
-	 * <pre>
-	 * ({@link SwarmConfiguration#INERTIA_FACTOR} * {@link Particle#getSpeed()}) + 
-	 * (({@link SwarmConfiguration#COGNITIVE_WEIGHT} * random(0,1)) * ({@link Particle#getBestPosition()} - {@link Particle#getPosition()})) +
-	 * (({@link SwarmConfiguration#SOCIAL_WEIGHT} * random(0,1)) * ({@link Swarm#getBestPosition()} - {@link Particle#getPosition()})) + 
-	 * (({@link SwarmConfiguration#GLOBAL_WEIGHT} * random(0,1)) * ({@link #bestPosition} - {@link Particle#getPosition()}))
-	 * </pre>
+	 * Task which runs a {@link Swarm} as an island. The island moves its
+	 * particles toward a local copy of the best position found by all the
+	 * islands, which is refreshed every
+	 * {@link MultiswarmConfiguration#getMigrationInterval()} iterations, and
+	 * publishes its own improvements as soon as they are found.
+	 *
+	 * @author Donato Rimenti
+	 *
+	 */
+	private static class Island implements Callable<Void> {
+
+		/**
+		 * The swarm run by this island.
+		 */
+		private final Swarm swarm;
+
+		/**
+		 * Local copy of the best position found by all the islands.
+		 */
+		private final GlobalBest globalBest;
+
+		/**
+		 * The best position found by all the islands.
+		 */
+		private final AtomicReference<GlobalBestRecord> globalBestRecord;
+
+		/**
+		 * The weight of the global best position.
+		 */
+		private final double globalWeight;
+
+		/**
+		 * Number of iterations between two refreshes of the
+		 * {@link #globalBest}.
+		 */
+		private final int migrationInterval;
+
+		/**
+		 * Number of iterations to execute on the next run.
+		 */
+		private int iterations;
+
+		/**
+		 * Number of iterations executed so far.
+		 */
+		private long completedIterations;
+
+		/**
+		 * The best fitness published by this island.
+		 */
+		private double publishedFitness = Double.NEGATIVE_INFINITY;
+
+		/**
+		 * Whether the time spent on each step has to be measured.
+		 */
+		private final boolean instrumented;
+
+		/**
+		 * Time spent evaluating the fitness since the last reset, in
+		 * nanoseconds.
+		 */
+		private long fitnessNanos;
+
+		/**
+		 * Time spent updating the particles since the last reset, in
+		 * nanoseconds.
+		 */
+		private long updateNanos;
+
+		/**
+		 * Number of evaluations since the last reset, only counted if
+		 * {@link #instrumented}.
+		 */
+		private long evaluations;
+
+		/**
+		 * Instantiates a new Island.
+		 *
+		 * @param swarm
+		 *            the {@link #swarm}
+		 * @param globalBestRecord
+		 *            the {@link #globalBestRecord}
+		 * @param configuration
+		 *            the multiswarm configuration
+		 */
+		Island(Swarm swarm, AtomicReference<GlobalBestRecord> globalBestRecord,
+				MultiswarmConfiguration configuration) {
+			this.swarm = swarm;
+			this.globalBestRecord = globalBestRecord;
+			this.globalBest = new GlobalBest(configuration.getDimensions());
+			this.globalWeight = configuration.getGlobalWeight();
+			this.migrationInterval = Math.max(1, configuration.getMigrationInterval());
+			this.instrumented = configuration.getListener() != null;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		@Override
+		public Void call() {
+			for (int i = 0; i < iterations && !Thread.currentThread().isInterrupted(); i++) {
+				// Picks up the best position found by the other islands.
+				if (completedIterations % migrationInterval == 0) {
+					globalBestRecord.get().copyTo(globalBest);
+				}
+
+				if (instrumented) {
+					long previousEvaluations = swarm.getEvaluations();
+					long start = System.nanoTime();
+					long swarmFitnessNanos = swarm.iterate(globalBest, globalWeight, true);
+					swarm.reseedIfCollapsed();
+					evaluations += swarm.getEvaluations() - previousEvaluations;
+					fitnessNanos += swarmFitnessNanos;
+					updateNanos += System.nanoTime() - start - swarmFitnessNanos;
+				} else {
+					swarm.iterate(globalBest, globalWeight, false);
+					swarm.reseedIfCollapsed();
+				}
+
+				// Publishes the improvements of this island.
+				if (swarm.getBestFitness() > publishedFitness) {
+					publishedFitness = swarm.getBestFitness();
+					GlobalBestRecord.publish(globalBestRecord, swarm.getBestPosition(), publishedFitness);
+				}
+				completedIterations++;
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Restores the best position and fitness found within all the
+	 * {@link #swarms}. In island mode, the islands pick them up on their
+	 * first iteration.
 	 *
-	 * @param particle
-	 *            the particle whose new speed needs to be computed
-	 * @param swarm
-	 *            the swarm which contains the particle
-	 * @param index
-	 *            the index of the particle axis whose speeds needs to be
-	 *            computed
-	 * @return the new speed of the particle passed on the given axis
-	 */
-	private double getNewParticleSpeedForIndex(Particle particle, Swarm swarm, int index) {
-		return ((configuration.getInertiaFactor() * particle.getSpeed()[index])
-				+ (randomizePercentage(configuration.getCognitiveWeight())
-						* (particle.getBestPosition()[index] - particle.getPosition()[index]))
-				+ (randomizePercentage(configuration.getSocialWeight())
-						* (swarm.getBestPosition()[index] - particle.getPosition()[index]))
-				+ (randomizePercentage(configuration.getGlobalWeight())
-						* (bestPosition[index] - particle.getPosition()[index])));
-	}
-
-	/**
-	 * Returns a random number between 0 and the value passed as argument.
+	 * @param bestPosition
+	 *            the best position found
+	 * @param bestFitness
+	 *            the best fitness found
+	 */
+	void restoreGlobalBest(double[] bestPosition, double bestFitness) {
+		System.arraycopy(bestPosition, 0, globalBest.position, 0, globalBest.position.length);
+		globalBest.fitness = bestFitness;
+		if (globalBestRecord != null) {
+			globalBestRecord.set(new GlobalBestRecord(bestPosition.clone(), bestFitness, 0));
+		}
+	}
+
+	/**
+	 * Gets the {@link #swarms}.
+	 *
+	 * @return the {@link #swarms}
+	 */
+	Swarm[] getSwarms() {
+		return swarms;
+	}
+
+	/**
+	 * Gets the {@link #configuration}.
 	 *
-	 * @param value
-	 *            the value to randomize
-	 * @return a random value between 0 and the one passed as argument
+	 * @return the {@link #configuration}
 	 */
-	private double randomizePercentage(double value) {
-		return configuration.getRandomGenerator().nextDouble() * value;
+	MultiswarmConfiguration getConfiguration() {
+		return configuration;
 	}
 
 	/**
-	 * Gets the {@link #bestPosition}.
+	 * Gets a copy of the best position found within all the {@link #swarms},
+	 * since the {@link #globalBest} is updated in place.
 	 *
-	 * @return the {@link #bestPosition}
+	 * @return the best position found within all the {@link #swarms} or null
+	 *         if no position has been evaluated yet
 	 */
+	@Override
 	public double[] getBestPosition() {
-		return bestPosition;
+		if (globalBest.fitness == Double.NEGATIVE_INFINITY) {
+			return null;
+		}
+		return globalBest.position.clone();
 	}
 
 	/**
-	 * Gets the {@link #bestFitness}.
+	 * Gets the best fitness score found within all the {@link #swarms}.
 	 *
-	 * @return the {@link #bestFitness}
+	 * @return the best fitness score found within all the {@link #swarms}
 	 */
+	@Override
 	public double getBestFitness() {
-		return bestFitness;
+		return globalBest.fitness;
+	}
+
+	/**
+	 * Gets the {@link #fitnessCache}.
+	 *
+	 * @return the {@link #fitnessCache} or null if no cache has been
+	 *         configured
+	 */
+	public CachingFitnessFunction getFitnessCache() {
+		return fitnessCache;
 	}
 
 	/*
@@ -192,9 +616,9 @@ public class Multiswarm implements IterativeAlgorithm {
 		final int prime = 31;
 		int result = 1;
 		long temp;
-		temp = Double.doubleToLongBits(bestFitness);
+		temp = Double.doubleToLongBits(getBestFitness());
 		result = prime * result + (int) (temp ^ (temp >>> 32));
-		result = prime * result + Arrays.hashCode(bestPosition);
+		result = prime * result + Arrays.hashCode(getBestPosition());
 		result = prime * result + ((configuration == null) ? 0 : configuration.hashCode());
 		result = prime * result + Arrays.hashCode(swarms);
 		return result;
@@ -214,9 +638,9 @@ public class Multiswarm implements IterativeAlgorithm {
 		if (getClass() != obj.getClass())
 			return false;
 		Multiswarm other = (Multiswarm) obj;
-		if (Double.doubleToLongBits(bestFitness) != Double.doubleToLongBits(other.bestFitness))
+		if (Double.doubleToLongBits(getBestFitness()) != Double.doubleToLongBits(other.getBestFitness()))
 			return false;
-		if (!Arrays.equals(bestPosition, other.bestPosition))
+		if (!Arrays.equals(getBestPosition(), other.getBestPosition()))
 			return false;
 		if (configuration == null) {
 			if (other.configuration != null)
@@ -235,8 +659,8 @@ public class Multiswarm implements IterativeAlgorithm {
 	 */
 	@Override
 	public String toString() {
-		return "Multiswarm [swarms=" + Arrays.toString(swarms) + ", bestPosition=" + Arrays.toString(bestPosition)
-				+ ", bestFitness=" + bestFitness + ", configuration=" + configuration + "]";
+		return "Multiswarm [swarms=" + Arrays.toString(swarms) + ", bestPosition=" + Arrays.toString(getBestPosition())
+				+ ", bestFitness=" + getBestFitness() + ", configuration=" + configuration + "]";
 	}
 
 }
@@ -23,6 +23,8 @@
  */
 package co.aurasphere.algo.swarm;
 
+import java.util.concurrent.ExecutorService;
+
 import co.aurasphere.algo.FitnessFunction;
 
 /**
@@ -46,6 +48,30 @@ public class MultiswarmConfiguration extends SwarmConfiguration {
 	 */
 	private int numSwarms = 50;
 
+	/**
+	 * Executor used to run the {@link Multiswarm} in island mode. If specified,
+	 * each {@link Swarm} is an island which runs on its own task and the
+	 * islands only exchange the best position found every
+	 * {@link #migrationInterval} iterations. If not specified, the swarms are
+	 * iterated sequentially on the caller thread.
+	 */
+	private ExecutorService islandExecutor;
+
+	/**
+	 * Number of iterations after which an island picks up the best position
+	 * found by all the islands when running in island mode. Defaults to 10 if
+	 * not specified.
+	 */
+	private int migrationInterval = 10;
+
+	/**
+	 * Minimum number of swarms kept active when the
+	 * {@link SwarmConfiguration#isAdaptivePopulation()} is enabled. Swarms are
+	 * only retired when iterated sequentially, not in island mode. Defaults to
+	 * 1 if not specified.
+	 */
+	private int minSwarms = 1;
+
 	/**
 	 * Instantiates a new MultiswarmConfiguration with default values.
 	 * 
@@ -66,6 +92,9 @@ public class MultiswarmConfiguration extends SwarmConfiguration {
 		super(configuration);
 		this.globalWeight = configuration.globalWeight;
 		this.numSwarms = configuration.numSwarms;
+		this.islandExecutor = configuration.islandExecutor;
+		this.migrationInterval = configuration.migrationInterval;
+		this.minSwarms = configuration.minSwarms;
 	}
 
 	/**
@@ -106,6 +135,63 @@ public class MultiswarmConfiguration extends SwarmConfiguration {
 		this.numSwarms = numSwarms;
 	}
 
+	/**
+	 * Gets the {@link #islandExecutor}.
+	 *
+	 * @return the {@link #islandExecutor}
+	 */
+	public ExecutorService getIslandExecutor() {
+		return islandExecutor;
+	}
+
+	/**
+	 * Sets the {@link #islandExecutor}.
+	 *
+	 * @param islandExecutor
+	 *            the new {@link #islandExecutor}
+	 */
+	public void setIslandExecutor(ExecutorService islandExecutor) {
+		this.islandExecutor = islandExecutor;
+	}
+
+	/**
+	 * Gets the {@link #migrationInterval}.
+	 *
+	 * @return the {@link #migrationInterval}
+	 */
+	public int getMigrationInterval() {
+		return migrationInterval;
+	}
+
+	/**
+	 * Sets the {@link #migrationInterval}.
+	 *
+	 * @param migrationInterval
+	 *            the new {@link #migrationInterval}
+	 */
+	public void setMigrationInterval(int migrationInterval) {
+		this.migrationInterval = migrationInterval;
+	}
+
+	/**
+	 * Gets the {@link #minSwarms}.
+	 *
+	 * @return the {@link #minSwarms}
+	 */
+	public int getMinSwarms() {
+		return minSwarms;
+	}
+
+	/**
+	 * Sets the {@link #minSwarms}.
+	 *
+	 * @param minSwarms
+	 *            the new {@link #minSwarms}
+	 */
+	public void setMinSwarms(int minSwarms) {
+		this.minSwarms = minSwarms;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -119,6 +205,9 @@ public class MultiswarmConfiguration extends SwarmConfiguration {
 		temp = Double.doubleToLongBits(globalWeight);
 		result = prime * result + (int) (temp ^ (temp >>> 32));
 		result = prime * result + numSwarms;
+		result = prime * result + ((islandExecutor == null) ? 0 : islandExecutor.hashCode());
+		result = prime * result + migrationInterval;
+		result = prime * result + minSwarms;
 		return result;
 	}
 
@@ -140,6 +229,15 @@ public class MultiswarmConfiguration extends SwarmConfiguration {
 			return false;
 		if (numSwarms != other.numSwarms)
 			return false;
+		if (islandExecutor == null) {
+			if (other.islandExecutor != null)
+				return false;
+		} else if (!islandExecutor.equals(other.islandExecutor))
+			return false;
+		if (migrationInterval != other.migrationInterval)
+			return false;
+		if (minSwarms != other.minSwarms)
+			return false;
 		return true;
 	}
 
@@ -151,7 +249,8 @@ public class MultiswarmConfiguration extends SwarmConfiguration {
 	@Override
 	public String toString() {
 		return "MultiswarmConfiguration [globalWeight=" + globalWeight + ", numSwarms=" + numSwarms
-				+ ", swarmConfiguration=" + super.toString() + "]";
+				+ ", islandExecutor=" + islandExecutor + ", migrationInterval=" + migrationInterval
+				+ ", minSwarms=" + minSwarms + ", swarmConfiguration=" + super.toString() + "]";
 	}
 
 }
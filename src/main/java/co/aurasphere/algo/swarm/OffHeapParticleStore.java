@@ -0,0 +1,303 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Storage for the state of the particles of a {@link Swarm} outside of the
+ * heap, laid out as in a {@link ParticleStore}. Since a single buffer can't
+ * hold more than 2 GiB, each attribute is split into segments of a fixed
+ * number of values. The particles are moved to and from the heap a range at a
+ * time through a {@link ParticleStore} used as a window.
+ *
+ * @author Donato Rimenti
+ *
+ */
+final class OffHeapParticleStore {
+
+	/**
+	 * Default number of values in a segment, which makes a segment 1 GiB.
+	 */
+	static final int DEFAULT_SEGMENT_SIZE = 1 << 27;
+
+	/**
+	 * Number of particles stored.
+	 */
+	final int size;
+
+	/**
+	 * Number of coordinates of each particle.
+	 */
+	final int dimensions;
+
+	/**
+	 * Number of values in each segment.
+	 */
+	private final int segmentSize;
+
+	/**
+	 * The file backing this store or null if it's stored in direct memory.
+	 */
+	private final Path file;
+
+	/**
+	 * The segments of the current positions of the particles.
+	 */
+	private final DoubleBuffer[] positions;
+
+	/**
+	 * The segments of the current speeds of the particles.
+	 */
+	private final DoubleBuffer[] speeds;
+
+	/**
+	 * The segments of the best positions found by the particles.
+	 */
+	private final DoubleBuffer[] bestPositions;
+
+	/**
+	 * The segments of the current fitness of the particles.
+	 */
+	private final DoubleBuffer[] fitness;
+
+	/**
+	 * The segments of the best fitness found by the particles.
+	 */
+	private final DoubleBuffer[] bestFitness;
+
+	/**
+	 * Instantiates a new OffHeapParticleStore with the default segment size.
+	 *
+	 * @param size
+	 *            the {@link #size}
+	 * @param dimensions
+	 *            the {@link #dimensions}
+	 * @param directory
+	 *            the directory where the backing file is created or null to
+	 *            use direct memory
+	 * @throws IOException
+	 *             if the backing file can't be created
+	 */
+	OffHeapParticleStore(int size, int dimensions, Path directory) throws IOException {
+		this(size, dimensions, directory, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Instantiates a new OffHeapParticleStore.
+	 *
+	 * @param size
+	 *            the {@link #size}
+	 * @param dimensions
+	 *            the {@link #dimensions}
+	 * @param directory
+	 *            the directory where the backing file is created or null to
+	 *            use direct memory
+	 * @param segmentSize
+	 *            the {@link #segmentSize}
+	 * @throws IOException
+	 *             if the backing file can't be created
+	 */
+	OffHeapParticleStore(int size, int dimensions, Path directory, int segmentSize) throws IOException {
+		this.size = size;
+		this.dimensions = dimensions;
+		this.segmentSize = segmentSize;
+		long coordinates = (long) size * dimensions;
+		if (directory == null) {
+			this.file = null;
+			this.positions = allocate(coordinates);
+			this.speeds = allocate(coordinates);
+			this.bestPositions = allocate(coordinates);
+			this.fitness = allocate(size);
+			this.bestFitness = allocate(size);
+		} else {
+			// The mappings stay valid after the channel is closed.
+			this.file = Files.createTempFile(directory, "particles", ".bin");
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+					StandardOpenOption.DELETE_ON_CLOSE)) {
+				this.positions = map(channel, 0, coordinates);
+				this.speeds = map(channel, coordinates, coordinates);
+				this.bestPositions = map(channel, 2 * coordinates, coordinates);
+				this.fitness = map(channel, 3 * coordinates, size);
+				this.bestFitness = map(channel, 3 * coordinates + size, size);
+			}
+		}
+	}
+
+	/**
+	 * Allocates the segments for some values in direct memory.
+	 *
+	 * @param length
+	 *            the number of values
+	 * @return the segments
+	 */
+	private DoubleBuffer[] allocate(long length) {
+		DoubleBuffer[] segments = new DoubleBuffer[(int) ((length + segmentSize - 1) / segmentSize)];
+		for (int s = 0; s < segments.length; s++) {
+			int segmentLength = (int) Math.min(segmentSize, length - (long) s * segmentSize);
+			segments[s] = ByteBuffer.allocateDirect(segmentLength * Double.BYTES).order(ByteOrder.nativeOrder())
+					.asDoubleBuffer();
+		}
+		return segments;
+	}
+
+	/**
+	 * Maps the segments for some values into a file.
+	 *
+	 * @param channel
+	 *            the channel of the file
+	 * @param offset
+	 *            the index of the first value in the file
+	 * @param length
+	 *            the number of values
+	 * @return the segments
+	 * @throws IOException
+	 *             if the file can't be mapped
+	 */
+	private DoubleBuffer[] map(FileChannel channel, long offset, long length) throws IOException {
+		DoubleBuffer[] segments = new DoubleBuffer[(int) ((length + segmentSize - 1) / segmentSize)];
+		for (int s = 0; s < segments.length; s++) {
+			long start = (long) s * segmentSize;
+			int segmentLength = (int) Math.min(segmentSize, length - start);
+			segments[s] = channel
+					.map(MapMode.READ_WRITE, (offset + start) * Double.BYTES, (long) segmentLength * Double.BYTES)
+					.order(ByteOrder.nativeOrder()).asDoubleBuffer();
+		}
+		return segments;
+	}
+
+	/**
+	 * Copies a range of particles into a window.
+	 *
+	 * @param from
+	 *            the index of the first particle to copy
+	 * @param count
+	 *            the number of particles to copy
+	 * @param window
+	 *            the store where the particles are copied, starting at index
+	 *            0
+	 */
+	void read(int from, int count, ParticleStore window) {
+		long offset = (long) from * dimensions;
+		int length = count * dimensions;
+		transfer(positions, offset, window.positions, length, false);
+		transfer(speeds, offset, window.speeds, length, false);
+		transfer(bestPositions, offset, window.bestPositions, length, false);
+		transfer(fitness, from, window.fitness, count, false);
+		transfer(bestFitness, from, window.bestFitness, count, false);
+	}
+
+	/**
+	 * Copies the positions of a range of particles into an array.
+	 *
+	 * @param from
+	 *            the index of the first particle to copy
+	 * @param count
+	 *            the number of particles to copy
+	 * @param destination
+	 *            the array where the positions are copied, starting at index
+	 *            0
+	 */
+	void readPositions(int from, int count, double[] destination) {
+		transfer(positions, (long) from * dimensions, destination, count * dimensions, false);
+	}
+
+	/**
+	 * Copies a range of particles from a window.
+	 *
+	 * @param from
+	 *            the index of the first particle to overwrite
+	 * @param count
+	 *            the number of particles to copy
+	 * @param window
+	 *            the store from which the particles are copied, starting at
+	 *            index 0
+	 */
+	void write(int from, int count, ParticleStore window) {
+		long offset = (long) from * dimensions;
+		int length = count * dimensions;
+		transfer(positions, offset, window.positions, length, true);
+		transfer(speeds, offset, window.speeds, length, true);
+		transfer(bestPositions, offset, window.bestPositions, length, true);
+		transfer(fitness, from, window.fitness, count, true);
+		transfer(bestFitness, from, window.bestFitness, count, true);
+	}
+
+	/**
+	 * Copies values between some segments and an array, crossing the
+	 * segments boundaries as needed.
+	 *
+	 * @param segments
+	 *            the segments
+	 * @param index
+	 *            the index of the first value in the segments
+	 * @param array
+	 *            the array, whose first value is at index 0
+	 * @param length
+	 *            the number of values to copy
+	 * @param toSegments
+	 *            true to copy from the array to the segments, false to copy
+	 *            the other way
+	 */
+	private void transfer(DoubleBuffer[] segments, long index, double[] array, int length, boolean toSegments) {
+		int copied = 0;
+		while (copied < length) {
+			int position = (int) (index % segmentSize);
+			int count = Math.min(length - copied, segmentSize - position);
+
+			// Duplicates the segment so that concurrent transfers don't share
+			// its position. The segment is cast to Buffer so that the method
+			// which exists on Java 8 is called.
+			DoubleBuffer segment = segments[(int) (index / segmentSize)].duplicate();
+			((Buffer) segment).position(position);
+			if (toSegments) {
+				segment.put(array, copied, count);
+			} else {
+				segment.get(array, copied, count);
+			}
+			copied += count;
+			index += count;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "OffHeapParticleStore [size=" + size + ", dimensions=" + dimensions + ", file=" + file + "]";
+	}
+
+}
@@ -0,0 +1,578 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bounded archive of the non-dominated solutions found by a multi-objective
+ * optimization. A solution dominates another one if it's at least as fit on
+ * every objective and fitter on at least one of them. The solutions are
+ * indexed by an ND-tree, where each node knows the best and worst fitness on
+ * each objective of the solutions below it: a new solution only needs to be
+ * compared with the nodes whose bounds overlap with its fitness, so the
+ * dominance checks usually visit a small part of the archive. When the
+ * archive grows over its capacity, the solutions in the most crowded regions
+ * of the front are dropped, as measured by their crowding distance, until a
+ * tenth of the capacity is free again.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class ParetoArchive {
+
+	/**
+	 * Max number of solutions in a leaf of the tree before it's split.
+	 */
+	private static final int MAX_LEAF_SIZE = 20;
+
+	/**
+	 * Number of objectives of each solution.
+	 */
+	private final int objectives;
+
+	/**
+	 * Max number of solutions kept in the archive.
+	 */
+	private final int capacity;
+
+	/**
+	 * Number of children created when a leaf of the tree is split.
+	 */
+	private final int childrenPerNode;
+
+	/**
+	 * The solutions in the archive, in no particular order.
+	 */
+	private final List<ParetoSolution> solutions = new ArrayList<ParetoSolution>();
+
+	/**
+	 * The root of the tree.
+	 */
+	private Node root = new Node();
+
+	/**
+	 * Whether the crowding distance of the solutions is up to date.
+	 */
+	private boolean crowdingUpdated;
+
+	/**
+	 * Number of nodes and solutions compared with the solutions added so far.
+	 */
+	private long comparisons;
+
+	/**
+	 * Instantiates a new ParetoArchive.
+	 *
+	 * @param objectives
+	 *            the {@link #objectives}
+	 * @param capacity
+	 *            the {@link #capacity}
+	 */
+	public ParetoArchive(int objectives, int capacity) {
+		if (objectives < 1) {
+			throw new IllegalArgumentException("Objectives must be positive but were " + objectives);
+		}
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive but was " + capacity);
+		}
+		this.objectives = objectives;
+		this.capacity = capacity;
+		this.childrenPerNode = Math.min(objectives + 1, MAX_LEAF_SIZE);
+	}
+
+	/**
+	 * Adds a solution to the archive unless it's dominated by or equal to one
+	 * already in it. The solutions dominated by the new one are removed. The
+	 * arrays passed are copied.
+	 * 
+	 * @param position
+	 *            the variables of the solution
+	 * @param fitness
+	 *            the fitness of the solution on each objective
+	 * @return true if the solution is in the archive after this call, false
+	 *         if it has been rejected or immediately dropped to keep the
+	 *         archive within its capacity
+	 */
+	public boolean add(double[] position, double[] fitness) {
+		if (fitness.length != objectives) {
+			throw new IllegalArgumentException(
+					"Expected fitness for " + objectives + " objectives but got " + fitness.length);
+		}
+		if (!solutions.isEmpty()) {
+			if (!update(root, fitness)) {
+				return false;
+			}
+			if (root.isEmpty()) {
+				root = new Node();
+			}
+		}
+
+		ParetoSolution solution = new ParetoSolution(position.clone(), fitness.clone());
+		solution.index = solutions.size();
+		solutions.add(solution);
+		insert(root, solution);
+		crowdingUpdated = false;
+		if (solutions.size() > capacity) {
+			truncate();
+		}
+		return solution.index >= 0;
+	}
+
+	/**
+	 * Checks a new fitness against the solutions below a node, removing the
+	 * ones it dominates.
+	 * 
+	 * @param node
+	 *            the node to check
+	 * @param fitness
+	 *            the new fitness
+	 * @return false if the new fitness is dominated by or equal to a solution
+	 *         below the node, true otherwise
+	 */
+	private boolean update(Node node, double[] fitness) {
+		comparisons++;
+		// Every solution is at least as fit as the worst bound.
+		if (weaklyDominates(node.worst, fitness)) {
+			return false;
+		}
+		// The new fitness dominates every solution.
+		if (weaklyDominates(fitness, node.best)) {
+			removeAll(node);
+			return true;
+		}
+		// No solution can be compared with the new fitness.
+		if (!weaklyDominates(node.best, fitness) && !weaklyDominates(fitness, node.worst)) {
+			return true;
+		}
+
+		if (node.children == null) {
+			List<ParetoSolution> points = node.points;
+			for (int i = points.size() - 1; i >= 0; i--) {
+				comparisons++;
+				ParetoSolution point = points.get(i);
+				if (weaklyDominates(point.getFitness(), fitness)) {
+					return false;
+				}
+				if (weaklyDominates(fitness, point.getFitness())) {
+					removeSolution(point);
+					points.set(i, points.get(points.size() - 1));
+					points.remove(points.size() - 1);
+				}
+			}
+			return true;
+		}
+
+		List<Node> children = node.children;
+		for (int i = children.size() - 1; i >= 0; i--) {
+			Node child = children.get(i);
+			if (!update(child, fitness)) {
+				return false;
+			}
+			if (child.isEmpty()) {
+				children.remove(i);
+			}
+		}
+		// A node with a single child is replaced by it.
+		if (children.size() == 1) {
+			Node child = children.get(0);
+			node.children = child.children;
+			node.points = child.points;
+			node.best = child.best;
+			node.worst = child.worst;
+		}
+		return true;
+	}
+
+	/**
+	 * Adds a solution below a node, descending to the child whose center is
+	 * the closest to the solution fitness and splitting the leaf it ends in if
+	 * it becomes too big.
+	 * 
+	 * @param node
+	 *            the node where the solution is added
+	 * @param solution
+	 *            the solution to add
+	 */
+	private void insert(Node node, ParetoSolution solution) {
+		double[] fitness = solution.getFitness();
+		while (true) {
+			node.extend(fitness);
+			if (node.children == null) {
+				node.points.add(solution);
+				if (node.points.size() > MAX_LEAF_SIZE) {
+					split(node);
+				}
+				return;
+			}
+			node = closestChild(node.children, fitness);
+		}
+	}
+
+	/**
+	 * Splits a leaf into {@link #childrenPerNode} new leaves. Each new leaf is
+	 * seeded with the solution farthest from the ones already used as seeds,
+	 * starting from the one farthest from all the others, then the remaining
+	 * solutions go to the leaf with the closest center.
+	 * 
+	 * @param node
+	 *            the leaf to split
+	 */
+	private void split(Node node) {
+		List<ParetoSolution> points = node.points;
+		int size = points.size();
+		boolean[] seeded = new boolean[size];
+		double[] distances = new double[size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				distances[i] += Math.sqrt(squaredDistance(points.get(i).getFitness(), points.get(j).getFitness()));
+			}
+		}
+
+		List<Node> children = new ArrayList<Node>(childrenPerNode);
+		while (children.size() < childrenPerNode) {
+			int seed = -1;
+			for (int i = 0; i < size; i++) {
+				if (!seeded[i] && (seed < 0 || distances[i] > distances[seed])) {
+					seed = i;
+				}
+			}
+			seeded[seed] = true;
+			Node child = new Node();
+			child.extend(points.get(seed).getFitness());
+			child.points.add(points.get(seed));
+			children.add(child);
+
+			// From now on, only the distances from the seeds count.
+			if (children.size() == 1) {
+				distances = new double[size];
+			}
+			for (int i = 0; i < size; i++) {
+				distances[i] += Math
+						.sqrt(squaredDistance(points.get(i).getFitness(), points.get(seed).getFitness()));
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			if (!seeded[i]) {
+				ParetoSolution point = points.get(i);
+				Node child = closestChild(children, point.getFitness());
+				child.extend(point.getFitness());
+				child.points.add(point);
+			}
+		}
+		node.points = null;
+		node.children = children;
+	}
+
+	/**
+	 * Returns the node whose center is the closest to a fitness.
+	 * 
+	 * @param children
+	 *            the nodes to choose from
+	 * @param fitness
+	 *            the fitness
+	 * @return the node whose center is the closest to the fitness
+	 */
+	private Node closestChild(List<Node> children, double[] fitness) {
+		Node closest = null;
+		double closestDistance = Double.POSITIVE_INFINITY;
+		for (Node child : children) {
+			double distance = 0;
+			for (int k = 0; k < objectives; k++) {
+				double delta = (child.best[k] + child.worst[k]) / 2 - fitness[k];
+				distance += delta * delta;
+			}
+			if (distance < closestDistance) {
+				closest = child;
+				closestDistance = distance;
+			}
+		}
+		return closest;
+	}
+
+	/**
+	 * Removes all the solutions below a node, leaving it empty.
+	 * 
+	 * @param node
+	 *            the node to empty
+	 */
+	private void removeAll(Node node) {
+		if (node.children == null) {
+			for (ParetoSolution point : node.points) {
+				removeSolution(point);
+			}
+			node.points.clear();
+			return;
+		}
+		for (Node child : node.children) {
+			removeAll(child);
+		}
+		node.children = null;
+		node.points = new ArrayList<ParetoSolution>(0);
+	}
+
+	/**
+	 * Removes a solution from the {@link #solutions} by replacing it with the
+	 * last one.
+	 * 
+	 * @param solution
+	 *            the solution to remove
+	 */
+	private void removeSolution(ParetoSolution solution) {
+		ParetoSolution last = solutions.remove(solutions.size() - 1);
+		if (last != solution) {
+			solutions.set(solution.index, last);
+			last.index = solution.index;
+		}
+		solution.index = -1;
+		crowdingUpdated = false;
+	}
+
+	/**
+	 * Keeps only the least crowded solutions, leaving a tenth of the capacity
+	 * free, and rebuilds the tree with them.
+	 */
+	private void truncate() {
+		updateCrowding();
+		List<ParetoSolution> sorted = new ArrayList<ParetoSolution>(solutions);
+		Collections.sort(sorted, new Comparator<ParetoSolution>() {
+
+			@Override
+			public int compare(ParetoSolution first, ParetoSolution second) {
+				return Double.compare(second.crowding, first.crowding);
+			}
+		});
+
+		int kept = capacity - capacity / 10;
+		solutions.clear();
+		root = new Node();
+		for (int i = 0; i < sorted.size(); i++) {
+			ParetoSolution solution = sorted.get(i);
+			if (i < kept) {
+				solution.index = i;
+				solutions.add(solution);
+				insert(root, solution);
+			} else {
+				solution.index = -1;
+			}
+		}
+		crowdingUpdated = false;
+	}
+
+	/**
+	 * Computes the crowding distance of each solution, which is the sum over
+	 * the objectives of the distance between its two neighbours on the front,
+	 * normalized by the range of the objective. The solutions at the ends of
+	 * the front have an infinite distance.
+	 */
+	private void updateCrowding() {
+		if (crowdingUpdated) {
+			return;
+		}
+		int size = solutions.size();
+		List<ParetoSolution> sorted = new ArrayList<ParetoSolution>(solutions);
+		for (ParetoSolution solution : sorted) {
+			solution.crowding = 0;
+		}
+		for (int k = 0; k < objectives; k++) {
+			final int objective = k;
+			Collections.sort(sorted, new Comparator<ParetoSolution>() {
+
+				@Override
+				public int compare(ParetoSolution first, ParetoSolution second) {
+					return Double.compare(first.getFitness()[objective], second.getFitness()[objective]);
+				}
+			});
+			sorted.get(0).crowding = Double.POSITIVE_INFINITY;
+			sorted.get(size - 1).crowding = Double.POSITIVE_INFINITY;
+			double range = sorted.get(size - 1).getFitness()[k] - sorted.get(0).getFitness()[k];
+			if (range > 0) {
+				for (int i = 1; i < size - 1; i++) {
+					sorted.get(i).crowding += (sorted.get(i + 1).getFitness()[k]
+							- sorted.get(i - 1).getFitness()[k]) / range;
+				}
+			}
+		}
+		crowdingUpdated = true;
+	}
+
+	/**
+	 * Picks a solution to lead a particle with a binary tournament: two
+	 * random solutions are drawn and the least crowded one wins, which
+	 * spreads the particles along the front.
+	 * 
+	 * @param randomSource
+	 *            the source of the random numbers
+	 * @return the leader or null if the archive is empty
+	 */
+	ParetoSolution selectLeader(RandomSource randomSource) {
+		int size = solutions.size();
+		if (size == 0) {
+			return null;
+		}
+		updateCrowding();
+		ParetoSolution first = solutions.get((int) (randomSource.nextDouble() * size));
+		ParetoSolution second = solutions.get((int) (randomSource.nextDouble() * size));
+		return second.crowding > first.crowding ? second : first;
+	}
+
+	/**
+	 * Checks if a fitness is at least as good as another one on every
+	 * objective.
+	 * 
+	 * @param first
+	 *            the first fitness
+	 * @param second
+	 *            the second fitness
+	 * @return true if the first fitness is greater or equal to the second one
+	 *         on every objective, false otherwise
+	 */
+	static boolean weaklyDominates(double[] first, double[] second) {
+		for (int k = 0; k < first.length; k++) {
+			if (first[k] < second[k]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the squared Euclidean distance between two fitness values.
+	 * 
+	 * @param first
+	 *            the first fitness
+	 * @param second
+	 *            the second fitness
+	 * @return the squared distance between the two fitness values
+	 */
+	private static double squaredDistance(double[] first, double[] second) {
+		double distance = 0;
+		for (int k = 0; k < first.length; k++) {
+			double delta = first[k] - second[k];
+			distance += delta * delta;
+		}
+		return distance;
+	}
+
+	/**
+	 * Returns the solutions in the archive, in no particular order.
+	 * 
+	 * @return an unmodifiable view of the solutions in the archive
+	 */
+	public List<ParetoSolution> getSolutions() {
+		return Collections.unmodifiableList(solutions);
+	}
+
+	/**
+	 * Returns the number of solutions in the archive.
+	 * 
+	 * @return the number of solutions in the archive
+	 */
+	public int size() {
+		return solutions.size();
+	}
+
+	/**
+	 * Gets the {@link #capacity}.
+	 *
+	 * @return the {@link #capacity}
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the {@link #comparisons}.
+	 *
+	 * @return the {@link #comparisons}
+	 */
+	public long getComparisons() {
+		return comparisons;
+	}
+
+	/**
+	 * Node of the tree. A leaf holds the solutions, while an inner node holds
+	 * the children. The bounds cover all the solutions below the node but
+	 * aren't shrunk when solutions are removed, which keeps them valid.
+	 * 
+	 * @author Donato Rimenti
+	 *
+	 */
+	private static class Node {
+
+		/**
+		 * The best fitness on each objective of the solutions below this
+		 * node.
+		 */
+		private double[] best;
+
+		/**
+		 * The worst fitness on each objective of the solutions below this
+		 * node.
+		 */
+		private double[] worst;
+
+		/**
+		 * The children of this node or null if this node is a leaf.
+		 */
+		private List<Node> children;
+
+		/**
+		 * The solutions of this node if it's a leaf or null otherwise.
+		 */
+		private List<ParetoSolution> points = new ArrayList<ParetoSolution>();
+
+		/**
+		 * Extends the bounds of this node to cover a fitness.
+		 * 
+		 * @param fitness
+		 *            the fitness to cover
+		 */
+		private void extend(double[] fitness) {
+			if (best == null) {
+				best = fitness.clone();
+				worst = fitness.clone();
+				return;
+			}
+			for (int k = 0; k < fitness.length; k++) {
+				best[k] = Math.max(best[k], fitness[k]);
+				worst[k] = Math.min(worst[k], fitness[k]);
+			}
+		}
+
+		/**
+		 * Checks if there are no solutions below this node.
+		 * 
+		 * @return true if there are no solutions below this node, false
+		 *         otherwise
+		 */
+		private boolean isEmpty() {
+			return children == null ? points.isEmpty() : children.isEmpty();
+		}
+	}
+
+}
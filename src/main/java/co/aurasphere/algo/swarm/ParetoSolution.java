@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.Arrays;
+
+/**
+ * Solution kept in a {@link ParetoArchive}, made of a position and its
+ * fitness on each objective.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public final class ParetoSolution {
+
+	/**
+	 * The variables of this solution.
+	 */
+	private final double[] position;
+
+	/**
+	 * The fitness of this solution on each objective.
+	 */
+	private final double[] fitness;
+
+	/**
+	 * The index of this solution in the list of solutions of the archive or
+	 * -1 if this solution has been removed from it.
+	 */
+	int index;
+
+	/**
+	 * The crowding distance of this solution from the other ones in the
+	 * archive, as of the last time it has been computed.
+	 */
+	double crowding;
+
+	/**
+	 * Instantiates a new ParetoSolution.
+	 *
+	 * @param position
+	 *            the {@link #position}
+	 * @param fitness
+	 *            the {@link #fitness}
+	 */
+	ParetoSolution(double[] position, double[] fitness) {
+		this.position = position;
+		this.fitness = fitness;
+	}
+
+	/**
+	 * Gets the {@link #position}.
+	 *
+	 * @return the {@link #position}
+	 */
+	public double[] getPosition() {
+		return position;
+	}
+
+	/**
+	 * Gets the {@link #fitness}.
+	 *
+	 * @return the {@link #fitness}
+	 */
+	public double[] getFitness() {
+		return fitness;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "ParetoSolution [position=" + Arrays.toString(position) + ", fitness=" + Arrays.toString(fitness)
+				+ "]";
+	}
+
+}
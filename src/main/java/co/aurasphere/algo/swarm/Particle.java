@@ -26,7 +26,10 @@ package co.aurasphere.algo.swarm;
 import java.util.Arrays;
 
 /**
- * Represents a particle, the basic component of a {@link Swarm}.
+ * Represents a particle, the basic component of a {@link Swarm}. The state of
+ * the particles of a swarm is kept in a shared {@link ParticleStore}, so this
+ * object is only a view over it: the arrays returned by the getters are copies
+ * and the setters copy the values passed into the store.
  * 
  * @author Donato Rimenti
  * 
@@ -34,136 +37,169 @@ import java.util.Arrays;
 public class Particle {
 
 	/**
-	 * The current position of this particle.
+	 * The store which holds the state of this particle.
 	 */
-	private double[] position;
+	private final ParticleStore store;
 
 	/**
-	 * The speed of this particle.
+	 * The index of this particle inside the {@link #store}.
 	 */
-	private double[] speed;
+	private final int index;
 
 	/**
-	 * The fitness of this particle for the current position.
-	 */
-	private double fitness;
-
-	/**
-	 * The best position found by this particle.
-	 */
-	private double[] bestPosition;
-
-	/**
-	 * The best fitness found by this particle.
-	 */
-	private double bestFitness = Double.NEGATIVE_INFINITY;
-
-	/**
-	 * Instantiates a new Particle.
+	 * Instantiates a new Particle backed by its own store.
 	 *
 	 * @param initialPosition
-	 *            the initial {@link #position}
+	 *            the initial position
 	 * @param initialSpeed
-	 *            the initial {@link #speed}
+	 *            the initial speed
 	 */
 	public Particle(double[] initialPosition, double[] initialSpeed) {
-		this.position = initialPosition;
-		this.speed = initialSpeed;
+		this(new ParticleStore(1, initialPosition.length), 0);
+		setPosition(initialPosition);
+		setSpeed(initialSpeed);
+	}
+
+	/**
+	 * Instantiates a new Particle as a view over an existing store.
+	 *
+	 * @param store
+	 *            the {@link #store}
+	 * @param index
+	 *            the {@link #index}
+	 */
+	Particle(ParticleStore store, int index) {
+		this.store = store;
+		this.index = index;
 	}
 
 	/**
-	 * Gets the {@link #position}.
+	 * Gets a copy of the current position of this particle.
 	 *
-	 * @return the {@link #position}
+	 * @return the current position of this particle
 	 */
 	public double[] getPosition() {
-		return position;
+		return copyOf(store.positions);
 	}
 
 	/**
-	 * Gets the {@link #speed}.
+	 * Gets a copy of the speed of this particle.
 	 *
-	 * @return the {@link #speed}
+	 * @return the speed of this particle
 	 */
 	public double[] getSpeed() {
-		return speed;
+		return copyOf(store.speeds);
 	}
 
 	/**
-	 * Gets the {@link #fitness}.
+	 * Gets the fitness of this particle for the current position.
 	 *
-	 * @return the {@link #fitness}
+	 * @return the fitness of this particle for the current position
 	 */
 	public double getFitness() {
-		return fitness;
+		return store.fitness[index];
 	}
 
 	/**
-	 * Gets the {@link #bestPosition}.
+	 * Gets a copy of the best position found by this particle.
 	 *
-	 * @return the {@link #bestPosition}
+	 * @return the best position found by this particle or null if this
+	 *         particle has never been evaluated
 	 */
 	public double[] getBestPosition() {
-		return bestPosition;
+		if (getBestFitness() == Double.NEGATIVE_INFINITY) {
+			return null;
+		}
+		return copyOf(store.bestPositions);
 	}
 
 	/**
-	 * Gets the {@link #bestFitness}.
+	 * Gets the best fitness found by this particle.
 	 *
-	 * @return the {@link #bestFitness}
+	 * @return the best fitness found by this particle
 	 */
 	public double getBestFitness() {
-		return bestFitness;
+		return store.bestFitness[index];
 	}
 
 	/**
-	 * Sets the {@link #position}.
+	 * Sets the current position of this particle.
 	 *
 	 * @param position
-	 *            the new {@link #position}
+	 *            the new current position of this particle
 	 */
 	public void setPosition(double[] position) {
-		this.position = position;
+		copyInto(position, store.positions);
 	}
 
 	/**
-	 * Sets the {@link #speed}.
+	 * Sets the speed of this particle.
 	 *
 	 * @param speed
-	 *            the new {@link #speed}
+	 *            the new speed of this particle
 	 */
 	public void setSpeed(double[] speed) {
-		this.speed = speed;
+		copyInto(speed, store.speeds);
 	}
 
 	/**
-	 * Sets the {@link #fitness}.
+	 * Sets the fitness of this particle for the current position.
 	 *
 	 * @param fitness
-	 *            the new {@link #fitness}
+	 *            the new fitness of this particle for the current position
 	 */
 	public void setFitness(double fitness) {
-		this.fitness = fitness;
+		store.fitness[index] = fitness;
 	}
 
 	/**
-	 * Sets the {@link #bestPosition}.
+	 * Sets the best position found by this particle.
 	 *
 	 * @param bestPosition
-	 *            the new {@link #bestPosition}
+	 *            the new best position found by this particle
 	 */
 	public void setBestPosition(double[] bestPosition) {
-		this.bestPosition = bestPosition;
+		copyInto(bestPosition, store.bestPositions);
 	}
 
 	/**
-	 * Sets the {@link #bestFitness}.
+	 * Sets the best fitness found by this particle.
 	 *
 	 * @param bestFitness
-	 *            the new {@link #bestFitness}
+	 *            the new best fitness found by this particle
 	 */
 	public void setBestFitness(double bestFitness) {
-		this.bestFitness = bestFitness;
+		store.bestFitness[index] = bestFitness;
+	}
+
+	/**
+	 * Copies the coordinates of this particle out of an array of the
+	 * {@link #store}.
+	 * 
+	 * @param source
+	 *            the array of the store to read
+	 * @return a copy of the coordinates of this particle
+	 */
+	private double[] copyOf(double[] source) {
+		int offset = store.offset(index);
+		return Arrays.copyOfRange(source, offset, offset + store.dimensions);
+	}
+
+	/**
+	 * Copies the coordinates of this particle into an array of the
+	 * {@link #store}.
+	 * 
+	 * @param values
+	 *            the coordinates to copy
+	 * @param destination
+	 *            the array of the store to write
+	 */
+	private void copyInto(double[] values, double[] destination) {
+		if (values.length != store.dimensions) {
+			throw new IllegalArgumentException(
+					"Expected " + store.dimensions + " coordinates but got " + values.length);
+		}
+		System.arraycopy(values, 0, destination, store.offset(index), store.dimensions);
 	}
 
 	/*
@@ -176,13 +212,13 @@ public class Particle {
 		final int prime = 31;
 		int result = 1;
 		long temp;
-		temp = Double.doubleToLongBits(bestFitness);
+		temp = Double.doubleToLongBits(getBestFitness());
 		result = prime * result + (int) (temp ^ (temp >>> 32));
-		result = prime * result + Arrays.hashCode(bestPosition);
-		temp = Double.doubleToLongBits(fitness);
+		result = prime * result + Arrays.hashCode(getBestPosition());
+		temp = Double.doubleToLongBits(getFitness());
 		result = prime * result + (int) (temp ^ (temp >>> 32));
-		result = prime * result + Arrays.hashCode(position);
-		result = prime * result + Arrays.hashCode(speed);
+		result = prime * result + Arrays.hashCode(getPosition());
+		result = prime * result + Arrays.hashCode(getSpeed());
 		return result;
 	}
 
@@ -200,15 +236,15 @@ public class Particle {
 		if (getClass() != obj.getClass())
 			return false;
 		Particle other = (Particle) obj;
-		if (Double.doubleToLongBits(bestFitness) != Double.doubleToLongBits(other.bestFitness))
+		if (Double.doubleToLongBits(getBestFitness()) != Double.doubleToLongBits(other.getBestFitness()))
 			return false;
-		if (!Arrays.equals(bestPosition, other.bestPosition))
+		if (!Arrays.equals(getBestPosition(), other.getBestPosition()))
 			return false;
-		if (Double.doubleToLongBits(fitness) != Double.doubleToLongBits(other.fitness))
+		if (Double.doubleToLongBits(getFitness()) != Double.doubleToLongBits(other.getFitness()))
 			return false;
-		if (!Arrays.equals(position, other.position))
+		if (!Arrays.equals(getPosition(), other.getPosition()))
 			return false;
-		if (!Arrays.equals(speed, other.speed))
+		if (!Arrays.equals(getSpeed(), other.getSpeed()))
 			return false;
 		return true;
 	}
@@ -220,8 +256,9 @@ public class Particle {
 	 */
 	@Override
 	public String toString() {
-		return "Particle [position=" + Arrays.toString(position) + ", speed=" + Arrays.toString(speed) + ", fitness="
-				+ fitness + ", bestPosition=" + Arrays.toString(bestPosition) + ", bestFitness=" + bestFitness + "]";
+		return "Particle [position=" + Arrays.toString(getPosition()) + ", speed=" + Arrays.toString(getSpeed())
+				+ ", fitness=" + getFitness() + ", bestPosition=" + Arrays.toString(getBestPosition()) + ", bestFitness="
+				+ getBestFitness() + "]";
 	}
 
 }
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.Arrays;
+
+/**
+ * Storage for the state of the particles of a {@link Swarm}. Instead of
+ * keeping an object with its own arrays for each particle, every attribute is
+ * stored in a single flat primitive array shared by all the particles. The
+ * coordinates of the particle <code>i</code> on the axis <code>d</code> are
+ * stored at the index <code>i * dimensions + d</code>, while the fitness
+ * values are stored at the index <code>i</code>. This keeps the data
+ * contiguous in memory and lets the main loop run without allocating
+ * anything.
+ *
+ * @author Donato Rimenti
+ *
+ */
+final class ParticleStore {
+
+	/**
+	 * Number of particles stored.
+	 */
+	final int size;
+
+	/**
+	 * Number of coordinates of each particle.
+	 */
+	final int dimensions;
+
+	/**
+	 * The current positions of the particles.
+	 */
+	final double[] positions;
+
+	/**
+	 * The speeds of the particles.
+	 */
+	final double[] speeds;
+
+	/**
+	 * The best positions found by the particles.
+	 */
+	final double[] bestPositions;
+
+	/**
+	 * The fitness of the particles for their current positions.
+	 */
+	final double[] fitness;
+
+	/**
+	 * The best fitness found by the particles.
+	 */
+	final double[] bestFitness;
+
+	/**
+	 * Instantiates a new ParticleStore with all the values set to 0 and all
+	 * the best fitness values set to {@link Double#NEGATIVE_INFINITY}.
+	 *
+	 * @param size
+	 *            the {@link #size}
+	 * @param dimensions
+	 *            the {@link #dimensions}
+	 */
+	ParticleStore(int size, int dimensions) {
+		this.size = size;
+		this.dimensions = dimensions;
+		this.positions = new double[size * dimensions];
+		this.speeds = new double[size * dimensions];
+		this.bestPositions = new double[size * dimensions];
+		this.fitness = new double[size];
+		this.bestFitness = new double[size];
+		Arrays.fill(bestFitness, Double.NEGATIVE_INFINITY);
+	}
+
+	/**
+	 * Returns the index of the first coordinate of a particle in the position
+	 * arrays.
+	 *
+	 * @param index
+	 *            the index of the particle
+	 * @return the index of the first coordinate of the particle
+	 */
+	int offset(int index) {
+		return index * dimensions;
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+/**
+ * Computes the new position and speed of a particle, as described in
+ * {@link Swarm#updateParticle(int, int, double[], double)}. The scalar
+ * implementation works on any runtime, while a vectorized one based on the
+ * incubating Vector API is loaded by reflection when the library has been
+ * built and run on Java 17 or later with the <code>jdk.incubator.vector</code>
+ * module. All the implementations compute exactly the same results.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+interface ParticleUpdateKernel {
+
+	/**
+	 * The kernel which updates a coordinate at a time.
+	 */
+	public static final ParticleUpdateKernel SCALAR = new ScalarParticleUpdateKernel();
+
+	/**
+	 * Updates the position and speed of a particle. The random coefficients
+	 * of the particle are grouped by term, so that the coefficients of
+	 * consecutive axes are contiguous: first the cognitive coefficient of
+	 * each axis, then the social ones and finally, if a global best position
+	 * is passed, the global ones.
+	 * 
+	 * @param positions
+	 *            the positions of the particles
+	 * @param speeds
+	 *            the speeds of the particles
+	 * @param bestPositions
+	 *            the best positions found by the particles
+	 * @param swarmBestPosition
+	 *            the best position found by the swarm
+	 * @param globalBestPosition
+	 *            the best position found by all the swarms or null if the
+	 *            swarm is not part of a multiswarm
+	 * @param coefficients
+	 *            the random coefficients
+	 * @param offset
+	 *            the offset of the particle in the positions arrays
+	 * @param coefficientsOffset
+	 *            the index of the first random coefficient of the particle
+	 * @param dimensions
+	 *            the number of coordinates of the particle
+	 * @param inertiaFactor
+	 *            the weight of the current speed
+	 * @param cognitiveWeight
+	 *            the weight of the particle best position
+	 * @param socialWeight
+	 *            the weight of the swarm best position
+	 * @param globalWeight
+	 *            the weight of the global best position
+	 */
+	public void update(double[] positions, double[] speeds, double[] bestPositions, double[] swarmBestPosition,
+			double[] globalBestPosition, double[] coefficients, int offset, int coefficientsOffset, int dimensions,
+			double inertiaFactor, double cognitiveWeight, double socialWeight, double globalWeight);
+
+	/**
+	 * Returns the kernel to use.
+	 * 
+	 * @param vectorized
+	 *            whether the vectorized kernel should be used if available
+	 * @return the vectorized kernel if requested and available, the
+	 *         {@link #SCALAR} one otherwise
+	 */
+	public static ParticleUpdateKernel getKernel(boolean vectorized) {
+		if (vectorized && VectorKernelHolder.KERNEL != null) {
+			return VectorKernelHolder.KERNEL;
+		}
+		return SCALAR;
+	}
+
+	/**
+	 * Lazily loads the vectorized kernel.
+	 * 
+	 * @author Donato Rimenti
+	 *
+	 */
+	static class VectorKernelHolder {
+
+		/**
+		 * The vectorized kernel or null if not available.
+		 */
+		static final ParticleUpdateKernel KERNEL = loadVectorKernel();
+
+		/**
+		 * Loads the vectorized kernel, which is only compiled when building
+		 * on Java 17 or later and can only be initialized if the
+		 * <code>jdk.incubator.vector</code> module has been added to the
+		 * runtime.
+		 * 
+		 * @return the vectorized kernel or null if not available
+		 */
+		private static ParticleUpdateKernel loadVectorKernel() {
+			try {
+				return (ParticleUpdateKernel) Class.forName("co.aurasphere.algo.swarm.VectorParticleUpdateKernel")
+						.getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException e) {
+				return null;
+			} catch (LinkageError e) {
+				// Vector API module not added or class built for a newer
+				// runtime.
+				return null;
+			}
+		}
+	}
+
+}
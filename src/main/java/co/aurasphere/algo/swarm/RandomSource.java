@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.io.Serializable;
+
+/**
+ * Source of the random numbers used by the swarms. Unlike
+ * {@link java.util.Random}, implementations are not required to be thread
+ * safe: instead, each worker gets its own independent stream through
+ * {@link #split()}, so that no synchronization is needed while generating
+ * numbers. A source must therefore never be used by swarms which run
+ * concurrently, and splitting it must not happen while it's in use. Random
+ * sources are serializable so that the state of a run can be saved and
+ * resumed.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public interface RandomSource extends Serializable {
+
+	/**
+	 * Returns a pseudorandom double between 0 (inclusive) and 1 (exclusive).
+	 *
+	 * @return a pseudorandom double between 0 and 1
+	 */
+	double nextDouble();
+
+	/**
+	 * Fills a range of an array with pseudorandom doubles between 0
+	 * (inclusive) and 1 (exclusive). The values are the same that would be
+	 * returned by calling {@link #nextDouble()} once for each element.
+	 *
+	 * @param values
+	 *            the array to fill
+	 * @param from
+	 *            the index of the first element to fill, inclusive
+	 * @param to
+	 *            the index of the last element to fill, exclusive
+	 */
+	default void nextDoubles(double[] values, int from, int to) {
+		for (int i = from; i < to; i++) {
+			values[i] = nextDouble();
+		}
+	}
+
+	/**
+	 * Returns a new random source whose numbers are independent from the ones
+	 * of this source. The new source is derived from the state of this one, so
+	 * splitting a seeded source always returns the same sequence of sources.
+	 *
+	 * @return a new independent random source
+	 */
+	RandomSource split();
+
+}
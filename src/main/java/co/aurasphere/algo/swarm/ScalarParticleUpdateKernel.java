@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+/**
+ * {@link ParticleUpdateKernel} which updates a coordinate at a time. Each axis
+ * is independent from the others, so this is done in a single loop over the
+ * particle coordinates.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+final class ScalarParticleUpdateKernel implements ParticleUpdateKernel {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.swarm.ParticleUpdateKernel#update(double[],
+	 * double[], double[], double[], double[], double[], int, int, int, double,
+	 * double, double, double)
+	 */
+	@Override
+	public void update(double[] positions, double[] speeds, double[] bestPositions, double[] swarmBestPosition,
+			double[] globalBestPosition, double[] coefficients, int offset, int coefficientsOffset, int dimensions,
+			double inertiaFactor, double cognitiveWeight, double socialWeight, double globalWeight) {
+		update(positions, speeds, bestPositions, swarmBestPosition, globalBestPosition, coefficients, offset,
+				coefficientsOffset, dimensions, 0, dimensions, inertiaFactor, cognitiveWeight, socialWeight,
+				globalWeight);
+	}
+
+	/**
+	 * Updates a range of coordinates of a particle, as described in
+	 * {@link ParticleUpdateKernel#update(double[], double[], double[], double[], double[], double[], int, int, int, double, double, double, double)}.
+	 * Used by the vectorized kernels for the coordinates which don't fill a
+	 * whole vector.
+	 * 
+	 * @param positions
+	 *            the positions of the particles
+	 * @param speeds
+	 *            the speeds of the particles
+	 * @param bestPositions
+	 *            the best positions found by the particles
+	 * @param swarmBestPosition
+	 *            the best position found by the swarm
+	 * @param globalBestPosition
+	 *            the best position found by all the swarms or null
+	 * @param coefficients
+	 *            the random coefficients
+	 * @param offset
+	 *            the offset of the particle in the positions arrays
+	 * @param coefficientsOffset
+	 *            the index of the first random coefficient of the particle
+	 * @param dimensions
+	 *            the number of coordinates of the particle
+	 * @param from
+	 *            the first coordinate to update, inclusive
+	 * @param to
+	 *            the last coordinate to update, exclusive
+	 * @param inertiaFactor
+	 *            the weight of the current speed
+	 * @param cognitiveWeight
+	 *            the weight of the particle best position
+	 * @param socialWeight
+	 *            the weight of the swarm best position
+	 * @param globalWeight
+	 *            the weight of the global best position
+	 */
+	static void update(double[] positions, double[] speeds, double[] bestPositions, double[] swarmBestPosition,
+			double[] globalBestPosition, double[] coefficients, int offset, int coefficientsOffset, int dimensions,
+			int from, int to, double inertiaFactor, double cognitiveWeight, double socialWeight, double globalWeight) {
+		int cognitiveOffset = coefficientsOffset;
+		int socialOffset = coefficientsOffset + dimensions;
+		if (globalBestPosition == null) {
+			for (int d = from; d < to; d++) {
+				int index = offset + d;
+				double position = positions[index] + speeds[index];
+				positions[index] = position;
+				speeds[index] = (inertiaFactor * speeds[index])
+						+ ((coefficients[cognitiveOffset + d] * cognitiveWeight) * (bestPositions[index] - position))
+						+ ((coefficients[socialOffset + d] * socialWeight) * (swarmBestPosition[d] - position));
+			}
+		} else {
+			int globalOffset = socialOffset + dimensions;
+			for (int d = from; d < to; d++) {
+				int index = offset + d;
+				double position = positions[index] + speeds[index];
+				positions[index] = position;
+				speeds[index] = (inertiaFactor * speeds[index])
+						+ ((coefficients[cognitiveOffset + d] * cognitiveWeight) * (bestPositions[index] - position))
+						+ ((coefficients[socialOffset + d] * socialWeight) * (swarmBestPosition[d] - position))
+						+ ((coefficients[globalOffset + d] * globalWeight) * (globalBestPosition[d] - position));
+			}
+		}
+	}
+
+}
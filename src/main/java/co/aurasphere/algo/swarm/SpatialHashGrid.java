@@ -0,0 +1,273 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+/**
+ * Grid which counts the particles of a {@link Swarm} in each cell of the
+ * search space, to detect the ones crowded together. The cells are cubes
+ * whose side on each axis is a fraction of the bounds on that axis and are
+ * identified by a 64 bit hash of their coordinates, so two cells may be
+ * counted together in the unlikely event that their hashes collide. Only the
+ * occupied cells are stored, in an open addressing hash table sized for the
+ * worst case of one particle per cell, so the grid never grows. The grid is
+ * updated incrementally: moving a particle only touches its old and new
+ * cells.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+final class SpatialHashGrid {
+
+	/**
+	 * The lower bounds of the search space.
+	 */
+	private final double[] lowerBounds;
+
+	/**
+	 * The side of the cells on each axis.
+	 */
+	private final double[] cellSides;
+
+	/**
+	 * The cell of each particle.
+	 */
+	private final long[] particleCells;
+
+	/**
+	 * Whether each particle is in the grid.
+	 */
+	private final boolean[] tracked;
+
+	/**
+	 * The cells of the hash table.
+	 */
+	private final long[] cells;
+
+	/**
+	 * The number of particles in each cell of the hash table, 0 for the empty
+	 * slots.
+	 */
+	private final int[] counts;
+
+	/**
+	 * Number of occupied cells.
+	 */
+	private int occupiedCells;
+
+	/**
+	 * Instantiates a new SpatialHashGrid.
+	 *
+	 * @param size
+	 *            the number of particles
+	 * @param lowerBounds
+	 *            the {@link #lowerBounds}
+	 * @param upperBounds
+	 *            the upper bounds of the search space
+	 * @param cellSize
+	 *            the side of the cells as a fraction of the bounds. If the
+	 *            bounds of an axis are empty, the side is this value itself
+	 */
+	SpatialHashGrid(int size, double[] lowerBounds, double[] upperBounds, double cellSize) {
+		this.lowerBounds = lowerBounds;
+		this.cellSides = new double[lowerBounds.length];
+		for (int d = 0; d < cellSides.length; d++) {
+			double range = upperBounds[d] - lowerBounds[d];
+			cellSides[d] = range > 0 ? range * cellSize : cellSize;
+		}
+		this.particleCells = new long[size];
+		this.tracked = new boolean[size];
+
+		// Keeps the table at most half full.
+		int capacity = Integer.highestOneBit(Math.max(1, size)) * 4;
+		this.cells = new long[capacity];
+		this.counts = new int[capacity];
+	}
+
+	/**
+	 * Moves a particle to the cell of its current position, adding it to the
+	 * grid if it isn't tracked yet.
+	 * 
+	 * @param particle
+	 *            the index of the particle
+	 * @param positions
+	 *            the array which holds the particle position
+	 * @param offset
+	 *            the index of the first coordinate of the particle
+	 * @return the number of particles in the new cell of the particle,
+	 *         including itself
+	 */
+	int move(int particle, double[] positions, int offset) {
+		long cell = cellOf(positions, offset);
+		if (tracked[particle]) {
+			if (particleCells[particle] == cell) {
+				return counts[slotOf(cell)];
+			}
+			decrement(particleCells[particle]);
+		}
+		tracked[particle] = true;
+		particleCells[particle] = cell;
+		return increment(cell);
+	}
+
+	/**
+	 * Removes a particle from the grid.
+	 * 
+	 * @param particle
+	 *            the index of the particle
+	 */
+	void remove(int particle) {
+		if (tracked[particle]) {
+			decrement(particleCells[particle]);
+			tracked[particle] = false;
+		}
+	}
+
+	/**
+	 * Swaps the cells of two particles, as their state is swapped.
+	 * 
+	 * @param first
+	 *            the index of the first particle
+	 * @param second
+	 *            the index of the second particle
+	 */
+	void swap(int first, int second) {
+		long cell = particleCells[first];
+		particleCells[first] = particleCells[second];
+		particleCells[second] = cell;
+		boolean isTracked = tracked[first];
+		tracked[first] = tracked[second];
+		tracked[second] = isTracked;
+	}
+
+	/**
+	 * Returns the hash of the cell which contains a position.
+	 * 
+	 * @param positions
+	 *            the array which holds the position
+	 * @param offset
+	 *            the index of the first coordinate of the position
+	 * @return the hash of the cell
+	 */
+	private long cellOf(double[] positions, int offset) {
+		long hash = 0;
+		for (int d = 0; d < cellSides.length; d++) {
+			long coordinate = (long) Math.floor((positions[offset + d] - lowerBounds[d]) / cellSides[d]);
+			hash = (hash + coordinate) * 0x9E3779B97F4A7C15L;
+		}
+
+		// Finalizer of MurmurHash3, which spreads the bits of the hash.
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB2F3C1A0E4A9L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	/**
+	 * Returns the slot of a cell in the hash table, which is either the slot
+	 * where the cell is or the empty slot where it would be inserted.
+	 * 
+	 * @param cell
+	 *            the hash of the cell
+	 * @return the slot of the cell
+	 */
+	private int slotOf(long cell) {
+		int mask = cells.length - 1;
+		int slot = (int) cell & mask;
+		while (counts[slot] != 0 && cells[slot] != cell) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Adds a particle to a cell.
+	 * 
+	 * @param cell
+	 *            the hash of the cell
+	 * @return the number of particles in the cell
+	 */
+	private int increment(long cell) {
+		int slot = slotOf(cell);
+		if (counts[slot] == 0) {
+			cells[slot] = cell;
+			occupiedCells++;
+		}
+		return ++counts[slot];
+	}
+
+	/**
+	 * Removes a particle from a cell. When a cell becomes empty, the cells
+	 * after it in the same run of the hash table are shifted back, so that
+	 * the lookups don't need tombstones.
+	 * 
+	 * @param cell
+	 *            the hash of the cell
+	 */
+	private void decrement(long cell) {
+		int slot = slotOf(cell);
+		if (--counts[slot] > 0) {
+			return;
+		}
+		occupiedCells--;
+		int mask = cells.length - 1;
+		int next = (slot + 1) & mask;
+		while (counts[next] != 0) {
+			int home = (int) cells[next] & mask;
+
+			// Moves the next cell into the hole unless its home slot lies
+			// cyclically between the hole and itself.
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				cells[slot] = cells[next];
+				counts[slot] = counts[next];
+				counts[next] = 0;
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+	}
+
+	/**
+	 * Returns the number of particles in the cell of a particle.
+	 * 
+	 * @param particle
+	 *            the index of the particle
+	 * @return the number of particles in its cell or 0 if the particle isn't
+	 *         tracked
+	 */
+	int countAt(int particle) {
+		return tracked[particle] ? counts[slotOf(particleCells[particle])] : 0;
+	}
+
+	/**
+	 * Gets the {@link #occupiedCells}.
+	 *
+	 * @return the {@link #occupiedCells}
+	 */
+	int getOccupiedCells() {
+		return occupiedCells;
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.SplittableRandom;
+
+/**
+ * {@link RandomSource} which implements the SplitMix64 algorithm, the same
+ * used by {@link SplittableRandom}, and produces exactly the same numbers of a
+ * {@link SplittableRandom} created with the same seed. Its whole state is two
+ * plain longs, so generating a number only takes a few arithmetic operations
+ * and no synchronization. For the same reason, it's not thread safe: each
+ * thread must use its own source, obtained with {@link #split()}.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class SplittableRandomSource implements RandomSource {
+
+	/**
+	 * The Constant serialVersionUID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The default {@link #gamma}, derived from the golden ratio.
+	 */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * Multiplier used to convert the 53 most significant bits of a long into
+	 * a double between 0 and 1.
+	 */
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	/**
+	 * The current state, advanced by {@link #gamma} on each number.
+	 */
+	private long seed;
+
+	/**
+	 * The increment of the {@link #seed}, which is different for each split
+	 * source. Always odd.
+	 */
+	private final long gamma;
+
+	/**
+	 * Instantiates a new SplittableRandomSource with a seed.
+	 *
+	 * @param seed
+	 *            the initial seed
+	 */
+	public SplittableRandomSource(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Instantiates a new SplittableRandomSource with a seed which changes at
+	 * each execution.
+	 */
+	public SplittableRandomSource() {
+		this(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+	}
+
+	/**
+	 * Instantiates a new SplittableRandomSource.
+	 *
+	 * @param seed
+	 *            the {@link #seed}
+	 * @param gamma
+	 *            the {@link #gamma}
+	 */
+	private SplittableRandomSource(long seed, long gamma) {
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * Returns a pseudorandom long.
+	 *
+	 * @return a pseudorandom long
+	 */
+	public long nextLong() {
+		return mix64(seed += gamma);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.swarm.RandomSource#nextDouble()
+	 */
+	@Override
+	public double nextDouble() {
+		return (mix64(seed += gamma) >>> 11) * DOUBLE_UNIT;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.swarm.RandomSource#nextDoubles(double[], int,
+	 * int)
+	 */
+	@Override
+	public void nextDoubles(double[] values, int from, int to) {
+		// Works on local copies so that the state stays in registers.
+		long s = seed;
+		long g = gamma;
+		for (int i = from; i < to; i++) {
+			s += g;
+			values[i] = (mix64(s) >>> 11) * DOUBLE_UNIT;
+		}
+		seed = s;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.swarm.RandomSource#split()
+	 */
+	@Override
+	public RandomSource split() {
+		long splitSeed = nextLong();
+		return new SplittableRandomSource(splitSeed, mixGamma(seed += gamma));
+	}
+
+	/**
+	 * Mixes the bits of a long, from the SplitMix64 algorithm.
+	 *
+	 * @param z
+	 *            the value to mix
+	 * @return the mixed value
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Computes the gamma of a split source, making sure it's odd and that its
+	 * bits are well distributed.
+	 *
+	 * @param z
+	 *            the value to derive the gamma from
+	 * @return the gamma of a split source
+	 */
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		int transitions = Long.bitCount(z ^ (z >>> 1));
+		return transitions < 24 ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "SplittableRandomSource [seed=" + seed + ", gamma=" + gamma + "]";
+	}
+
+}
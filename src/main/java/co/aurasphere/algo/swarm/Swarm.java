@@ -23,10 +23,19 @@
  */
 package co.aurasphere.algo.swarm;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
-import co.aurasphere.algo.IterativeAlgorithm;
+import co.aurasphere.algo.AsyncFitnessFunctionAdapter;
+import co.aurasphere.algo.BatchFitnessFunction;
+import co.aurasphere.algo.BatchFitnessFunctionAdapter;
+import co.aurasphere.algo.CachingFitnessFunction;
+import co.aurasphere.algo.FitnessFunction;
+import co.aurasphere.algo.OptimizationAlgorithm;
 
 /**
  * Represents a collection of {@link Particle}. To use this object, instantiate
@@ -36,10 +45,39 @@ import co.aurasphere.algo.IterativeAlgorithm;
  * @author Donato Rimenti
  *
  */
-public class Swarm implements IterativeAlgorithm {
+public class Swarm implements OptimizationAlgorithm {
 
 	/**
-	 * The particles of this swarm.
+	 * The state of the particles of this swarm.
+	 */
+	private ParticleStore particleStore;
+
+	/**
+	 * The state of the particles of this swarm when stored off-heap or null
+	 * if they are stored on the heap. In that case, the {@link #particleStore}
+	 * is only a window over a chunk of them.
+	 */
+	private OffHeapParticleStore offHeapStore;
+
+	/**
+	 * Grid which counts the particles in each region of the search space to
+	 * restart the crowded ones or null if the diversity is not monitored.
+	 */
+	private SpatialHashGrid diversityGrid;
+
+	/**
+	 * Number of positions evaluated by the fitness function so far, excluding
+	 * the ones whose evaluation has been skipped by the {@link #surrogate}.
+	 */
+	private long evaluations;
+
+	/**
+	 * Number of particles restarted because of the {@link #diversityGrid}.
+	 */
+	private long restartedParticles;
+
+	/**
+	 * Views over the particles of this swarm, created on first access.
 	 */
 	private Particle[] particles;
 
@@ -58,121 +96,1190 @@ public class Swarm implements IterativeAlgorithm {
 	 */
 	private SwarmConfiguration configuration;
 
+	/**
+	 * The configured fitness function, adapted to evaluate the particles in
+	 * blocks.
+	 */
+	private BatchFitnessFunction batchFitnessFunction;
+
+	/**
+	 * Buffer which wraps the positions of the {@link #particleStore}, used to
+	 * pass them to the {@link #batchFitnessFunction}.
+	 */
+	private DoubleBuffer positionsBuffer;
+
+	/**
+	 * The cache which decorates the configured fitness function, if a
+	 * {@link SwarmConfiguration#getFitnessCacheGrid()} has been specified.
+	 */
+	private CachingFitnessFunction fitnessCache;
+
+	/**
+	 * Predicts the fitness of the particles to skip the evaluations which
+	 * can't improve them, if
+	 * {@link SwarmConfiguration#getSurrogateNeighbours()} is greater than 0,
+	 * null otherwise.
+	 */
+	private FitnessSurrogate surrogate;
+
+	/**
+	 * The indices of the particles which need a real evaluation in the
+	 * current iteration when a {@link #surrogate} is used, created on first
+	 * use.
+	 */
+	private int[] candidates;
+
+	/**
+	 * The positions of the {@link #candidates}, packed one after another.
+	 */
+	private double[] candidatePositions;
+
+	/**
+	 * The fitness of the {@link #candidates}.
+	 */
+	private double[] candidateFitness;
+
+	/**
+	 * Evaluates the particles asynchronously if
+	 * {@link SwarmConfiguration#getMaxInFlightEvaluations()} is greater than 0,
+	 * null otherwise.
+	 */
+	private AsyncFitnessEvaluator asyncEvaluator;
+
+	/**
+	 * The source of the random numbers used by this swarm.
+	 */
+	private RandomSource randomSource;
+
+	/**
+	 * Buffer for the random coefficients used to update the speeds of all the
+	 * particles in an iteration, created on first use.
+	 */
+	private double[] randomCoefficients;
+
+	/**
+	 * Computes the new positions and speeds of the particles.
+	 */
+	private ParticleUpdateKernel updateKernel;
+
+	/**
+	 * The lower bounds of the search space.
+	 */
+	private double[] lowerBounds;
+
+	/**
+	 * The upper bounds of the search space.
+	 */
+	private double[] upperBounds;
+
+	/**
+	 * Number of particles iterated. The active particles are stored first in
+	 * the {@link #particleStore}, followed by the ones retired when the
+	 * {@link SwarmConfiguration#isAdaptivePopulation()} is enabled.
+	 */
+	private int activeParticles;
+
+	/**
+	 * Number of iterations since each particle last improved its best, if the
+	 * {@link SwarmConfiguration#isAdaptivePopulation()} is enabled, null
+	 * otherwise.
+	 */
+	private int[] stagnation;
+
+	/**
+	 * Number of iterations since this swarm last improved its best, only
+	 * tracked if the {@link SwarmConfiguration#isAdaptivePopulation()} is
+	 * enabled.
+	 */
+	private int swarmStagnation;
+
+	/**
+	 * Number of iterations completed while a {@link SwarmListener} is
+	 * configured.
+	 */
+	private long iteration;
+
+	/**
+	 * The last iteration at which the {@link #bestFitness} improved while a
+	 * {@link SwarmListener} is configured.
+	 */
+	private long lastImprovementIteration;
+
 	/**
 	 * Instantiates a new Swarm.
 	 *
 	 * @param configuration
 	 *            the configuration for this swarm
+	 * @throws UncheckedIOException
+	 *             if the particles are stored off-heap and the storage can't
+	 *             be created
 	 */
 	public Swarm(SwarmConfiguration configuration) {
-		// Clones the configuration passed as argument to ensure thread safety.
+		this(configuration, new ParticleStore(getHeapParticles(configuration), configuration.getDimensions()),
+				getRandomSource(configuration));
+		if (offHeapStore == null) {
+			for (int i = 0; i < particleStore.size; i++) {
+				initializeParticle(i);
+			}
+			return;
+		}
+
+		// Initializes the particles a chunk at a time.
+		for (int from = 0; from < offHeapStore.size; from += particleStore.size) {
+			int count = Math.min(particleStore.size, offHeapStore.size - from);
+			for (int i = 0; i < count; i++) {
+				initializeParticle(i);
+			}
+			offHeapStore.write(from, count, particleStore);
+		}
+	}
+
+	/**
+	 * Returns the number of particles kept on the heap by a swarm, which is
+	 * the {@link SwarmConfiguration#getOffHeapChunkSize()} if the particles
+	 * are stored off-heap or all of them otherwise.
+	 * 
+	 * @param configuration
+	 *            the swarm configuration
+	 * @return the number of particles kept on the heap
+	 */
+	private static int getHeapParticles(SwarmConfiguration configuration) {
+		if (configuration.getOffHeapChunkSize() > 0) {
+			return Math.min(configuration.getOffHeapChunkSize(), configuration.getNumParticle());
+		}
+		return configuration.getNumParticle();
+	}
+
+	/**
+	 * Instantiates a new Swarm whose particles are already initialized, as it
+	 * happens when a swarm is restored from a snapshot.
+	 *
+	 * @param configuration
+	 *            the configuration for this swarm
+	 * @param particleStore
+	 *            the {@link #particleStore}
+	 * @param randomSource
+	 *            the {@link #randomSource}
+	 */
+	Swarm(SwarmConfiguration configuration, ParticleStore particleStore, RandomSource randomSource) {
+		// Clones the configuration passed as argument so that later changes
+		// don't affect this swarm. The random source is not copied, so it
+		// must not be shared with swarms running concurrently.
 		this.configuration = new SwarmConfiguration(configuration);
+		this.particleStore = particleStore;
+		this.randomSource = randomSource;
+		this.positionsBuffer = DoubleBuffer.wrap(particleStore.positions);
+		this.activeParticles = particleStore.size;
+		this.updateKernel = ParticleUpdateKernel.getKernel(configuration.isVectorizedUpdate());
+		this.lowerBounds = getBounds(this.configuration.getLowerBounds(), particleStore.dimensions, 0);
+		this.upperBounds = getBounds(this.configuration.getUpperBounds(), particleStore.dimensions, 1);
+		checkBounds(lowerBounds, upperBounds);
+
+		FitnessFunction fitnessFunction = configuration.getFitnessFunction();
+		if (configuration.getFitnessCacheGrid() != null) {
+			this.fitnessCache = newFitnessCache(configuration);
+			fitnessFunction = fitnessCache;
+		}
+		this.batchFitnessFunction = BatchFitnessFunctionAdapter.adapt(fitnessFunction);
+		if (configuration.getSurrogateNeighbours() > 0) {
+			// A negative margin would store predictions better than the
+			// particle best without ever evaluating them.
+			if (!(configuration.getSurrogateMargin() >= 0)) {
+				throw new IllegalArgumentException(
+						"Surrogate margin must not be negative: " + configuration.getSurrogateMargin());
+			}
+			this.surrogate = new FitnessSurrogate(particleStore.dimensions, configuration.getSurrogateNeighbours());
+		}
+		if (configuration.isAdaptivePopulation()) {
+			if (configuration.getMaxInFlightEvaluations() > 0) {
+				throw new IllegalArgumentException(
+						"Adaptive population is not supported with asynchronous evaluation");
+			}
+			this.stagnation = new int[particleStore.size];
+		}
+		if (configuration.getOffHeapChunkSize() > 0) {
+			if (configuration.getMaxInFlightEvaluations() > 0 || surrogate != null
+					|| configuration.isAdaptivePopulation() || configuration.getDiversityCellSize() > 0) {
+				throw new IllegalArgumentException("Off-heap storage is not supported with asynchronous evaluation, "
+						+ "a surrogate, an adaptive population or a diversity grid");
+			}
+			try {
+				this.offHeapStore = new OffHeapParticleStore(configuration.getNumParticle(), particleStore.dimensions,
+						configuration.getOffHeapDirectory());
+			} catch (IOException e) {
+				throw new UncheckedIOException("Error while creating the off-heap storage", e);
+			}
+			this.activeParticles = offHeapStore.size;
+		}
+		if (configuration.getDiversityCellSize() > 0) {
+			this.diversityGrid = new SpatialHashGrid(particleStore.size, lowerBounds, upperBounds,
+					configuration.getDiversityCellSize());
+			for (int i = 0; i < activeParticles; i++) {
+				diversityGrid.move(i, particleStore.positions, particleStore.offset(i));
+			}
+		}
+		if (configuration.getMaxInFlightEvaluations() > 0) {
+			this.asyncEvaluator = new AsyncFitnessEvaluator(this,
+					AsyncFitnessFunctionAdapter.adapt(fitnessFunction, configuration.getFitnessExecutor()),
+					configuration.getMaxInFlightEvaluations());
+		}
+	}
+
+	/**
+	 * Initiates a particle with a random position within the bounds and a
+	 * random speed proportional to the bounds size.
+	 * 
+	 * @param index
+	 *            the index of the particle inside the {@link #particleStore}
+	 */
+	private void initializeParticle(int index) {
+		double[] positions = particleStore.positions;
+		double[] speeds = particleStore.speeds;
+		int offset = particleStore.offset(index);
+		int dimensions = particleStore.dimensions;
+		for (int d = 0; d < dimensions; d++) {
+			positions[offset + d] = lowerBounds[d] + randomSource.nextDouble() * (upperBounds[d] - lowerBounds[d]);
+		}
+		for (int d = 0; d < dimensions; d++) {
+			speeds[offset + d] = randomSource.nextDouble() * (upperBounds[d] - lowerBounds[d]);
+		}
+		if (diversityGrid != null) {
+			diversityGrid.move(index, positions, offset);
+		}
+	}
+
+	/**
+	 * Returns the random source specified in a configuration or, if not
+	 * specified, one backed by the configured random generator. The returned
+	 * source is the configured one, not a copy.
+	 * 
+	 * @param configuration
+	 *            the swarm configuration
+	 * @return the random source to use
+	 */
+	static RandomSource getRandomSource(SwarmConfiguration configuration) {
+		if (configuration.getRandomSource() != null) {
+			return configuration.getRandomSource();
+		}
+		return new JdkRandomSource(configuration.getRandomGenerator());
+	}
+
+	/**
+	 * Returns the bounds of the search space, validating them or filling them
+	 * with a default value if not specified.
+	 * 
+	 * @param bounds
+	 *            the bounds specified in the configuration, may be null
+	 * @param dimensions
+	 *            the number of dimensions of the search space
+	 * @param defaultValue
+	 *            the value used for each dimension if the bounds are null
+	 * @return a copy of the bounds of the search space
+	 */
+	static double[] getBounds(double[] bounds, int dimensions, double defaultValue) {
+		if (bounds == null) {
+			double[] defaultBounds = new double[dimensions];
+			Arrays.fill(defaultBounds, defaultValue);
+			return defaultBounds;
+		}
+		if (bounds.length != dimensions) {
+			throw new IllegalArgumentException(
+					"Expected bounds for " + dimensions + " dimensions but got " + bounds.length);
+		}
+		return bounds.clone();
+	}
 
-		int particlesPerSwarm = configuration.getNumParticle();
-		Random randomGenerator = configuration.getRandomGenerator();
+	/**
+	 * Checks that the lower bound of each dimension is not greater than the
+	 * upper one.
+	 * 
+	 * @param lowerBounds
+	 *            the lower bounds of the search space
+	 * @param upperBounds
+	 *            the upper bounds of the search space
+	 */
+	static void checkBounds(double[] lowerBounds, double[] upperBounds) {
+		for (int d = 0; d < lowerBounds.length; d++) {
+			if (!(lowerBounds[d] <= upperBounds[d])) {
+				throw new IllegalArgumentException("Lower bound " + lowerBounds[d]
+						+ " is greater than upper bound " + upperBounds[d] + " on dimension " + d);
+			}
+		}
+	}
 
-		// Initiates the particles with random positions and speeds.
-		particles = new Particle[particlesPerSwarm];
-		for (int i = 0; i < particlesPerSwarm; i++) {
-			double[] initialParticlePosition = { randomGenerator.nextDouble(), randomGenerator.nextDouble() };
-			double[] initialParticleSpeed = { randomGenerator.nextDouble(), randomGenerator.nextDouble() };
-			particles[i] = new Particle(initialParticlePosition, initialParticleSpeed);
+	/**
+	 * Creates the fitness cache specified in a configuration, validating its
+	 * grid.
+	 * 
+	 * @param configuration
+	 *            the swarm configuration, with a fitness cache grid
+	 * @return the fitness cache
+	 */
+	static CachingFitnessFunction newFitnessCache(SwarmConfiguration configuration) {
+		double[] grid = configuration.getFitnessCacheGrid();
+		if (grid.length != configuration.getDimensions()) {
+			throw new IllegalArgumentException("Expected a fitness cache grid for " + configuration.getDimensions()
+					+ " dimensions but got " + grid.length);
 		}
+		return new CachingFitnessFunction(configuration.getFitnessFunction(), grid,
+				configuration.getFitnessCacheCapacity());
 	}
 
 	/**
-	 * Main loop of the algorithm. Iterates all {@link #particles} of this
-	 * swarm. For each particle, computes the new fitness and checks if a new
-	 * best position has been found among itself and the swarm and finally
-	 * updates the particle position and speed.
+	 * Main loop of the algorithm. Iterates all the particles of this swarm.
+	 * For each particle, computes the new fitness and checks if a new best
+	 * position has been found among itself and the swarm and finally updates
+	 * the particle position and speed. If the
+	 * {@link SwarmConfiguration#isAdaptivePopulation()} is enabled, only the
+	 * active particles are iterated and the retired ones are re-seeded once
+	 * the swarm collapses. If the diversity is monitored, the particles which
+	 * move into a crowded region are restarted.
 	 */
 	@Override
 	public void mainLoop() {
-		for (Particle particle : particles) {
+		SwarmListener listener = configuration.getListener();
+		if (listener == null) {
+			iterate(null, 0, false);
+			reseedIfCollapsed();
+			return;
+		}
+
+		// Same as above but measuring each step.
+		listener.iterationStarted();
+		double previousBestFitness = bestFitness;
+		long previousEvaluations = evaluations;
+		long start = System.nanoTime();
+		long fitnessNanos = iterate(null, 0, true);
+		reseedIfCollapsed();
+		long end = System.nanoTime();
+
+		iteration++;
+		if (bestFitness > previousBestFitness) {
+			lastImprovementIteration = iteration;
+		}
+		double diversity = bestPosition == null ? 0 : sumDistances(bestPosition) / activeParticles;
+		listener.iterationCompleted(new SwarmIterationStats(iteration, 1, evaluations - previousEvaluations,
+				fitnessNanos, end - start - fitnessNanos, end - start, bestFitness, lastImprovementIteration,
+				diversity));
+	}
+
+	/**
+	 * Executes an iteration of this swarm. If the particles are evaluated
+	 * synchronously, computes the fitness of all the particles and then
+	 * updates them with {@link #updateParticles(GlobalBest, double)}.
+	 * Otherwise, moves each particle as soon as its evaluation completes
+	 * through the {@link #asyncEvaluator}. If the
+	 * {@link SwarmConfiguration#isAdaptivePopulation()} is enabled, the
+	 * stagnant particles are retired at the end of the iteration.
+	 * 
+	 * @param globalBest
+	 *            the best position found by all the swarms or null if this
+	 *            swarm is not part of a multiswarm
+	 * @param globalWeight
+	 *            the weight of the global best position
+	 * @param measure
+	 *            whether the time spent computing the fitness should be
+	 *            measured
+	 * @return the nanoseconds spent computing or, if asynchronously, waiting
+	 *         for the fitness or 0 if not measured
+	 */
+	long iterate(GlobalBest globalBest, double globalWeight, boolean measure) {
+		if (stagnation == null) {
+			return evaluateAndUpdate(globalBest, globalWeight, measure);
+		}
 
-			double[] particleOldPosition = particle.getPosition().clone();
+		// Ages the particles before updating them, so that the ones which
+		// improve start over from 0.
+		for (int i = 0; i < activeParticles; i++) {
+			stagnation[i]++;
+		}
+		swarmStagnation++;
+		long fitnessNanos = evaluateAndUpdate(globalBest, globalWeight, measure);
+		retireStagnantParticles();
+		return fitnessNanos;
+	}
+
+	/**
+	 * Computes the fitness of the active particles and updates them, as
+	 * described in {@link #iterate(GlobalBest, double, boolean)}.
+	 * 
+	 * @param globalBest
+	 *            the best position found by all the swarms or null if this
+	 *            swarm is not part of a multiswarm
+	 * @param globalWeight
+	 *            the weight of the global best position
+	 * @param measure
+	 *            whether the time spent computing the fitness should be
+	 *            measured
+	 * @return the nanoseconds spent computing or, if asynchronously, waiting
+	 *         for the fitness or 0 if not measured
+	 */
+	private long evaluateAndUpdate(GlobalBest globalBest, double globalWeight, boolean measure) {
+		if (offHeapStore != null) {
+			return evaluateAndUpdateOffHeap(globalBest, globalWeight, measure);
+		}
+		if (asyncEvaluator != null) {
+			return asyncEvaluator.iterate(globalBest, globalWeight, measure);
+		}
+		if (!measure) {
+			// Calculate the particles fitness.
+			evaluateFitness();
+
+			// Updates the bests and moves the particles.
+			updateParticles(globalBest, globalWeight);
+			return 0;
+		}
+		long start = System.nanoTime();
+		evaluateFitness();
+		long fitnessNanos = System.nanoTime() - start;
+		updateParticles(globalBest, globalWeight);
+		return fitnessNanos;
+	}
+
+	/**
+	 * Computes the fitness of the particles stored off-heap and updates them,
+	 * a chunk at a time. Each chunk is copied into the {@link #particleStore},
+	 * evaluated, updated and copied back. Since the particles are still
+	 * updated in order and draw their random coefficients in the same order,
+	 * the results are the same as if all the particles were on the heap.
+	 * 
+	 * @param globalBest
+	 *            the best position found by all the swarms or null if this
+	 *            swarm is not part of a multiswarm
+	 * @param globalWeight
+	 *            the weight of the global best position
+	 * @param measure
+	 *            whether the time spent computing the fitness should be
+	 *            measured
+	 * @return the nanoseconds spent computing the fitness or 0 if not
+	 *         measured
+	 */
+	private long evaluateAndUpdateOffHeap(GlobalBest globalBest, double globalWeight, boolean measure) {
+		long fitnessNanos = 0;
+		for (int from = 0; from < offHeapStore.size; from += particleStore.size) {
+			int count = Math.min(particleStore.size, offHeapStore.size - from);
+			offHeapStore.read(from, count, particleStore);
+			long start = measure ? System.nanoTime() : 0;
+			evaluateFitness(positionsBuffer, particleStore.fitness, count);
+			if (measure) {
+				fitnessNanos += System.nanoTime() - start;
+			}
+			updateParticles(globalBest, globalWeight, count);
+			offHeapStore.write(from, count, particleStore);
+		}
+		return fitnessNanos;
+	}
+
+	/**
+	 * Iterates all the particles of this swarm, checking if a new best
+	 * position has been found among itself, the swarm and, if this swarm is
+	 * part of a {@link Multiswarm}, all the swarms. Then updates the particle
+	 * position and speed. The fitness of the particles must have already been
+	 * computed by {@link #evaluateFitness()}.
+	 * 
+	 * @param globalBest
+	 *            the best position found by all the swarms or null if this
+	 *            swarm is not part of a multiswarm
+	 * @param globalWeight
+	 *            the weight of the global best position
+	 */
+	void updateParticles(GlobalBest globalBest, double globalWeight) {
+		updateParticles(globalBest, globalWeight, activeParticles);
+	}
+
+	/**
+	 * Updates the first particles of the {@link #particleStore}, as described
+	 * in {@link #updateParticles(GlobalBest, double)}.
+	 * 
+	 * @param globalBest
+	 *            the best position found by all the swarms or null if this
+	 *            swarm is not part of a multiswarm
+	 * @param globalWeight
+	 *            the weight of the global best position
+	 * @param count
+	 *            the number of particles to update
+	 */
+	private void updateParticles(GlobalBest globalBest, double globalWeight, int count) {
+		ParticleStore store = particleStore;
+		double[] globalBestPosition = globalBest == null ? null : globalBest.position;
+
+		// Draws all the random coefficients of this iteration at once, in
+		// the same order they are used.
+		int coefficientsPerParticle = store.dimensions * (globalBest == null ? 2 : 3);
+		int coefficientsCount = coefficientsPerParticle * count;
+		if (randomCoefficients == null || randomCoefficients.length < coefficientsCount) {
+			randomCoefficients = new double[coefficientsCount];
+		}
+		randomSource.nextDoubles(randomCoefficients, 0, coefficientsCount);
+
+		for (int i = 0; i < count; i++) {
+			int offset = store.offset(i);
+			updateBests(i, offset, globalBest);
+
+			// Updates the particle position and speed.
+			updateParticle(offset, i * coefficientsPerParticle, globalBestPosition, globalWeight);
+			restartIfCrowded(i);
+		}
+	}
+
+	/**
+	 * Updates a single particle whose fitness has just been computed, as
+	 * {@link #updateParticles(GlobalBest, double)} does for all of them.
+	 * 
+	 * @param index
+	 *            the index of the particle inside the {@link #particleStore}
+	 * @param globalBest
+	 *            the best position found by all the swarms or null if this
+	 *            swarm is not part of a multiswarm
+	 * @param globalWeight
+	 *            the weight of the global best position
+	 */
+	void applyEvaluation(int index, GlobalBest globalBest, double globalWeight) {
+		int coefficientsCount = particleStore.dimensions * (globalBest == null ? 2 : 3);
+		if (randomCoefficients == null || randomCoefficients.length < coefficientsCount) {
+			randomCoefficients = new double[coefficientsCount];
+		}
+		randomSource.nextDoubles(randomCoefficients, 0, coefficientsCount);
 
-			// Calculate the particle fitness.
-			particle.setFitness(configuration.getFitnessFunction().getFitness(particleOldPosition));
+		int offset = particleStore.offset(index);
+		updateBests(index, offset, globalBest);
+		updateParticle(offset, 0, globalBest == null ? null : globalBest.position, globalWeight);
+		restartIfCrowded(index);
+	}
 
-			// Check if a new best position has been found for the particle
-			// itself and within the swarm.
-			if (particle.getFitness() > particle.getBestFitness()) {
-				particle.setBestFitness(particle.getFitness());
-				particle.setBestPosition(particleOldPosition);
+	/**
+	 * Moves a particle which has just been updated in the
+	 * {@link #diversityGrid}, if used, and restarts it from a random position
+	 * if its new cell holds more than
+	 * {@link SwarmConfiguration#getMaxParticlesPerCell()} particles. The
+	 * restarted particle forgets its best, so that it explores the new region
+	 * instead of going back.
+	 * 
+	 * @param index
+	 *            the index of the particle inside the {@link #particleStore}
+	 */
+	private void restartIfCrowded(int index) {
+		if (diversityGrid == null) {
+			return;
+		}
+		int particles = diversityGrid.move(index, particleStore.positions, particleStore.offset(index));
+		if (particles > configuration.getMaxParticlesPerCell()) {
+			initializeParticle(index);
+			particleStore.bestFitness[index] = Double.NEGATIVE_INFINITY;
+			if (stagnation != null) {
+				stagnation[index] = 0;
+			}
+			restartedParticles++;
+		}
+	}
 
-				if (particle.getFitness() > bestFitness) {
-					bestFitness = particle.getFitness();
-					bestPosition = particleOldPosition;
+	/**
+	 * Checks if a new best position has been found by a particle for the
+	 * particle itself, within the swarm and the multiswarm.
+	 * 
+	 * @param index
+	 *            the index of the particle inside the {@link #particleStore}
+	 * @param offset
+	 *            the offset of the particle inside the {@link #particleStore}
+	 * @param globalBest
+	 *            the best position found by all the swarms or null if this
+	 *            swarm is not part of a multiswarm
+	 */
+	private void updateBests(int index, int offset, GlobalBest globalBest) {
+		double fitness = particleStore.fitness[index];
+		if (fitness > particleStore.bestFitness[index]) {
+			particleStore.bestFitness[index] = fitness;
+			System.arraycopy(particleStore.positions, offset, particleStore.bestPositions, offset,
+					particleStore.dimensions);
+			if (stagnation != null) {
+				stagnation[index] = 0;
+			}
+
+			if (fitness > bestFitness) {
+				bestFitness = fitness;
+				updateBestPosition(offset);
+				swarmStagnation = 0;
+
+				if (globalBest != null) {
+					globalBest.offer(bestPosition, bestFitness);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Retires the particles which haven't improved their best for
+	 * {@link SwarmConfiguration#getStagnationIterations()} iterations, as
+	 * long as {@link SwarmConfiguration#getMinParticles()} particles stay
+	 * active. A particle is retired by swapping it with the last active one.
+	 */
+	private void retireStagnantParticles() {
+		int minParticles = Math.max(1, configuration.getMinParticles());
+		int stagnationIterations = configuration.getStagnationIterations();
+		for (int i = activeParticles - 1; i >= 0 && activeParticles > minParticles; i--) {
+			if (stagnation[i] >= stagnationIterations) {
+				swapParticles(i, activeParticles - 1);
+				activeParticles--;
+				if (diversityGrid != null) {
+					diversityGrid.remove(activeParticles);
 				}
 			}
+		}
+	}
+
+	/**
+	 * Swaps the state of two particles.
+	 * 
+	 * @param first
+	 *            the index of the first particle
+	 * @param second
+	 *            the index of the second particle
+	 */
+	private void swapParticles(int first, int second) {
+		if (first == second) {
+			return;
+		}
+		ParticleStore store = particleStore;
+		swap(store.positions, store.offset(first), store.offset(second), store.dimensions);
+		swap(store.speeds, store.offset(first), store.offset(second), store.dimensions);
+		swap(store.bestPositions, store.offset(first), store.offset(second), store.dimensions);
+		swap(store.fitness, first, second, 1);
+		swap(store.bestFitness, first, second, 1);
+		int swap = stagnation[first];
+		stagnation[first] = stagnation[second];
+		stagnation[second] = swap;
+		if (diversityGrid != null) {
+			diversityGrid.swap(first, second);
+		}
+	}
+
+	/**
+	 * Swaps two ranges of an array.
+	 * 
+	 * @param array
+	 *            the array whose elements are swapped
+	 * @param first
+	 *            the index of the first range
+	 * @param second
+	 *            the index of the second range
+	 * @param length
+	 *            the length of the ranges
+	 */
+	private static void swap(double[] array, int first, int second, int length) {
+		for (int i = 0; i < length; i++) {
+			double swap = array[first + i];
+			array[first + i] = array[second + i];
+			array[second + i] = swap;
+		}
+	}
+
+	/**
+	 * Checks if this swarm has collapsed, meaning that it hasn't improved its
+	 * best for {@link SwarmConfiguration#getStagnationIterations()} iterations
+	 * and the {@link #getDiversity(double[])} around its best position has
+	 * dropped below the {@link SwarmConfiguration#getReseedDiversity()}.
+	 * Always false if the {@link SwarmConfiguration#isAdaptivePopulation()} is
+	 * not enabled.
+	 * 
+	 * @return true if this swarm has collapsed, false otherwise
+	 */
+	boolean isCollapsed() {
+		return stagnation != null && bestPosition != null
+				&& swarmStagnation >= configuration.getStagnationIterations()
+				&& getDiversity(bestPosition) < configuration.getReseedDiversity();
+	}
+
+	/**
+	 * Re-seeds the retired particles if this swarm {@link #isCollapsed()}.
+	 */
+	void reseedIfCollapsed() {
+		if (activeParticles < particleStore.size && isCollapsed()) {
+			reseed();
+		}
+	}
+
+	/**
+	 * Moves the retired particles to random positions, forgetting their best,
+	 * and makes them active again.
+	 */
+	void reseed() {
+		if (stagnation == null) {
+			return;
+		}
+		for (int i = activeParticles; i < particleStore.size; i++) {
+			initializeParticle(i);
+			particleStore.bestFitness[i] = Double.NEGATIVE_INFINITY;
+			stagnation[i] = 0;
+		}
+		activeParticles = particleStore.size;
+		swarmStagnation = 0;
+	}
+
+	/**
+	 * Moves all the particles to random positions and forgets all the bests
+	 * found, as if this swarm had just been created.
+	 */
+	void restart() {
+		activeParticles = 0;
+		reseed();
+		bestPosition = null;
+		bestFitness = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * Returns the mean distance of the active particles from a point, as a
+	 * fraction of the diagonal of the search space bounds.
+	 * 
+	 * @param point
+	 *            the point whose distances are computed
+	 * @return the diversity of the active particles around the point
+	 */
+	double getDiversity(double[] point) {
+		return sumDistances(point) / activeParticles / getBoundsDiagonal();
+	}
+
+	/**
+	 * Returns the length of the diagonal of the search space bounds.
+	 * 
+	 * @return the length of the diagonal of the bounds or 1 if the bounds are
+	 *         empty
+	 */
+	double getBoundsDiagonal() {
+		double sum = 0;
+		for (int d = 0; d < lowerBounds.length; d++) {
+			double size = upperBounds[d] - lowerBounds[d];
+			sum += size * size;
+		}
+		return sum == 0 ? 1 : Math.sqrt(sum);
+	}
+
+	/**
+	 * Copies the current position of a particle into the
+	 * {@link #bestPosition}.
+	 * 
+	 * @param offset
+	 *            the offset of the particle inside the {@link #particleStore}
+	 */
+	void updateBestPosition(int offset) {
+		if (bestPosition == null) {
+			bestPosition = new double[particleStore.dimensions];
+		}
+		System.arraycopy(particleStore.positions, offset, bestPosition, 0, particleStore.dimensions);
+	}
+
+	/**
+	 * Computes the sum of the Euclidean distances of the active particles of
+	 * this swarm from a point.
+	 * 
+	 * @param point
+	 *            the point whose distances are computed
+	 * @return the sum of the distances of the particles from the point
+	 */
+	double sumDistances(double[] point) {
+		if (offHeapStore == null) {
+			return sumDistances(point, activeParticles);
+		}
+		double sum = 0;
+		for (int from = 0; from < offHeapStore.size; from += particleStore.size) {
+			int count = Math.min(particleStore.size, offHeapStore.size - from);
+			offHeapStore.readPositions(from, count, particleStore.positions);
+			sum += sumDistances(point, count);
+		}
+		return sum;
+	}
+
+	/**
+	 * Computes the sum of the Euclidean distances of the first particles of
+	 * the {@link #particleStore} from a point.
+	 * 
+	 * @param point
+	 *            the point whose distances are computed
+	 * @param count
+	 *            the number of particles whose distances are summed
+	 * @return the sum of the distances of the particles from the point
+	 */
+	private double sumDistances(double[] point, int count) {
+		double[] positions = particleStore.positions;
+		int dimensions = particleStore.dimensions;
+		double sum = 0;
+		for (int i = 0; i < count; i++) {
+			int offset = particleStore.offset(i);
+			double squaredDistance = 0;
+			for (int d = 0; d < dimensions; d++) {
+				double delta = positions[offset + d] - point[d];
+				squaredDistance += delta * delta;
+			}
+			sum += Math.sqrt(squaredDistance);
+		}
+		return sum;
+	}
+
+	/**
+	 * Computes the fitness of all the particles of this swarm for their
+	 * current position. The positions are passed to the fitness function in
+	 * blocks through the {@link #positionsBuffer}. If a {@link ForkJoinPool}
+	 * has been configured, the blocks are split across it, otherwise the
+	 * whole swarm is evaluated as a single block on the caller thread. Since
+	 * the fitness of a particle only depends on its own position, the results
+	 * are the same in both cases. If a {@link #surrogate} is used, only the
+	 * particles which pass the screening are evaluated.
+	 */
+	void evaluateFitness() {
+		if (surrogate != null) {
+			evaluateScreenedFitness();
+			return;
+		}
+		evaluateFitness(positionsBuffer, particleStore.fitness, activeParticles);
+	}
 
-			// Updates the particle position by adding the speed to the
-			// actual position.
-			double[] position = particle.getPosition();
-			double[] speed = particle.getSpeed();
+	/**
+	 * Evaluates the particles which pass the screening of the
+	 * {@link #surrogate} and records their results in it. The positions of
+	 * these particles are packed together so that they can still be evaluated
+	 * in blocks. The other particles get their predicted fitness, which can't
+	 * improve their best.
+	 */
+	private void evaluateScreenedFitness() {
+		ParticleStore store = particleStore;
+		int dimensions = store.dimensions;
+		if (candidates == null) {
+			candidates = new int[store.size];
+			candidatePositions = new double[store.size * dimensions];
+			candidateFitness = new double[store.size];
+		}
 
-			position[0] += speed[0];
-			position[1] += speed[1];
+		int count = 0;
+		for (int i = 0; i < activeParticles; i++) {
+			if (!screen(i)) {
+				candidates[count] = i;
+				System.arraycopy(store.positions, store.offset(i), candidatePositions, count * dimensions,
+						dimensions);
+				count++;
+			}
+		}
+		evaluateFitness(DoubleBuffer.wrap(candidatePositions), candidateFitness, count);
 
-			// Updates the particle speed.
-			speed[0] = getNewParticleSpeedForIndex(particle, 0);
-			speed[1] = getNewParticleSpeedForIndex(particle, 1);
+		for (int c = 0; c < count; c++) {
+			int i = candidates[c];
+			store.fitness[i] = candidateFitness[c];
+			surrogate.add(candidatePositions, c * dimensions, candidateFitness[c]);
 		}
 	}
 
 	/**
-	 * Computes a new speed for a given particle on a given axis. The new speed
-	 * is computed using the formula:
+	 * Checks if the evaluation of a particle can be skipped because the
+	 * fitness predicted by the {@link #surrogate} for it, plus the
+	 * {@link SwarmConfiguration#getSurrogateMargin()}, doesn't improve its
+	 * best. If so, the predicted fitness is stored as the particle fitness.
+	 * 
+	 * @param index
+	 *            the index of the particle inside the {@link #particleStore}
+	 * @return true if the evaluation can be skipped, false otherwise
+	 */
+	boolean screen(int index) {
+		if (surrogate == null) {
+			return false;
+		}
+		double predicted = surrogate.predict(particleStore.positions, particleStore.offset(index));
+		if (Double.isNaN(predicted)
+				|| predicted + configuration.getSurrogateMargin() > particleStore.bestFitness[index]) {
+			return false;
+		}
+		particleStore.fitness[index] = predicted;
+		surrogate.recordSavedEvaluation();
+		return true;
+	}
+
+	/**
+	 * Records the real evaluation of a particle, counting it and adding it to
+	 * the {@link #surrogate}, if used.
+	 * 
+	 * @param index
+	 *            the index of the particle inside the {@link #particleStore}
+	 */
+	void recordEvaluation(int index) {
+		evaluations++;
+		if (surrogate != null) {
+			surrogate.add(particleStore.positions, particleStore.offset(index), particleStore.fitness[index]);
+		}
+	}
+
+	/**
+	 * Computes the fitness of a block of positions, splitting it across the
+	 * configured {@link ForkJoinPool} if any.
+	 * 
+	 * @param positions
+	 *            the buffer which holds the positions, packed one after
+	 *            another
+	 * @param fitness
+	 *            the array where the fitness of each position is stored
+	 * @param count
+	 *            the number of positions to evaluate
+	 */
+	private void evaluateFitness(DoubleBuffer positions, double[] fitness, int count) {
+		evaluations += count;
+		ForkJoinPool forkJoinPool = configuration.getForkJoinPool();
+		if (forkJoinPool == null) {
+			batchFitnessFunction.getFitness(positions, particleStore.dimensions, particleStore.dimensions, fitness,
+					0, count);
+			return;
+		}
+
+		// Splits the work in a few chunks for each worker so that slower
+		// evaluations can be balanced by work stealing.
+		int threshold = Math.max(1, count / (forkJoinPool.getParallelism() * 4));
+		forkJoinPool.invoke(new FitnessEvaluationTask(this, positions, fitness, 0, count, threshold));
+	}
+
+	/**
+	 * Task which evaluates a range of positions by recursively splitting it
+	 * until it's small enough.
+	 * 
+	 * @author Donato Rimenti
+	 *
+	 */
+	private static class FitnessEvaluationTask extends RecursiveAction {
+
+		/**
+		 * The Constant serialVersionUID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The swarm whose particles are evaluated.
+		 */
+		private final Swarm swarm;
+
+		/**
+		 * The buffer which holds the positions to evaluate.
+		 */
+		private final DoubleBuffer positions;
+
+		/**
+		 * The array where the fitness of each position is stored.
+		 */
+		private final double[] fitness;
+
+		/**
+		 * The index of the first position to evaluate, inclusive.
+		 */
+		private final int from;
+
+		/**
+		 * The index of the last position to evaluate, exclusive.
+		 */
+		private final int to;
+
+		/**
+		 * Max number of positions evaluated by a task without splitting it.
+		 */
+		private final int threshold;
+
+		/**
+		 * Instantiates a new FitnessEvaluationTask.
+		 *
+		 * @param swarm
+		 *            the {@link #swarm}
+		 * @param positions
+		 *            the {@link #positions}
+		 * @param fitness
+		 *            the {@link #fitness}
+		 * @param from
+		 *            the {@link #from}
+		 * @param to
+		 *            the {@link #to}
+		 * @param threshold
+		 *            the {@link #threshold}
+		 */
+		FitnessEvaluationTask(Swarm swarm, DoubleBuffer positions, double[] fitness, int from, int to,
+				int threshold) {
+			this.swarm = swarm;
+			this.positions = positions;
+			this.fitness = fitness;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.concurrent.RecursiveAction#compute()
+		 */
+		@Override
+		protected void compute() {
+			if (to - from <= threshold) {
+				int dimensions = swarm.particleStore.dimensions;
+				swarm.batchFitnessFunction.getFitness(positions, dimensions, dimensions, fitness, from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new FitnessEvaluationTask(swarm, positions, fitness, from, middle, threshold),
+					new FitnessEvaluationTask(swarm, positions, fitness, middle, to, threshold));
+		}
+	}
+
+	/**
+	 * Updates the position of a particle by adding its speed to it and then
+	 * computes the particle new speed on each axis using the formula:
 	 * 
 	 * <pre>
-	 * ({@link SwarmConfiguration#INERTIA_FACTOR} * {@link Particle#getSpeed()}) + 
-	 * (({@link SwarmConfiguration#COGNITIVE_WEIGHT} * random(0,1)) * ({@link Particle#getBestPosition()} - {@link Particle#getPosition()})) +
-	 * (({@link SwarmConfiguration#SOCIAL_WEIGHT} * random(0,1)) * ({@link Swarm#getBestPosition()} - {@link Particle#getPosition()}))
+	 * ({@link SwarmConfiguration#getInertiaFactor()} * speed) + 
+	 * ((random(0,1) * {@link SwarmConfiguration#getCognitiveWeight()}) * (particle best position - position)) +
+	 * ((random(0,1) * {@link SwarmConfiguration#getSocialWeight()}) * ({@link #bestPosition} - position)) +
+	 * ((random(0,1) * globalWeight) * (globalBestPosition - position))
 	 * </pre>
+	 * 
+	 * The last term is only computed if a global best position is passed, as
+	 * it happens when this swarm is part of a {@link Multiswarm}. The random
+	 * numbers are read from the {@link #randomCoefficients}, grouped by term
+	 * as described in {@link ParticleUpdateKernel}. The computation is done
+	 * by the {@link #updateKernel}, which may process many axes at once.
 	 *
-	 * @param particle
-	 *            the particle whose new speed needs to be computed
-	 * @param index
-	 *            the index of the particle axis whose speeds needs to be
-	 *            computed
-	 * @return the new speed of the particle passed on the given axis
+	 * @param offset
+	 *            the offset of the particle inside the {@link #particleStore}
+	 * @param coefficientsOffset
+	 *            the index of the first random coefficient of the particle
+	 * @param globalBestPosition
+	 *            the best position found by all the swarms or null if this
+	 *            swarm is not part of a multiswarm
+	 * @param globalWeight
+	 *            the weight of the global best position
+	 */
+	void updateParticle(int offset, int coefficientsOffset, double[] globalBestPosition, double globalWeight) {
+		updateKernel.update(particleStore.positions, particleStore.speeds, particleStore.bestPositions, bestPosition,
+				globalBestPosition, randomCoefficients, offset, coefficientsOffset, particleStore.dimensions,
+				configuration.getInertiaFactor(), configuration.getCognitiveWeight(), configuration.getSocialWeight(),
+				globalWeight);
+	}
+
+	/**
+	 * Restores the best position and fitness found by this swarm.
+	 *
+	 * @param bestPosition
+	 *            the {@link #bestPosition}, may be null
+	 * @param bestFitness
+	 *            the {@link #bestFitness}
 	 */
-	private double getNewParticleSpeedForIndex(Particle particle, int index) {
-		return ((configuration.getInertiaFactor() * particle.getSpeed()[index])
-				+ (randomizePercentage(configuration.getCognitiveWeight())
-						* (particle.getBestPosition()[index] - particle.getPosition()[index]))
-				+ (randomizePercentage(configuration.getSocialWeight())
-						* (bestPosition[index] - particle.getPosition()[index])));
+	void restoreBest(double[] bestPosition, double bestFitness) {
+		this.bestPosition = bestPosition == null ? null : bestPosition.clone();
+		this.bestFitness = bestFitness;
 	}
 
 	/**
-	 * Returns a random number between 0 and the value passed as argument.
+	 * Gets the {@link #randomSource}.
 	 *
-	 * @param value
-	 *            the value to randomize
-	 * @return a random value between 0 and the one passed as argument
+	 * @return the {@link #randomSource}
 	 */
-	private double randomizePercentage(double value) {
-		return configuration.getRandomGenerator().nextDouble() * value;
+	RandomSource getRandomSource() {
+		return randomSource;
 	}
 
 	/**
-	 * Gets the {@link #particles}.
+	 * Gets the {@link #activeParticles}.
 	 *
-	 * @return the {@link #particles}
+	 * @return the {@link #activeParticles}
+	 */
+	public int getActiveParticles() {
+		return activeParticles;
+	}
+
+	/**
+	 * Gets the {@link #swarmStagnation}.
+	 *
+	 * @return the {@link #swarmStagnation}
+	 */
+	int getStagnation() {
+		return swarmStagnation;
+	}
+
+	/**
+	 * Gets the {@link #particleStore}.
+	 *
+	 * @return the {@link #particleStore}
+	 */
+	ParticleStore getParticleStore() {
+		return particleStore;
+	}
+
+	/**
+	 * Gets the {@link #diversityGrid}.
+	 *
+	 * @return the {@link #diversityGrid}
+	 */
+	SpatialHashGrid getDiversityGrid() {
+		return diversityGrid;
+	}
+
+	/**
+	 * Gets the {@link #restartedParticles}.
+	 *
+	 * @return the {@link #restartedParticles}
+	 */
+	public long getRestartedParticles() {
+		return restartedParticles;
+	}
+
+	/**
+	 * Gets the {@link #evaluations}.
+	 *
+	 * @return the {@link #evaluations}
+	 */
+	long getEvaluations() {
+		return evaluations;
+	}
+
+	/**
+	 * Checks if the particles of this swarm are stored off-heap.
+	 *
+	 * @return true if the particles are stored off-heap, false otherwise
+	 */
+	boolean isStoredOffHeap() {
+		return offHeapStore != null;
+	}
+
+	/**
+	 * Checks if this swarm keeps state which can't be written to a snapshot:
+	 * the active particles and stagnation counters of an adaptive population,
+	 * the archive of a surrogate or the occupancy of a diversity grid.
+	 *
+	 * @return true if this swarm keeps state which can't be written to a
+	 *         snapshot, false otherwise
+	 */
+	boolean hasUnsnapshottableState() {
+		return stagnation != null || surrogate != null || diversityGrid != null;
+	}
+
+	/**
+	 * Gets views over the particles of this swarm.
+	 *
+	 * @return the particles of this swarm
+	 * @throws UnsupportedOperationException
+	 *             if the particles are stored off-heap
 	 */
 	public Particle[] getParticles() {
+		if (offHeapStore != null) {
+			throw new UnsupportedOperationException("Particles stored off-heap can't be viewed");
+		}
+		if (particles == null) {
+			particles = new Particle[particleStore.size];
+			for (int i = 0; i < particles.length; i++) {
+				particles[i] = new Particle(particleStore, i);
+			}
+		}
 		return particles;
 	}
 
 	/**
-	 * Gets the {@link #bestPosition}.
+	 * Gets a copy of the {@link #bestPosition}, which is updated in place as
+	 * the swarm improves.
 	 *
-	 * @return the {@link #bestPosition}
+	 * @return a copy of the {@link #bestPosition} or null if no position has
+	 *         been evaluated yet
 	 */
+	@Override
 	public double[] getBestPosition() {
-		return bestPosition;
+		return bestPosition == null ? null : bestPosition.clone();
 	}
 
 	/**
@@ -180,28 +1287,29 @@ public class Swarm implements IterativeAlgorithm {
 	 *
 	 * @return the {@link #bestFitness}
 	 */
+	@Override
 	public double getBestFitness() {
 		return bestFitness;
 	}
 
 	/**
-	 * Sets the {@link #bestPosition}.
+	 * Gets the {@link #surrogate}.
 	 *
-	 * @param bestPosition
-	 *            the new {@link #bestPosition}
+	 * @return the {@link #surrogate} or null if no surrogate has been
+	 *         configured
 	 */
-	void setBestPosition(double[] bestPosition) {
-		this.bestPosition = bestPosition;
+	public FitnessSurrogate getSurrogate() {
+		return surrogate;
 	}
 
 	/**
-	 * Sets the {@link #bestFitness}.
+	 * Gets the {@link #fitnessCache}.
 	 *
-	 * @param bestFitness
-	 *            the new {@link #bestFitness}
+	 * @return the {@link #fitnessCache} or null if no cache has been
+	 *         configured
 	 */
-	void setBestFitness(double bestFitness) {
-		this.bestFitness = bestFitness;
+	public CachingFitnessFunction getFitnessCache() {
+		return fitnessCache;
 	}
 
 	/*
@@ -217,7 +1325,7 @@ public class Swarm implements IterativeAlgorithm {
 		temp = Double.doubleToLongBits(bestFitness);
 		result = prime * result + (int) (temp ^ (temp >>> 32));
 		result = prime * result + Arrays.hashCode(bestPosition);
-		result = prime * result + Arrays.hashCode(particles);
+		result = prime * result + (offHeapStore == null ? Arrays.hashCode(getParticles()) : offHeapStore.hashCode());
 		return result;
 	}
 
@@ -239,7 +1347,10 @@ public class Swarm implements IterativeAlgorithm {
 			return false;
 		if (!Arrays.equals(bestPosition, other.bestPosition))
 			return false;
-		if (!Arrays.equals(particles, other.particles))
+		if (offHeapStore != null || other.offHeapStore != null) {
+			if (offHeapStore != other.offHeapStore)
+				return false;
+		} else if (!Arrays.equals(getParticles(), other.getParticles()))
 			return false;
 		return true;
 	}
@@ -251,8 +1362,8 @@ public class Swarm implements IterativeAlgorithm {
 	 */
 	@Override
 	public String toString() {
-		return "Swarm [particles=" + Arrays.toString(particles) + ", bestPosition=" + Arrays.toString(bestPosition)
-				+ ", bestFitness=" + bestFitness + "]";
+		return "Swarm [particles=" + (offHeapStore == null ? Arrays.toString(getParticles()) : offHeapStore)
+				+ ", bestPosition=" + Arrays.toString(bestPosition) + ", bestFitness=" + bestFitness + "]";
 	}
 
 }
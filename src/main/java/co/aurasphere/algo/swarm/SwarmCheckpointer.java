@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import co.aurasphere.algo.OptimizationAlgorithm;
+
+/**
+ * Decorator which runs a {@link Swarm} or a {@link Multiswarm} and writes a
+ * snapshot of it to a {@link SwarmSnapshotFile} every few iterations, so that
+ * the optimization can be resumed after a restart. Snapshots are taken
+ * between two iterations, when the state is consistent. In island mode, the
+ * islands resume exchanging their best positions from scratch, so the resumed
+ * run is not deterministic in that case.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class SwarmCheckpointer implements OptimizationAlgorithm {
+
+	/**
+	 * The swarm to checkpoint or null if a multiswarm is checkpointed.
+	 */
+	private final Swarm swarm;
+
+	/**
+	 * The multiswarm to checkpoint or null if a swarm is checkpointed.
+	 */
+	private final Multiswarm multiswarm;
+
+	/**
+	 * The algorithm run by this checkpointer.
+	 */
+	private final OptimizationAlgorithm algorithm;
+
+	/**
+	 * The file where the snapshots are written.
+	 */
+	private final SwarmSnapshotFile snapshotFile;
+
+	/**
+	 * Number of iterations between two snapshots.
+	 */
+	private final int checkpointInterval;
+
+	/**
+	 * Number of iterations executed so far.
+	 */
+	private long iterations;
+
+	/**
+	 * Instantiates a new SwarmCheckpointer for a swarm.
+	 *
+	 * @param swarm
+	 *            the {@link #swarm}
+	 * @param snapshotFile
+	 *            the {@link #snapshotFile}
+	 * @param checkpointInterval
+	 *            the {@link #checkpointInterval}
+	 */
+	public SwarmCheckpointer(Swarm swarm, SwarmSnapshotFile snapshotFile, int checkpointInterval) {
+		this(swarm, null, swarm, snapshotFile, checkpointInterval);
+	}
+
+	/**
+	 * Instantiates a new SwarmCheckpointer for a multiswarm.
+	 *
+	 * @param multiswarm
+	 *            the {@link #multiswarm}
+	 * @param snapshotFile
+	 *            the {@link #snapshotFile}
+	 * @param checkpointInterval
+	 *            the {@link #checkpointInterval}
+	 */
+	public SwarmCheckpointer(Multiswarm multiswarm, SwarmSnapshotFile snapshotFile, int checkpointInterval) {
+		this(null, multiswarm, multiswarm, snapshotFile, checkpointInterval);
+	}
+
+	/**
+	 * Instantiates a new SwarmCheckpointer.
+	 *
+	 * @param swarm
+	 *            the {@link #swarm}
+	 * @param multiswarm
+	 *            the {@link #multiswarm}
+	 * @param algorithm
+	 *            the {@link #algorithm}
+	 * @param snapshotFile
+	 *            the {@link #snapshotFile}
+	 * @param checkpointInterval
+	 *            the {@link #checkpointInterval}
+	 */
+	private SwarmCheckpointer(Swarm swarm, Multiswarm multiswarm, OptimizationAlgorithm algorithm,
+			SwarmSnapshotFile snapshotFile, int checkpointInterval) {
+		if (checkpointInterval <= 0) {
+			throw new IllegalArgumentException("Checkpoint interval must be positive but was " + checkpointInterval);
+		}
+		this.swarm = swarm;
+		this.multiswarm = multiswarm;
+		this.algorithm = algorithm;
+		this.snapshotFile = snapshotFile;
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	/**
+	 * Executes an iteration of the algorithm and writes a snapshot if
+	 * {@link #checkpointInterval} iterations have passed since the last one.
+	 *
+	 * @throws UncheckedIOException
+	 *             if the snapshot can't be written
+	 */
+	@Override
+	public void mainLoop() {
+		algorithm.mainLoop();
+		iterations++;
+		if (iterations % checkpointInterval == 0) {
+			checkpoint();
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the algorithm.
+	 *
+	 * @throws UncheckedIOException
+	 *             if the snapshot can't be written
+	 */
+	public void checkpoint() {
+		try {
+			if (swarm != null) {
+				snapshotFile.write(swarm);
+			} else {
+				snapshotFile.write(multiswarm);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error while writing the snapshot", e);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see co.aurasphere.algo.OptimizationAlgorithm#getBestFitness()
+	 */
+	@Override
+	public double getBestFitness() {
+		return algorithm.getBestFitness();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see co.aurasphere.algo.OptimizationAlgorithm#getBestPosition()
+	 */
+	@Override
+	public double[] getBestPosition() {
+		return algorithm.getBestPosition();
+	}
+
+	/**
+	 * Gets the {@link #iterations}.
+	 *
+	 * @return the {@link #iterations}
+	 */
+	public long getIterations() {
+		return iterations;
+	}
+
+}
@@ -23,8 +23,15 @@
  */
 package co.aurasphere.algo.swarm;
 
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
+import co.aurasphere.algo.AsyncFitnessFunction;
+import co.aurasphere.algo.AsyncFitnessFunctionAdapter;
+import co.aurasphere.algo.CachingFitnessFunction;
 import co.aurasphere.algo.FitnessFunction;
 
 /**
@@ -72,6 +79,189 @@ public class SwarmConfiguration {
 	 */
 	private FitnessFunction fitnessFunction;
 
+	/**
+	 * Pool used to evaluate the {@link Particle} fitness in parallel. If not
+	 * specified, the particles are evaluated sequentially on the caller
+	 * thread. The results are identical in both cases, since only the fitness
+	 * evaluation is distributed while the speed updates are still applied in
+	 * order. When set, the {@link #fitnessFunction} must be thread safe.
+	 */
+	private ForkJoinPool forkJoinPool;
+
+	/**
+	 * Number of coordinates of each {@link Particle}, that is the number of
+	 * variables of the problem to solve. Defaults to 2 if not specified.
+	 */
+	private int dimensions = 2;
+
+	/**
+	 * Lower bound of the search space for each dimension, used to initialize
+	 * the {@link Particle} positions. Defaults to 0 for each dimension if not
+	 * specified.
+	 */
+	private double[] lowerBounds;
+
+	/**
+	 * Upper bound of the search space for each dimension, used to initialize
+	 * the {@link Particle} positions. Defaults to 1 for each dimension if not
+	 * specified.
+	 */
+	private double[] upperBounds;
+
+	/**
+	 * Size of the grid cells used to cache the fitness of the positions, with
+	 * an element for each dimension. If specified, the {@link #fitnessFunction}
+	 * is decorated with a {@link CachingFitnessFunction} and all the positions
+	 * within the same cell share the same fitness. If not specified, no cache
+	 * is used.
+	 */
+	private double[] fitnessCacheGrid;
+
+	/**
+	 * Maximum number of fitness values kept by the cache when a
+	 * {@link #fitnessCacheGrid} is specified. Defaults to 65536 if not
+	 * specified.
+	 */
+	private int fitnessCacheCapacity = 65536;
+
+	/**
+	 * Listener notified at the end of each call to the main loop with
+	 * measurements about the iterations. If not specified, nothing is measured.
+	 */
+	private SwarmListener listener;
+
+	/**
+	 * Source of the random numbers used by the swarms. If specified, it
+	 * replaces the {@link #randomGenerator} and each {@link Swarm} of a
+	 * {@link Multiswarm} gets its own stream split from it, so that islands
+	 * never contend for it. If not specified, the {@link #randomGenerator} is
+	 * used and shared by all the swarms, unless they run concurrently as
+	 * islands: each island then gets its own generator seeded from it. The
+	 * source is not copied along with the configuration: a {@link Swarm} uses
+	 * the configured source itself, so the same source must not be given to
+	 * swarms which run concurrently.
+	 */
+	private RandomSource randomSource;
+
+	/**
+	 * Maximum number of fitness evaluations in flight at the same time. If
+	 * greater than 0, the swarms evaluate the particles asynchronously and each
+	 * particle is moved as soon as its evaluation completes. Defaults to 0 if
+	 * not specified, which evaluates the particles synchronously.
+	 */
+	private int maxInFlightEvaluations;
+
+	/**
+	 * Executor which runs the evaluations of a blocking
+	 * {@link #fitnessFunction} when evaluating the particles asynchronously.
+	 * Not used if the fitness function is an {@link AsyncFitnessFunction}. If
+	 * not specified, {@link AsyncFitnessFunctionAdapter#getDefaultExecutor()}
+	 * is used.
+	 */
+	private Executor fitnessExecutor;
+
+	/**
+	 * Number of nearest neighbours used by a {@link FitnessSurrogate} to
+	 * predict the fitness of the particles. If greater than 0, the swarms only
+	 * evaluate the particles whose predicted fitness, plus the
+	 * {@link #surrogateMargin}, could improve their own best. Defaults to 0 if
+	 * not specified, which evaluates all the particles.
+	 */
+	private int surrogateNeighbours;
+
+	/**
+	 * Amount added to the fitness predicted by the {@link FitnessSurrogate}
+	 * before comparing it with the particle best. Higher values evaluate more
+	 * particles, trading evaluations for accuracy. Must not be negative.
+	 * Defaults to 0 if not specified.
+	 */
+	private double surrogateMargin;
+
+	/**
+	 * Whether the size of the population adapts to the progress of the
+	 * optimization. If enabled, the particles which haven't improved their best
+	 * for {@link #stagnationIterations} iterations are retired, down to
+	 * {@link #minParticles}, and the retired particles are re-seeded at random
+	 * positions once the swarm stops improving and the particles diversity
+	 * drops below {@link #reseedDiversity}. A {@link Multiswarm} also retires
+	 * and re-seeds whole swarms the same way. Not supported with asynchronous
+	 * evaluation. Defaults to false if not specified.
+	 */
+	private boolean adaptivePopulation;
+
+	/**
+	 * Number of iterations without improvement after which a particle or a
+	 * swarm is considered stagnant when the {@link #adaptivePopulation} is
+	 * enabled. Defaults to 20 if not specified.
+	 */
+	private int stagnationIterations = 20;
+
+	/**
+	 * Minimum number of particles of a swarm kept active when the
+	 * {@link #adaptivePopulation} is enabled. Defaults to 10 if not specified.
+	 */
+	private int minParticles = 10;
+
+	/**
+	 * Diversity below which the retired particles or swarms are re-seeded when
+	 * the {@link #adaptivePopulation} is enabled. The diversity is the mean
+	 * distance of the active particles from the best position, as a fraction of
+	 * the diagonal of the search space bounds. Defaults to 0.01 if not
+	 * specified.
+	 */
+	private double reseedDiversity = 0.01;
+
+	/**
+	 * Whether the particles are updated with a kernel based on the incubating
+	 * Vector API, which processes many coordinates at once. The kernel is only
+	 * available if the library has been built on Java 17 or later and the
+	 * <code>jdk.incubator.vector</code> module has been added to the runtime,
+	 * otherwise the particles are updated one coordinate at a time. The results
+	 * are the same either way. Defaults to true if not specified.
+	 */
+	private boolean vectorizedUpdate = true;
+
+	/**
+	 * Number of particles loaded on the heap at once when the particles are
+	 * stored off-heap. If positive, the state of the particles is kept outside
+	 * of the heap, in direct memory or in a file under the
+	 * {@link #offHeapDirectory}, and each iteration streams over it in chunks
+	 * of this size, so the heap used doesn't grow with the number of particles.
+	 * This is not supported with asynchronous evaluation, a surrogate, an
+	 * adaptive population or snapshots. Defaults to 0, which keeps the
+	 * particles on the heap.
+	 */
+	private int offHeapChunkSize;
+
+	/**
+	 * Directory where the file backing the particles stored off-heap is
+	 * created, one for each {@link Swarm}. The file is memory-mapped, so the
+	 * particles can take more than the physical memory, and deleted as soon as
+	 * it's mapped on the systems which allow it. If not specified, the
+	 * particles are stored in direct memory.
+	 */
+	private Path offHeapDirectory;
+
+	/**
+	 * Side of the cells of the grid which monitors the diversity of the
+	 * particles, as a fraction of the bounds on each axis. If positive, the
+	 * particles are counted in a spatial hash grid as they move and,
+	 * whenever a particle moves into a cell which holds more than
+	 * {@link #maxParticlesPerCell} particles, it's restarted from a random
+	 * position, forgetting its best. This keeps the evaluations going into
+	 * unexplored regions once the swarm collapses, at a constant cost for each
+	 * move. This is not supported with off-heap storage. Defaults to 0, which
+	 * disables the monitor.
+	 */
+	private double diversityCellSize;
+
+	/**
+	 * Max number of particles in a cell of the diversity grid before the
+	 * particles moving into it are restarted, if {@link #diversityCellSize} is
+	 * positive. Defaults to 2 if not specified.
+	 */
+	private int maxParticlesPerCell = 2;
+
 	/**
 	 * Instantiates a new SwarmConfiguration with default values.
 	 * 
@@ -95,6 +285,27 @@ public class SwarmConfiguration {
 		this.randomGenerator = configuration.randomGenerator;
 		this.numParticle = configuration.numParticle;
 		this.fitnessFunction = configuration.fitnessFunction;
+		this.forkJoinPool = configuration.forkJoinPool;
+		this.dimensions = configuration.dimensions;
+		this.lowerBounds = configuration.lowerBounds == null ? null : configuration.lowerBounds.clone();
+		this.upperBounds = configuration.upperBounds == null ? null : configuration.upperBounds.clone();
+		this.fitnessCacheGrid = configuration.fitnessCacheGrid == null ? null : configuration.fitnessCacheGrid.clone();
+		this.fitnessCacheCapacity = configuration.fitnessCacheCapacity;
+		this.listener = configuration.listener;
+		this.randomSource = configuration.randomSource;
+		this.maxInFlightEvaluations = configuration.maxInFlightEvaluations;
+		this.fitnessExecutor = configuration.fitnessExecutor;
+		this.surrogateNeighbours = configuration.surrogateNeighbours;
+		this.surrogateMargin = configuration.surrogateMargin;
+		this.adaptivePopulation = configuration.adaptivePopulation;
+		this.stagnationIterations = configuration.stagnationIterations;
+		this.minParticles = configuration.minParticles;
+		this.reseedDiversity = configuration.reseedDiversity;
+		this.vectorizedUpdate = configuration.vectorizedUpdate;
+		this.offHeapChunkSize = configuration.offHeapChunkSize;
+		this.offHeapDirectory = configuration.offHeapDirectory;
+		this.diversityCellSize = configuration.diversityCellSize;
+		this.maxParticlesPerCell = configuration.maxParticlesPerCell;
 	}
 
 	/**
@@ -211,6 +422,408 @@ public class SwarmConfiguration {
 		this.fitnessFunction = fitnessFunction;
 	}
 
+	/**
+	 * Gets the {@link #forkJoinPool}.
+	 *
+	 * @return the {@link #forkJoinPool}
+	 */
+	public ForkJoinPool getForkJoinPool() {
+		return forkJoinPool;
+	}
+
+	/**
+	 * Sets the {@link #forkJoinPool}.
+	 *
+	 * @param forkJoinPool
+	 *            the new {@link #forkJoinPool}
+	 */
+	public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Gets the {@link #dimensions}.
+	 *
+	 * @return the {@link #dimensions}
+	 */
+	public int getDimensions() {
+		return dimensions;
+	}
+
+	/**
+	 * Sets the {@link #dimensions}.
+	 *
+	 * @param dimensions
+	 *            the new {@link #dimensions}
+	 */
+	public void setDimensions(int dimensions) {
+		this.dimensions = dimensions;
+	}
+
+	/**
+	 * Gets the {@link #lowerBounds}.
+	 *
+	 * @return the {@link #lowerBounds}
+	 */
+	public double[] getLowerBounds() {
+		return lowerBounds;
+	}
+
+	/**
+	 * Sets the {@link #lowerBounds}.
+	 *
+	 * @param lowerBounds
+	 *            the new {@link #lowerBounds}
+	 */
+	public void setLowerBounds(double[] lowerBounds) {
+		this.lowerBounds = lowerBounds;
+	}
+
+	/**
+	 * Gets the {@link #upperBounds}.
+	 *
+	 * @return the {@link #upperBounds}
+	 */
+	public double[] getUpperBounds() {
+		return upperBounds;
+	}
+
+	/**
+	 * Sets the {@link #upperBounds}.
+	 *
+	 * @param upperBounds
+	 *            the new {@link #upperBounds}
+	 */
+	public void setUpperBounds(double[] upperBounds) {
+		this.upperBounds = upperBounds;
+	}
+
+	/**
+	 * Gets the {@link #fitnessCacheGrid}.
+	 *
+	 * @return the {@link #fitnessCacheGrid}
+	 */
+	public double[] getFitnessCacheGrid() {
+		return fitnessCacheGrid;
+	}
+
+	/**
+	 * Sets the {@link #fitnessCacheGrid}.
+	 *
+	 * @param fitnessCacheGrid
+	 *            the new {@link #fitnessCacheGrid}
+	 */
+	public void setFitnessCacheGrid(double[] fitnessCacheGrid) {
+		this.fitnessCacheGrid = fitnessCacheGrid;
+	}
+
+	/**
+	 * Gets the {@link #fitnessCacheCapacity}.
+	 *
+	 * @return the {@link #fitnessCacheCapacity}
+	 */
+	public int getFitnessCacheCapacity() {
+		return fitnessCacheCapacity;
+	}
+
+	/**
+	 * Sets the {@link #fitnessCacheCapacity}.
+	 *
+	 * @param fitnessCacheCapacity
+	 *            the new {@link #fitnessCacheCapacity}
+	 */
+	public void setFitnessCacheCapacity(int fitnessCacheCapacity) {
+		this.fitnessCacheCapacity = fitnessCacheCapacity;
+	}
+
+	/**
+	 * Gets the {@link #listener}.
+	 *
+	 * @return the {@link #listener}
+	 */
+	public SwarmListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Sets the {@link #listener}.
+	 *
+	 * @param listener
+	 *            the new {@link #listener}
+	 */
+	public void setListener(SwarmListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Gets the {@link #randomSource}.
+	 *
+	 * @return the {@link #randomSource}
+	 */
+	public RandomSource getRandomSource() {
+		return randomSource;
+	}
+
+	/**
+	 * Sets the {@link #randomSource}. Since random sources are not thread
+	 * safe, a source must not be shared by swarms which run concurrently:
+	 * give each of them its own source, obtained with
+	 * {@link RandomSource#split()}.
+	 *
+	 * @param randomSource
+	 *            the new {@link #randomSource}
+	 */
+	public void setRandomSource(RandomSource randomSource) {
+		this.randomSource = randomSource;
+	}
+
+	/**
+	 * Gets the {@link #maxInFlightEvaluations}.
+	 *
+	 * @return the {@link #maxInFlightEvaluations}
+	 */
+	public int getMaxInFlightEvaluations() {
+		return maxInFlightEvaluations;
+	}
+
+	/**
+	 * Sets the {@link #maxInFlightEvaluations}.
+	 *
+	 * @param maxInFlightEvaluations
+	 *            the new {@link #maxInFlightEvaluations}
+	 */
+	public void setMaxInFlightEvaluations(int maxInFlightEvaluations) {
+		this.maxInFlightEvaluations = maxInFlightEvaluations;
+	}
+
+	/**
+	 * Gets the {@link #fitnessExecutor}.
+	 *
+	 * @return the {@link #fitnessExecutor}
+	 */
+	public Executor getFitnessExecutor() {
+		return fitnessExecutor;
+	}
+
+	/**
+	 * Sets the {@link #fitnessExecutor}.
+	 *
+	 * @param fitnessExecutor
+	 *            the new {@link #fitnessExecutor}
+	 */
+	public void setFitnessExecutor(Executor fitnessExecutor) {
+		this.fitnessExecutor = fitnessExecutor;
+	}
+
+	/**
+	 * Gets the {@link #surrogateNeighbours}.
+	 *
+	 * @return the {@link #surrogateNeighbours}
+	 */
+	public int getSurrogateNeighbours() {
+		return surrogateNeighbours;
+	}
+
+	/**
+	 * Sets the {@link #surrogateNeighbours}.
+	 *
+	 * @param surrogateNeighbours
+	 *            the new {@link #surrogateNeighbours}
+	 */
+	public void setSurrogateNeighbours(int surrogateNeighbours) {
+		this.surrogateNeighbours = surrogateNeighbours;
+	}
+
+	/**
+	 * Gets the {@link #surrogateMargin}.
+	 *
+	 * @return the {@link #surrogateMargin}
+	 */
+	public double getSurrogateMargin() {
+		return surrogateMargin;
+	}
+
+	/**
+	 * Sets the {@link #surrogateMargin}.
+	 *
+	 * @param surrogateMargin
+	 *            the new {@link #surrogateMargin}
+	 */
+	public void setSurrogateMargin(double surrogateMargin) {
+		this.surrogateMargin = surrogateMargin;
+	}
+
+	/**
+	 * Gets the {@link #adaptivePopulation}.
+	 *
+	 * @return the {@link #adaptivePopulation}
+	 */
+	public boolean isAdaptivePopulation() {
+		return adaptivePopulation;
+	}
+
+	/**
+	 * Sets the {@link #adaptivePopulation}.
+	 *
+	 * @param adaptivePopulation
+	 *            the new {@link #adaptivePopulation}
+	 */
+	public void setAdaptivePopulation(boolean adaptivePopulation) {
+		this.adaptivePopulation = adaptivePopulation;
+	}
+
+	/**
+	 * Gets the {@link #stagnationIterations}.
+	 *
+	 * @return the {@link #stagnationIterations}
+	 */
+	public int getStagnationIterations() {
+		return stagnationIterations;
+	}
+
+	/**
+	 * Sets the {@link #stagnationIterations}.
+	 *
+	 * @param stagnationIterations
+	 *            the new {@link #stagnationIterations}
+	 */
+	public void setStagnationIterations(int stagnationIterations) {
+		this.stagnationIterations = stagnationIterations;
+	}
+
+	/**
+	 * Gets the {@link #minParticles}.
+	 *
+	 * @return the {@link #minParticles}
+	 */
+	public int getMinParticles() {
+		return minParticles;
+	}
+
+	/**
+	 * Sets the {@link #minParticles}.
+	 *
+	 * @param minParticles
+	 *            the new {@link #minParticles}
+	 */
+	public void setMinParticles(int minParticles) {
+		this.minParticles = minParticles;
+	}
+
+	/**
+	 * Gets the {@link #reseedDiversity}.
+	 *
+	 * @return the {@link #reseedDiversity}
+	 */
+	public double getReseedDiversity() {
+		return reseedDiversity;
+	}
+
+	/**
+	 * Sets the {@link #reseedDiversity}.
+	 *
+	 * @param reseedDiversity
+	 *            the new {@link #reseedDiversity}
+	 */
+	public void setReseedDiversity(double reseedDiversity) {
+		this.reseedDiversity = reseedDiversity;
+	}
+
+	/**
+	 * Gets the {@link #vectorizedUpdate}.
+	 *
+	 * @return the {@link #vectorizedUpdate}
+	 */
+	public boolean isVectorizedUpdate() {
+		return vectorizedUpdate;
+	}
+
+	/**
+	 * Sets the {@link #vectorizedUpdate}.
+	 *
+	 * @param vectorizedUpdate
+	 *            the new {@link #vectorizedUpdate}
+	 */
+	public void setVectorizedUpdate(boolean vectorizedUpdate) {
+		this.vectorizedUpdate = vectorizedUpdate;
+	}
+
+	/**
+	 * Gets the {@link #offHeapChunkSize}.
+	 *
+	 * @return the {@link #offHeapChunkSize}
+	 */
+	public int getOffHeapChunkSize() {
+		return offHeapChunkSize;
+	}
+
+	/**
+	 * Sets the {@link #offHeapChunkSize}.
+	 *
+	 * @param offHeapChunkSize
+	 *            the new {@link #offHeapChunkSize}
+	 */
+	public void setOffHeapChunkSize(int offHeapChunkSize) {
+		this.offHeapChunkSize = offHeapChunkSize;
+	}
+
+	/**
+	 * Gets the {@link #offHeapDirectory}.
+	 *
+	 * @return the {@link #offHeapDirectory}
+	 */
+	public Path getOffHeapDirectory() {
+		return offHeapDirectory;
+	}
+
+	/**
+	 * Sets the {@link #offHeapDirectory}.
+	 *
+	 * @param offHeapDirectory
+	 *            the new {@link #offHeapDirectory}
+	 */
+	public void setOffHeapDirectory(Path offHeapDirectory) {
+		this.offHeapDirectory = offHeapDirectory;
+	}
+
+	/**
+	 * Gets the {@link #diversityCellSize}.
+	 *
+	 * @return the {@link #diversityCellSize}
+	 */
+	public double getDiversityCellSize() {
+		return diversityCellSize;
+	}
+
+	/**
+	 * Sets the {@link #diversityCellSize}.
+	 *
+	 * @param diversityCellSize
+	 *            the new {@link #diversityCellSize}
+	 */
+	public void setDiversityCellSize(double diversityCellSize) {
+		this.diversityCellSize = diversityCellSize;
+	}
+
+	/**
+	 * Gets the {@link #maxParticlesPerCell}.
+	 *
+	 * @return the {@link #maxParticlesPerCell}
+	 */
+	public int getMaxParticlesPerCell() {
+		return maxParticlesPerCell;
+	}
+
+	/**
+	 * Sets the {@link #maxParticlesPerCell}.
+	 *
+	 * @param maxParticlesPerCell
+	 *            the new {@link #maxParticlesPerCell}
+	 */
+	public void setMaxParticlesPerCell(int maxParticlesPerCell) {
+		this.maxParticlesPerCell = maxParticlesPerCell;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -224,12 +837,36 @@ public class SwarmConfiguration {
 		temp = Double.doubleToLongBits(cognitiveWeight);
 		result = prime * result + (int) (temp ^ (temp >>> 32));
 		result = prime * result + ((fitnessFunction == null) ? 0 : fitnessFunction.hashCode());
+		result = prime * result + ((forkJoinPool == null) ? 0 : forkJoinPool.hashCode());
 		temp = Double.doubleToLongBits(inertiaFactor);
 		result = prime * result + (int) (temp ^ (temp >>> 32));
 		result = prime * result + numParticle;
 		result = prime * result + ((randomGenerator == null) ? 0 : randomGenerator.hashCode());
 		temp = Double.doubleToLongBits(socialWeight);
 		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + dimensions;
+		result = prime * result + Arrays.hashCode(lowerBounds);
+		result = prime * result + Arrays.hashCode(upperBounds);
+		result = prime * result + Arrays.hashCode(fitnessCacheGrid);
+		result = prime * result + fitnessCacheCapacity;
+		result = prime * result + ((listener == null) ? 0 : listener.hashCode());
+		result = prime * result + ((randomSource == null) ? 0 : randomSource.hashCode());
+		result = prime * result + maxInFlightEvaluations;
+		result = prime * result + ((fitnessExecutor == null) ? 0 : fitnessExecutor.hashCode());
+		result = prime * result + surrogateNeighbours;
+		temp = Double.doubleToLongBits(surrogateMargin);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + (adaptivePopulation ? 1231 : 1237);
+		result = prime * result + stagnationIterations;
+		result = prime * result + minParticles;
+		temp = Double.doubleToLongBits(reseedDiversity);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + (vectorizedUpdate ? 1231 : 1237);
+		result = prime * result + offHeapChunkSize;
+		result = prime * result + ((offHeapDirectory == null) ? 0 : offHeapDirectory.hashCode());
+		temp = Double.doubleToLongBits(diversityCellSize);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + maxParticlesPerCell;
 		return result;
 	}
 
@@ -254,6 +891,11 @@ public class SwarmConfiguration {
 				return false;
 		} else if (!fitnessFunction.equals(other.fitnessFunction))
 			return false;
+		if (forkJoinPool == null) {
+			if (other.forkJoinPool != null)
+				return false;
+		} else if (!forkJoinPool.equals(other.forkJoinPool))
+			return false;
 		if (Double.doubleToLongBits(inertiaFactor) != Double.doubleToLongBits(other.inertiaFactor))
 			return false;
 		if (numParticle != other.numParticle)
@@ -265,6 +907,58 @@ public class SwarmConfiguration {
 			return false;
 		if (Double.doubleToLongBits(socialWeight) != Double.doubleToLongBits(other.socialWeight))
 			return false;
+		if (dimensions != other.dimensions)
+			return false;
+		if (!Arrays.equals(lowerBounds, other.lowerBounds))
+			return false;
+		if (!Arrays.equals(upperBounds, other.upperBounds))
+			return false;
+		if (!Arrays.equals(fitnessCacheGrid, other.fitnessCacheGrid))
+			return false;
+		if (fitnessCacheCapacity != other.fitnessCacheCapacity)
+			return false;
+		if (listener == null) {
+			if (other.listener != null)
+				return false;
+		} else if (!listener.equals(other.listener))
+			return false;
+		if (randomSource == null) {
+			if (other.randomSource != null)
+				return false;
+		} else if (!randomSource.equals(other.randomSource))
+			return false;
+		if (maxInFlightEvaluations != other.maxInFlightEvaluations)
+			return false;
+		if (fitnessExecutor == null) {
+			if (other.fitnessExecutor != null)
+				return false;
+		} else if (!fitnessExecutor.equals(other.fitnessExecutor))
+			return false;
+		if (surrogateNeighbours != other.surrogateNeighbours)
+			return false;
+		if (Double.doubleToLongBits(surrogateMargin) != Double.doubleToLongBits(other.surrogateMargin))
+			return false;
+		if (adaptivePopulation != other.adaptivePopulation)
+			return false;
+		if (stagnationIterations != other.stagnationIterations)
+			return false;
+		if (minParticles != other.minParticles)
+			return false;
+		if (Double.doubleToLongBits(reseedDiversity) != Double.doubleToLongBits(other.reseedDiversity))
+			return false;
+		if (vectorizedUpdate != other.vectorizedUpdate)
+			return false;
+		if (offHeapChunkSize != other.offHeapChunkSize)
+			return false;
+		if (offHeapDirectory == null) {
+			if (other.offHeapDirectory != null)
+				return false;
+		} else if (!offHeapDirectory.equals(other.offHeapDirectory))
+			return false;
+		if (Double.doubleToLongBits(diversityCellSize) != Double.doubleToLongBits(other.diversityCellSize))
+			return false;
+		if (maxParticlesPerCell != other.maxParticlesPerCell)
+			return false;
 		return true;
 	}
 
@@ -277,7 +971,17 @@ public class SwarmConfiguration {
 	public String toString() {
 		return "SwarmConfiguration [inertiaFactor=" + inertiaFactor + ", cognitiveWeight=" + cognitiveWeight
 				+ ", socialWeight=" + socialWeight + ", randomGenerator=" + randomGenerator + ", numParticle="
-				+ numParticle + ", fitnessFunction=" + fitnessFunction + "]";
+				+ numParticle + ", fitnessFunction=" + fitnessFunction + ", forkJoinPool=" + forkJoinPool
+				+ ", dimensions=" + dimensions + ", lowerBounds=" + Arrays.toString(lowerBounds) + ", upperBounds="
+				+ Arrays.toString(upperBounds) + ", fitnessCacheGrid=" + Arrays.toString(fitnessCacheGrid)
+				+ ", fitnessCacheCapacity=" + fitnessCacheCapacity + ", listener=" + listener + ", randomSource="
+				+ randomSource + ", maxInFlightEvaluations=" + maxInFlightEvaluations + ", fitnessExecutor="
+				+ fitnessExecutor + ", surrogateNeighbours=" + surrogateNeighbours + ", surrogateMargin="
+				+ surrogateMargin + ", adaptivePopulation=" + adaptivePopulation + ", stagnationIterations="
+				+ stagnationIterations + ", minParticles=" + minParticles + ", reseedDiversity=" + reseedDiversity
+				+ ", vectorizedUpdate=" + vectorizedUpdate + ", offHeapChunkSize=" + offHeapChunkSize
+				+ ", offHeapDirectory=" + offHeapDirectory + ", diversityCellSize=" + diversityCellSize
+				+ ", maxParticlesPerCell=" + maxParticlesPerCell + "]";
 	}
 
 }
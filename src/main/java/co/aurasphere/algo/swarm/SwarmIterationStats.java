@@ -0,0 +1,238 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+/**
+ * Measurements taken by a {@link Swarm} or a {@link Multiswarm} during one
+ * call to their main loop, passed to the configured {@link SwarmListener}. A
+ * single call may cover many iterations, as it happens with
+ * {@link Multiswarm#mainLoop(int)}.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class SwarmIterationStats {
+
+	/**
+	 * Number of iterations completed by the algorithm, including the ones
+	 * covered by these stats.
+	 */
+	private final long iteration;
+
+	/**
+	 * Number of iterations covered by these stats.
+	 */
+	private final int iterations;
+
+	/**
+	 * Number of fitness evaluations performed.
+	 */
+	private final long evaluations;
+
+	/**
+	 * Time spent evaluating the fitness of the particles, in nanoseconds. In
+	 * island mode, this is the sum of the time spent by each island.
+	 */
+	private final long fitnessNanos;
+
+	/**
+	 * Time spent updating the bests and moving the particles, in
+	 * nanoseconds. In island mode, this is the sum of the time spent by each
+	 * island.
+	 */
+	private final long updateNanos;
+
+	/**
+	 * Wall-clock time elapsed, in nanoseconds.
+	 */
+	private final long elapsedNanos;
+
+	/**
+	 * The best fitness found so far.
+	 */
+	private final double bestFitness;
+
+	/**
+	 * The last iteration at which the best fitness improved or 0 if it never
+	 * improved.
+	 */
+	private final long lastImprovementIteration;
+
+	/**
+	 * The mean distance of the particles from the best position found, which
+	 * measures how much the particles are spread. It goes toward 0 as the
+	 * algorithm converges.
+	 */
+	private final double diversity;
+
+	/**
+	 * Instantiates a new SwarmIterationStats.
+	 *
+	 * @param iteration
+	 *            the {@link #iteration}
+	 * @param iterations
+	 *            the {@link #iterations}
+	 * @param evaluations
+	 *            the {@link #evaluations}
+	 * @param fitnessNanos
+	 *            the {@link #fitnessNanos}
+	 * @param updateNanos
+	 *            the {@link #updateNanos}
+	 * @param elapsedNanos
+	 *            the {@link #elapsedNanos}
+	 * @param bestFitness
+	 *            the {@link #bestFitness}
+	 * @param lastImprovementIteration
+	 *            the {@link #lastImprovementIteration}
+	 * @param diversity
+	 *            the {@link #diversity}
+	 */
+	public SwarmIterationStats(long iteration, int iterations, long evaluations, long fitnessNanos, long updateNanos,
+			long elapsedNanos, double bestFitness, long lastImprovementIteration, double diversity) {
+		this.iteration = iteration;
+		this.iterations = iterations;
+		this.evaluations = evaluations;
+		this.fitnessNanos = fitnessNanos;
+		this.updateNanos = updateNanos;
+		this.elapsedNanos = elapsedNanos;
+		this.bestFitness = bestFitness;
+		this.lastImprovementIteration = lastImprovementIteration;
+		this.diversity = diversity;
+	}
+
+	/**
+	 * Gets the {@link #iteration}.
+	 *
+	 * @return the {@link #iteration}
+	 */
+	public long getIteration() {
+		return iteration;
+	}
+
+	/**
+	 * Gets the {@link #iterations}.
+	 *
+	 * @return the {@link #iterations}
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Gets the {@link #evaluations}.
+	 *
+	 * @return the {@link #evaluations}
+	 */
+	public long getEvaluations() {
+		return evaluations;
+	}
+
+	/**
+	 * Gets the {@link #fitnessNanos}.
+	 *
+	 * @return the {@link #fitnessNanos}
+	 */
+	public long getFitnessNanos() {
+		return fitnessNanos;
+	}
+
+	/**
+	 * Gets the {@link #updateNanos}.
+	 *
+	 * @return the {@link #updateNanos}
+	 */
+	public long getUpdateNanos() {
+		return updateNanos;
+	}
+
+	/**
+	 * Gets the {@link #elapsedNanos}.
+	 *
+	 * @return the {@link #elapsedNanos}
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Gets the {@link #bestFitness}.
+	 *
+	 * @return the {@link #bestFitness}
+	 */
+	public double getBestFitness() {
+		return bestFitness;
+	}
+
+	/**
+	 * Gets the {@link #lastImprovementIteration}.
+	 *
+	 * @return the {@link #lastImprovementIteration}
+	 */
+	public long getLastImprovementIteration() {
+		return lastImprovementIteration;
+	}
+
+	/**
+	 * Gets the {@link #diversity}.
+	 *
+	 * @return the {@link #diversity}
+	 */
+	public double getDiversity() {
+		return diversity;
+	}
+
+	/**
+	 * Returns whether the best fitness improved during the iterations covered
+	 * by these stats.
+	 *
+	 * @return true if the best fitness improved, false otherwise
+	 */
+	public boolean isImproved() {
+		return lastImprovementIteration > iteration - iterations;
+	}
+
+	/**
+	 * Returns the number of fitness evaluations performed per second of
+	 * wall-clock time.
+	 *
+	 * @return the number of fitness evaluations per second
+	 */
+	public double getEvaluationsPerSecond() {
+		return elapsedNanos == 0 ? 0 : evaluations * 1e9 / elapsedNanos;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "SwarmIterationStats [iteration=" + iteration + ", iterations=" + iterations + ", evaluations="
+				+ evaluations + ", fitnessNanos=" + fitnessNanos + ", updateNanos=" + updateNanos + ", elapsedNanos="
+				+ elapsedNanos + ", bestFitness=" + bestFitness + ", lastImprovementIteration="
+				+ lastImprovementIteration + ", diversity=" + diversity + "]";
+	}
+
+}
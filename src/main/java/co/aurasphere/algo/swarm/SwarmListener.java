@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+/**
+ * Listener notified by a {@link Swarm} or a {@link Multiswarm} at the start
+ * and at the end of each call to their main loop. The listener is called on
+ * the thread running the main loop, so it should return quickly. When no
+ * listener is configured, the algorithms don't measure anything.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public interface SwarmListener {
+
+	/**
+	 * Called before one or more iterations of the algorithm are run, on the
+	 * same thread which then calls
+	 * {@link #iterationCompleted(SwarmIterationStats)}. Does nothing by
+	 * default.
+	 */
+	default void iterationStarted() {
+	}
+
+	/**
+	 * Called when one or more iterations of the algorithm have been completed.
+	 *
+	 * @param stats
+	 *            the measurements of the completed iterations
+	 */
+	void iterationCompleted(SwarmIterationStats stats);
+
+}
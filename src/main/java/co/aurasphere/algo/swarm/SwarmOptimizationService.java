@@ -0,0 +1,370 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import co.aurasphere.algo.RunSummary;
+import co.aurasphere.algo.RunTracker;
+import co.aurasphere.algo.StopCriteria;
+import co.aurasphere.algo.StopReason;
+
+/**
+ * Service which runs many independent {@link Swarm} optimizations on a fixed
+ * set of worker threads. Each submitted job is run a slice of a few
+ * iterations at a time and then put back in the queue, so that all the jobs
+ * make progress no matter how many they are, while the number of threads
+ * never exceeds the number of workers.<br>
+ * <br>
+ * The next job to run is always the one which received the least CPU time
+ * relative to its priority: a job with priority 2 gets about twice the time
+ * of a job with priority 1. Jobs which received the same time are run in
+ * order of deadline, which is given by
+ * {@link StopCriteria#getTimeBudgetMillis()} counted from the submission.
+ * Jobs submitted while others are running start from the time received by
+ * the jobs currently running, so they neither starve nor get starved. The
+ * swarms should not use a {@link SwarmConfiguration#getForkJoinPool()},
+ * since the service already keeps all the workers busy.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class SwarmOptimizationService implements AutoCloseable {
+
+	/**
+	 * Priority of the jobs submitted without one.
+	 */
+	public static final int DEFAULT_PRIORITY = 1;
+
+	/**
+	 * The jobs waiting to run, ordered by virtual runtime, deadline and
+	 * submission.
+	 */
+	private final PriorityBlockingQueue<Job> queue;
+
+	/**
+	 * The threads which run the jobs.
+	 */
+	private final List<Thread> workers;
+
+	/**
+	 * Number of iterations a job runs before being put back in the queue.
+	 */
+	private final int iterationsPerSlice;
+
+	/**
+	 * Virtual runtime of the last job started, from which the new jobs start.
+	 */
+	private final AtomicLong virtualClock = new AtomicLong();
+
+	/**
+	 * Counter used to order the jobs by submission.
+	 */
+	private final AtomicLong submissions = new AtomicLong();
+
+	/**
+	 * Lock held while splitting the random sources of the submitted
+	 * configurations, which are not thread safe.
+	 */
+	private final Object randomSourceLock = new Object();
+
+	/**
+	 * Whether this service has been closed.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Instantiates a new SwarmOptimizationService with a worker for each
+	 * available processor which runs 10 iterations at a time.
+	 */
+	public SwarmOptimizationService() {
+		this(Runtime.getRuntime().availableProcessors(), 10);
+	}
+
+	/**
+	 * Instantiates a new SwarmOptimizationService.
+	 *
+	 * @param workers
+	 *            the number of worker threads
+	 * @param iterationsPerSlice
+	 *            the {@link #iterationsPerSlice}
+	 */
+	public SwarmOptimizationService(int workers, int iterationsPerSlice) {
+		if (workers <= 0 || iterationsPerSlice <= 0) {
+			throw new IllegalArgumentException("Workers and iterations per slice must be positive but were "
+					+ workers + " and " + iterationsPerSlice);
+		}
+		this.iterationsPerSlice = iterationsPerSlice;
+		this.queue = new PriorityBlockingQueue<Job>(64, new Comparator<Job>() {
+
+			@Override
+			public int compare(Job first, Job second) {
+				int result = Long.compare(first.virtualRuntime, second.virtualRuntime);
+				if (result == 0) {
+					result = Long.compare(first.deadlineNanos, second.deadlineNanos);
+				}
+				if (result == 0) {
+					result = Long.compare(first.submission, second.submission);
+				}
+				return result;
+			}
+		});
+
+		this.workers = new ArrayList<Thread>(workers);
+		for (int i = 0; i < workers; i++) {
+			Thread worker = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					work();
+				}
+			}, "swarm-optimization-worker-" + i);
+			worker.setDaemon(true);
+			this.workers.add(worker);
+			worker.start();
+		}
+	}
+
+	/**
+	 * Submits a swarm optimization with the {@link #DEFAULT_PRIORITY}.
+	 *
+	 * @param configuration
+	 *            the configuration of the swarm
+	 * @param criteria
+	 *            when to stop the optimization
+	 * @return a future completed with the summary of the run when it stops
+	 */
+	public CompletableFuture<RunSummary> submit(SwarmConfiguration configuration, StopCriteria criteria) {
+		return submit(configuration, criteria, DEFAULT_PRIORITY);
+	}
+
+	/**
+	 * Submits a swarm optimization. The swarm is created on the caller
+	 * thread from a copy of the configuration, with its own random source
+	 * split from the configured one or, if not specified, from the random
+	 * generator. The same configuration can then be submitted for many jobs,
+	 * whose results are reproducible as long as they are submitted in the
+	 * same order. Cancelling the returned future stops the optimization
+	 * before its next iteration.
+	 *
+	 * @param configuration
+	 *            the configuration of the swarm
+	 * @param criteria
+	 *            when to stop the optimization
+	 * @param priority
+	 *            the priority of the job, at least 1. The CPU time received
+	 *            by a job is proportional to its priority
+	 * @return a future completed with the summary of the run when it stops
+	 * @throws RejectedExecutionException
+	 *             if this service has been closed
+	 */
+	public CompletableFuture<RunSummary> submit(SwarmConfiguration configuration, StopCriteria criteria,
+			int priority) {
+		if (priority < 1) {
+			throw new IllegalArgumentException("Priority must be at least 1 but was " + priority);
+		}
+		if (closed) {
+			throw new RejectedExecutionException("The service has been closed");
+		}
+
+		SwarmConfiguration jobConfiguration = new SwarmConfiguration(configuration);
+		synchronized (randomSourceLock) {
+			jobConfiguration.setRandomSource(Swarm.getRandomSource(configuration).split());
+		}
+		RunTracker tracker = new RunTracker(new Swarm(jobConfiguration), criteria);
+		long deadlineNanos = Long.MAX_VALUE;
+		if (criteria.getTimeBudgetMillis() < Long.MAX_VALUE / 1000000) {
+			deadlineNanos = System.nanoTime() + criteria.getTimeBudgetMillis() * 1000000;
+		}
+		Job job = new Job(tracker, priority, deadlineNanos, submissions.getAndIncrement(), virtualClock.get());
+		queue.add(job);
+
+		// The job may have been added after close drained the queue.
+		if (closed && queue.remove(job)) {
+			job.future.cancel(false);
+		}
+		return job.future;
+	}
+
+	/**
+	 * Main loop of the worker threads, which run slices of the queued jobs
+	 * until this service is closed.
+	 */
+	private void work() {
+		while (!closed) {
+			Job job;
+			try {
+				job = queue.take();
+			} catch (InterruptedException e) {
+				return;
+			}
+			if (!job.future.isDone()) {
+				runSlice(job);
+			}
+		}
+	}
+
+	/**
+	 * Runs up to {@link #iterationsPerSlice} iterations of a job, completing
+	 * its future if it stops or putting it back in the queue otherwise.
+	 *
+	 * @param job
+	 *            the job to run
+	 */
+	private void runSlice(Job job) {
+		long start = System.nanoTime();
+
+		// Moves the clock forward to the runtime of this job.
+		long currentClock = virtualClock.get();
+		while (currentClock < job.virtualRuntime && !virtualClock.compareAndSet(currentClock, job.virtualRuntime)) {
+			currentClock = virtualClock.get();
+		}
+
+		RunTracker tracker = job.tracker;
+		try {
+			for (int i = 0; i < iterationsPerSlice; i++) {
+				StopReason stopReason = tracker.check(job.future.isCancelled() || closed);
+				if (stopReason != null) {
+					job.future.complete(tracker.summarize(stopReason));
+					return;
+				}
+				tracker.getAlgorithm().mainLoop();
+				tracker.iterationCompleted();
+			}
+		} catch (Throwable t) {
+			job.future.completeExceptionally(t);
+			return;
+		}
+
+		// The queue may have already been drained by close.
+		if (closed) {
+			job.future.complete(tracker.summarize(StopReason.CANCELLED));
+			return;
+		}
+		job.virtualRuntime += (System.nanoTime() - start) / job.priority;
+		queue.add(job);
+
+		// The job may have been added after close drained the queue.
+		if (closed && queue.remove(job)) {
+			job.future.complete(tracker.summarize(StopReason.CANCELLED));
+		}
+	}
+
+	/**
+	 * Returns the number of jobs waiting to run, excluding the ones being run.
+	 *
+	 * @return the number of jobs waiting to run
+	 */
+	public int getQueuedJobs() {
+		return queue.size();
+	}
+
+	/**
+	 * Closes this service, stopping the workers. The jobs still queued are
+	 * cancelled, while the ones running are completed with
+	 * {@link StopReason#CANCELLED} after their current iteration.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		for (Thread worker : workers) {
+			worker.interrupt();
+		}
+		List<Job> pending = new ArrayList<Job>();
+		queue.drainTo(pending);
+		for (Job job : pending) {
+			job.future.cancel(false);
+		}
+	}
+
+	/**
+	 * A submitted optimization.
+	 *
+	 * @author Donato Rimenti
+	 *
+	 */
+	private static class Job {
+
+		/**
+		 * Tracks the run of the job swarm.
+		 */
+		private final RunTracker tracker;
+
+		/**
+		 * The priority of the job.
+		 */
+		private final int priority;
+
+		/**
+		 * The time at which the time budget of the job expires, as returned
+		 * by {@link System#nanoTime()}.
+		 */
+		private final long deadlineNanos;
+
+		/**
+		 * The order of submission of the job.
+		 */
+		private final long submission;
+
+		/**
+		 * The CPU time received by the job divided by its priority, in
+		 * nanoseconds. Only changed while the job is out of the queue.
+		 */
+		private long virtualRuntime;
+
+		/**
+		 * The future completed when the job stops.
+		 */
+		private final CompletableFuture<RunSummary> future = new CompletableFuture<RunSummary>();
+
+		/**
+		 * Instantiates a new Job.
+		 *
+		 * @param tracker
+		 *            the {@link #tracker}
+		 * @param priority
+		 *            the {@link #priority}
+		 * @param deadlineNanos
+		 *            the {@link #deadlineNanos}
+		 * @param submission
+		 *            the {@link #submission}
+		 * @param virtualRuntime
+		 *            the {@link #virtualRuntime}
+		 */
+		Job(RunTracker tracker, int priority, long deadlineNanos, long submission, long virtualRuntime) {
+			this.tracker = tracker;
+			this.priority = priority;
+			this.deadlineNanos = deadlineNanos;
+			this.submission = submission;
+			this.virtualRuntime = virtualRuntime;
+		}
+	}
+
+}
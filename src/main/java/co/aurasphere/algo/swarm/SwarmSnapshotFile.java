@@ -0,0 +1,625 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped file which holds a binary snapshot of the state of a
+ * {@link Swarm} or a {@link Multiswarm}, used to resume a long optimization
+ * after a restart. The snapshot contains the particles, the best positions
+ * found by the particles, the swarms and the multiswarm and the state of the
+ * random sources, so a resumed run produces the same results as an
+ * uninterrupted one. Swarms stored off-heap or which use an adaptive
+ * population, a surrogate or a diversity grid are not supported, since the
+ * snapshot doesn't hold their additional state.<br>
+ * <br>
+ * The file contains a header followed by two slots. Each snapshot is written
+ * into the slot which doesn't hold the last one, preceded by its sequence
+ * number, its size and a checksum of both and of the snapshot itself. When
+ * reading, the newest snapshot whose checksum matches is used, so a crash
+ * while writing leaves the previous snapshot readable. The fitness function
+ * and the other settings are not part of the snapshot and must be supplied
+ * again when restoring it.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class SwarmSnapshotFile implements Closeable {
+
+	/**
+	 * Magic number which identifies a snapshot file ("SWSN").
+	 */
+	private static final int MAGIC = 0x5357534E;
+
+	/**
+	 * Version of the file format.
+	 */
+	private static final int FORMAT_VERSION = 2;
+
+	/**
+	 * Size of the header, in bytes.
+	 */
+	private static final int HEADER_SIZE = 64;
+
+	/**
+	 * Size of the header at the beginning of each slot, which holds the
+	 * sequence number, the size and the checksum of its snapshot.
+	 */
+	private static final int SLOT_HEADER_SIZE = 16;
+
+	/**
+	 * The slot sizes are rounded up to a multiple of this value.
+	 */
+	private static final int SLOT_ALIGNMENT = 4096;
+
+	/**
+	 * Snapshot type of a {@link Swarm}.
+	 */
+	private static final byte SWARM = 0;
+
+	/**
+	 * Snapshot type of a {@link Multiswarm}.
+	 */
+	private static final byte MULTISWARM = 1;
+
+	/**
+	 * The channel of the snapshot file.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The mapped content of the snapshot file.
+	 */
+	private MappedByteBuffer buffer;
+
+	/**
+	 * Size of each slot, including its header, in bytes. 0 if no snapshot has
+	 * been written yet.
+	 */
+	private int slotCapacity;
+
+	/**
+	 * The slot which holds the last committed snapshot or -1 if there's no
+	 * valid snapshot.
+	 */
+	private int activeSlot = -1;
+
+	/**
+	 * Sequence number of the last committed snapshot, which is also the
+	 * number of snapshots committed to the file.
+	 */
+	private long sequence;
+
+	/**
+	 * Opens a snapshot file, creating it if it doesn't exist.
+	 *
+	 * @param path
+	 *            the path of the file
+	 * @throws IOException
+	 *             if the file can't be opened or it's not a snapshot file
+	 */
+	public SwarmSnapshotFile(Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		if (channel.size() == 0) {
+			return;
+		}
+
+		try {
+			if (channel.size() < HEADER_SIZE) {
+				throw new IOException("Not a snapshot file: " + path);
+			}
+			MappedByteBuffer mapped = channel.map(MapMode.READ_WRITE, 0, channel.size());
+
+			// The magic number is written last, so a file without it has
+			// been created by a crashed process and holds no snapshot.
+			if (mapped.getInt(0) == 0) {
+				return;
+			}
+			if (mapped.getInt(0) != MAGIC) {
+				throw new IOException("Not a snapshot file: " + path);
+			}
+			if (mapped.getInt(4) != FORMAT_VERSION) {
+				throw new IOException("Unsupported snapshot format version: " + mapped.getInt(4));
+			}
+			int capacity = mapped.getInt(8);
+			if (capacity < SLOT_HEADER_SIZE || HEADER_SIZE + 2L * capacity > channel.size()) {
+				throw new IOException("Truncated snapshot file: " + path);
+			}
+			this.buffer = mapped;
+			this.slotCapacity = capacity;
+			this.activeSlot = findCommittedSlot();
+			if (activeSlot != -1) {
+				this.sequence = buffer.getLong(slotStart(activeSlot));
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes a snapshot of a swarm and commits it.
+	 *
+	 * @param swarm
+	 *            the swarm to write
+	 * @throws IOException
+	 *             if an error occurs while writing the snapshot
+	 */
+	public void write(Swarm swarm) throws IOException {
+		write(SWARM, new Swarm[] { swarm }, null, 0);
+	}
+
+	/**
+	 * Writes a snapshot of a multiswarm and commits it.
+	 *
+	 * @param multiswarm
+	 *            the multiswarm to write
+	 * @throws IOException
+	 *             if an error occurs while writing the snapshot
+	 */
+	public void write(Multiswarm multiswarm) throws IOException {
+		double[] globalBestPosition = multiswarm.getBestPosition();
+		if (globalBestPosition == null) {
+			globalBestPosition = new double[multiswarm.getConfiguration().getDimensions()];
+		}
+		write(MULTISWARM, multiswarm.getSwarms(), globalBestPosition, multiswarm.getBestFitness());
+	}
+
+	/**
+	 * Writes a snapshot into the free slot and commits it.
+	 *
+	 * @param type
+	 *            the type of the snapshot
+	 * @param swarms
+	 *            the swarms to write
+	 * @param globalBestPosition
+	 *            the best position found by a multiswarm or null if the
+	 *            snapshot is of a swarm
+	 * @param globalBestFitness
+	 *            the best fitness found by a multiswarm
+	 * @throws IOException
+	 *             if an error occurs while writing the snapshot
+	 */
+	private void write(byte type, Swarm[] swarms, double[] globalBestPosition, double globalBestFitness)
+			throws IOException {
+		RandomSource[] randomSources = new RandomSource[swarms.length];
+		for (int i = 0; i < swarms.length; i++) {
+			if (swarms[i].isStoredOffHeap()) {
+				throw new IllegalArgumentException("Swarms stored off-heap can't be written to a snapshot");
+			}
+			if (swarms[i].hasUnsnapshottableState()) {
+				throw new IllegalArgumentException("Swarms with an adaptive population, a surrogate or a diversity "
+						+ "grid can't be written to a snapshot");
+			}
+			randomSources[i] = swarms[i].getRandomSource();
+		}
+		byte[] randomState = serialize(randomSources);
+		int numParticle = swarms.length == 0 ? 0 : swarms[0].getParticleStore().size;
+		int dimensions = swarms.length == 0 ? 0 : swarms[0].getParticleStore().dimensions;
+		if (globalBestPosition != null) {
+			dimensions = globalBestPosition.length;
+		}
+
+		// Computes the snapshot size and makes room for it.
+		long size = 13 + 4 + randomState.length;
+		if (globalBestPosition != null) {
+			size += 8 + 8L * dimensions;
+		}
+		size += swarms.length * (9 + 8L * dimensions + 24L * numParticle * dimensions + 16L * numParticle);
+		ensureCapacity(SLOT_HEADER_SIZE + size);
+
+		// Writes the slot not in use.
+		int targetSlot = activeSlot == 0 ? 1 : 0;
+		ByteBuffer slot = payload(targetSlot, (int) size);
+		slot.put(type);
+		slot.putInt(swarms.length);
+		slot.putInt(numParticle);
+		slot.putInt(dimensions);
+		slot.putInt(randomState.length);
+		slot.put(randomState);
+		if (globalBestPosition != null) {
+			slot.putDouble(globalBestFitness);
+			putDoubles(slot, globalBestPosition);
+		}
+		for (Swarm swarm : swarms) {
+			ParticleStore store = swarm.getParticleStore();
+			double[] bestPosition = swarm.getBestPosition();
+			slot.putDouble(swarm.getBestFitness());
+			slot.put((byte) (bestPosition == null ? 0 : 1));
+			putDoubles(slot, bestPosition == null ? new double[dimensions] : bestPosition);
+			putDoubles(slot, store.positions);
+			putDoubles(slot, store.speeds);
+			putDoubles(slot, store.bestPositions);
+			putDoubles(slot, store.fitness);
+			putDoubles(slot, store.bestFitness);
+		}
+
+		// Commits the snapshot. Until its checksum matches, the slot is
+		// ignored when reading.
+		int start = slotStart(targetSlot);
+		buffer.putLong(start, sequence + 1);
+		buffer.putInt(start + 8, (int) size);
+		buffer.putInt(start + 12, checksum(targetSlot, (int) size));
+		buffer.force();
+		activeSlot = targetSlot;
+		sequence++;
+	}
+
+	/**
+	 * Restores a swarm from the last committed snapshot.
+	 *
+	 * @param configuration
+	 *            the configuration of the swarm. The random sources are
+	 *            restored from the snapshot
+	 * @return the restored swarm
+	 * @throws IOException
+	 *             if the snapshot can't be read
+	 */
+	public Swarm readSwarm(SwarmConfiguration configuration) throws IOException {
+		ByteBuffer slot = committedSlot(SWARM, 1, configuration);
+		RandomSource[] randomSources = readRandomSources(slot);
+		ParticleStore store = new ParticleStore(configuration.getNumParticle(), configuration.getDimensions());
+		double bestFitness = slot.getDouble();
+		double[] bestPosition = readSwarmState(slot, store);
+		Swarm swarm = new Swarm(configuration, store, randomSources[0]);
+		swarm.restoreBest(bestPosition, bestFitness);
+		return swarm;
+	}
+
+	/**
+	 * Restores a multiswarm from the last committed snapshot.
+	 *
+	 * @param configuration
+	 *            the configuration of the multiswarm. The random sources are
+	 *            restored from the snapshot
+	 * @return the restored multiswarm
+	 * @throws IOException
+	 *             if the snapshot can't be read
+	 */
+	public Multiswarm readMultiswarm(MultiswarmConfiguration configuration) throws IOException {
+		int numSwarms = configuration.getNumSwarms();
+		int dimensions = configuration.getDimensions();
+		ByteBuffer slot = committedSlot(MULTISWARM, numSwarms, configuration);
+		RandomSource[] randomSources = readRandomSources(slot);
+		double globalBestFitness = slot.getDouble();
+		double[] globalBestPosition = getDoubles(slot, new double[dimensions]);
+
+		ParticleStore[] stores = new ParticleStore[numSwarms];
+		double[][] bestPositions = new double[numSwarms][];
+		double[] bestFitness = new double[numSwarms];
+		for (int i = 0; i < numSwarms; i++) {
+			stores[i] = new ParticleStore(configuration.getNumParticle(), dimensions);
+			bestFitness[i] = slot.getDouble();
+			bestPositions[i] = readSwarmState(slot, stores[i]);
+		}
+
+		Multiswarm multiswarm = new Multiswarm(configuration, stores, randomSources);
+		Swarm[] swarms = multiswarm.getSwarms();
+		for (int i = 0; i < numSwarms; i++) {
+			swarms[i].restoreBest(bestPositions[i], bestFitness[i]);
+		}
+		multiswarm.restoreGlobalBest(globalBestPosition, globalBestFitness);
+		return multiswarm;
+	}
+
+	/**
+	 * Returns the newest snapshot whose checksum matches after validating it
+	 * against the configuration used to restore it. The returned buffer is
+	 * positioned after the snapshot type and sizes.
+	 *
+	 * @param type
+	 *            the expected snapshot type
+	 * @param numSwarms
+	 *            the expected number of swarms
+	 * @param configuration
+	 *            the configuration used to restore the snapshot
+	 * @return the last committed snapshot
+	 * @throws IOException
+	 *             if there's no valid snapshot
+	 */
+	private ByteBuffer committedSlot(byte type, int numSwarms, SwarmConfiguration configuration)
+			throws IOException {
+		if (configuration.getOffHeapChunkSize() > 0) {
+			throw new IllegalArgumentException("Swarms stored off-heap can't be restored from a snapshot");
+		}
+		if (configuration.isAdaptivePopulation() || configuration.getSurrogateNeighbours() > 0
+				|| configuration.getDiversityCellSize() > 0) {
+			throw new IllegalArgumentException("Swarms with an adaptive population, a surrogate or a diversity "
+					+ "grid can't be restored from a snapshot");
+		}
+		if (buffer == null || (buffer.getLong(slotStart(0)) <= 0 && buffer.getLong(slotStart(1)) <= 0)) {
+			throw new IOException("No snapshot has been committed to the file");
+		}
+
+		// The slots are verified again in case the file changed since it was
+		// opened.
+		int committedSlot = findCommittedSlot();
+		if (committedSlot == -1) {
+			throw new IOException("Corrupted snapshot, checksum mismatch in both slots");
+		}
+		activeSlot = committedSlot;
+		sequence = buffer.getLong(slotStart(committedSlot));
+		ByteBuffer slot = payload(committedSlot, buffer.getInt(slotStart(committedSlot) + 8));
+
+		if (slot.get() != type) {
+			throw new IllegalArgumentException("The snapshot is not of a " + (type == SWARM ? "swarm" : "multiswarm"));
+		}
+		int snapshotSwarms = slot.getInt();
+		int snapshotParticles = slot.getInt();
+		int snapshotDimensions = slot.getInt();
+		if (snapshotSwarms != numSwarms || snapshotParticles != configuration.getNumParticle()
+				|| snapshotDimensions != configuration.getDimensions()) {
+			throw new IllegalArgumentException("The snapshot has " + snapshotSwarms + " swarms of "
+					+ snapshotParticles + " particles with " + snapshotDimensions
+					+ " dimensions, which doesn't match the configuration");
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the slot which holds the newest snapshot whose checksum
+	 * matches.
+	 *
+	 * @return the slot which holds the newest valid snapshot or -1 if no slot
+	 *         holds a valid snapshot
+	 */
+	private int findCommittedSlot() {
+		int newest = buffer.getLong(slotStart(1)) > buffer.getLong(slotStart(0)) ? 1 : 0;
+		if (isValid(newest)) {
+			return newest;
+		}
+		if (isValid(1 - newest)) {
+			return 1 - newest;
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks whether a slot holds a complete snapshot.
+	 *
+	 * @param index
+	 *            the index of the slot
+	 * @return true if the slot holds a snapshot whose checksum matches, false
+	 *         otherwise
+	 */
+	private boolean isValid(int index) {
+		int start = slotStart(index);
+		int size = buffer.getInt(start + 8);
+		if (buffer.getLong(start) <= 0 || size < 0 || size > slotCapacity - SLOT_HEADER_SIZE) {
+			return false;
+		}
+		return buffer.getInt(start + 12) == checksum(index, size);
+	}
+
+	/**
+	 * Computes the checksum of a slot, which covers its sequence number, its
+	 * size and its snapshot.
+	 *
+	 * @param index
+	 *            the index of the slot
+	 * @param size
+	 *            the size of the snapshot
+	 * @return the checksum of the slot
+	 */
+	private int checksum(int index, int size) {
+		ByteBuffer slot = buffer.duplicate();
+		int start = slotStart(index);
+		CRC32 crc = new CRC32();
+
+		// The buffers are cast to Buffer so that the methods which exist on
+		// Java 8 are called, rather than their Java 9 covariant overrides.
+		((Buffer) slot).limit(start + 12);
+		((Buffer) slot).position(start);
+		crc.update(slot);
+		((Buffer) slot).limit(start + SLOT_HEADER_SIZE + size);
+		((Buffer) slot).position(start + SLOT_HEADER_SIZE);
+		crc.update(slot);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Reads the state of a swarm from a snapshot.
+	 *
+	 * @param slot
+	 *            the snapshot, positioned after the swarm best fitness
+	 * @param store
+	 *            where the particles state is read into
+	 * @return the best position of the swarm or null if it has not been found
+	 *         yet
+	 */
+	private static double[] readSwarmState(ByteBuffer slot, ParticleStore store) {
+		boolean hasBestPosition = slot.get() != 0;
+		double[] bestPosition = getDoubles(slot, new double[store.dimensions]);
+		getDoubles(slot, store.positions);
+		getDoubles(slot, store.speeds);
+		getDoubles(slot, store.bestPositions);
+		getDoubles(slot, store.fitness);
+		getDoubles(slot, store.bestFitness);
+		return hasBestPosition ? bestPosition : null;
+	}
+
+	/**
+	 * Reads the random sources of the swarms from a snapshot.
+	 *
+	 * @param slot
+	 *            the snapshot, positioned at the beginning of the random
+	 *            sources state
+	 * @return the random sources of the swarms
+	 * @throws IOException
+	 *             if the random sources can't be deserialized
+	 */
+	private static RandomSource[] readRandomSources(ByteBuffer slot) throws IOException {
+		byte[] randomState = new byte[slot.getInt()];
+		slot.get(randomState);
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(randomState))) {
+			return (RandomSource[]) in.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Unable to restore the random sources", e);
+		}
+	}
+
+	/**
+	 * Serializes the random sources of the swarms. Since they are serialized
+	 * together, a source shared by many swarms is restored as a single
+	 * shared source.
+	 *
+	 * @param randomSources
+	 *            the random sources to serialize
+	 * @return the serialized random sources
+	 * @throws IOException
+	 *             if the random sources can't be serialized
+	 */
+	private static byte[] serialize(RandomSource[] randomSources) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(randomSources);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Makes sure each slot can hold a snapshot of the given size. The slot
+	 * size is fixed when the first snapshot is written, since all the
+	 * snapshots of the same algorithm have the same size.
+	 *
+	 * @param size
+	 *            the size of the snapshot
+	 * @throws IOException
+	 *             if the file can't be mapped
+	 */
+	private void ensureCapacity(long size) throws IOException {
+		if (size <= slotCapacity) {
+			return;
+		}
+		if (slotCapacity > 0) {
+			throw new IllegalArgumentException(
+					"The snapshot doesn't fit the file, which holds a snapshot of a smaller algorithm");
+		}
+		long capacity = (size + SLOT_ALIGNMENT - 1) / SLOT_ALIGNMENT * SLOT_ALIGNMENT;
+		if (HEADER_SIZE + 2 * capacity > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The snapshot is too big: " + size + " bytes");
+		}
+		slotCapacity = (int) capacity;
+		buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + 2 * capacity);
+		buffer.putInt(4, FORMAT_VERSION);
+		buffer.putInt(8, slotCapacity);
+		buffer.force();
+		buffer.putInt(0, MAGIC);
+		buffer.force();
+	}
+
+	/**
+	 * Returns the offset of a slot inside the file.
+	 *
+	 * @param index
+	 *            the index of the slot
+	 * @return the offset of the slot header
+	 */
+	private int slotStart(int index) {
+		return HEADER_SIZE + index * slotCapacity;
+	}
+
+	/**
+	 * Returns a view over the snapshot held by a slot.
+	 *
+	 * @param index
+	 *            the index of the slot
+	 * @param size
+	 *            the size of the view
+	 * @return a view over the snapshot, starting at position 0
+	 */
+	private ByteBuffer payload(int index, int size) {
+		ByteBuffer slot = buffer.duplicate();
+		int start = slotStart(index) + SLOT_HEADER_SIZE;
+		((Buffer) slot).limit(start + size);
+		((Buffer) slot).position(start);
+		return slot.slice();
+	}
+
+	/**
+	 * Writes an array of doubles into a buffer.
+	 *
+	 * @param buffer
+	 *            the destination buffer
+	 * @param values
+	 *            the values to write
+	 */
+	private static void putDoubles(ByteBuffer buffer, double[] values) {
+		buffer.asDoubleBuffer().put(values);
+		((Buffer) buffer).position(buffer.position() + values.length * 8);
+	}
+
+	/**
+	 * Reads an array of doubles from a buffer.
+	 *
+	 * @param buffer
+	 *            the source buffer
+	 * @param values
+	 *            the array where the values are read into
+	 * @return the array passed as argument
+	 */
+	private static double[] getDoubles(ByteBuffer buffer, double[] values) {
+		buffer.asDoubleBuffer().get(values);
+		((Buffer) buffer).position(buffer.position() + values.length * 8);
+		return values;
+	}
+
+	/**
+	 * Gets the {@link #sequence}.
+	 *
+	 * @return the {@link #sequence}, 0 if there's no valid snapshot
+	 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		if (buffer != null) {
+			buffer.force();
+		}
+		channel.close();
+	}
+
+}
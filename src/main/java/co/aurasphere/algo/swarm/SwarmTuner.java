@@ -0,0 +1,361 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import co.aurasphere.algo.OptimizationAlgorithm;
+
+/**
+ * Races many {@link SwarmConfiguration} or {@link MultiswarmConfiguration}
+ * candidates to find the one which reaches a target fitness with the fewest
+ * evaluations, using successive halving. All the candidates are first run for
+ * a small budget of evaluations, then only the best fraction of them,
+ * <code>1 / reductionFactor</code>, keeps running with a budget
+ * <code>reductionFactor</code> times bigger, and so on until a single
+ * candidate is left. Each candidate continues its own run from where it
+ * stopped, so no evaluation is wasted on the survivors.<br>
+ * <br>
+ * The candidates which reached the target rank first, by the evaluations they
+ * needed, followed by the others, by the best fitness they reached. Once a
+ * candidate reached the target, the budgets are capped by its evaluations,
+ * since no candidate which needs more can win anyway. Each candidate runs on
+ * a copy of its configuration with its own random source split from the
+ * original one and a listener which counts the evaluations, so any listener
+ * set on the candidates is not notified.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class SwarmTuner {
+
+	/**
+	 * Ranks first the candidates which reached the target, by the
+	 * evaluations they needed, then the others, by their best fitness.
+	 */
+	private static final Comparator<Candidate> CANDIDATE_RANKING = new Comparator<Candidate>() {
+
+		@Override
+		public int compare(Candidate first, Candidate second) {
+			boolean firstReached = first.evaluationsToTarget >= 0;
+			boolean secondReached = second.evaluationsToTarget >= 0;
+			if (firstReached != secondReached) {
+				return firstReached ? -1 : 1;
+			}
+			if (firstReached) {
+				return Long.compare(first.evaluationsToTarget, second.evaluationsToTarget);
+			}
+			return Double.compare(second.algorithm.getBestFitness(), first.algorithm.getBestFitness());
+		}
+	};
+
+	/**
+	 * The fitness the candidates have to reach.
+	 */
+	private final double targetFitness;
+
+	/**
+	 * Number of evaluations each candidate runs for in the first round.
+	 */
+	private final long initialBudget;
+
+	/**
+	 * Factor by which the candidates are cut and the budget grows at each
+	 * round.
+	 */
+	private final int reductionFactor;
+
+	/**
+	 * Executor which runs the candidates of a round concurrently or null to
+	 * run them on the caller thread.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * The candidates to race.
+	 */
+	private final List<Candidate> candidates = new ArrayList<Candidate>();
+
+	/**
+	 * Instantiates a new SwarmTuner which halves the candidates at each round
+	 * and runs them on the caller thread.
+	 *
+	 * @param targetFitness
+	 *            the {@link #targetFitness}
+	 * @param initialBudget
+	 *            the {@link #initialBudget}
+	 */
+	public SwarmTuner(double targetFitness, long initialBudget) {
+		this(targetFitness, initialBudget, 2, null);
+	}
+
+	/**
+	 * Instantiates a new SwarmTuner.
+	 *
+	 * @param targetFitness
+	 *            the {@link #targetFitness}
+	 * @param initialBudget
+	 *            the {@link #initialBudget}
+	 * @param reductionFactor
+	 *            the {@link #reductionFactor}
+	 * @param executor
+	 *            the {@link #executor}
+	 */
+	public SwarmTuner(double targetFitness, long initialBudget, int reductionFactor, ExecutorService executor) {
+		if (initialBudget <= 0) {
+			throw new IllegalArgumentException("Initial budget must be positive but was " + initialBudget);
+		}
+		if (reductionFactor < 2) {
+			throw new IllegalArgumentException("Reduction factor must be at least 2 but was " + reductionFactor);
+		}
+		this.targetFitness = targetFitness;
+		this.initialBudget = initialBudget;
+		this.reductionFactor = reductionFactor;
+		this.executor = executor;
+	}
+
+	/**
+	 * Adds a candidate to the race. The configuration is copied, so later
+	 * changes to it don't affect the race.
+	 *
+	 * @param configuration
+	 *            the configuration to race, either a
+	 *            {@link SwarmConfiguration} or a
+	 *            {@link MultiswarmConfiguration}
+	 */
+	public void addCandidate(SwarmConfiguration configuration) {
+		SwarmConfiguration copy;
+		if (configuration instanceof MultiswarmConfiguration) {
+			copy = new MultiswarmConfiguration((MultiswarmConfiguration) configuration);
+		} else if (configuration.getClass() == SwarmConfiguration.class) {
+			copy = new SwarmConfiguration(configuration);
+		} else {
+			throw new IllegalArgumentException("Unsupported configuration " + configuration.getClass().getName());
+		}
+		candidates.add(new Candidate(copy, Swarm.getRandomSource(configuration).split()));
+	}
+
+	/**
+	 * Adds many candidates to the race, which differ from a base
+	 * configuration only by their weights, drawn uniformly at random: the
+	 * inertia factor between 0.4 and 0.9, the cognitive and social weights
+	 * between 0.5 and 2.5 and, for a {@link MultiswarmConfiguration}, the
+	 * global weight between 0 and 1.5.
+	 *
+	 * @param base
+	 *            the configuration from which the candidates are copied
+	 * @param count
+	 *            the number of candidates to add
+	 * @param random
+	 *            the random generator used to draw the weights
+	 */
+	public void addRandomCandidates(SwarmConfiguration base, int count, Random random) {
+		for (int i = 0; i < count; i++) {
+			SwarmConfiguration configuration = base instanceof MultiswarmConfiguration
+					? new MultiswarmConfiguration((MultiswarmConfiguration) base) : new SwarmConfiguration(base);
+			configuration.setInertiaFactor(0.4 + random.nextDouble() * 0.5);
+			configuration.setCognitiveWeight(0.5 + random.nextDouble() * 2);
+			configuration.setSocialWeight(0.5 + random.nextDouble() * 2);
+			if (configuration instanceof MultiswarmConfiguration) {
+				((MultiswarmConfiguration) configuration).setGlobalWeight(random.nextDouble() * 1.5);
+			}
+			addCandidate(configuration);
+		}
+	}
+
+	/**
+	 * Runs the race. If the current thread is interrupted, the race stops
+	 * and the best candidate so far is returned.
+	 *
+	 * @return the result of the winning candidate
+	 */
+	public TuningResult tune() {
+		if (candidates.isEmpty()) {
+			throw new IllegalStateException("No candidates to tune");
+		}
+		List<Candidate> survivors = new ArrayList<Candidate>(candidates);
+		long budget = initialBudget;
+		long bestEvaluationsToTarget = Long.MAX_VALUE;
+		while (true) {
+			long roundBudget = Math.min(budget, bestEvaluationsToTarget);
+			for (Candidate candidate : survivors) {
+				candidate.budget = roundBudget;
+			}
+			boolean interrupted = !run(survivors);
+
+			Collections.sort(survivors, CANDIDATE_RANKING);
+			Candidate best = survivors.get(0);
+			if (best.evaluationsToTarget >= 0) {
+				bestEvaluationsToTarget = best.evaluationsToTarget;
+			}
+			if (interrupted || survivors.size() == 1) {
+				break;
+			}
+			int kept = (survivors.size() + reductionFactor - 1) / reductionFactor;
+			survivors = new ArrayList<Candidate>(survivors.subList(0, kept));
+			budget = budget > Long.MAX_VALUE / reductionFactor ? Long.MAX_VALUE : budget * reductionFactor;
+		}
+
+		Candidate winner = survivors.get(0);
+		return new TuningResult(winner.configuration, winner.evaluationsToTarget, winner.evaluations,
+				winner.algorithm.getBestFitness());
+	}
+
+	/**
+	 * Runs a round of the race, concurrently if an {@link #executor} has been
+	 * specified.
+	 *
+	 * @param survivors
+	 *            the candidates to run
+	 * @return false if the current thread has been interrupted, true
+	 *         otherwise
+	 */
+	private boolean run(List<Candidate> survivors) {
+		if (executor == null) {
+			for (Candidate candidate : survivors) {
+				if (Thread.currentThread().isInterrupted()) {
+					return false;
+				}
+				candidate.call();
+			}
+			return true;
+		}
+		try {
+			for (Future<Void> future : executor.invokeAll(survivors)) {
+				future.get();
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException("Error while running a candidate", e.getCause());
+		}
+	}
+
+	/**
+	 * A configuration raced along with its run.
+	 *
+	 * @author Donato Rimenti
+	 *
+	 */
+	private class Candidate implements Callable<Void>, SwarmListener {
+
+		/**
+		 * The configuration of this candidate.
+		 */
+		private final SwarmConfiguration configuration;
+
+		/**
+		 * The random source of the run of this candidate.
+		 */
+		private final RandomSource randomSource;
+
+		/**
+		 * The run of this candidate, created on the first round.
+		 */
+		private OptimizationAlgorithm algorithm;
+
+		/**
+		 * Number of evaluations this candidate can reach in the current
+		 * round.
+		 */
+		private long budget;
+
+		/**
+		 * Number of evaluations spent by this candidate so far.
+		 */
+		private long evaluations;
+
+		/**
+		 * Number of evaluations after which this candidate reached the target
+		 * or -1 if it hasn't reached it yet.
+		 */
+		private long evaluationsToTarget = -1;
+
+		/**
+		 * Instantiates a new Candidate.
+		 *
+		 * @param configuration
+		 *            the {@link #configuration}
+		 * @param randomSource
+		 *            the {@link #randomSource}
+		 */
+		Candidate(SwarmConfiguration configuration, RandomSource randomSource) {
+			this.configuration = configuration;
+			this.randomSource = randomSource;
+		}
+
+		/**
+		 * Runs this candidate until it reaches the target or its budget.
+		 *
+		 * @return null
+		 */
+		@Override
+		public Void call() {
+			if (algorithm == null) {
+				// The run gets its own random source and a listener which
+				// counts its evaluations.
+				SwarmConfiguration runConfiguration = configuration instanceof MultiswarmConfiguration
+						? new MultiswarmConfiguration((MultiswarmConfiguration) configuration)
+						: new SwarmConfiguration(configuration);
+				runConfiguration.setRandomSource(randomSource);
+				runConfiguration.setListener(this);
+				algorithm = runConfiguration instanceof MultiswarmConfiguration
+						? new Multiswarm((MultiswarmConfiguration) runConfiguration) : new Swarm(runConfiguration);
+			}
+			while (evaluationsToTarget < 0 && evaluations < budget && !Thread.currentThread().isInterrupted()) {
+				algorithm.mainLoop();
+			}
+			return null;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see
+		 * co.aurasphere.algo.swarm.SwarmListener#iterationCompleted(co.aurasphere
+		 * .algo.swarm.SwarmIterationStats)
+		 */
+		@Override
+		public void iterationCompleted(SwarmIterationStats stats) {
+			evaluations += stats.getEvaluations();
+			if (evaluationsToTarget < 0 && stats.getBestFitness() >= targetFitness) {
+				evaluationsToTarget = evaluations;
+			}
+		}
+	}
+
+}
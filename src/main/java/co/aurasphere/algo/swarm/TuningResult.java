@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+/**
+ * Outcome of a {@link SwarmTuner} race for a configuration.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class TuningResult {
+
+	/**
+	 * The configuration raced.
+	 */
+	private final SwarmConfiguration configuration;
+
+	/**
+	 * Number of evaluations after which the target fitness has been reached
+	 * or -1 if it hasn't been reached.
+	 */
+	private final long evaluationsToTarget;
+
+	/**
+	 * Number of evaluations spent on the configuration.
+	 */
+	private final long evaluations;
+
+	/**
+	 * The best fitness reached with the configuration.
+	 */
+	private final double bestFitness;
+
+	/**
+	 * Instantiates a new TuningResult.
+	 *
+	 * @param configuration
+	 *            the {@link #configuration}
+	 * @param evaluationsToTarget
+	 *            the {@link #evaluationsToTarget}
+	 * @param evaluations
+	 *            the {@link #evaluations}
+	 * @param bestFitness
+	 *            the {@link #bestFitness}
+	 */
+	public TuningResult(SwarmConfiguration configuration, long evaluationsToTarget, long evaluations,
+			double bestFitness) {
+		this.configuration = configuration;
+		this.evaluationsToTarget = evaluationsToTarget;
+		this.evaluations = evaluations;
+		this.bestFitness = bestFitness;
+	}
+
+	/**
+	 * Checks if the target fitness has been reached.
+	 *
+	 * @return true if the target fitness has been reached, false otherwise
+	 */
+	public boolean isTargetReached() {
+		return evaluationsToTarget >= 0;
+	}
+
+	/**
+	 * Gets the {@link #configuration}.
+	 *
+	 * @return the {@link #configuration}
+	 */
+	public SwarmConfiguration getConfiguration() {
+		return configuration;
+	}
+
+	/**
+	 * Gets the {@link #evaluationsToTarget}.
+	 *
+	 * @return the {@link #evaluationsToTarget}
+	 */
+	public long getEvaluationsToTarget() {
+		return evaluationsToTarget;
+	}
+
+	/**
+	 * Gets the {@link #evaluations}.
+	 *
+	 * @return the {@link #evaluations}
+	 */
+	public long getEvaluations() {
+		return evaluations;
+	}
+
+	/**
+	 * Gets the {@link #bestFitness}.
+	 *
+	 * @return the {@link #bestFitness}
+	 */
+	public double getBestFitness() {
+		return bestFitness;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "TuningResult [configuration=" + configuration + ", evaluationsToTarget=" + evaluationsToTarget
+				+ ", evaluations=" + evaluations + ", bestFitness=" + bestFitness + "]";
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link ParticleUpdateKernel} which updates as many coordinates at once as
+ * the lanes of the widest vector supported by the CPU, using the incubating
+ * Vector API. Since the random coefficients are grouped by term, the
+ * coefficients of consecutive axes are loaded as a contiguous vector like the
+ * coordinates. The vector operations are the same and in the same order as
+ * the scalar ones, with no fused multiply-add, so the results are exactly the
+ * same as the {@link ScalarParticleUpdateKernel}. The coordinates which don't
+ * fill a whole vector are updated by the scalar kernel.<br>
+ * <br>
+ * This class is only compiled when building on Java 17 or later and needs the
+ * <code>jdk.incubator.vector</code> module to be added to the runtime.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+final class VectorParticleUpdateKernel implements ParticleUpdateKernel {
+
+	/**
+	 * The widest vector shape supported by the CPU.
+	 */
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/**
+	 * Number of lanes of a vector.
+	 */
+	private static final int LANES = SPECIES.length();
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.swarm.ParticleUpdateKernel#update(double[],
+	 * double[], double[], double[], double[], double[], int, int, int, double,
+	 * double, double, double)
+	 */
+	@Override
+	public void update(double[] positions, double[] speeds, double[] bestPositions, double[] swarmBestPosition,
+			double[] globalBestPosition, double[] coefficients, int offset, int coefficientsOffset, int dimensions,
+			double inertiaFactor, double cognitiveWeight, double socialWeight, double globalWeight) {
+		int bound = SPECIES.loopBound(dimensions);
+		int cognitiveOffset = coefficientsOffset;
+		int socialOffset = coefficientsOffset + dimensions;
+		int d = 0;
+		if (globalBestPosition == null) {
+			for (; d < bound; d += LANES) {
+				int index = offset + d;
+				DoubleVector speed = DoubleVector.fromArray(SPECIES, speeds, index);
+				DoubleVector position = DoubleVector.fromArray(SPECIES, positions, index).add(speed);
+				position.intoArray(positions, index);
+				DoubleVector cognitive = DoubleVector.fromArray(SPECIES, coefficients, cognitiveOffset + d)
+						.mul(cognitiveWeight).mul(DoubleVector.fromArray(SPECIES, bestPositions, index).sub(position));
+				DoubleVector social = DoubleVector.fromArray(SPECIES, coefficients, socialOffset + d)
+						.mul(socialWeight).mul(DoubleVector.fromArray(SPECIES, swarmBestPosition, d).sub(position));
+				speed.mul(inertiaFactor).add(cognitive).add(social).intoArray(speeds, index);
+			}
+		} else {
+			int globalOffset = socialOffset + dimensions;
+			for (; d < bound; d += LANES) {
+				int index = offset + d;
+				DoubleVector speed = DoubleVector.fromArray(SPECIES, speeds, index);
+				DoubleVector position = DoubleVector.fromArray(SPECIES, positions, index).add(speed);
+				position.intoArray(positions, index);
+				DoubleVector cognitive = DoubleVector.fromArray(SPECIES, coefficients, cognitiveOffset + d)
+						.mul(cognitiveWeight).mul(DoubleVector.fromArray(SPECIES, bestPositions, index).sub(position));
+				DoubleVector social = DoubleVector.fromArray(SPECIES, coefficients, socialOffset + d)
+						.mul(socialWeight).mul(DoubleVector.fromArray(SPECIES, swarmBestPosition, d).sub(position));
+				DoubleVector global = DoubleVector.fromArray(SPECIES, coefficients, globalOffset + d)
+						.mul(globalWeight).mul(DoubleVector.fromArray(SPECIES, globalBestPosition, d).sub(position));
+				speed.mul(inertiaFactor).add(cognitive).add(social).add(global).intoArray(speeds, index);
+			}
+		}
+
+		// Updates the remaining coordinates one at a time.
+		ScalarParticleUpdateKernel.update(positions, speeds, bestPositions, swarmBestPosition, globalBestPosition,
+				coefficients, offset, coefficientsOffset, dimensions, d, dimensions, inertiaFactor, cognitiveWeight,
+				socialWeight, globalWeight);
+	}
+
+}
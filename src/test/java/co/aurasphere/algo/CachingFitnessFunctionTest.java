@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link CachingFitnessFunction}.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class CachingFitnessFunctionTest {
+
+	/**
+	 * Tests that positions within the same grid cell are evaluated only once.
+	 */
+	@Test
+	public void testQuantization() {
+		final AtomicInteger evaluations = new AtomicInteger();
+		CachingFitnessFunction cache = new CachingFitnessFunction(new FitnessFunction() {
+
+			@Override
+			public double getFitness(double[] variables) {
+				evaluations.incrementAndGet();
+				return Math.floor(variables[0]) + Math.floor(variables[1]);
+			}
+		}, new double[] { 1, 1 }, 16);
+
+		Assert.assertEquals(3, cache.getFitness(new double[] { 1.2, 2.7 }), 0);
+		Assert.assertEquals(3, cache.getFitness(new double[] { 1.9, 2.1 }), 0);
+		Assert.assertEquals(-1, cache.getFitness(new double[] { -0.5, 0.5 }), 0);
+		Assert.assertEquals(-1, cache.getFitness(new double[] { -0.1, 0.9 }), 0);
+
+		Assert.assertEquals(2, evaluations.get());
+		Assert.assertEquals(2, cache.getHitCount());
+		Assert.assertEquals(2, cache.getMissCount());
+		Assert.assertEquals(0.5, cache.getHitRate(), 0);
+	}
+
+	/**
+	 * Tests that the misses of a block are delegated at once to a batch
+	 * function and that the candidates within the same cell share the same
+	 * fitness.
+	 */
+	@Test
+	public void testBatchEvaluation() {
+		final AtomicInteger blocks = new AtomicInteger();
+		final AtomicInteger evaluations = new AtomicInteger();
+		CachingFitnessFunction cache = new CachingFitnessFunction(new BatchFitnessFunction() {
+
+			@Override
+			public void getFitness(DoubleBuffer variables, int dimensions, int stride, double[] fitness, int from,
+					int to) {
+				blocks.incrementAndGet();
+				for (int i = from; i < to; i++) {
+					evaluations.incrementAndGet();
+					fitness[i] = variables.get(i * stride) + variables.get(i * stride + 1);
+				}
+			}
+		}, new double[] { 1, 1 }, 16);
+
+		double[] block = { 0, 0, 1.2, 2.5, 5, 5, 1.8, 2.9, 3, 3 };
+		double[] fitness = new double[5];
+		cache.getFitness(DoubleBuffer.wrap(block), 2, 2, fitness, 1, 4);
+		Assert.assertEquals(1, blocks.get());
+		Assert.assertEquals(3, evaluations.get());
+		Assert.assertArrayEquals(new double[] { 0, 3.7, 10, 3.7, 0 }, fitness, 1e-12);
+
+		fitness = new double[5];
+		cache.getFitness(DoubleBuffer.wrap(block), 2, 2, fitness, 0, 5);
+		Assert.assertEquals(2, blocks.get());
+		Assert.assertEquals(5, evaluations.get());
+		Assert.assertArrayEquals(new double[] { 0, 3.7, 10, 3.7, 6 }, fitness, 1e-12);
+		Assert.assertEquals(3, cache.getHitCount());
+	}
+
+	/**
+	 * Tests that the cache never holds more entries than its capacity.
+	 */
+	@Test
+	public void testEviction() {
+		CachingFitnessFunction cache = new CachingFitnessFunction(new FitnessFunction() {
+
+			@Override
+			public double getFitness(double[] variables) {
+				return variables[0];
+			}
+		}, new double[] { 1 }, 8);
+
+		for (int i = 0; i < 100; i++) {
+			Assert.assertEquals(i, cache.getFitness(new double[] { i }), 0);
+		}
+
+		Assert.assertEquals(8, cache.getCapacity());
+		Assert.assertEquals(100, cache.getMissCount());
+		Assert.assertEquals(100 - cache.getCapacity(), cache.getEvictionCount());
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+/**
+ * Fake optimization algorithm used for testing, whose best fitness is the
+ * number of iterations executed until it reaches a plateau.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class CountingAlgorithm implements OptimizationAlgorithm {
+
+	/**
+	 * Number of iterations executed.
+	 */
+	private long iterations;
+
+	/**
+	 * Number of iterations after which the fitness stops improving.
+	 */
+	private long plateau;
+
+	/**
+	 * Instantiates a new CountingAlgorithm.
+	 *
+	 * @param plateau
+	 *            the {@link #plateau}
+	 */
+	public CountingAlgorithm(long plateau) {
+		this.plateau = plateau;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.IterativeAlgorithm#mainLoop()
+	 */
+	@Override
+	public void mainLoop() {
+		iterations++;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.OptimizationAlgorithm#getBestFitness()
+	 */
+	@Override
+	public double getBestFitness() {
+		return Math.min(iterations, plateau);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.OptimizationAlgorithm#getBestPosition()
+	 */
+	@Override
+	public double[] getBestPosition() {
+		return new double[] { getBestFitness() };
+	}
+
+	/**
+	 * Gets the {@link #iterations}.
+	 *
+	 * @return the {@link #iterations}
+	 */
+	public long getIterations() {
+		return iterations;
+	}
+
+}
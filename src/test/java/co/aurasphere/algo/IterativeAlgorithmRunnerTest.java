@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link IterativeAlgorithmRunner}.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class IterativeAlgorithmRunnerTest {
+
+	/**
+	 * Tests that a run stops after the maximum number of iterations.
+	 */
+	@Test
+	public void testMaxIterations() {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setMaxIterations(50);
+		RunSummary summary = new IterativeAlgorithmRunner(criteria).run(new CountingAlgorithm(100));
+
+		Assert.assertEquals(StopReason.MAX_ITERATIONS, summary.getStopReason());
+		Assert.assertEquals(50, summary.getIterations());
+		Assert.assertEquals(50, summary.getBestFitness(), 0);
+	}
+
+	/**
+	 * Tests that a run stops as soon as the target fitness is reached.
+	 */
+	@Test
+	public void testTargetFitness() {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setMaxIterations(1000);
+		criteria.setTargetFitness(20);
+		RunSummary summary = new IterativeAlgorithmRunner(criteria).run(new CountingAlgorithm(100));
+
+		Assert.assertEquals(StopReason.TARGET_FITNESS, summary.getStopReason());
+		Assert.assertEquals(20, summary.getIterations());
+	}
+
+	/**
+	 * Tests that a run stops when the fitness doesn't improve for too long.
+	 */
+	@Test
+	public void testStagnation() {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setMaxIterations(1000);
+		criteria.setStagnationIterations(10);
+		RunSummary summary = new IterativeAlgorithmRunner(criteria).run(new CountingAlgorithm(30));
+
+		Assert.assertEquals(StopReason.STAGNATION, summary.getStopReason());
+		Assert.assertEquals(30, summary.getLastImprovementIteration());
+		Assert.assertEquals(40, summary.getIterations());
+	}
+
+	/**
+	 * Tests that improvements smaller than the epsilon count as stagnation.
+	 */
+	@Test
+	public void testStagnationEpsilon() {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setMaxIterations(1000);
+		criteria.setStagnationIterations(5);
+		criteria.setStagnationEpsilon(10);
+		RunSummary summary = new IterativeAlgorithmRunner(criteria).run(new CountingAlgorithm(100));
+
+		Assert.assertEquals(StopReason.STAGNATION, summary.getStopReason());
+		Assert.assertEquals(1, summary.getLastImprovementIteration());
+		Assert.assertEquals(6, summary.getIterations());
+	}
+
+	/**
+	 * Tests that a run can be cancelled from another thread.
+	 */
+	@Test(timeout = 10000)
+	public void testCancellation() throws InterruptedException {
+		final IterativeAlgorithmRunner runner = new IterativeAlgorithmRunner(new StopCriteria());
+		Thread canceller = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					return;
+				}
+				runner.cancel();
+			}
+		};
+		canceller.start();
+		RunSummary summary = runner.run(new CountingAlgorithm(Long.MAX_VALUE));
+		canceller.join();
+
+		Assert.assertEquals(StopReason.CANCELLED, summary.getStopReason());
+	}
+
+	/**
+	 * Tests that a run stops when the time budget is used up.
+	 */
+	@Test(timeout = 10000)
+	public void testTimeBudget() {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setTimeBudgetMillis(50);
+		RunSummary summary = new IterativeAlgorithmRunner(criteria).run(new CountingAlgorithm(Long.MAX_VALUE));
+
+		Assert.assertEquals(StopReason.TIME_BUDGET, summary.getStopReason());
+		Assert.assertTrue(summary.getElapsedNanos() >= 50000000);
+	}
+
+}
@@ -47,6 +47,19 @@ public class AStarTest extends BasePathfindingTest {
 		printSolution(solution, 0, 11);
 	}
 
+	/**
+	 * Tests the algorithm with the octile distance and a possible dataset.
+	 */
+	@Test
+	public void testAStarOctile() {
+		AStar solver = new AStar(Metrics2D.OCTILE_DISTANCE);
+		Node solution = mainTestPossible(solver);
+
+		// Checks that we found a valid solution.
+		Assert.assertNotNull(solution);
+		printSolution(solution, 0, 11);
+	}
+
 	/**
 	 * Tests the algorithm with a static weight and a possible dataset.
 	 */
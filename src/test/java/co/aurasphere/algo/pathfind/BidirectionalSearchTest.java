@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link BidirectionalAStar} and {@link BidirectionalDijkistra}.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class BidirectionalSearchTest extends BasePathfindingTest {
+
+	/**
+	 * Tests the algorithms with a possible dataset.
+	 */
+	@Test
+	public void testBidirectionalSearch() {
+		for (PathFinder solver : new PathFinder[] { new BidirectionalAStar(Metrics2D.CHEBYSHEV_DISTANCE),
+				new BidirectionalDijkistra() }) {
+			Node solution = mainTestPossible(solver);
+
+			// Checks that we found a valid solution.
+			Assert.assertNotNull(solution);
+			Assert.assertEquals(new Simple2DNode(5, 4), solution);
+			Node2D current = (Node2D) solution;
+			while (current.getParent() != null) {
+				Node2D parent = (Node2D) current.getParent();
+				Assert.assertEquals(1, Math.max(Math.abs(current.x - parent.x), Math.abs(current.y - parent.y)));
+				current = parent;
+			}
+			Assert.assertEquals(new Simple2DNode(1, 1), current);
+		}
+	}
+
+	/**
+	 * Tests the algorithms with an impossible dataset.
+	 */
+	@Test
+	public void testImpossibleBidirectionalSearch() {
+		for (PathFinder solver : new PathFinder[] { new BidirectionalAStar(Metrics2D.CHEBYSHEV_DISTANCE),
+				new BidirectionalDijkistra() }) {
+			Node solution = mainTestImpossible(solver);
+
+			// Checks that we found a valid solution.
+			Assert.assertNull(solution);
+		}
+	}
+
+	/**
+	 * Tests that on random weighted graphs the paths found, with the searches
+	 * on one thread or two, are as short as the ones found by a
+	 * unidirectional search.
+	 */
+	@Test
+	public void testRandomGraphs() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Random random = new Random(42);
+			Weighted2DNode[] nodes = Weighted2DNode.randomGraph(random, 40, 0.7);
+			PathFinder[] solvers = { new BidirectionalAStar(Metrics2D.EUCLIDEAN_DISTANCE),
+					new BidirectionalAStar(Metrics2D.EUCLIDEAN_DISTANCE, executor), new BidirectionalDijkistra(),
+					new BidirectionalDijkistra(executor) };
+			for (int i = 0; i < 100; i++) {
+				Weighted2DNode start = nodes[random.nextInt(nodes.length)];
+				Weighted2DNode goal = nodes[random.nextInt(nodes.length)];
+				double expected = shortestPathCost(start, goal);
+
+				for (PathFinder solver : solvers) {
+					Node solution = solver.findPath(start, goal);
+					if (expected == Double.POSITIVE_INFINITY) {
+						Assert.assertNull(solution);
+						continue;
+					}
+					Assert.assertSame(goal, solution);
+					double cost = 0;
+					Node current = solution;
+					while (current.getParent() != null) {
+						cost += current.getParent().cost(current);
+						current = current.getParent();
+					}
+					Assert.assertSame(start, current);
+					Assert.assertEquals(expected, cost, 1e-9);
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Computes the cost of the shortest path between two nodes with a
+	 * unidirectional Dijkistra search.
+	 * 
+	 * @param start
+	 *            the starting node
+	 * @param goal
+	 *            the ending node
+	 * @return the cost of the shortest path or
+	 *         {@link Double#POSITIVE_INFINITY} if no path exists
+	 */
+	private static double shortestPathCost(Node start, Node goal) {
+		Map<Node, Double> costs = new HashMap<Node, Double>();
+		PriorityQueue<Object[]> openList = new PriorityQueue<Object[]>(11, new Comparator<Object[]>() {
+
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see java.util.Comparator#compare(java.lang.Object,
+			 * java.lang.Object)
+			 */
+			@Override
+			public int compare(Object[] o1, Object[] o2) {
+				return Double.compare((Double) o1[1], (Double) o2[1]);
+			}
+		});
+		costs.put(start, 0.0);
+		openList.add(new Object[] { start, 0.0 });
+		while (!openList.isEmpty()) {
+			Object[] entry = openList.poll();
+			Node node = (Node) entry[0];
+			double cost = (Double) entry[1];
+			if (cost > costs.get(node)) {
+				continue;
+			}
+			if (node.equals(goal)) {
+				return cost;
+			}
+			for (Node successor : node.getAdjacentNodes()) {
+				double successorCost = cost + node.cost(successor);
+				Double oldCost = costs.get(successor);
+				if (oldCost == null || successorCost < oldCost) {
+					costs.put(successor, successorCost);
+					openList.add(new Object[] { successor, successorCost });
+				}
+			}
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
+}
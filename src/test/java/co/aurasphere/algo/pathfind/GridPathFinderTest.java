@@ -0,0 +1,274 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link GridPathFinder}.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class GridPathFinderTest extends BasePathfindingTest {
+
+	/**
+	 * Tests the algorithm through the {@link PathFinder} interface with a
+	 * possible dataset.
+	 */
+	@Test
+	public void testGridPathFinder() {
+		GridPathFinder solver = new GridPathFinder(new GridMap(obstaclesSetOne));
+		Node solution = mainTestPossible(solver);
+
+		// Checks that we found a valid solution.
+		Assert.assertNotNull(solution);
+		Assert.assertEquals(shortestPathCost(solver.getMap(), true, 1, 1, 5, 4), solver.getPathCost(), 1e-9);
+		double cost = 0;
+		Node2D current = (Node2D) solution;
+		while (current.getParent() != null) {
+			Node2D parent = (Node2D) current.getParent();
+			Assert.assertTrue(solver.getMap().isWalkable(current.x, current.y));
+			Assert.assertEquals(1, Math.max(Math.abs(current.x - parent.x), Math.abs(current.y - parent.y)));
+			cost += current.distance(parent);
+			current = parent;
+		}
+		Assert.assertEquals(new Simple2DNode(1, 1), current);
+		Assert.assertEquals(solver.getPathCost(), cost, 1e-9);
+	}
+
+	/**
+	 * Tests the algorithm through the {@link PathFinder} interface with an
+	 * impossible dataset.
+	 */
+	@Test
+	public void testImpossibleGridPathFinder() {
+		GridPathFinder solver = new GridPathFinder(new GridMap(obstaclesImpossible));
+		Node solution = mainTestImpossible(solver);
+
+		// Checks that we found a valid solution.
+		Assert.assertNull(solution);
+		Assert.assertTrue(Double.isNaN(solver.getPathCost()));
+	}
+
+	/**
+	 * Tests that the nodes along a path found through the {@link PathFinder}
+	 * interface link to the cells reachable from them, with the real cost of
+	 * the moves, so that another algorithm can search from them.
+	 */
+	@Test
+	public void testPathNodes() {
+		GridPathFinder solver = new GridPathFinder(new GridMap(obstaclesSetOne));
+		GridMap map = solver.getMap();
+		Simple2DNode start = new Simple2DNode(1, 1);
+		Node2D node = (Node2D) solver.findPath(start, new Simple2DNode(5, 4)).getParent();
+		Assert.assertEquals(shortestPathCost(map, true, 1, 1, node.x, node.y), node.cost(start), 1e-9);
+		Assert.assertEquals(shortestPathCost(map, true, node.x, node.y, 9, 9), node.cost(new Simple2DNode(9, 9)),
+				1e-9);
+
+		// Checks the adjacent nodes against the map.
+		int expectedNodes = 0;
+		for (int move = 0; move < GridPathFinder.DX.length; move++) {
+			int x = node.x + GridPathFinder.DX[move];
+			int y = node.y + GridPathFinder.DY[move];
+			if (map.isWalkable(x, y) && map.isWalkable(x, node.y) && map.isWalkable(node.x, y)) {
+				expectedNodes++;
+			}
+		}
+		List<Node> adjacentNodes = node.getAdjacentNodes();
+		Assert.assertEquals(expectedNodes, adjacentNodes.size());
+		for (Node adjacentNode : adjacentNodes) {
+			Node2D adjacent2D = (Node2D) adjacentNode;
+			Assert.assertTrue(map.isWalkable(adjacent2D.x, adjacent2D.y));
+			Assert.assertSame(node, adjacentNode.getParent());
+			Assert.assertEquals(node.distance(adjacent2D), node.cost(adjacentNode), 1e-9);
+			Assert.assertEquals(node.distance(adjacent2D), adjacentNode.cost(node), 1e-9);
+		}
+
+		// Another algorithm finds a path made of single moves from the node.
+		// The goal returned is linked to the node found for its cell.
+		Node goal = new AStar(Metrics2D.OCTILE_DISTANCE).findPath(node, new Simple2DNode(9, 9));
+		Assert.assertNotNull(goal);
+		Node2D current = (Node2D) goal.getParent();
+		Assert.assertEquals(9, current.x);
+		Assert.assertEquals(9, current.y);
+		while (current != node) {
+			Node2D parent = (Node2D) current.getParent();
+			Assert.assertTrue(map.isWalkable(current.x, current.y));
+			Assert.assertEquals(1, Math.max(Math.abs(current.x - parent.x), Math.abs(current.y - parent.y)));
+			current = parent;
+		}
+	}
+
+	/**
+	 * Tests that the paths found on random maps are valid and as short as the
+	 * ones found by an exhaustive search, while the same finder is reused for
+	 * many queries.
+	 */
+	@Test
+	public void testRandomMaps() {
+		Random random = new Random(42);
+		for (boolean diagonalMovement : new boolean[] { true, false }) {
+			GridMap map = randomMap(random, 40, 30, 0.3);
+			GridPathFinder solver = new GridPathFinder(map, diagonalMovement);
+			for (int i = 0; i < 50; i++) {
+				int startX = random.nextInt(map.getWidth());
+				int startY = random.nextInt(map.getHeight());
+				int goalX = random.nextInt(map.getWidth());
+				int goalY = random.nextInt(map.getHeight());
+				double expected = shortestPathCost(map, diagonalMovement, startX, startY, goalX, goalY);
+				int[] path = solver.findPath(startX, startY, goalX, goalY);
+
+				if (expected == Double.POSITIVE_INFINITY) {
+					Assert.assertNull(path);
+					continue;
+				}
+				Assert.assertEquals(expected, solver.getPathCost(), 1e-9);
+				Assert.assertEquals(map.getCell(startX, startY), path[0]);
+				Assert.assertEquals(map.getCell(goalX, goalY), path[path.length - 1]);
+				assertValidPath(map, diagonalMovement, path, expected);
+			}
+		}
+	}
+
+	/**
+	 * Generates a map with random obstacles.
+	 * 
+	 * @param random
+	 *            the random generator
+	 * @param width
+	 *            the width of the map
+	 * @param height
+	 *            the height of the map
+	 * @param density
+	 *            the probability of each cell to be blocked
+	 * @return the generated map
+	 */
+	static GridMap randomMap(Random random, int width, int height, double density) {
+		GridMap map = new GridMap(width, height);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				map.setBlocked(x, y, random.nextDouble() < density);
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Checks that each step of a path is a legal move and that the path has
+	 * the expected cost.
+	 * 
+	 * @param map
+	 *            the map of the path
+	 * @param diagonalMovement
+	 *            whether diagonal moves are allowed
+	 * @param path
+	 *            the cells along the path
+	 * @param expectedCost
+	 *            the expected cost of the path
+	 */
+	static void assertValidPath(GridMap map, boolean diagonalMovement, int[] path, double expectedCost) {
+		double cost = 0;
+		for (int i = 1; i < path.length; i++) {
+			int x = map.getX(path[i - 1]);
+			int y = map.getY(path[i - 1]);
+			int nextX = map.getX(path[i]);
+			int nextY = map.getY(path[i]);
+			Assert.assertTrue(map.isWalkable(nextX, nextY));
+			int dx = Math.abs(nextX - x);
+			int dy = Math.abs(nextY - y);
+			Assert.assertEquals(1, Math.max(dx, dy));
+			if (dx + dy == 2) {
+				Assert.assertTrue(diagonalMovement);
+				Assert.assertTrue(map.isWalkable(nextX, y) && map.isWalkable(x, nextY));
+				cost += GridPathFinder.DIAGONAL_COST;
+			} else {
+				cost += 1;
+			}
+		}
+		Assert.assertEquals(expectedCost, cost, 1e-9);
+	}
+
+	/**
+	 * Computes the cost of the shortest path between two cells by relaxing
+	 * the costs of all the cells until none of them changes.
+	 * 
+	 * @param map
+	 *            the map of the path
+	 * @param diagonalMovement
+	 *            whether diagonal moves are allowed
+	 * @param startX
+	 *            the column of the starting cell
+	 * @param startY
+	 *            the row of the starting cell
+	 * @param goalX
+	 *            the column of the goal cell
+	 * @param goalY
+	 *            the row of the goal cell
+	 * @return the cost of the shortest path or
+	 *         {@link Double#POSITIVE_INFINITY} if no path exists
+	 */
+	static double shortestPathCost(GridMap map, boolean diagonalMovement, int startX, int startY, int goalX,
+			int goalY) {
+		if (!map.isWalkable(startX, startY) || !map.isWalkable(goalX, goalY)) {
+			return Double.POSITIVE_INFINITY;
+		}
+		double[] costs = new double[map.size()];
+		Arrays.fill(costs, Double.POSITIVE_INFINITY);
+		costs[map.getCell(startX, startY)] = 0;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int cell = 0; cell < map.size(); cell++) {
+				int x = map.getX(cell);
+				int y = map.getY(cell);
+				if (costs[cell] == Double.POSITIVE_INFINITY) {
+					continue;
+				}
+				for (int dx = -1; dx <= 1; dx++) {
+					for (int dy = -1; dy <= 1; dy++) {
+						boolean diagonal = dx != 0 && dy != 0;
+						if ((dx == 0 && dy == 0) || !map.isWalkable(x + dx, y + dy) || (diagonal
+								&& (!diagonalMovement || !map.isWalkable(x + dx, y) || !map.isWalkable(x, y + dy)))) {
+							continue;
+						}
+						int next = map.getCell(x + dx, y + dy);
+						double cost = costs[cell] + (diagonal ? GridPathFinder.DIAGONAL_COST : 1);
+						if (cost < costs[next] - 1e-9) {
+							costs[next] = cost;
+							changed = true;
+						}
+					}
+				}
+			}
+		}
+		return costs[map.getCell(goalX, goalY)];
+	}
+
+}
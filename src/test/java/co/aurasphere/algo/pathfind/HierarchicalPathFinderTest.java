@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link HierarchicalPathFinder}.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class HierarchicalPathFinderTest extends BasePathfindingTest {
+
+	/**
+	 * Tests the algorithm through the {@link PathFinder} interface with a
+	 * possible dataset.
+	 */
+	@Test
+	public void testHierarchicalPathFinder() {
+		HierarchicalPathFinder solver = new HierarchicalPathFinder(new GridMap(obstaclesSetOne), 3);
+		Node solution = mainTestPossible(solver);
+
+		// Checks that we found a valid solution.
+		Assert.assertNotNull(solution);
+		Node current = solution;
+		while (current.getParent() != null) {
+			current = current.getParent();
+		}
+		Assert.assertEquals(new Simple2DNode(1, 1), current);
+	}
+
+	/**
+	 * Tests the algorithm through the {@link PathFinder} interface with an
+	 * impossible dataset.
+	 */
+	@Test
+	public void testImpossibleHierarchicalPathFinder() {
+		HierarchicalPathFinder solver = new HierarchicalPathFinder(new GridMap(obstaclesImpossible), 3);
+		Node solution = mainTestImpossible(solver);
+
+		// Checks that we found a valid solution.
+		Assert.assertNull(solution);
+	}
+
+	/**
+	 * Tests that on random maps a path is found whenever one exists and that
+	 * it's valid and close to the shortest one.
+	 */
+	@Test
+	public void testRandomMaps() {
+		Random random = new Random(42);
+		for (double density : new double[] { 0.1, 0.3 }) {
+			GridMap map = GridPathFinderTest.randomMap(random, 95, 73, density);
+			GridPathFinder reference = new GridPathFinder(map);
+			HierarchicalPathFinder solver = new HierarchicalPathFinder(map, 10);
+			double totalCost = 0;
+			double totalShortestCost = 0;
+			for (int i = 0; i < 300; i++) {
+				int startX = random.nextInt(map.getWidth());
+				int startY = random.nextInt(map.getHeight());
+				int goalX = random.nextInt(map.getWidth());
+				int goalY = random.nextInt(map.getHeight());
+				int[] expected = reference.findPath(startX, startY, goalX, goalY);
+				int[] path = solver.findPath(startX, startY, goalX, goalY);
+
+				if (expected == null) {
+					Assert.assertNull(path);
+					continue;
+				}
+				Assert.assertEquals(expected[0], path[0]);
+				Assert.assertEquals(expected[expected.length - 1], path[path.length - 1]);
+				GridPathFinderTest.assertValidPath(map, true, path, solver.getPathCost());
+				Assert.assertTrue(solver.getPathCost() >= reference.getPathCost() - 1e-9);
+				totalCost += solver.getPathCost();
+				totalShortestCost += reference.getPathCost();
+			}
+			Assert.assertTrue(totalCost < totalShortestCost * 1.1);
+		}
+	}
+
+	/**
+	 * Tests that changing the obstacles only rebuilds the clusters around
+	 * them and gives the same paths as building the abstraction from
+	 * scratch.
+	 */
+	@Test
+	public void testObstacleChanges() {
+		Random random = new Random(42);
+		GridMap map = GridPathFinderTest.randomMap(random, 80, 80, 0.2);
+		HierarchicalPathFinder solver = new HierarchicalPathFinder(map, 8);
+		Assert.assertEquals(100, solver.getClusterBuilds());
+
+		for (int change = 0; change < 50; change++) {
+			int x = random.nextInt(map.getWidth());
+			int y = random.nextInt(map.getHeight());
+			int clusterBuilds = solver.getClusterBuilds();
+			solver.setBlocked(x, y, !map.isBlocked(x, y));
+			Assert.assertTrue(solver.getClusterBuilds() - clusterBuilds <= 5);
+
+			HierarchicalPathFinder rebuilt = new HierarchicalPathFinder(map, 8);
+			for (int i = 0; i < 10; i++) {
+				int startX = random.nextInt(map.getWidth());
+				int startY = random.nextInt(map.getHeight());
+				int goalX = random.nextInt(map.getWidth());
+				int goalY = random.nextInt(map.getHeight());
+				int[] expected = rebuilt.findPath(startX, startY, goalX, goalY);
+				int[] path = solver.findPath(startX, startY, goalX, goalY);
+				if (expected == null) {
+					Assert.assertNull(path);
+				} else {
+					Assert.assertEquals(rebuilt.getPathCost(), solver.getPathCost(), 1e-9);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link IndexedHeap}.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class IndexedHeapTest {
+
+	/**
+	 * Tests that the heap always returns an id with the lowest key while ids
+	 * are added, updated and removed.
+	 */
+	@Test
+	public void testPollLowestKey() {
+		Random random = new Random(42);
+		IndexedHeap heap = new IndexedHeap();
+		Map<Integer, Double> expected = new HashMap<Integer, Double>();
+		int nextId = 0;
+
+		for (int step = 0; step < 20000; step++) {
+			int action = random.nextInt(3);
+			if (action == 0 || expected.isEmpty()) {
+				double key = random.nextInt(1000);
+				heap.add(nextId, key);
+				expected.put(nextId++, key);
+			} else if (action == 1) {
+				int id = random.nextInt(nextId);
+				if (heap.contains(id)) {
+					double key = random.nextInt(1000);
+					heap.update(id, key);
+					expected.put(id, key);
+				} else {
+					Assert.assertFalse(expected.containsKey(id));
+				}
+			} else {
+				double lowest = Double.POSITIVE_INFINITY;
+				for (double key : expected.values()) {
+					lowest = Math.min(lowest, key);
+				}
+				Assert.assertEquals(lowest, heap.peekKey(), 0);
+				int id = heap.poll();
+				Assert.assertEquals(lowest, expected.remove(id), 0);
+				Assert.assertFalse(heap.contains(id));
+			}
+			Assert.assertEquals(expected.size(), heap.size());
+		}
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link JumpPointSearch}.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class JumpPointSearchTest extends BasePathfindingTest {
+
+	/**
+	 * Tests the algorithm through the {@link PathFinder} interface with a
+	 * possible dataset.
+	 */
+	@Test
+	public void testJumpPointSearch() {
+		GridMap map = new GridMap(obstaclesSetOne);
+		JumpPointSearch solver = new JumpPointSearch(map);
+		Node solution = mainTestPossible(solver);
+
+		// Checks that we found a valid solution.
+		Assert.assertNotNull(solution);
+		GridPathFinder reference = new GridPathFinder(map);
+		reference.findPath(1, 1, 5, 4);
+		Assert.assertEquals(reference.getPathCost(), solver.getPathCost(), 1e-9);
+	}
+
+	/**
+	 * Tests the algorithm through the {@link PathFinder} interface with an
+	 * impossible dataset.
+	 */
+	@Test
+	public void testImpossibleJumpPointSearch() {
+		JumpPointSearch solver = new JumpPointSearch(new GridMap(obstaclesImpossible), true);
+		Node solution = mainTestImpossible(solver);
+
+		// Checks that we found a valid solution.
+		Assert.assertNull(solution);
+	}
+
+	/**
+	 * Tests that the paths found on random maps, with and without the
+	 * precomputed jumps, are valid and as short as the ones found by a
+	 * {@link GridPathFinder}.
+	 */
+	@Test
+	public void testRandomMaps() {
+		Random random = new Random(42);
+		for (double density : new double[] { 0.05, 0.2, 0.35 }) {
+			GridMap map = GridPathFinderTest.randomMap(random, 60, 45, density);
+			GridPathFinder reference = new GridPathFinder(map);
+			JumpPointSearch solver = new JumpPointSearch(map);
+			JumpPointSearch precomputedSolver = new JumpPointSearch(map, true);
+			for (int i = 0; i < 300; i++) {
+				int startX = random.nextInt(map.getWidth());
+				int startY = random.nextInt(map.getHeight());
+				int goalX = random.nextInt(map.getWidth());
+				int goalY = random.nextInt(map.getHeight());
+				int[] expected = reference.findPath(startX, startY, goalX, goalY);
+
+				for (JumpPointSearch jumpPointSearch : new JumpPointSearch[] { solver, precomputedSolver }) {
+					int[] path = jumpPointSearch.findPath(startX, startY, goalX, goalY);
+					if (expected == null) {
+						Assert.assertNull(path);
+						continue;
+					}
+					Assert.assertEquals(reference.getPathCost(), jumpPointSearch.getPathCost(), 1e-9);
+					Assert.assertEquals(expected[0], path[0]);
+					Assert.assertEquals(expected[expected.length - 1], path[path.length - 1]);
+					GridPathFinderTest.assertValidPath(map, true, path, reference.getPathCost());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests that on a map made of open areas separated by walls far fewer
+	 * cells are explored than by a {@link GridPathFinder}.
+	 */
+	@Test
+	public void testExploresFewerCells() {
+		GridMap map = new GridMap(200, 200);
+		for (int wall = 40; wall < 200; wall += 40) {
+			// Each wall has a gap at the opposite end of the previous one.
+			int gap = wall % 80 == 0 ? 10 : 190;
+			for (int y = 0; y < 200; y++) {
+				map.setBlocked(wall, y, Math.abs(y - gap) > 3);
+			}
+		}
+		GridPathFinder reference = new GridPathFinder(map);
+		JumpPointSearch solver = new JumpPointSearch(map, true);
+
+		Assert.assertNotNull(reference.findPath(0, 0, 199, 150));
+		Assert.assertNotNull(solver.findPath(0, 0, 199, 150));
+		Assert.assertEquals(reference.getPathCost(), solver.getPathCost(), 1e-9);
+		Assert.assertTrue(solver.getExploredCells() * 10 < reference.getExploredCells());
+	}
+
+}
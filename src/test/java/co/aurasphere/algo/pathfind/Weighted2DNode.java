@@ -0,0 +1,178 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.pathfind;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Node of an undirected graph whose moves have a cost, used for testing.
+ * 
+ * @author Donato Rimenti
+ */
+public class Weighted2DNode extends Node2D {
+
+	/**
+	 * The Constant serialVersionUID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The parent of this node.
+	 */
+	private Node parent;
+
+	/**
+	 * The nodes reachable from this one.
+	 */
+	private List<Node> adjacentNodes = new ArrayList<Node>();
+
+	/**
+	 * The cost of moving to each of the nodes reachable from this one.
+	 */
+	private Map<Node, java.lang.Double> costs = new HashMap<Node, java.lang.Double>();
+
+	/**
+	 * Instantiates a new Weighted2DNode.
+	 *
+	 * @param x
+	 *            the x coordinate of this node
+	 * @param y
+	 *            the y coordinate of this node
+	 */
+	public Weighted2DNode(int x, int y) {
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * Generates a road-like graph: the nodes are placed on a jittered square
+	 * grid and each one is connected to some of the nodes next to it, with a
+	 * cost between 1 and 1.5 times their distance.
+	 * 
+	 * @param random
+	 *            the random generator
+	 * @param side
+	 *            the number of nodes on each side of the grid
+	 * @param connectivity
+	 *            the probability of each connection between two nodes next
+	 *            to each other
+	 * @return the nodes of the graph, indexed as <code>y * side + x</code>
+	 */
+	public static Weighted2DNode[] randomGraph(Random random, int side, double connectivity) {
+		Weighted2DNode[] nodes = new Weighted2DNode[side * side];
+		for (int y = 0; y < side; y++) {
+			for (int x = 0; x < side; x++) {
+				nodes[y * side + x] = new Weighted2DNode(x * 10 + random.nextInt(7) - 3,
+						y * 10 + random.nextInt(7) - 3);
+			}
+		}
+		for (int y = 0; y < side; y++) {
+			for (int x = 0; x < side; x++) {
+				if (x + 1 < side && random.nextDouble() < connectivity) {
+					connect(random, nodes[y * side + x], nodes[y * side + x + 1]);
+				}
+				if (y + 1 < side && random.nextDouble() < connectivity) {
+					connect(random, nodes[y * side + x], nodes[(y + 1) * side + x]);
+				}
+			}
+		}
+		return nodes;
+	}
+
+	/**
+	 * Connects two nodes in both directions with the same cost.
+	 * 
+	 * @param random
+	 *            the random generator
+	 * @param first
+	 *            the first node
+	 * @param second
+	 *            the second node
+	 */
+	private static void connect(Random random, Weighted2DNode first, Weighted2DNode second) {
+		double cost = first.distance(second) * (1 + random.nextDouble() / 2);
+		first.adjacentNodes.add(second);
+		first.costs.put(second, cost);
+		second.adjacentNodes.add(first);
+		second.costs.put(first, cost);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.pathfind.Node#getAdjacentNodes()
+	 */
+	@Override
+	public List<Node> getAdjacentNodes() {
+		return adjacentNodes;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.pathfind.Node#getParent()
+	 */
+	@Override
+	public Node getParent() {
+		return parent;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * co.aurasphere.algo.pathfind.Node#setParent(co.aurasphere.algo.pathfind.
+	 * Node)
+	 */
+	@Override
+	public void setParent(Node parent) {
+		this.parent = parent;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * co.aurasphere.algo.pathfind.Node#cost(co.aurasphere.algo.pathfind.Node)
+	 */
+	@Override
+	public double cost(Node goal) {
+		return costs.get(goal);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.awt.Point#toString()
+	 */
+	@Override
+	public String toString() {
+		return x + " " + y;
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.nio.DoubleBuffer;
+
+import co.aurasphere.algo.BatchFitnessFunction;
+
+/**
+ * Batch version of the {@link SphereFitnessFunction} which also counts how
+ * many blocks it evaluated.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class BatchSphereFitnessFunction extends SphereFitnessFunction implements BatchFitnessFunction {
+
+	/**
+	 * The value of each variable at the maximum of this function.
+	 */
+	private double center;
+
+	/**
+	 * Number of blocks evaluated by this function.
+	 */
+	private int evaluatedBlocks;
+
+	/**
+	 * Instantiates a new BatchSphereFitnessFunction.
+	 *
+	 * @param center
+	 *            the {@link #center}
+	 */
+	public BatchSphereFitnessFunction(double center) {
+		super(center);
+		this.center = center;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.BatchFitnessFunction#getFitness(java.nio.
+	 * DoubleBuffer, int, int, double[], int, int)
+	 */
+	@Override
+	public void getFitness(DoubleBuffer variables, int dimensions, int stride, double[] fitness, int from, int to) {
+		evaluatedBlocks++;
+		for (int i = from; i < to; i++) {
+			double sum = 0;
+			for (int d = 0; d < dimensions; d++) {
+				double distance = variables.get(i * stride + d) - center;
+				sum += distance * distance;
+			}
+			fitness[i] = -sum;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.swarm.SphereFitnessFunction#getFitness(double[])
+	 */
+	@Override
+	public double getFitness(double[] variables) {
+		return super.getFitness(variables);
+	}
+
+	/**
+	 * Gets the {@link #evaluatedBlocks}.
+	 *
+	 * @return the {@link #evaluatedBlocks}
+	 */
+	public int getEvaluatedBlocks() {
+		return evaluatedBlocks;
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link KdTree}.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class KdTreeTest {
+
+	/**
+	 * Tests that the nearest neighbours found by the tree are the same found
+	 * by a linear scan, with points clustered as a converging swarm produces
+	 * them so that the tree gets rebuilt.
+	 */
+	@Test
+	public void testNearestMatchesLinearScan() {
+		Random random = new Random(42);
+		int dimensions = 3;
+		int count = 2000;
+		double[] points = new double[count * dimensions];
+		KdTree tree = new KdTree(dimensions);
+		for (int i = 0; i < count; i++) {
+			double scale = 1.0 / (i + 1);
+			for (int d = 0; d < dimensions; d++) {
+				points[i * dimensions + d] = Math.rint(random.nextGaussian() * scale * 1000) / 1000;
+			}
+			tree.insert(points, i * dimensions, i);
+		}
+		Assert.assertEquals(count, tree.size());
+
+		int[] neighbours = new int[5];
+		double[] squaredDistances = new double[5];
+		double[] query = new double[dimensions];
+		for (int q = 0; q < 200; q++) {
+			for (int d = 0; d < dimensions; d++) {
+				query[d] = random.nextGaussian() * 0.1;
+			}
+			Assert.assertEquals(5, tree.nearest(query, 0, neighbours, squaredDistances));
+
+			// Compares the distances, since points may be at the same one.
+			double[] expected = new double[count];
+			for (int i = 0; i < count; i++) {
+				for (int d = 0; d < dimensions; d++) {
+					double delta = query[d] - points[i * dimensions + d];
+					expected[i] += delta * delta;
+				}
+			}
+			Arrays.sort(expected);
+			double[] actual = squaredDistances.clone();
+			Arrays.sort(actual);
+			Assert.assertArrayEquals(Arrays.copyOf(expected, 5), actual, 0);
+		}
+	}
+
+}
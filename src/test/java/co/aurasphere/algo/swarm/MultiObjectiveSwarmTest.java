@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import co.aurasphere.algo.MultiObjectiveFitnessFunction;
+
+/**
+ * Test for {@link MultiObjectiveSwarm}.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class MultiObjectiveSwarmTest {
+
+	/**
+	 * Tests that the swarm finds the front of the Schaffer problem, which
+	 * trades off the distance from 0 against the distance from 2 and whose
+	 * non-dominated positions are the ones between 0 and 2, up to the
+	 * precision reached.
+	 */
+	@Test
+	public void testSchafferFront() {
+		MultiObjectiveSwarmConfiguration configuration = new MultiObjectiveSwarmConfiguration(
+				new MultiObjectiveFitnessFunction() {
+
+					@Override
+					public int getObjectives() {
+						return 2;
+					}
+
+					@Override
+					public double[] getFitness(double[] variables) {
+						double x = variables[0];
+						return new double[] { -x * x, -(x - 2) * (x - 2) };
+					}
+				});
+		configuration.setDimensions(1);
+		configuration.setNumParticle(50);
+		configuration.setLowerBounds(new double[] { -10 });
+		configuration.setUpperBounds(new double[] { 10 });
+		configuration.setArchiveCapacity(100);
+		configuration.setRandomGenerator(new Random(42));
+		MultiObjectiveSwarm swarm = new MultiObjectiveSwarm(configuration);
+		for (int i = 0; i < 100; i++) {
+			swarm.mainLoop();
+		}
+
+		ParetoArchive archive = swarm.getArchive();
+		Assert.assertTrue(archive.size() > 50);
+		double min = Double.POSITIVE_INFINITY;
+		double max = Double.NEGATIVE_INFINITY;
+		for (ParetoSolution solution : archive.getSolutions()) {
+			double x = solution.getPosition()[0];
+			Assert.assertTrue(x > -0.01 && x < 2.01);
+			min = Math.min(min, x);
+			max = Math.max(max, x);
+		}
+		Assert.assertTrue(min < 0.05);
+		Assert.assertTrue(max > 1.95);
+	}
+
+}
@@ -24,9 +24,13 @@
 package co.aurasphere.algo.swarm;
 
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import co.aurasphere.algo.IterativeAlgorithmRunner;
+import co.aurasphere.algo.RunSummary;
+import co.aurasphere.algo.StopCriteria;
 import co.aurasphere.algo.support.MayFailRule;
 
 /**
@@ -44,6 +48,22 @@ public class MultiswarmTest {
 	@Rule
 	public MayFailRule mayFailRule = new MayFailRule();
 
+	/**
+	 * Runner which iterates up to 1000 times or until the solution is found.
+	 */
+	private IterativeAlgorithmRunner runner;
+
+	/**
+	 * Initializes the {@link #runner}.
+	 */
+	@Before
+	public void setup() {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setMaxIterations(1000);
+		criteria.setTargetFitness(1620);
+		this.runner = new IterativeAlgorithmRunner(criteria);
+	}
+
 	/**
 	 * Tests the multiswarm algorithm with a generic problem. The solution is H
 	 * = 1080, A = 50 for a total fitness of 1620. Tested with 50 swarms each
@@ -54,10 +74,9 @@ public class MultiswarmTest {
 		MultiswarmConfiguration configuration = new MultiswarmConfiguration(new LolFitnessFunction());
 		Multiswarm multiswarm = new Multiswarm(configuration);
 
-		// Iterates 1000 times through the main loop and prints the result.
-		for (int i = 0; i < 1000; i++) {
-			multiswarm.mainLoop();
-		}
+		// Iterates through the main loop and prints the result.
+		RunSummary summary = runner.run(multiswarm);
+		System.out.println(summary);
 
 		System.out.println("[Multiswarm algorithm] Best fitness found: " + multiswarm.getBestFitness() + "[" + multiswarm.getBestPosition()[0]
 				+ "," + multiswarm.getBestPosition()[1] + "]");
@@ -75,10 +94,9 @@ public class MultiswarmTest {
 		SwarmConfiguration configuration = new SwarmConfiguration(new LolFitnessFunction());
 		Swarm swarm = new Swarm(configuration);
 
-		// Iterates 1000 times through the main loop and prints the result.
-		for (int i = 0; i < 1000; i++) {
-			swarm.mainLoop();
-		}
+		// Iterates through the main loop and prints the result.
+		RunSummary summary = runner.run(swarm);
+		System.out.println(summary);
 
 		System.out.println("[Swarm algorithm] Best fitness found: " + swarm.getBestFitness() + "[" + swarm.getBestPosition()[0]
 				+ "," + swarm.getBestPosition()[1] + "]");
@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test for {@link OffHeapParticleStore}.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class OffHeapParticleStoreTest {
+
+	/**
+	 * Folder for the backing files.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Tests that particles written in chunks crossing the segments are read
+	 * back unchanged, in direct memory.
+	 *
+	 * @throws IOException
+	 *             if the store can't be created
+	 */
+	@Test
+	public void testDirectRoundTrip() throws IOException {
+		assertRoundTrip(null);
+	}
+
+	/**
+	 * Tests that particles written in chunks crossing the segments are read
+	 * back unchanged, in a file.
+	 *
+	 * @throws IOException
+	 *             if the store can't be created
+	 */
+	@Test
+	public void testMappedRoundTrip() throws IOException {
+		assertRoundTrip(folder.newFolder().toPath());
+	}
+
+	/**
+	 * Writes random particles in chunks of 7 into a store with segments of 10
+	 * values and checks that reading them with chunks of 4 returns the same
+	 * values.
+	 *
+	 * @param directory
+	 *            the directory of the backing file or null for direct memory
+	 * @throws IOException
+	 *             if the store can't be created
+	 */
+	private static void assertRoundTrip(Path directory) throws IOException {
+		Random random = new Random(42);
+		int size = 30;
+		int dimensions = 3;
+		OffHeapParticleStore store = new OffHeapParticleStore(size, dimensions, directory, 10);
+		ParticleStore expected = new ParticleStore(size, dimensions);
+		for (double[] values : new double[][] { expected.positions, expected.speeds, expected.bestPositions,
+				expected.fitness, expected.bestFitness }) {
+			for (int i = 0; i < values.length; i++) {
+				values[i] = random.nextDouble();
+			}
+		}
+
+		ParticleStore window = new ParticleStore(7, dimensions);
+		for (int from = 0; from < size; from += 7) {
+			int count = Math.min(7, size - from);
+			copy(expected, from, window, 0, count);
+			store.write(from, count, window);
+		}
+
+		ParticleStore actual = new ParticleStore(size, dimensions);
+		window = new ParticleStore(4, dimensions);
+		for (int from = 0; from < size; from += 4) {
+			int count = Math.min(4, size - from);
+			store.read(from, count, window);
+			copy(window, 0, actual, from, count);
+		}
+		Assert.assertArrayEquals(expected.positions, actual.positions, 0);
+		Assert.assertArrayEquals(expected.speeds, actual.speeds, 0);
+		Assert.assertArrayEquals(expected.bestPositions, actual.bestPositions, 0);
+		Assert.assertArrayEquals(expected.fitness, actual.fitness, 0);
+		Assert.assertArrayEquals(expected.bestFitness, actual.bestFitness, 0);
+	}
+
+	/**
+	 * Copies a range of particles between two heap stores.
+	 *
+	 * @param source
+	 *            the store to copy from
+	 * @param sourceIndex
+	 *            the index of the first particle to copy
+	 * @param destination
+	 *            the store to copy to
+	 * @param destinationIndex
+	 *            the index of the first particle to overwrite
+	 * @param count
+	 *            the number of particles to copy
+	 */
+	private static void copy(ParticleStore source, int sourceIndex, ParticleStore destination,
+			int destinationIndex, int count) {
+		int dimensions = source.dimensions;
+		System.arraycopy(source.positions, sourceIndex * dimensions, destination.positions,
+				destinationIndex * dimensions, count * dimensions);
+		System.arraycopy(source.speeds, sourceIndex * dimensions, destination.speeds,
+				destinationIndex * dimensions, count * dimensions);
+		System.arraycopy(source.bestPositions, sourceIndex * dimensions, destination.bestPositions,
+				destinationIndex * dimensions, count * dimensions);
+		System.arraycopy(source.fitness, sourceIndex, destination.fitness, destinationIndex, count);
+		System.arraycopy(source.bestFitness, sourceIndex, destination.bestFitness, destinationIndex, count);
+	}
+
+}
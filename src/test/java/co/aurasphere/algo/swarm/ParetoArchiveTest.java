@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link ParetoArchive}.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class ParetoArchiveTest {
+
+	/**
+	 * Tests that the archive keeps exactly the non-dominated solutions found
+	 * by a pairwise scan, with rounded fitness values so that some are equal.
+	 */
+	@Test
+	public void testNonDominatedMatchesPairwiseScan() {
+		Random random = new Random(42);
+		for (int objectives = 2; objectives <= 4; objectives++) {
+			int count = 3000;
+			List<double[]> added = new ArrayList<double[]>();
+			ParetoArchive archive = new ParetoArchive(objectives, count);
+			for (int i = 0; i < count; i++) {
+				// Points between two spheres, so that many are non-dominated.
+				double[] fitness = new double[objectives];
+				double norm = 0;
+				for (int k = 0; k < objectives; k++) {
+					fitness[k] = Math.abs(random.nextGaussian());
+					norm += fitness[k] * fitness[k];
+				}
+				double radius = (0.9 + random.nextDouble() * 0.1) / Math.sqrt(norm);
+				for (int k = 0; k < objectives; k++) {
+					fitness[k] = Math.rint(fitness[k] * radius * 100) / 100;
+				}
+				added.add(fitness);
+				archive.add(new double[] { i }, fitness);
+			}
+
+			int expected = 0;
+			for (int i = 0; i < count; i++) {
+				if (isFirstNonDominated(added, i)) {
+					expected++;
+				}
+			}
+			Assert.assertEquals(expected, archive.size());
+			for (ParetoSolution solution : archive.getSolutions()) {
+				Assert.assertTrue(isFirstNonDominated(added, (int) solution.getPosition()[0]));
+			}
+		}
+	}
+
+	/**
+	 * Checks if a solution is not dominated by any other and is the first one
+	 * with its fitness.
+	 * 
+	 * @param added
+	 *            the fitness of all the solutions
+	 * @param index
+	 *            the index of the solution to check
+	 * @return true if the solution should be in the archive
+	 */
+	private static boolean isFirstNonDominated(List<double[]> added, int index) {
+		double[] fitness = added.get(index);
+		for (int j = 0; j < added.size(); j++) {
+			double[] other = added.get(j);
+			if (j != index && ParetoArchive.weaklyDominates(other, fitness)
+					&& (j < index || !ParetoArchive.weaklyDominates(fitness, other))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests that a full archive keeps the ends of the front and stays within
+	 * its capacity, while comparing each new solution with a small part of
+	 * it.
+	 */
+	@Test
+	public void testCapacity() {
+		Random random = new Random(42);
+		int capacity = 5000;
+		ParetoArchive archive = new ParetoArchive(2, capacity);
+		int count = 20000;
+		for (int i = 0; i < count; i++) {
+			double t = random.nextDouble();
+			archive.add(new double[] { t }, new double[] { t, 1 - t * t });
+			Assert.assertTrue(archive.size() <= capacity);
+		}
+		Assert.assertTrue(archive.size() >= capacity - capacity / 10);
+
+		double min = 1;
+		double max = 0;
+		for (ParetoSolution solution : archive.getSolutions()) {
+			min = Math.min(min, solution.getPosition()[0]);
+			max = Math.max(max, solution.getPosition()[0]);
+		}
+		Assert.assertTrue(min < 0.001);
+		Assert.assertTrue(max > 0.999);
+		Assert.assertTrue("Comparisons: " + archive.getComparisons(), archive.getComparisons() < count * 100L);
+	}
+
+}
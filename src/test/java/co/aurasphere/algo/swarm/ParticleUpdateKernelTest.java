@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Test for {@link ParticleUpdateKernel}.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class ParticleUpdateKernelTest {
+
+	/**
+	 * Tests that the vectorized kernel, when available, computes exactly the
+	 * same positions and speeds as the scalar one for any number of
+	 * dimensions, with and without a global best position.
+	 */
+	@Test
+	public void testVectorKernelMatchesScalar() {
+		ParticleUpdateKernel vectorKernel = ParticleUpdateKernel.getKernel(true);
+		Assume.assumeTrue("Vector API not available", vectorKernel != ParticleUpdateKernel.SCALAR);
+
+		Random random = new Random(42);
+		for (int dimensions = 1; dimensions <= 40; dimensions++) {
+			for (int terms = 2; terms <= 3; terms++) {
+				int offset = dimensions;
+				double[] positions = randomArray(random, 3 * dimensions);
+				double[] speeds = randomArray(random, 3 * dimensions);
+				double[] bestPositions = randomArray(random, 3 * dimensions);
+				double[] swarmBest = randomArray(random, dimensions);
+				double[] globalBest = terms == 3 ? randomArray(random, dimensions) : null;
+				double[] coefficients = randomArray(random, 5 + terms * dimensions);
+
+				double[] scalarPositions = positions.clone();
+				double[] scalarSpeeds = speeds.clone();
+				ParticleUpdateKernel.SCALAR.update(scalarPositions, scalarSpeeds, bestPositions, swarmBest, globalBest,
+						coefficients, offset, 5, dimensions, 0.729, 1.49445, 1.49445, 0.3645);
+				vectorKernel.update(positions, speeds, bestPositions, swarmBest, globalBest, coefficients, offset, 5,
+						dimensions, 0.729, 1.49445, 1.49445, 0.3645);
+
+				Assert.assertArrayEquals(scalarPositions, positions, 0);
+				Assert.assertArrayEquals(scalarSpeeds, speeds, 0);
+			}
+		}
+	}
+
+	/**
+	 * Returns an array of random values between -1 and 1.
+	 *
+	 * @param random
+	 *            the random generator
+	 * @param length
+	 *            the length of the array
+	 * @return the random array
+	 */
+	private static double[] randomArray(Random random, int length) {
+		double[] array = new double[length];
+		for (int i = 0; i < length; i++) {
+			array[i] = random.nextDouble() * 2 - 1;
+		}
+		return array;
+	}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link RandomSource} implementations.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class RandomSourceTest {
+
+	/**
+	 * Seed used for the random sources.
+	 */
+	private static final long SEED = 42;
+
+	/**
+	 * Tests that {@link SplittableRandomSource} produces the same numbers of a
+	 * {@link SplittableRandom}, including the split streams.
+	 */
+	@Test
+	public void testSplittableRandomSource() {
+		SplittableRandomSource randomSource = new SplittableRandomSource(SEED);
+		SplittableRandom splittableRandom = new SplittableRandom(SEED);
+		for (int i = 0; i < 100; i++) {
+			Assert.assertEquals(splittableRandom.nextDouble(), randomSource.nextDouble(), 0);
+		}
+
+		RandomSource split = randomSource.split();
+		SplittableRandom expectedSplit = splittableRandom.split();
+		double[] values = new double[100];
+		split.nextDoubles(values, 10, 90);
+		for (int i = 10; i < 90; i++) {
+			Assert.assertEquals(expectedSplit.nextDouble(), values[i], 0);
+		}
+		Assert.assertEquals(splittableRandom.nextDouble(), randomSource.nextDouble(), 0);
+	}
+
+	/**
+	 * Tests that a multiswarm run in island mode with a seeded random source
+	 * doesn't depend on the order the islands draw random numbers.
+	 */
+	@Test
+	public void testIslandsAreReproducible() {
+		ExecutorService islandExecutor = Executors.newFixedThreadPool(4);
+		try {
+			MultiswarmConfiguration configuration = new MultiswarmConfiguration(new SphereFitnessFunction(1));
+			configuration.setNumParticle(50);
+			configuration.setNumSwarms(8);
+			configuration.setIslandExecutor(islandExecutor);
+
+			// Without the global term, each island only depends on its own
+			// stream and not on when the others publish their bests.
+			configuration.setGlobalWeight(0);
+			configuration.setRandomSource(new SplittableRandomSource(SEED));
+			Multiswarm first = new Multiswarm(configuration);
+			configuration.setRandomSource(new SplittableRandomSource(SEED));
+			Multiswarm second = new Multiswarm(configuration);
+
+			first.mainLoop(100);
+			second.mainLoop(100);
+
+			Assert.assertEquals(first, second);
+		} finally {
+			islandExecutor.shutdown();
+		}
+	}
+
+}
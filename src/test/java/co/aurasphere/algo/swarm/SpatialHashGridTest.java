@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SpatialHashGrid}.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class SpatialHashGridTest {
+
+	/**
+	 * Tests that the counts of the grid match the ones computed by comparing
+	 * the cells of all the particles, while the particles move, leave and
+	 * swap.
+	 */
+	@Test
+	public void testCountsMatchPairwiseScan() {
+		Random random = new Random(42);
+		int size = 200;
+		int dimensions = 2;
+		double[] lowerBounds = { -1, -1 };
+		double[] upperBounds = { 1, 1 };
+		SpatialHashGrid grid = new SpatialHashGrid(size, lowerBounds, upperBounds, 0.1);
+		double[] positions = new double[size * dimensions];
+		boolean[] tracked = new boolean[size];
+
+		for (int step = 0; step < 20000; step++) {
+			int particle = random.nextInt(size);
+			int action = random.nextInt(10);
+			if (action == 0) {
+				grid.remove(particle);
+				tracked[particle] = false;
+			} else if (action == 1) {
+				int other = random.nextInt(size);
+				grid.swap(particle, other);
+				for (int d = 0; d < dimensions; d++) {
+					double swap = positions[particle * dimensions + d];
+					positions[particle * dimensions + d] = positions[other * dimensions + d];
+					positions[other * dimensions + d] = swap;
+				}
+				boolean swap = tracked[particle];
+				tracked[particle] = tracked[other];
+				tracked[other] = swap;
+			} else {
+				// Clusters the particles around the origin as they move.
+				for (int d = 0; d < dimensions; d++) {
+					positions[particle * dimensions + d] = random.nextGaussian() * 0.2;
+				}
+				int count = grid.move(particle, positions, particle * dimensions);
+				tracked[particle] = true;
+				Assert.assertEquals(countSameCell(positions, tracked, particle), count);
+			}
+		}
+
+		int occupiedCells = 0;
+		for (int i = 0; i < size; i++) {
+			Assert.assertEquals(tracked[i] ? countSameCell(positions, tracked, i) : 0, grid.countAt(i));
+			if (tracked[i]) {
+				boolean first = true;
+				for (int j = 0; j < i; j++) {
+					if (tracked[j] && sameCell(positions, i, j)) {
+						first = false;
+					}
+				}
+				occupiedCells += first ? 1 : 0;
+			}
+		}
+		Assert.assertEquals(occupiedCells, grid.getOccupiedCells());
+	}
+
+	/**
+	 * Counts the tracked particles in the same cell as a particle.
+	 * 
+	 * @param positions
+	 *            the positions of the particles
+	 * @param tracked
+	 *            whether each particle is in the grid
+	 * @param particle
+	 *            the index of the particle
+	 * @return the number of particles in the cell, including the particle
+	 */
+	private static int countSameCell(double[] positions, boolean[] tracked, int particle) {
+		int count = 0;
+		for (int j = 0; j < tracked.length; j++) {
+			if (tracked[j] && sameCell(positions, particle, j)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Checks if two particles are in the same cell of side 0.2 starting from
+	 * -1.
+	 * 
+	 * @param positions
+	 *            the positions of the particles
+	 * @param first
+	 *            the index of the first particle
+	 * @param second
+	 *            the index of the second particle
+	 * @return true if the particles are in the same cell
+	 */
+	private static boolean sameCell(double[] positions, int first, int second) {
+		for (int d = 0; d < 2; d++) {
+			if (Math.floor((positions[first * 2 + d] + 1) / 0.2) != Math.floor((positions[second * 2 + d] + 1)
+					/ 0.2)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import co.aurasphere.algo.FitnessFunction;
+
+/**
+ * Negated sphere function, whose maximum is 0 when every variable is equal to
+ * a given center. Works with any number of variables.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class SphereFitnessFunction implements FitnessFunction {
+
+	/**
+	 * The value of each variable at the maximum of this function.
+	 */
+	private double center;
+
+	/**
+	 * Instantiates a new SphereFitnessFunction.
+	 *
+	 * @param center
+	 *            the {@link #center}
+	 */
+	public SphereFitnessFunction(double center) {
+		this.center = center;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see co.aurasphere.algo.FitnessFunction#getFitness(double[])
+	 */
+	@Override
+	public double getFitness(double[] variables) {
+		double sum = 0;
+		for (double variable : variables) {
+			double distance = variable - center;
+			sum += distance * distance;
+		}
+		return -sum;
+	}
+
+}
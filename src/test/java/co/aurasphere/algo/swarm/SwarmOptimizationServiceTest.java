@@ -0,0 +1,230 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import co.aurasphere.algo.FitnessFunction;
+import co.aurasphere.algo.RunSummary;
+import co.aurasphere.algo.StopCriteria;
+import co.aurasphere.algo.StopReason;
+
+/**
+ * Test for {@link SwarmOptimizationService}.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class SwarmOptimizationServiceTest {
+
+	/**
+	 * The service under test.
+	 */
+	private SwarmOptimizationService service;
+
+	/**
+	 * Starts the service.
+	 */
+	@Before
+	public void setup() {
+		service = new SwarmOptimizationService(4, 5);
+	}
+
+	/**
+	 * Stops the service.
+	 */
+	@After
+	public void teardown() {
+		service.close();
+	}
+
+	/**
+	 * Tests that many jobs submitted together all complete.
+	 *
+	 * @throws InterruptedException
+	 *             if the test is interrupted
+	 * @throws ExecutionException
+	 *             if a job fails
+	 */
+	@Test
+	public void testManyJobs() throws InterruptedException, ExecutionException {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setMaxIterations(200);
+		criteria.setTargetFitness(-1e-6);
+
+		List<CompletableFuture<RunSummary>> futures = new ArrayList<CompletableFuture<RunSummary>>();
+		for (int i = 0; i < 200; i++) {
+			SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+			configuration.setNumParticle(30);
+			configuration.setRandomSource(new SplittableRandomSource(i));
+			futures.add(service.submit(configuration, criteria, 1 + i % 3));
+		}
+
+		for (CompletableFuture<RunSummary> future : futures) {
+			RunSummary summary = future.get();
+			Assert.assertEquals(StopReason.TARGET_FITNESS, summary.getStopReason());
+			Assert.assertEquals(2, summary.getBestPosition().length);
+		}
+	}
+
+	/**
+	 * Tests that jobs submitted with the same configuration get independent
+	 * random streams and that their results are reproducible.
+	 *
+	 * @throws InterruptedException
+	 *             if the test is interrupted
+	 * @throws ExecutionException
+	 *             if a job fails
+	 */
+	@Test
+	public void testSharedConfiguration() throws InterruptedException, ExecutionException {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setMaxIterations(50);
+
+		List<List<RunSummary>> runs = new ArrayList<List<RunSummary>>();
+		for (int run = 0; run < 2; run++) {
+			SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+			configuration.setNumParticle(20);
+			configuration.setRandomSource(new SplittableRandomSource(42));
+			List<CompletableFuture<RunSummary>> futures = new ArrayList<CompletableFuture<RunSummary>>();
+			for (int i = 0; i < 20; i++) {
+				futures.add(service.submit(configuration, criteria));
+			}
+			List<RunSummary> summaries = new ArrayList<RunSummary>();
+			for (CompletableFuture<RunSummary> future : futures) {
+				summaries.add(future.get());
+			}
+			runs.add(summaries);
+		}
+
+		for (int i = 0; i < 20; i++) {
+			Assert.assertArrayEquals(runs.get(0).get(i).getBestPosition(), runs.get(1).get(i).getBestPosition(), 0);
+			if (i > 0) {
+				Assert.assertFalse(Arrays.equals(runs.get(0).get(0).getBestPosition(),
+						runs.get(0).get(i).getBestPosition()));
+			}
+		}
+	}
+
+	/**
+	 * Tests that a job which can't reach its target stops at its deadline.
+	 *
+	 * @throws InterruptedException
+	 *             if the test is interrupted
+	 * @throws ExecutionException
+	 *             if the job fails
+	 */
+	@Test
+	public void testDeadline() throws InterruptedException, ExecutionException {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setTimeBudgetMillis(100);
+		criteria.setTargetFitness(1);
+
+		RunSummary summary = service.submit(new SwarmConfiguration(new SphereFitnessFunction(1)), criteria).get();
+
+		Assert.assertEquals(StopReason.TIME_BUDGET, summary.getStopReason());
+		Assert.assertTrue(summary.getElapsedNanos() >= 100000000);
+	}
+
+	/**
+	 * Tests that closing the service while slices are running completes all
+	 * the jobs, either cancelled before starting or stopped with
+	 * {@link StopReason#CANCELLED}.
+	 *
+	 * @throws InterruptedException
+	 *             if the test is interrupted
+	 * @throws ExecutionException
+	 *             if a job fails
+	 * @throws TimeoutException
+	 *             if a job never completes
+	 */
+	@Test
+	public void testCloseWhileRunning() throws InterruptedException, ExecutionException, TimeoutException {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setMaxIterations(1000000);
+		for (int round = 0; round < 20; round++) {
+			SwarmOptimizationService closingService = new SwarmOptimizationService(4, 1);
+			List<CompletableFuture<RunSummary>> futures = new ArrayList<CompletableFuture<RunSummary>>();
+			SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+			configuration.setNumParticle(10);
+			for (int i = 0; i < 8; i++) {
+				futures.add(closingService.submit(configuration, criteria));
+			}
+			Thread.sleep(round % 5);
+			closingService.close();
+
+			for (CompletableFuture<RunSummary> future : futures) {
+				try {
+					Assert.assertEquals(StopReason.CANCELLED, future.get(10, TimeUnit.SECONDS).getStopReason());
+				} catch (CancellationException e) {
+					// Cancelled while queued.
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests that a job which fails doesn't stop the service.
+	 *
+	 * @throws InterruptedException
+	 *             if the test is interrupted
+	 * @throws ExecutionException
+	 *             if the job fails
+	 */
+	@Test
+	public void testFailingJob() throws InterruptedException, ExecutionException {
+		StopCriteria criteria = new StopCriteria();
+		criteria.setMaxIterations(10);
+		CompletableFuture<RunSummary> failing = service.submit(new SwarmConfiguration(new FitnessFunction() {
+
+			@Override
+			public double getFitness(double[] variables) {
+				throw new IllegalStateException("Fitness not available");
+			}
+		}), criteria);
+		CompletableFuture<RunSummary> working = service
+				.submit(new SwarmConfiguration(new SphereFitnessFunction(1)), criteria);
+
+		Assert.assertEquals(StopReason.MAX_ITERATIONS, working.get().getStopReason());
+		try {
+			failing.get();
+			Assert.fail("The failing job should have completed exceptionally");
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+
+}
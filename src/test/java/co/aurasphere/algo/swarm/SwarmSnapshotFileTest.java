@@ -0,0 +1,255 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test for {@link SwarmSnapshotFile}.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class SwarmSnapshotFileTest {
+
+	/**
+	 * Seed used for the random generator.
+	 */
+	private static final long SEED = 42;
+
+	/**
+	 * Folder for the snapshot files.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Tests that a restored swarm continues exactly as the original one.
+	 *
+	 * @throws IOException
+	 *             if the snapshot can't be written or read
+	 */
+	@Test
+	public void testResumeSwarm() throws IOException {
+		SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+		configuration.setNumParticle(50);
+		configuration.setDimensions(3);
+		configuration.setRandomGenerator(new Random(SEED));
+		Swarm swarm = new Swarm(configuration);
+		File file = folder.newFile();
+
+		try (SwarmSnapshotFile snapshotFile = new SwarmSnapshotFile(file.toPath())) {
+			SwarmCheckpointer checkpointer = new SwarmCheckpointer(swarm, snapshotFile, 25);
+			for (int i = 0; i < 60; i++) {
+				checkpointer.mainLoop();
+			}
+			Assert.assertEquals(2, snapshotFile.getSequence());
+		}
+
+		// Runs the original swarm as if the checkpoint was the last one.
+		Swarm restored;
+		try (SwarmSnapshotFile snapshotFile = new SwarmSnapshotFile(file.toPath())) {
+			restored = snapshotFile.readSwarm(configuration);
+		}
+		for (int i = 0; i < 40; i++) {
+			swarm.mainLoop();
+		}
+		for (int i = 0; i < 50; i++) {
+			restored.mainLoop();
+		}
+
+		Assert.assertEquals(swarm, restored);
+	}
+
+	/**
+	 * Tests that a restored multiswarm continues exactly as the original one.
+	 *
+	 * @throws IOException
+	 *             if the snapshot can't be written or read
+	 */
+	@Test
+	public void testResumeMultiswarm() throws IOException {
+		MultiswarmConfiguration configuration = new MultiswarmConfiguration(new SphereFitnessFunction(1));
+		configuration.setNumParticle(20);
+		configuration.setNumSwarms(5);
+		configuration.setRandomGenerator(new Random(SEED));
+		Multiswarm multiswarm = new Multiswarm(configuration);
+		File file = folder.newFile();
+
+		Multiswarm restored;
+		try (SwarmSnapshotFile snapshotFile = new SwarmSnapshotFile(file.toPath())) {
+			for (int i = 0; i < 30; i++) {
+				multiswarm.mainLoop();
+			}
+			snapshotFile.write(multiswarm);
+			restored = snapshotFile.readMultiswarm(configuration);
+		}
+		for (int i = 0; i < 30; i++) {
+			multiswarm.mainLoop();
+			restored.mainLoop();
+		}
+
+		Assert.assertEquals(multiswarm, restored);
+	}
+
+	/**
+	 * Tests that the previous snapshot is restored when the last one has been
+	 * left incomplete, either in its header or in its content.
+	 *
+	 * @throws IOException
+	 *             if the snapshot can't be written or read
+	 */
+	@Test
+	public void testTornSnapshot() throws IOException {
+		SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+		configuration.setRandomGenerator(new Random(SEED));
+		Swarm swarm = new Swarm(configuration);
+
+		// The second snapshot is written in the second slot, whose header
+		// starts after the file header and the first slot.
+		for (int tornOffset : new int[] { 0, 100 }) {
+			File file = folder.newFile();
+			Swarm previous;
+			try (SwarmSnapshotFile snapshotFile = new SwarmSnapshotFile(file.toPath())) {
+				swarm.mainLoop();
+				snapshotFile.write(swarm);
+				previous = snapshotFile.readSwarm(configuration);
+				swarm.mainLoop();
+				snapshotFile.write(swarm);
+			}
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ,
+					StandardOpenOption.WRITE)) {
+				ByteBuffer header = ByteBuffer.allocate(4);
+				channel.read(header, 8);
+				int secondSlot = 64 + header.getInt(0);
+				channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 }), secondSlot + tornOffset);
+			}
+
+			try (SwarmSnapshotFile snapshotFile = new SwarmSnapshotFile(file.toPath())) {
+				Assert.assertEquals(1, snapshotFile.getSequence());
+				Assert.assertEquals(previous, snapshotFile.readSwarm(configuration));
+
+				// The next snapshot replaces the torn one.
+				snapshotFile.write(swarm);
+				Assert.assertEquals(2, snapshotFile.getSequence());
+			}
+			try (SwarmSnapshotFile snapshotFile = new SwarmSnapshotFile(file.toPath())) {
+				Assert.assertEquals(swarm, snapshotFile.readSwarm(configuration));
+			}
+		}
+	}
+
+	/**
+	 * Tests that the swarms which keep state not held by a snapshot can't be
+	 * written to or restored from one.
+	 *
+	 * @throws IOException
+	 *             if the snapshot can't be written or read
+	 */
+	@Test
+	public void testUnsupportedState() throws IOException {
+		SwarmConfiguration surrogate = new SwarmConfiguration(new SphereFitnessFunction(1));
+		surrogate.setSurrogateNeighbours(5);
+		assertUnsupported(surrogate);
+
+		SwarmConfiguration adaptive = new SwarmConfiguration(new SphereFitnessFunction(1));
+		adaptive.setAdaptivePopulation(true);
+		assertUnsupported(adaptive);
+		MultiswarmConfiguration adaptiveMultiswarm = new MultiswarmConfiguration(new SphereFitnessFunction(1));
+		adaptiveMultiswarm.setAdaptivePopulation(true);
+		assertUnsupported(adaptiveMultiswarm);
+
+		SwarmConfiguration diversity = new SwarmConfiguration(new SphereFitnessFunction(1));
+		diversity.setDiversityCellSize(0.01);
+		assertUnsupported(diversity);
+	}
+
+	/**
+	 * Asserts that a swarm or a multiswarm can't be written to a snapshot
+	 * and that a snapshot can't be restored with its configuration.
+	 *
+	 * @param configuration
+	 *            the configuration of the swarm or, if it's a
+	 *            {@link MultiswarmConfiguration}, of the multiswarm
+	 * @throws IOException
+	 *             if the snapshot can't be written or read
+	 */
+	private void assertUnsupported(SwarmConfiguration configuration) throws IOException {
+		try (SwarmSnapshotFile snapshotFile = new SwarmSnapshotFile(folder.newFile().toPath())) {
+			try {
+				if (configuration instanceof MultiswarmConfiguration) {
+					snapshotFile.write(new Multiswarm((MultiswarmConfiguration) configuration));
+				} else {
+					snapshotFile.write(new Swarm(configuration));
+				}
+				Assert.fail("The snapshot should have been rejected");
+			} catch (IllegalArgumentException e) {
+				// Expected.
+			}
+
+			try {
+				if (configuration instanceof MultiswarmConfiguration) {
+					MultiswarmConfiguration supported = new MultiswarmConfiguration(
+							(MultiswarmConfiguration) configuration);
+					supported.setAdaptivePopulation(false);
+					snapshotFile.write(new Multiswarm(supported));
+					snapshotFile.readMultiswarm((MultiswarmConfiguration) configuration);
+				} else {
+					snapshotFile.write(new Swarm(new SwarmConfiguration(new SphereFitnessFunction(1))));
+					snapshotFile.readSwarm(configuration);
+				}
+				Assert.fail("The snapshot should have been rejected when restoring");
+			} catch (IllegalArgumentException e) {
+				// Expected.
+			}
+		}
+	}
+
+	/**
+	 * Tests that a snapshot can't be restored with a different configuration.
+	 *
+	 * @throws IOException
+	 *             if the snapshot can't be written or read
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testConfigurationMismatch() throws IOException {
+		SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+		try (SwarmSnapshotFile snapshotFile = new SwarmSnapshotFile(folder.newFile().toPath())) {
+			snapshotFile.write(new Swarm(configuration));
+			configuration.setNumParticle(configuration.getNumParticle() + 1);
+			snapshotFile.readSwarm(configuration);
+		}
+	}
+
+}
@@ -0,0 +1,724 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import co.aurasphere.algo.AsyncFitnessFunction;
+import co.aurasphere.algo.BatchFitnessFunctionAdapter;
+import co.aurasphere.algo.CachingFitnessFunction;
+import co.aurasphere.algo.FitnessFunction;
+import co.aurasphere.algo.OptimizationAlgorithm;
+
+/**
+ * Test for {@link Swarm} execution modes.
+ * 
+ * @author Donato Rimenti
+ *
+ */
+public class SwarmTest {
+
+	/**
+	 * Seed used to make the runs reproducible.
+	 */
+	private static final long SEED = 42;
+
+	/**
+	 * Folder for the files backing the particles stored off-heap.
+	 */
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Tests that a swarm evaluated in parallel ends up in exactly the same
+	 * state as a sequential one started with the same seed.
+	 */
+	@Test
+	public void testParallelSwarmIsDeterministic() {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			SwarmConfiguration configuration = new SwarmConfiguration(new LolFitnessFunction());
+			configuration.setNumParticle(200);
+			configuration.setRandomGenerator(new Random(SEED));
+			Swarm sequential = new Swarm(configuration);
+
+			configuration.setRandomGenerator(new Random(SEED));
+			configuration.setForkJoinPool(forkJoinPool);
+			Swarm parallel = new Swarm(configuration);
+
+			for (int i = 0; i < 100; i++) {
+				sequential.mainLoop();
+				parallel.mainLoop();
+			}
+
+			Assert.assertEquals(sequential, parallel);
+		} finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that a multiswarm evaluated in parallel ends up in exactly the
+	 * same state as a sequential one started with the same seed.
+	 */
+	@Test
+	public void testParallelMultiswarmIsDeterministic() {
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			MultiswarmConfiguration configuration = new MultiswarmConfiguration(new LolFitnessFunction());
+			configuration.setNumParticle(100);
+			configuration.setNumSwarms(5);
+			configuration.setRandomGenerator(new Random(SEED));
+			Multiswarm sequential = new Multiswarm(configuration);
+
+			configuration.setRandomGenerator(new Random(SEED));
+			configuration.setForkJoinPool(forkJoinPool);
+			Multiswarm parallel = new Multiswarm(configuration);
+
+			for (int i = 0; i < 100; i++) {
+				sequential.mainLoop();
+				parallel.mainLoop();
+			}
+
+			Assert.assertEquals(sequential.getBestFitness(), parallel.getBestFitness(), 0);
+			Assert.assertArrayEquals(sequential.getBestPosition(), parallel.getBestPosition(), 0);
+		} finally {
+			forkJoinPool.shutdown();
+		}
+	}
+
+	/**
+	 * Tests the swarm algorithm on a sphere function with many dimensions.
+	 * The solution is 1 on each axis for a total fitness of 0.
+	 */
+	@Test
+	public void testMultidimensionalSwarm() {
+		int dimensions = 20;
+		double[] lowerBounds = new double[dimensions];
+		double[] upperBounds = new double[dimensions];
+		Arrays.fill(lowerBounds, -5);
+		Arrays.fill(upperBounds, 5);
+
+		SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+		configuration.setNumParticle(200);
+		configuration.setDimensions(dimensions);
+		configuration.setLowerBounds(lowerBounds);
+		configuration.setUpperBounds(upperBounds);
+		configuration.setRandomGenerator(new Random(SEED));
+		Swarm swarm = new Swarm(configuration);
+
+		// Checks that the particles start within the bounds.
+		for (Particle particle : swarm.getParticles()) {
+			for (double coordinate : particle.getPosition()) {
+				Assert.assertTrue(coordinate >= -5 && coordinate < 5);
+			}
+		}
+
+		for (int i = 0; i < 500; i++) {
+			swarm.mainLoop();
+		}
+
+		Assert.assertEquals(dimensions, swarm.getBestPosition().length);
+		Assert.assertEquals(0, swarm.getBestFitness(), 0.01);
+	}
+
+	/**
+	 * Tests that a swarm keeps its own copy of the bounds and that inverted
+	 * bounds are rejected.
+	 */
+	@Test
+	public void testBounds() {
+		double[] lowerBounds = { -1, -2 };
+		double[] upperBounds = { 2, 2 };
+		SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+		configuration.setLowerBounds(lowerBounds);
+		configuration.setUpperBounds(upperBounds);
+		Swarm swarm = new Swarm(configuration);
+
+		lowerBounds[0] = -100;
+		upperBounds[1] = 100;
+		Assert.assertEquals(5, swarm.getBoundsDiagonal(), 0);
+
+		lowerBounds[0] = 3;
+		try {
+			new Swarm(configuration);
+			Assert.fail("Inverted bounds should have been rejected");
+		} catch (IllegalArgumentException e) {
+			// Expected.
+		}
+	}
+
+	/**
+	 * Tests that a batch fitness function is used one block at a time and
+	 * gives the same results as its plain version.
+	 */
+	@Test
+	public void testBatchFitnessFunction() {
+		SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+		configuration.setNumParticle(200);
+		configuration.setDimensions(10);
+		configuration.setRandomGenerator(new Random(SEED));
+		Swarm plain = new Swarm(configuration);
+
+		BatchSphereFitnessFunction batchFitnessFunction = new BatchSphereFitnessFunction(1);
+		configuration.setFitnessFunction(batchFitnessFunction);
+		configuration.setRandomGenerator(new Random(SEED));
+		Swarm batch = new Swarm(configuration);
+
+		for (int i = 0; i < 100; i++) {
+			plain.mainLoop();
+			batch.mainLoop();
+		}
+
+		Assert.assertEquals(100, batchFitnessFunction.getEvaluatedBlocks());
+		Assert.assertEquals(plain, batch);
+	}
+
+	/**
+	 * Tests that a plain fitness function gets a new array for each
+	 * evaluation unless it's wrapped by an adapter which reuses them.
+	 */
+	@Test
+	public void testFitnessFunctionArrays() {
+		final Set<double[]> arrays = Collections.newSetFromMap(new IdentityHashMap<double[], Boolean>());
+		FitnessFunction fitnessFunction = new FitnessFunction() {
+
+			@Override
+			public double getFitness(double[] variables) {
+				arrays.add(variables);
+				return 0;
+			}
+		};
+		SwarmConfiguration configuration = new SwarmConfiguration(fitnessFunction);
+		configuration.setNumParticle(10);
+		new Swarm(configuration).mainLoop();
+		Assert.assertEquals(10, arrays.size());
+
+		arrays.clear();
+		configuration.setFitnessFunction(new BatchFitnessFunctionAdapter(fitnessFunction, true));
+		new Swarm(configuration).mainLoop();
+		Assert.assertEquals(1, arrays.size());
+	}
+
+	/**
+	 * Tests the multiswarm algorithm in island mode on a sphere function. The
+	 * solution is 1 on each axis for a total fitness of 0.
+	 */
+	@Test
+	public void testIslandMultiswarm() {
+		ExecutorService islandExecutor = Executors.newFixedThreadPool(4);
+		try {
+			MultiswarmConfiguration configuration = new MultiswarmConfiguration(new SphereFitnessFunction(1));
+			configuration.setNumParticle(100);
+			configuration.setNumSwarms(8);
+			configuration.setDimensions(5);
+			configuration.setMigrationInterval(5);
+			configuration.setIslandExecutor(islandExecutor);
+			Multiswarm multiswarm = new Multiswarm(configuration);
+
+			// Each island gets its own random source even if none is
+			// configured.
+			Set<RandomSource> randomSources = Collections.newSetFromMap(new IdentityHashMap<RandomSource, Boolean>());
+			for (Swarm swarm : multiswarm.getSwarms()) {
+				randomSources.add(swarm.getRandomSource());
+			}
+			Assert.assertEquals(8, randomSources.size());
+
+			multiswarm.mainLoop(300);
+
+			Assert.assertEquals(5, multiswarm.getBestPosition().length);
+			Assert.assertEquals(0, multiswarm.getBestFitness(), 0.01);
+		} finally {
+			islandExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that the best positions returned by a swarm and by a multiswarm
+	 * in island mode don't change as the search goes on.
+	 */
+	@Test
+	public void testBestPositionIsCopied() {
+		ExecutorService islandExecutor = Executors.newFixedThreadPool(2);
+		try {
+			SwarmConfiguration swarmConfiguration = new SwarmConfiguration(new SphereFitnessFunction(1));
+			swarmConfiguration.setRandomGenerator(new Random(SEED));
+			MultiswarmConfiguration multiswarmConfiguration = new MultiswarmConfiguration(
+					new SphereFitnessFunction(1));
+			multiswarmConfiguration.setNumSwarms(4);
+			multiswarmConfiguration.setIslandExecutor(islandExecutor);
+			multiswarmConfiguration.setRandomGenerator(new Random(SEED));
+
+			for (OptimizationAlgorithm algorithm : new OptimizationAlgorithm[] { new Swarm(swarmConfiguration),
+					new Multiswarm(multiswarmConfiguration) }) {
+				algorithm.mainLoop();
+				double[] bestPosition = algorithm.getBestPosition();
+				double[] expected = bestPosition.clone();
+				double bestFitness = algorithm.getBestFitness();
+				for (int i = 0; i < 50; i++) {
+					algorithm.mainLoop();
+				}
+
+				Assert.assertTrue(algorithm.getBestFitness() > bestFitness);
+				Assert.assertArrayEquals(expected, bestPosition, 0);
+			}
+		} finally {
+			islandExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Tests that the swarms of a {@link Multiswarm} share the same fitness
+	 * cache.
+	 */
+	@Test
+	public void testSharedFitnessCache() {
+		MultiswarmConfiguration configuration = new MultiswarmConfiguration(new SphereFitnessFunction(1));
+		configuration.setNumParticle(50);
+		configuration.setNumSwarms(10);
+		configuration.setFitnessCacheGrid(new double[] { 0.001, 0.001 });
+		configuration.setRandomGenerator(new Random(SEED));
+		Multiswarm multiswarm = new Multiswarm(configuration);
+
+		for (int i = 0; i < 200; i++) {
+			multiswarm.mainLoop();
+		}
+
+		CachingFitnessFunction cache = multiswarm.getFitnessCache();
+		Assert.assertEquals(200 * 50 * 10, cache.getHitCount() + cache.getMissCount());
+		Assert.assertTrue(cache.getHitCount() > 0);
+		Assert.assertEquals(0, multiswarm.getBestFitness(), 0.01);
+	}
+
+	/**
+	 * Tests that a fitness cache grid with a different number of dimensions
+	 * than the search space is rejected by both swarms and multiswarms.
+	 */
+	@Test
+	public void testFitnessCacheGridMismatch() {
+		for (double[] grid : new double[][] { { 0.001 }, { 0.001, 0.001, 0.001 } }) {
+			MultiswarmConfiguration configuration = new MultiswarmConfiguration(new SphereFitnessFunction(1));
+			configuration.setFitnessCacheGrid(grid);
+			try {
+				new Swarm(configuration);
+				Assert.fail("A grid with " + grid.length + " dimensions should have been rejected by the swarm");
+			} catch (IllegalArgumentException e) {
+				// Expected.
+			}
+			try {
+				new Multiswarm(configuration);
+				Assert.fail("A grid with " + grid.length + " dimensions should have been rejected by the multiswarm");
+			} catch (IllegalArgumentException e) {
+				// Expected.
+			}
+		}
+	}
+
+	/**
+	 * Tests that the listener is notified at each iteration without changing
+	 * the results.
+	 */
+	@Test
+	public void testListener() {
+		final List<SwarmIterationStats> stats = new ArrayList<SwarmIterationStats>();
+		MultiswarmConfiguration configuration = new MultiswarmConfiguration(new SphereFitnessFunction(1));
+		configuration.setNumParticle(50);
+		configuration.setNumSwarms(4);
+		configuration.setRandomGenerator(new Random(SEED));
+		Multiswarm plain = new Multiswarm(configuration);
+
+		configuration.setRandomGenerator(new Random(SEED));
+		configuration.setListener(new SwarmListener() {
+
+			@Override
+			public void iterationCompleted(SwarmIterationStats iterationStats) {
+				stats.add(iterationStats);
+			}
+		});
+		Multiswarm instrumented = new Multiswarm(configuration);
+
+		for (int i = 0; i < 100; i++) {
+			plain.mainLoop();
+			instrumented.mainLoop();
+		}
+
+		Assert.assertEquals(plain, instrumented);
+		Assert.assertEquals(100, stats.size());
+		SwarmIterationStats first = stats.get(0);
+		SwarmIterationStats last = stats.get(99);
+		Assert.assertEquals(1, first.getIteration());
+		Assert.assertTrue(first.isImproved());
+		Assert.assertEquals(200, last.getEvaluations());
+		Assert.assertEquals(instrumented.getBestFitness(), last.getBestFitness(), 0);
+		Assert.assertTrue(last.getLastImprovementIteration() > 1);
+		Assert.assertTrue(last.getDiversity() < first.getDiversity());
+	}
+
+	/**
+	 * Tests that the Flight Recorder events span the whole iterations they
+	 * measure.
+	 *
+	 * @throws IOException
+	 *             if the recording can't be written or read
+	 */
+	@Test
+	public void testJfrListener() throws IOException {
+		final SphereFitnessFunction sphere = new SphereFitnessFunction(1);
+		SwarmConfiguration configuration = new SwarmConfiguration(new FitnessFunction() {
+
+			@Override
+			public double getFitness(double[] variables) {
+				long end = System.nanoTime() + 100000;
+				while (System.nanoTime() < end) {
+					// Busy waits to make the evaluation measurable.
+				}
+				return sphere.getFitness(variables);
+			}
+		});
+		configuration.setNumParticle(10);
+		configuration.setListener(new JfrSwarmListener());
+		Swarm swarm = new Swarm(configuration);
+
+		Path dump = folder.newFile().toPath();
+		try (Recording recording = new Recording()) {
+			recording.enable("co.aurasphere.algo.SwarmIteration");
+			recording.start();
+			for (int i = 0; i < 20; i++) {
+				swarm.mainLoop();
+			}
+			recording.stop();
+			recording.dump(dump);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+		Assert.assertEquals(20, events.size());
+		for (RecordedEvent event : events) {
+			Assert.assertTrue(event.getDuration().compareTo(event.getDuration("fitnessTime")) >= 0);
+			Assert.assertTrue(event.getDuration().toNanos() >= 10 * 100000);
+		}
+	}
+
+	/**
+	 * Tests that a multiswarm converges when its particles are evaluated
+	 * asynchronously with random latencies and that the number of evaluations
+	 * in flight never exceeds the configured one.
+	 */
+	@Test
+	public void testAsyncFitness() {
+		final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+		final SphereFitnessFunction sphere = new SphereFitnessFunction(1);
+		final AtomicInteger inFlight = new AtomicInteger();
+		final AtomicInteger maxInFlight = new AtomicInteger();
+		final AtomicInteger evaluations = new AtomicInteger();
+		AsyncFitnessFunction fitnessFunction = new AsyncFitnessFunction() {
+
+			@Override
+			public CompletableFuture<Double> getFitnessAsync(final double[] variables) {
+				final CompletableFuture<Double> future = new CompletableFuture<Double>();
+				int current = inFlight.incrementAndGet();
+				maxInFlight.accumulateAndGet(current, Math::max);
+				evaluations.incrementAndGet();
+				scheduler.schedule(new Runnable() {
+
+					@Override
+					public void run() {
+						inFlight.decrementAndGet();
+						future.complete(sphere.getFitness(variables));
+					}
+				}, ThreadLocalRandom.current().nextInt(200), TimeUnit.MICROSECONDS);
+				return future;
+			}
+		};
+
+		try {
+			MultiswarmConfiguration configuration = new MultiswarmConfiguration(fitnessFunction);
+			configuration.setNumParticle(20);
+			configuration.setNumSwarms(3);
+			configuration.setMaxInFlightEvaluations(8);
+			configuration.setRandomGenerator(new Random(SEED));
+			Multiswarm multiswarm = new Multiswarm(configuration);
+
+			for (int i = 0; i < 200; i++) {
+				multiswarm.mainLoop();
+			}
+
+			// Each swarm keeps its own evaluations in flight.
+			Assert.assertTrue(maxInFlight.get() <= 8 * 3);
+			Assert.assertTrue(evaluations.get() >= 200 * 20 * 3);
+			Assert.assertEquals(0, multiswarm.getBestFitness(), 0.01);
+		} finally {
+			scheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Tests that a swarm keeps moving and evaluating all of its particles after
+	 * an asynchronous evaluation failed or couldn't even be started.
+	 */
+	@Test(timeout = 10000)
+	public void testAsyncFitnessFailures() {
+		final SphereFitnessFunction sphere = new SphereFitnessFunction(1);
+		final AtomicInteger calls = new AtomicInteger(-1);
+		AsyncFitnessFunction fitnessFunction = new AsyncFitnessFunction() {
+
+			@Override
+			public CompletableFuture<Double> getFitnessAsync(double[] variables) {
+				// Calls are only counted once the swarm has been initialized.
+				int call = calls.get() < 0 ? -1 : calls.incrementAndGet();
+				if (call == 5) {
+					CompletableFuture<Double> future = new CompletableFuture<Double>();
+					future.completeExceptionally(new IllegalStateException("Failed evaluation"));
+					return future;
+				}
+				if (call == 20) {
+					throw new IllegalStateException("Rejected evaluation");
+				}
+				return CompletableFuture.completedFuture(sphere.getFitness(variables));
+			}
+		};
+
+		SwarmConfiguration configuration = new SwarmConfiguration(fitnessFunction);
+		configuration.setNumParticle(10);
+		configuration.setMaxInFlightEvaluations(4);
+		configuration.setRandomGenerator(new Random(SEED));
+		Swarm swarm = new Swarm(configuration);
+		calls.set(0);
+
+		for (String message : new String[] { "Failed evaluation", "Rejected evaluation" }) {
+			try {
+				for (int i = 0; i < 10; i++) {
+					swarm.mainLoop();
+				}
+				Assert.fail();
+			} catch (IllegalStateException e) {
+				Assert.assertEquals(message, e.getMessage());
+			}
+		}
+
+		// Every particle, including the ones whose evaluation failed, moves.
+		double[] positions = swarm.getParticleStore().positions.clone();
+		for (int i = 0; i < 10; i++) {
+			swarm.mainLoop();
+		}
+		ParticleStore store = swarm.getParticleStore();
+		for (int i = 0; i < store.size; i++) {
+			Assert.assertFalse(Arrays.equals(Arrays.copyOfRange(positions, store.offset(i), store.offset(i + 1)),
+					Arrays.copyOfRange(store.positions, store.offset(i), store.offset(i + 1))));
+		}
+		Assert.assertTrue(calls.get() >= 20 + 10 * 10);
+	}
+
+	/**
+	 * Tests that a swarm screened by a surrogate saves evaluations, only
+	 * reports the real ones and still converges.
+	 */
+	@Test
+	public void testSurrogateScreening() {
+		final AtomicInteger evaluations = new AtomicInteger();
+		final AtomicLong reportedEvaluations = new AtomicLong();
+		final SphereFitnessFunction sphere = new SphereFitnessFunction(1);
+		SwarmConfiguration configuration = new SwarmConfiguration(new FitnessFunction() {
+
+			@Override
+			public double getFitness(double[] variables) {
+				evaluations.incrementAndGet();
+				return sphere.getFitness(variables);
+			}
+		});
+		configuration.setNumParticle(30);
+		configuration.setDimensions(3);
+		configuration.setSurrogateNeighbours(4);
+		configuration.setRandomGenerator(new Random(SEED));
+		configuration.setListener(new SwarmListener() {
+
+			@Override
+			public void iterationCompleted(SwarmIterationStats stats) {
+				reportedEvaluations.addAndGet(stats.getEvaluations());
+			}
+		});
+		Swarm swarm = new Swarm(configuration);
+
+		for (int i = 0; i < 300; i++) {
+			swarm.mainLoop();
+		}
+
+		FitnessSurrogate surrogate = swarm.getSurrogate();
+		Assert.assertEquals(evaluations.get(), surrogate.getRealEvaluations());
+		Assert.assertEquals(evaluations.get(), reportedEvaluations.get());
+		Assert.assertEquals(300 * 30, surrogate.getRealEvaluations() + surrogate.getSavedEvaluations());
+		Assert.assertTrue(surrogate.getSavedEvaluations() > 0);
+		Assert.assertEquals(0, swarm.getBestFitness(), 0.01);
+
+		// Negative margins would turn predictions into particle bests.
+		for (double margin : new double[] { -0.1, Double.NaN }) {
+			configuration.setSurrogateMargin(margin);
+			try {
+				new Swarm(configuration);
+				Assert.fail();
+			} catch (IllegalArgumentException e) {
+				// Expected.
+			}
+		}
+	}
+
+	/**
+	 * Tests that an adaptive multiswarm converges like a fixed one while
+	 * spending fewer evaluations.
+	 */
+	@Test
+	public void testAdaptivePopulation() {
+		final AtomicInteger evaluations = new AtomicInteger();
+		final SphereFitnessFunction sphere = new SphereFitnessFunction(1);
+		MultiswarmConfiguration configuration = new MultiswarmConfiguration(new FitnessFunction() {
+
+			@Override
+			public double getFitness(double[] variables) {
+				evaluations.incrementAndGet();
+				return sphere.getFitness(variables);
+			}
+		});
+		configuration.setNumParticle(50);
+		configuration.setNumSwarms(10);
+		configuration.setDimensions(3);
+		configuration.setRandomGenerator(new Random(SEED));
+		Multiswarm fixed = new Multiswarm(configuration);
+		for (int i = 0; i < 300; i++) {
+			fixed.mainLoop();
+		}
+		int fixedEvaluations = evaluations.getAndSet(0);
+
+		configuration.setAdaptivePopulation(true);
+		configuration.setRandomGenerator(new Random(SEED));
+		Multiswarm adaptive = new Multiswarm(configuration);
+		int minActiveParticles = Integer.MAX_VALUE;
+		for (int i = 0; i < 300; i++) {
+			adaptive.mainLoop();
+			minActiveParticles = Math.min(minActiveParticles, adaptive.getSwarms()[0].getActiveParticles());
+		}
+
+		Assert.assertEquals(300 * 50 * 10, fixedEvaluations);
+		Assert.assertTrue(evaluations.get() < fixedEvaluations / 2);
+		Assert.assertTrue(minActiveParticles < 50);
+		Assert.assertEquals(0, fixed.getBestFitness(), 0.001);
+		Assert.assertEquals(0, adaptive.getBestFitness(), 0.001);
+	}
+
+	/**
+	 * Tests that a swarm whose particles are stored off-heap, in direct
+	 * memory or in a file, finds exactly the same solution as one whose
+	 * particles are on the heap.
+	 *
+	 * @throws IOException
+	 *             if the folder for the file can't be created
+	 */
+	@Test
+	public void testOffHeapStorage() throws IOException {
+		SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+		configuration.setNumParticle(50);
+		configuration.setDimensions(3);
+		configuration.setRandomGenerator(new Random(SEED));
+		Swarm heap = new Swarm(configuration);
+
+		configuration.setOffHeapChunkSize(7);
+		configuration.setRandomGenerator(new Random(SEED));
+		Swarm direct = new Swarm(configuration);
+
+		configuration.setOffHeapChunkSize(16);
+		configuration.setOffHeapDirectory(folder.newFolder().toPath());
+		configuration.setRandomGenerator(new Random(SEED));
+		Swarm mapped = new Swarm(configuration);
+
+		for (int i = 0; i < 100; i++) {
+			heap.mainLoop();
+			direct.mainLoop();
+			mapped.mainLoop();
+		}
+		Assert.assertEquals(0, heap.getBestFitness(), 0.001);
+		Assert.assertEquals(heap.getBestFitness(), direct.getBestFitness(), 0);
+		Assert.assertArrayEquals(heap.getBestPosition(), direct.getBestPosition(), 0);
+		Assert.assertEquals(heap.getBestFitness(), mapped.getBestFitness(), 0);
+		Assert.assertArrayEquals(heap.getBestPosition(), mapped.getBestPosition(), 0);
+
+		// The distances are summed a chunk at a time, so they may round
+		// differently.
+		Assert.assertEquals(heap.sumDistances(heap.getBestPosition()),
+				direct.sumDistances(direct.getBestPosition()), 1e-12);
+	}
+
+	/**
+	 * Tests that the particles which crowd around the best position are
+	 * restarted while the swarm still converges, with and without an
+	 * adaptive population.
+	 */
+	@Test
+	public void testDiversityRestarts() {
+		for (boolean adaptivePopulation : new boolean[] { false, true }) {
+			SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+			configuration.setNumParticle(30);
+			configuration.setDimensions(2);
+			configuration.setDiversityCellSize(0.001);
+			configuration.setAdaptivePopulation(adaptivePopulation);
+			configuration.setRandomGenerator(new Random(SEED));
+			Swarm swarm = new Swarm(configuration);
+			for (int i = 0; i < 300; i++) {
+				swarm.mainLoop();
+			}
+
+			Assert.assertTrue(swarm.getRestartedParticles() > 0);
+			Assert.assertEquals(0, swarm.getBestFitness(), 0.001);
+			SpatialHashGrid grid = swarm.getDiversityGrid();
+			Assert.assertTrue(grid.getOccupiedCells() >= swarm.getActiveParticles() / 2);
+			for (int i = 0; i < 30; i++) {
+				Assert.assertEquals(i < swarm.getActiveParticles(), grid.countAt(i) > 0);
+			}
+		}
+	}
+
+}
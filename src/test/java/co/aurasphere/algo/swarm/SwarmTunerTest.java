@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2018 Donato Rimenti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package co.aurasphere.algo.swarm;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for {@link SwarmTuner}.
+ *
+ * @author Donato Rimenti
+ *
+ */
+public class SwarmTunerTest {
+
+	/**
+	 * The fitness the candidates have to reach.
+	 */
+	private static final double TARGET_FITNESS = -1e-6;
+
+	/**
+	 * Tests that the race picks a candidate which reaches the target no
+	 * later than the default weights and that running the candidates
+	 * concurrently doesn't change the outcome.
+	 */
+	@Test
+	public void testRace() {
+		TuningResult sequential = race(null);
+		Assert.assertTrue(sequential.isTargetReached());
+		Assert.assertTrue(sequential.getEvaluationsToTarget() <= evaluationsToTarget(newConfiguration()));
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			TuningResult concurrent = race(executor);
+			Assert.assertEquals(sequential.getConfiguration().getInertiaFactor(),
+					concurrent.getConfiguration().getInertiaFactor(), 0);
+			Assert.assertEquals(sequential.getEvaluationsToTarget(), concurrent.getEvaluationsToTarget());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Races the default weights, some diverging ones and some random ones.
+	 * 
+	 * @param executor
+	 *            the executor which runs the candidates, may be null
+	 * @return the result of the race
+	 */
+	private static TuningResult race(ExecutorService executor) {
+		SwarmTuner tuner = new SwarmTuner(TARGET_FITNESS, 1000, 2, executor);
+		SwarmConfiguration base = newConfiguration();
+		tuner.addCandidate(base);
+		SwarmConfiguration diverging = newConfiguration();
+		diverging.setInertiaFactor(1.2);
+		tuner.addCandidate(diverging);
+		tuner.addRandomCandidates(base, 14, new Random(42));
+		return tuner.tune();
+	}
+
+	/**
+	 * Runs a configuration until it reaches the target.
+	 * 
+	 * @param configuration
+	 *            the configuration to run
+	 * @return the evaluations needed to reach the target
+	 */
+	private static long evaluationsToTarget(SwarmConfiguration configuration) {
+		Swarm swarm = new Swarm(configuration);
+		long evaluations = 0;
+		while (swarm.getBestFitness() < TARGET_FITNESS) {
+			swarm.mainLoop();
+			evaluations += configuration.getNumParticle();
+		}
+		return evaluations;
+	}
+
+	/**
+	 * Returns a seeded configuration for a 5 dimensional sphere.
+	 * 
+	 * @return a new configuration
+	 */
+	private static SwarmConfiguration newConfiguration() {
+		SwarmConfiguration configuration = new SwarmConfiguration(new SphereFitnessFunction(1));
+		configuration.setNumParticle(20);
+		configuration.setDimensions(5);
+		configuration.setLowerBounds(new double[] { -5, -5, -5, -5, -5 });
+		configuration.setUpperBounds(new double[] { 5, 5, 5, 5, 5 });
+		configuration.setRandomGenerator(new Random(42));
+		return configuration;
+	}
+
+}